@@ -0,0 +1,59 @@
+package com.example.demo.auth;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.demo.service.AuthenticationService;
+
+/**
+ * 由 Session 中的使用者名稱解析目前登入的使用者，放到 request 屬性 {@link #PRINCIPAL_ATTRIBUTE}
+ * 使用者從快取取得，不會每個請求都查詢資料庫；帳號已停用或刪除時清除 Session 的登入狀態。
+ * 解析出的使用者 ID 必須與登入時記下的 ID 相同：帳號改名後，之後用舊名稱建立的帳號不會接手原本的 Session。
+ * 這裡只負責解析，不擋任何請求
+ */
+public class AuthenticationInterceptor implements HandlerInterceptor {
+
+    /**
+     * Session 中保存登入使用者名稱的屬性
+     */
+    public static final String SESSION_ATTRIBUTE = "auth.username";
+
+    /**
+     * Session 中保存登入使用者 ID 的屬性
+     */
+    public static final String USER_ID_ATTRIBUTE = "auth.userId";
+
+    /**
+     * request 中保存 {@link UserPrincipal} 的屬性
+     */
+    public static final String PRINCIPAL_ATTRIBUTE = "principal";
+
+    private final AuthenticationService authenticationService;
+
+    public AuthenticationInterceptor(AuthenticationService authenticationService) {
+        this.authenticationService = authenticationService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return true;
+        }
+        Object username = session.getAttribute(SESSION_ATTRIBUTE);
+        if (!(username instanceof String)) {
+            return true;
+        }
+        UserPrincipal principal = authenticationService.getPrincipal((String) username);
+        if (principal == null || !principal.isEnabled() || !principal.getId().equals(session.getAttribute(USER_ID_ATTRIBUTE))) {
+            session.removeAttribute(SESSION_ATTRIBUTE);
+            session.removeAttribute(USER_ID_ATTRIBUTE);
+            return true;
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        return true;
+    }
+}
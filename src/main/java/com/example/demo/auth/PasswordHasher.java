@@ -0,0 +1,233 @@
+package com.example.demo.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import com.example.demo.metrics.LatencyHistogram;
+
+/**
+ * 密碼雜湊（PBKDF2-HMAC-SHA256，JDK 內建）
+ * 儲存格式為 pbkdf2-sha256$迭代次數$salt$hash（Base64），迭代次數由 auth.password.iterations 調整，
+ * 舊雜湊仍以自己記錄的次數驗證，{@link #needsRehash} 讓登入成功時升級到目前的次數。
+ * 雜湊是刻意耗 CPU 的運算：同時進行的雜湊數限制在 auth.password.maxConcurrent，
+ * 登入尖峰時多出來的請求排隊等待，超過 auth.password.acquireTimeoutMs 直接拒絕，
+ * 避免雜湊佔滿所有 CPU 拖慢其他請求；每次雜湊的耗時記錄在 {@link #getLatency()}
+ */
+public class PasswordHasher {
+
+    public static final String PREFIX = "pbkdf2-sha256$";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final int SALT_BYTES = 16;
+
+    private static final int HASH_BITS = 256;
+
+    private static final long[] LATENCY_BOUNDS_MICROS = {
+            1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000, 500_000, 1_000_000 };
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final int iterations;
+
+    private final Semaphore permits;
+
+    private final long acquireTimeoutMillis;
+
+    private final LatencyHistogram latency = new LatencyHistogram(LATENCY_BOUNDS_MICROS);
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param iterations 新雜湊的迭代次數
+     * @param maxConcurrent 同時進行的雜湊數上限
+     * @param acquireTimeoutMillis 等待雜湊名額的上限（毫秒）
+     */
+    public PasswordHasher(int iterations, int maxConcurrent, long acquireTimeoutMillis) {
+        if (iterations < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("iterations and maxConcurrent must be positive");
+        }
+        this.iterations = iterations;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * 以目前的迭代次數和新的 salt 雜湊密碼
+     *
+     * @param password 明文密碼
+     * @return 編碼後的雜湊
+     * @throws IllegalStateException 等待雜湊名額逾時
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * 驗證密碼；格式不符的雜湊一律視為不相符
+     *
+     * @param password 明文密碼
+     * @param encoded 儲存的雜湊
+     * @return 是否相符
+     * @throws IllegalStateException 等待雜湊名額逾時
+     */
+    public boolean matches(String password, String encoded) {
+        Parsed parsed = parse(encoded);
+        if (parsed == null || password == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(parsed.hash, derive(password, parsed.salt, parsed.iterations));
+    }
+
+    /**
+     * 驗證尚未轉換的舊明文密碼：照常花一次雜湊的時間，再比較兩者的 SHA-256 摘要，
+     * 比較時間與內容、長度都無關；相符後呼叫端應立即以 {@link #hash} 取代儲存的明文
+     *
+     * @param password 輸入的密碼
+     * @param stored 儲存的明文
+     * @return 是否相符
+     * @throws IllegalStateException 等待雜湊名額逾時
+     */
+    public boolean matchesPlain(String password, String stored) {
+        matchesNothing(password);
+        if (password == null || stored == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sha256(password), sha256(stored));
+    }
+
+    /**
+     * 驗證一個不存在的帳號：照常花一次雜湊的時間，讓回應時間不會洩漏帳號是否存在
+     *
+     * @param password 明文密碼
+     */
+    public void matchesNothing(String password) {
+        derive(password != null ? password : "", new byte[SALT_BYTES], iterations);
+    }
+
+    /**
+     * 雜湊是否需要以目前的迭代次數重新產生
+     *
+     * @param encoded 儲存的雜湊
+     * @return true: 格式不符或迭代次數與目前設定不同
+     */
+    public boolean needsRehash(String encoded) {
+        Parsed parsed = parse(encoded);
+        return parsed == null || parsed.iterations != iterations;
+    }
+
+    /**
+     * 是否已經是本類別產生的雜湊（而不是明文）
+     *
+     * @param value 儲存的值
+     * @return true: 已是雜湊
+     */
+    public boolean isEncoded(String value) {
+        return parse(value) != null;
+    }
+
+    private byte[] derive(String password, byte[] salt, int rounds) {
+        acquire();
+        long start = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+            latency.record(System.nanoTime() - start);
+            permits.release();
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new IllegalStateException("Password hashing is saturated");
+    }
+
+    private static Parsed parse(String encoded) {
+        if (encoded == null || !encoded.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] parts = encoded.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            int rounds = Integer.parseInt(parts[0]);
+            byte[] salt = decoder.decode(parts[1].getBytes(StandardCharsets.US_ASCII));
+            byte[] hash = decoder.decode(parts[2].getBytes(StandardCharsets.US_ASCII));
+            if (rounds < 1 || salt.length == 0 || hash.length == 0) {
+                return null;
+            }
+            return new Parsed(rounds, salt, hash);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * 取得每次雜湊的耗時（不含等待名額的時間）
+     *
+     * @return 耗時直方圖
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * 取得因等待名額逾時而拒絕的次數
+     *
+     * @return 拒絕次數
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private static final class Parsed {
+
+        final int iterations;
+        final byte[] salt;
+        final byte[] hash;
+
+        Parsed(int iterations, byte[] salt, byte[] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.auth;
+
+import com.example.demo.model.User;
+import com.example.demo.model.UserRole;
+
+/**
+ * 已驗證使用者的不可變快照，存放在 principal 快取中
+ * 不持有 User 實體，快取中的值不會綁在任何 Session 上；帳號停用、角色或名稱變更時由 UserServiceImpl 讓快取失效
+ */
+public final class UserPrincipal {
+
+    private final Long id;
+
+    private final String username;
+
+    private final String passwordHash;
+
+    private final UserRole role;
+
+    private final boolean enabled;
+
+    public UserPrincipal(Long id, String username, String passwordHash, UserRole role, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.passwordHash = passwordHash;
+        this.role = role;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 由使用者實體建立快照
+     *
+     * @param user 使用者
+     * @return 快照
+     */
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                !Boolean.FALSE.equals(user.getEnabled()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 取得密碼雜湊，只給 AuthenticationService 驗證使用
+     *
+     * @return 密碼雜湊
+     */
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{id=" + id + ", username='" + username + "', role=" + role + ", enabled=" + enabled + "}";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.cache;
+
+import java.util.function.Function;
+
+/**
+ * 服務層商品目錄快取
+ * 以讀穿（read-through）方式使用：未命中時由呼叫端提供的 loader 載入，
+ * loader 回傳 null 代表資料不存在，實作應做負向快取以免重複查詢資料庫。
+ * 目前有行程內實作 {@link LocalCatalogCache}，日後可改接遠端快取（如 Redis）
+ *
+ * @param <K> 鍵
+ * @param <V> 值
+ */
+public interface CatalogCache<K, V> {
+
+    /**
+     * 取得快取值，未命中時以 loader 載入；同一個鍵同時只會有一個 loader 在執行
+     *
+     * @param key 鍵
+     * @param loader 載入函式，回傳 null 代表不存在
+     * @return 快取值，不存在時為 null
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * 移除單一鍵
+     *
+     * @param key 鍵
+     */
+    void invalidate(K key);
+
+    /**
+     * 清空整個快取
+     */
+    void invalidateAll();
+
+    /**
+     * 取得統計快照
+     *
+     * @return 統計
+     */
+    CatalogCacheStats stats();
+}
@@ -0,0 +1,69 @@
+package com.example.demo.cache;
+
+/**
+ * 服務層快取統計快照
+ */
+public class CatalogCacheStats {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long negativeHits;
+    private final long loads;
+    private final long refreshes;
+    private final long loadFailures;
+    private final long size;
+
+    public CatalogCacheStats(String name, long hits, long misses, long negativeHits, long loads,
+            long refreshes, long loadFailures, long size) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.negativeHits = negativeHits;
+        this.loads = loads;
+        this.refreshes = refreshes;
+        this.loadFailures = loadFailures;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** 命中次數（含負向快取命中） */
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /** 命中「不存在」標記的次數 */
+    public long getNegativeHits() {
+        return negativeHits;
+    }
+
+    /** 同步載入次數（未命中時實際查詢資料來源的次數） */
+    public long getLoads() {
+        return loads;
+    }
+
+    /** 背景刷新次數 */
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * 行程內的商品目錄快取（以 Caffeine 為儲存層）
+ * <ul>
+ * <li>single-flight：同一個鍵同時只有一個執行緒執行 loader，其他請求等待同一份結果</li>
+ * <li>軟性 TTL：超過 softTtl 的值仍直接回傳，同時在背景刷新一次；超過 hardTtl 才會同步重新載入</li>
+ * <li>負向快取：loader 回傳 null 時記錄「不存在」，保留 negativeTtl，避免不存在的 ID 一直打到資料庫</li>
+ * </ul>
+ * 背景刷新在快取被 invalidate 之後完成時不會寫回，避免舊資料蓋掉失效結果
+ */
+public class LocalCatalogCache<K, V> implements CatalogCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalCatalogCache.class);
+
+    private final String name;
+    private final long softTtlNanos;
+    private final Executor refreshExecutor;
+    private final Ticker ticker;
+    private final Cache<K, Entry<V>> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    public LocalCatalogCache(String name, long maximumSize, Duration softTtl, Duration hardTtl,
+            Duration negativeTtl, Executor refreshExecutor) {
+        this(name, maximumSize, softTtl, hardTtl, negativeTtl, refreshExecutor, Ticker.systemTicker());
+    }
+
+    public LocalCatalogCache(String name, long maximumSize, Duration softTtl, Duration hardTtl,
+            Duration negativeTtl, Executor refreshExecutor, Ticker ticker) {
+        if (softTtl.compareTo(hardTtl) > 0) {
+            throw new IllegalArgumentException("softTtl must not exceed hardTtl: " + softTtl + " > " + hardTtl);
+        }
+        this.name = name;
+        this.softTtlNanos = softTtl.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EntryExpiry<K, V>(hardTtl.toNanos(), negativeTtl.toNanos()))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        boolean[] loaded = new boolean[1];
+        Entry<V> entry;
+        try {
+            entry = cache.get(key, k -> {
+                loaded[0] = true;
+                return new Entry<>(loader.apply(k), ticker.read());
+            });
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        }
+        if (loaded[0]) {
+            misses.increment();
+            loads.increment();
+            return entry.value;
+        }
+        hits.increment();
+        if (entry.value == null) {
+            negativeHits.increment();
+        } else if (ticker.read() - entry.loadedAt >= softTtlNanos) {
+            refreshAsync(key, entry, loader);
+        }
+        return entry.value;
+    }
+
+    private void refreshAsync(K key, Entry<V> stale, Function<? super K, ? extends V> loader) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry<V> fresh = new Entry<>(loader.apply(key), ticker.read());
+                    // 只取代觸發刷新的那一筆；期間若已被 invalidate 或重新載入則放棄
+                    if (cache.asMap().replace(key, stale, fresh)) {
+                        refreshes.increment();
+                    }
+                } catch (RuntimeException e) {
+                    loadFailures.increment();
+                    stale.refreshing.set(false);
+                    logger.warn("Background refresh failed: cache={}, key={}", name, key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 刷新佇列已滿：沿用舊值，下次讀取再試
+            stale.refreshing.set(false);
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public CatalogCacheStats stats() {
+        return new CatalogCacheStats(name, hits.sum(), misses.sum(), negativeHits.sum(), loads.sum(),
+                refreshes.sum(), loadFailures.sum(), cache.estimatedSize());
+    }
+
+    /**
+     * 快取項目；value 為 null 代表負向快取
+     */
+    private static final class Entry<V> {
+
+        final V value;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * 一般值保留 hardTtl，負向快取保留 negativeTtl；讀取不延長存活時間
+     */
+    private static final class EntryExpiry<K, V> implements Expiry<K, Entry<V>> {
+
+        private final long hardTtlNanos;
+        private final long negativeTtlNanos;
+
+        EntryExpiry(long hardTtlNanos, long negativeTtlNanos) {
+            this.hardTtlNanos = hardTtlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+            return entry.value == null ? negativeTtlNanos : hardTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 二級快取區域統計
+ * 命中、未命中、寫入次數取自 Hibernate Statistics；
+ * 淘汰次數取自 JCache 的 CacheStatisticsMXBean（application.conf 開啟 monitoring.statistics）
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    /**
+     * 取得所有二級快取區域（含查詢快取）的統計快照
+     *
+     * @return 各區域統計
+     */
+    public List<RegionStats> snapshot() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<RegionStats> result = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            result.add(new RegionStats(region,
+                    regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount(),
+                    jcacheEvictions(region)));
+        }
+        return result;
+    }
+
+    private long jcacheEvictions(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+            }
+            return evictions;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 單一快取區域的統計
+     */
+    public static class RegionStats {
+
+        private final String region;
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long evictions;
+
+        public RegionStats(String region, long hits, long misses, long puts, long evictions) {
+            this.region = region;
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.evictions = evictions;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        /**
+         * 取得淘汰次數
+         *
+         * @return 淘汰次數，無法取得時為 -1
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * 取得命中率
+         *
+         * @return 命中率（0 ~ 1），沒有存取紀錄時為 0
+         */
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
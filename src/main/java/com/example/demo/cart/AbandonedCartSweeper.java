@@ -0,0 +1,233 @@
+package com.example.demo.cart;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.CartDAO;
+import com.example.demo.dao.JobCheckpointDAO;
+import com.example.demo.datasource.PoolMetrics;
+import com.example.demo.datasource.PoolMetricsTrackerFactory;
+import com.example.demo.dto.ExpiredCart;
+import com.example.demo.service.CartService;
+
+/**
+ * 清除閒置過久的購物車
+ * 依 (updated_at, id) 以 keyset 分批掃描超過 cart.sweep.expireAfterDays 沒有更新的購物車，
+ * 每批在一個交易內整批刪除購物車與明細，並把掃描位置寫入 job_checkpoints，重啟後從上次的位置繼續。
+ * <p>
+ * 為了不和結帳搶資料庫：每批結束後依該批實際花費的時間休息，讓清除只佔 cart.sweep.dutyPercent 的時間；
+ * 單批超過 cart.sweep.maxLatencyMs 時批次減半，恢復後再逐步加大；連線池有執行緒在等連線時立即停止本輪。
+ * 已載入記憶體的購物車代表近期仍在使用，不會刪除；刪除期間這些客戶的購物車暫停載入（見 {@link CartService#deleteAbandoned}）
+ */
+@Component
+public class AbandonedCartSweeper implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+	private static final String JOB_NAME = "abandoned-cart-sweeper";
+
+	private static final int MIN_CHUNK_SIZE = 10;
+
+	@Autowired
+	private CartDAO cartRepository;
+
+	@Autowired
+	private JobCheckpointDAO checkpointRepository;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired(required = false)
+	private PoolMetricsTrackerFactory poolMetricsTrackerFactory;
+
+	@Value("${cart.sweep.expireAfterDays:30}")
+	private int expireAfterDays;
+
+	@Value("${cart.sweep.intervalMs:60000}")
+	private long intervalMs;
+
+	@Value("${cart.sweep.chunkSize:200}")
+	private int chunkSize;
+
+	@Value("${cart.sweep.maxChunksPerRun:500}")
+	private int maxChunksPerRun;
+
+	@Value("${cart.sweep.dutyPercent:10}")
+	private int dutyPercent;
+
+	@Value("${cart.sweep.maxLatencyMs:200}")
+	private long maxLatencyMs;
+
+	@Value("${cart.sweep.maxPauseMs:5000}")
+	private long maxPauseMs;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	private TransactionTemplate writeTransaction;
+
+	private ScheduledExecutorService scheduler;
+
+	private volatile boolean stopping;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "abandoned-cart-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::scheduledSweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		stopping = true;
+		if (scheduler != null) {
+			// 中斷批次之間的休息；進行中的交易會正常完成
+			scheduler.shutdownNow();
+			try {
+				scheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * 從上次的位置繼續清除，直到掃描完畢、達到 cart.sweep.maxChunksPerRun 批，或連線池忙碌
+	 *
+	 * @return 刪除的購物車數
+	 */
+	public synchronized int sweep() {
+		LocalDateTime updatedBefore = LocalDateTime.now().minusDays(expireAfterDays);
+		ExpiredCart after = decode(readOnlyTransaction.execute(status -> checkpointRepository.findPosition(JOB_NAME)));
+		int limit = chunkSize;
+		int deleted = 0;
+		for (int chunk = 0; chunk < maxChunksPerRun && !stopping; chunk++) {
+			if (isPoolBusy()) {
+				logger.debug("Connection pool busy, abandoned cart sweep paused at {}", after);
+				break;
+			}
+			ExpiredCart from = after;
+			int size = limit;
+			long start = System.nanoTime();
+			Chunk result = writeTransaction.execute(status -> sweepChunk(updatedBefore, from, size));
+			long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+			deleted += result.deleted;
+			if (result.last == null) {
+				break;
+			}
+			after = result.last;
+
+			if (elapsedMs > maxLatencyMs) {
+				limit = Math.max(MIN_CHUNK_SIZE, limit / 2);
+			} else if (limit < chunkSize) {
+				limit = Math.min(chunkSize, limit + Math.max(1, limit / 4));
+			}
+			// 休息時間與這批花費的時間成正比，資料庫變慢時清除也跟著變慢
+			int duty = Math.min(100, Math.max(1, dutyPercent));
+			if (!pause(Math.min(maxPauseMs, elapsedMs * (100 - duty) / duty))) {
+				break;
+			}
+		}
+		if (deleted > 0) {
+			logger.info("Deleted {} abandoned carts not updated since {}", deleted, updatedBefore);
+		}
+		return deleted;
+	}
+
+	/**
+	 * 掃描並刪除一批；與掃描位置在同一個交易中寫入。
+	 * 刪除期間只把客戶標記為刪除中，不持有 stripe 鎖
+	 */
+	private Chunk sweepChunk(LocalDateTime updatedBefore, ExpiredCart after, int limit) {
+		List<ExpiredCart> carts = cartRepository.findExpired(updatedBefore, after, limit);
+		int deleted = cartService.deleteAbandoned(carts, updatedBefore);
+		// 掃描到底後下一輪從頭開始，補上這一輪因為在記憶體中而略過的購物車
+		ExpiredCart last = carts.size() < limit ? null : carts.get(carts.size() - 1);
+		checkpointRepository.savePosition(JOB_NAME, encode(last));
+		return new Chunk(deleted, last);
+	}
+
+	private boolean isPoolBusy() {
+		if (poolMetricsTrackerFactory == null) {
+			return false;
+		}
+		for (PoolMetrics pool : poolMetricsTrackerFactory.getPools()) {
+			if (pool.getPendingThreads() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean pause(long millis) {
+		if (millis <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static String encode(ExpiredCart cart) {
+		return cart == null ? null : cart.getUpdatedAt() + "|" + cart.getCartId();
+	}
+
+	private static ExpiredCart decode(String position) {
+		if (position == null) {
+			return null;
+		}
+		try {
+			int separator = position.indexOf('|');
+			return new ExpiredCart(Long.valueOf(position.substring(separator + 1)), null,
+					LocalDateTime.parse(position.substring(0, separator)));
+		} catch (RuntimeException e) {
+			logger.warn("Ignoring malformed abandoned cart sweep position: {}", position);
+			return null;
+		}
+	}
+
+	private void scheduledSweep() {
+		try {
+			sweep();
+		} catch (RuntimeException e) {
+			logger.error("Abandoned cart sweep failed, will retry", e);
+		}
+	}
+
+	private static final class Chunk {
+
+		final int deleted;
+		final ExpiredCart last;
+
+		Chunk(int deleted, ExpiredCart last) {
+			this.deleted = deleted;
+			this.last = last;
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package com.example.demo.cart;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 購物車異動日誌（append-only）
+ * <p>
+ * 每次異動在套用到記憶體前先寫入目前 segment 的某個 lane（cart-journal-&lt;序號&gt;-&lt;lane&gt;.log），一行一筆：
+ * <ul>
+ * <li>{@code S <customerId> <productId> <quantity> <unitPrice>}：某商品的最新數量（0 代表移除）</li>
+ * <li>{@code C <customerId>}：清空購物車</li>
+ * </ul>
+ * 記錄的是異動後的絕對值，重播多次結果相同。寫回資料庫前先 {@link #rotate()} 封存目前的 segment，
+ * 寫回成功後再 {@link #deleteUpTo(long)} 刪除；行程當掉時未刪除的 segment 會在下次啟動時重播。
+ * syncOnWrite 為 false 時資料寫入 OS page cache（行程當掉不會遺失），封存時才 fsync。
+ * <p>
+ * 每個 lane 有自己的檔案與鎖，{@link CartStore} 的每個 stripe 固定寫入同一個 lane：不同 stripe 的寫入不會互相等待，
+ * 同一位客戶的記錄也都在同一個 lane 中依序排列。lane 的檔案在該 segment 第一次寫入時才建立。
+ * 舊版單一檔案的 segment（cart-journal-&lt;序號&gt;.log）重播時視為 lane 0。
+ * <p>
+ * 開啟時對目錄中的 .lock 檔取得獨佔鎖，直到 {@link #close()} 才釋放：同一個目錄只能有一個實例寫入，
+ * 否則兩個實例會寫入同一個 segment、互相刪除對方尚未寫回的 segment
+ */
+public class CartJournal implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(CartJournal.class);
+
+	private static final String PREFIX = "cart-journal-";
+	private static final String SUFFIX = ".log";
+	private static final String LOCK_FILE = ".lock";
+
+	private final Path directory;
+	private final boolean syncOnWrite;
+	private final FileChannel lockChannel;
+	private final FileLock lock;
+	private final Lane[] lanes;
+	private volatile long segment;
+
+	public CartJournal(Path directory, boolean syncOnWrite) throws IOException {
+		this(directory, syncOnWrite, 1);
+	}
+
+	/**
+	 * @param directory 日誌目錄
+	 * @param syncOnWrite 每筆記錄都 fsync
+	 * @param lanes lane 數量（通常等於 stripe 數量）
+	 * @throws IOException 無法建立目錄或開啟檔案
+	 * @throws IllegalStateException 目錄已被其他實例（同一個或其他行程）使用
+	 */
+	public CartJournal(Path directory, boolean syncOnWrite, int lanes) throws IOException {
+		if (lanes < 1) {
+			throw new IllegalArgumentException("lanes must be positive");
+		}
+		this.directory = directory;
+		this.syncOnWrite = syncOnWrite;
+		Files.createDirectories(directory);
+		this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		this.lock = tryLock(lockChannel);
+		if (lock == null) {
+			lockChannel.close();
+			throw new IllegalStateException("Cart journal directory " + directory + " is locked by another instance");
+		}
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane(i);
+		}
+		TreeMap<Long, List<Path>> existing = segments();
+		this.segment = (existing.isEmpty() ? 0 : existing.lastKey()) + 1;
+	}
+
+	/**
+	 * @return lane 數量
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * 記錄某商品的最新數量
+	 * 
+	 * @param lane 寫入的 lane（0 ~ lane 數量 - 1）
+	 */
+	public void appendSet(int lane, long customerId, long productId, int quantity, BigDecimal unitPrice) {
+		lanes[lane].write("S " + customerId + ' ' + productId + ' ' + quantity + ' ' + unitPrice.toPlainString() + '\n');
+	}
+
+	/**
+	 * 記錄清空購物車
+	 * 
+	 * @param lane 寫入的 lane（0 ~ lane 數量 - 1）
+	 */
+	public void appendClear(int lane, long customerId) {
+		lanes[lane].write("C " + customerId + '\n');
+	}
+
+	/**
+	 * 封存目前的 segment，之後的寫入進入新的 segment
+	 * 先推進序號再逐一關閉各 lane：關閉前寫入的記錄在舊 segment，之後的寫入一律開啟新 segment 的檔案
+	 * 
+	 * @return 已封存的最大序號，寫回資料庫成功後可刪除到此序號為止
+	 */
+	public synchronized long rotate() {
+		long sealed = segment;
+		segment = sealed + 1;
+		for (Lane lane : lanes) {
+			lane.seal();
+		}
+		return sealed;
+	}
+
+	/**
+	 * 刪除序號小於等於 sealed 的 segment
+	 */
+	public void deleteUpTo(long sealed) {
+		for (List<Path> paths : segments().headMap(sealed, true).values()) {
+			for (Path path : paths) {
+				try {
+					Files.deleteIfExists(path);
+				} catch (IOException e) {
+					logger.warn("Cannot delete cart journal segment {}", path, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 依 segment 順序讀取所有已封存（序號小於目前 segment）的記錄，最後一行不完整時忽略
+	 * 同一位客戶的記錄在同一個 segment 中只會出現在一個 lane，依 segment 順序讀取即保持每位客戶的異動順序
+	 * 
+	 * @param consumer 處理每一筆記錄
+	 * @return 已讀取的最大序號，0 代表沒有需要重播的 segment
+	 */
+	public long replay(Consumer<Record> consumer) {
+		long last = 0;
+		for (Map.Entry<Long, List<Path>> entry : segments().headMap(segment, false).entrySet()) {
+			for (Path path : entry.getValue()) {
+				try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						Record record = Record.parse(line);
+						if (record != null) {
+							consumer.accept(record);
+						} else {
+							logger.warn("Skipping malformed cart journal line in {}: {}", path, line);
+						}
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException("Cannot replay cart journal " + path, e);
+				}
+			}
+			last = entry.getKey();
+		}
+		return last;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			for (Lane lane : lanes) {
+				lane.seal();
+			}
+		} finally {
+			lock.release();
+			lockChannel.close();
+		}
+	}
+
+	private static FileLock tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			// 同一個 JVM 已經持有這個目錄的鎖
+			return null;
+		}
+	}
+
+	/**
+	 * 讀取 segment 序號清單（測試與監控用）
+	 */
+	public List<Long> listSegments() {
+		return new ArrayList<>(segments().keySet());
+	}
+
+	/**
+	 * @return segment 序號 → 該 segment 各 lane 的檔案（依 lane 排序）
+	 */
+	private TreeMap<Long, List<Path>> segments() {
+		TreeMap<Long, TreeMap<Integer, Path>> found = new TreeMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				String[] parts = name.substring(PREFIX.length(), name.length() - SUFFIX.length()).split("-", -1);
+				try {
+					if (parts.length > 2) {
+						throw new NumberFormatException(name);
+					}
+					int lane = parts.length == 2 ? Integer.parseInt(parts[1]) : 0;
+					found.computeIfAbsent(Long.parseLong(parts[0]), key -> new TreeMap<>()).put(lane, path);
+				} catch (NumberFormatException e) {
+					logger.warn("Ignoring unexpected file in cart journal directory: {}", path);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot list cart journal directory " + directory, e);
+		}
+		TreeMap<Long, List<Path>> segments = new TreeMap<>();
+		for (Map.Entry<Long, TreeMap<Integer, Path>> entry : found.entrySet()) {
+			segments.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+		}
+		return segments;
+	}
+
+	/**
+	 * 一個 lane：目前 segment 的檔案，寫入與封存以 lane 本身為鎖
+	 */
+	private final class Lane {
+
+		private final int index;
+		private FileChannel channel;
+
+		Lane(int index) {
+			this.index = index;
+		}
+
+		synchronized void write(String line) {
+			ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+			try {
+				if (channel == null) {
+					channel = FileChannel.open(directory.resolve(PREFIX + segment + '-' + index + SUFFIX),
+							StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				}
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if (syncOnWrite) {
+					channel.force(false);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot append to cart journal in " + directory, e);
+			}
+		}
+
+		synchronized void seal() {
+			if (channel == null) {
+				return;
+			}
+			try {
+				channel.force(false);
+				channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot seal cart journal lane " + index + " in " + directory, e);
+			} finally {
+				channel = null;
+			}
+		}
+	}
+
+	/**
+	 * 日誌中的一筆記錄；clear 為 true 時 productId、quantity、unitPrice 無意義
+	 */
+	public static final class Record {
+
+		private final boolean clear;
+		private final long customerId;
+		private final long productId;
+		private final int quantity;
+		private final BigDecimal unitPrice;
+
+		private Record(boolean clear, long customerId, long productId, int quantity, BigDecimal unitPrice) {
+			this.clear = clear;
+			this.customerId = customerId;
+			this.productId = productId;
+			this.quantity = quantity;
+			this.unitPrice = unitPrice;
+		}
+
+		static Record parse(String line) {
+			String[] fields = line.split(" ");
+			try {
+				if (fields.length == 2 && "C".equals(fields[0])) {
+					return new Record(true, Long.parseLong(fields[1]), 0, 0, null);
+				}
+				if (fields.length == 5 && "S".equals(fields[0])) {
+					return new Record(false, Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+							Integer.parseInt(fields[3]), new BigDecimal(fields[4]));
+				}
+			} catch (NumberFormatException e) {
+				// 當掉時寫到一半的最後一行
+			}
+			return null;
+		}
+
+		public boolean isClear() {
+			return clear;
+		}
+
+		public long getCustomerId() {
+			return customerId;
+		}
+
+		public long getProductId() {
+			return productId;
+		}
+
+		public int getQuantity() {
+			return quantity;
+		}
+
+		public BigDecimal getUnitPrice() {
+			return unitPrice;
+		}
+	}
+}
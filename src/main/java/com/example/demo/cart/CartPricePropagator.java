@@ -0,0 +1,148 @@
+package com.example.demo.cart;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.CartDAO;
+import com.example.demo.dto.ProductPriceChange;
+import com.example.demo.service.CartService;
+
+/**
+ * 商品改價同步到購物車
+ * 收到 {@link ProductPriceChange} 時只記下「商品 → 最新單價」，同一商品在兩次執行之間改價多次只留最後一次；
+ * 背景排程每 cart.price.intervalMs 取出最多 cart.price.batchSize 個商品，
+ * 先以批次 UPDATE 更新資料庫中的 cart_items，再更新記憶體中已載入的購物車（寫回時不會蓋掉新單價）。
+ * 不在後台請求的執行緒上執行；結帳一律以商品現價計價，這裡只影響購物車顯示的單價與小計
+ */
+@Component
+public class CartPricePropagator implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(CartPricePropagator.class);
+
+	@Autowired
+	private CartDAO cartRepository;
+
+	@Autowired
+	private CartService cartService;
+
+	@Value("${cart.price.intervalMs:500}")
+	private long intervalMs;
+
+	@Value("${cart.price.batchSize:500}")
+	private int batchSize;
+
+	/**
+	 * 尚未同步的改價：商品ID → 最新單價
+	 */
+	private final Map<Long, BigDecimal> pending = new ConcurrentHashMap<>();
+
+	private TransactionTemplate writeTransaction;
+
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cart-price-propagator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::scheduledPropagate, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		propagate();
+	}
+
+	@EventListener
+	public void onPriceChange(ProductPriceChange change) {
+		pending.putAll(change.getPrices());
+	}
+
+	/**
+	 * 立即同步所有尚未同步的改價
+	 * 
+	 * @return 更新的資料庫明細數
+	 */
+	public synchronized int propagate() {
+		int updated = 0;
+		Map<Long, BigDecimal> batch;
+		while (!(batch = nextBatch()).isEmpty()) {
+			Map<Long, BigDecimal> prices = batch;
+			try {
+				int rows = writeTransaction.execute(status -> cartRepository.updateUnitPrices(prices));
+				// 資料庫提交後才改記憶體；改價會遞增載入版本，提交前讀到舊單價、尚未放入記憶體的購物車會重新讀取
+				int lines = cartService.repriceProducts(prices);
+				updated += rows;
+				logger.debug("Propagated {} price changes to {} cart items ({} in memory)", prices.size(), rows, lines);
+			} catch (RuntimeException e) {
+				// 放回去下次重試；期間又改價的商品保留較新的單價
+				prices.forEach(pending::putIfAbsent);
+				throw e;
+			}
+		}
+		return updated;
+	}
+
+	/**
+	 * 尚未同步的商品數
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * 取出最多 batchSize 個改價；取出時用 remove 確保之後的改價會留到下一批
+	 */
+	private Map<Long, BigDecimal> nextBatch() {
+		Map<Long, BigDecimal> batch = new HashMap<>();
+		Iterator<Long> productIds = pending.keySet().iterator();
+		while (batch.size() < batchSize && productIds.hasNext()) {
+			Long productId = productIds.next();
+			BigDecimal price = pending.remove(productId);
+			if (price != null) {
+				batch.put(productId, price);
+			}
+		}
+		return batch;
+	}
+
+	private void scheduledPropagate() {
+		try {
+			propagate();
+		} catch (RuntimeException e) {
+			logger.error("Cart price propagation failed, will retry", e);
+		}
+	}
+}
@@ -0,0 +1,584 @@
+package com.example.demo.cart;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.money.Money;
+
+/**
+ * 記憶體中的購物車（依客戶ID分段上鎖）
+ * <p>
+ * 客戶ID雜湊到固定數量的 stripe，每個 stripe 有自己的鎖、購物車與待寫回清單，
+ * 不同 stripe 的客戶互不阻塞。同一購物車在兩次寫回之間的多次數量異動只會留下最後狀態，
+ * 寫回時一次寫入資料庫（寫回由 CartService 排程）。
+ * <p>
+ * 異動必須在購物車已從資料庫載入後才能進行（{@link #load}），否則寫回時會把資料庫中其他商品刪掉；
+ * 異動方法在購物車不在記憶體時回傳 false，由呼叫端載入後重試。
+ * 日誌在 stripe 鎖內寫入，每個 stripe 固定寫入日誌的一個 lane，不同 stripe 寫日誌時不會互相等待。
+ * 每個 stripe 另外維護「商品ID → 含有該商品的客戶ID」索引，改價時只走訪真正含有該商品的購物車
+ */
+public class CartStore {
+
+	private final Stripe[] stripes;
+	private final int mask;
+	private final CartJournal journal;
+
+	/**
+	 * @param stripes stripe 數量，會調整為 2 的次方
+	 * @param journal 異動日誌，null 代表不記錄；lane 數量少於 stripe 數量時多個 stripe 共用一個 lane
+	 */
+	public CartStore(int stripes, CartJournal journal) {
+		int size = 1;
+		while (size < stripes) {
+			size <<= 1;
+		}
+		this.stripes = new Stripe[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new Stripe(journal != null ? i % journal.getLaneCount() : 0);
+		}
+		this.mask = size - 1;
+		this.journal = journal;
+	}
+
+	/**
+	 * @return 購物車是否已在記憶體中
+	 */
+	public boolean contains(Long customerId) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			return stripe.carts.containsKey(customerId);
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 放入從資料庫載入的購物車；已在記憶體中時保留記憶體版本（可能有尚未寫回的異動）
+	 */
+	public void load(Long customerId, List<CartLine> lines) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			put(stripe, customerId, lines);
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 與 {@link #load(Long, List)} 相同，但讀取資料庫期間同一個 stripe 有購物車開始或結束刪除（{@link #markDeleting}）、
+	 * 有商品改價（{@link #reprice}），或客戶的購物車正在刪除時不放入，因為讀到的可能是已被刪除的購物車或改價前的單價
+	 * 
+	 * @param version 讀取資料庫之前的 {@link #loadVersion}
+	 * @return 讀取期間有刪除或改價時回傳 false，呼叫端應重新讀取
+	 */
+	public boolean load(Long customerId, List<CartLine> lines, long version) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			if (stripe.version != version || stripe.deleting.contains(customerId)) {
+				return false;
+			}
+			put(stripe, customerId, lines);
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 取得客戶所在 stripe 的載入版本（刪除或改價時遞增）；從資料庫讀取購物車之前呼叫，放入時交給 {@link #load(Long, List, long)}。
+	 * 客戶的購物車正在刪除時等到刪除結束（等待期間不持有 stripe 鎖）
+	 */
+	public long loadVersion(Long customerId) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			while (stripe.deleting.contains(customerId)) {
+				stripe.deleted.awaitUninterruptibly();
+			}
+			return stripe.version;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 把不在記憶體中的客戶標記為刪除中，讓呼叫端刪除他們在資料庫中的購物車。
+	 * 標記期間這些客戶的購物車不會被載入（{@link #loadVersion} 等待、{@link #load(Long, List, long)} 回傳 false），
+	 * 不會有「檢查時不在記憶體、刪除前剛好被載入」的情況；每個 stripe 只在標記時短暫上鎖，刪除資料庫期間不持有任何鎖。
+	 * 呼叫端必須在刪除提交（或回滾）之後呼叫 {@link #finishDeleting}
+	 * 
+	 * @param customerIds 準備刪除的購物車的客戶ID
+	 * @return 已標記、可以刪除的客戶ID；已在記憶體中或已在刪除中的客戶不包含在內
+	 */
+	public Set<Long> markDeleting(Collection<Long> customerIds) {
+		Set<Long> marked = new LinkedHashSet<>();
+		for (Long customerId : customerIds) {
+			Stripe stripe = stripe(customerId);
+			stripe.lock.lock();
+			try {
+				if (!stripe.carts.containsKey(customerId) && stripe.deleting.add(customerId)) {
+					// 標記前就讀取資料庫、還沒放入的載入必須重新讀取
+					stripe.version++;
+					marked.add(customerId);
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return marked;
+	}
+
+	/**
+	 * 清除刪除中的標記並喚醒等待載入的執行緒；刪除期間讀取資料庫的載入會重新讀取
+	 * 
+	 * @param customerIds {@link #markDeleting} 回傳的客戶ID
+	 */
+	public void finishDeleting(Collection<Long> customerIds) {
+		for (Long customerId : customerIds) {
+			Stripe stripe = stripe(customerId);
+			stripe.lock.lock();
+			try {
+				if (stripe.deleting.remove(customerId)) {
+					stripe.version++;
+					stripe.deleted.signalAll();
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 調整商品數量；調整後小於等於 0 時移除該商品
+	 * 
+	 * @param unitPrice 商品不在購物車時使用的單價（null 代表只調整已在購物車的商品）；已在購物車時保留原本的單價
+	 * @return 購物車不在記憶體時回傳 false
+	 */
+	public boolean addQuantity(Long customerId, Long productId, int delta, BigDecimal unitPrice) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return false;
+			}
+			Line line = state.lines.get(productId);
+			int quantity = (line == null ? 0 : line.quantity) + delta;
+			BigDecimal price = line == null ? unitPrice : line.unitPrice;
+			if (line == null && (quantity <= 0 || price == null)) {
+				return true;
+			}
+			apply(stripe, customerId, state, productId, Math.max(0, quantity), price);
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 減少商品數量；目前數量不大於 amount 時不變更（與 CartItem.decreaseQuantity 相同）
+	 * 
+	 * @return 購物車不在記憶體時回傳 false
+	 */
+	public boolean decreaseQuantity(Long customerId, Long productId, int amount) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return false;
+			}
+			Line line = state.lines.get(productId);
+			if (line != null && amount > 0 && line.quantity > amount) {
+				apply(stripe, customerId, state, productId, line.quantity - amount, line.unitPrice);
+			}
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 設定商品數量，0 代表移除
+	 * 
+	 * @param unitPrice 新單價，null 代表保留原本的單價
+	 * @return 購物車不在記憶體時回傳 false
+	 */
+	public boolean setQuantity(Long customerId, Long productId, int quantity, BigDecimal unitPrice) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return false;
+			}
+			Line line = state.lines.get(productId);
+			BigDecimal price = unitPrice != null ? unitPrice : line != null ? line.unitPrice : null;
+			if (line == null && (quantity <= 0 || price == null)) {
+				return true;
+			}
+			apply(stripe, customerId, state, productId, Math.max(0, quantity), price);
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 把記憶體中所有購物車的指定商品改成新單價（寫入日誌並標記為待寫回）；單價相同的明細不變更。
+	 * 呼叫前資料庫必須已經改價：不在記憶體中的購物車不受影響，但每個 stripe 的載入版本都會遞增，
+	 * 讓改價前就從資料庫讀取、尚未放入的載入重新讀取
+	 * 
+	 * @param prices 商品ID → 新單價
+	 * @return 變更的明細數
+	 */
+	public int reprice(Map<Long, BigDecimal> prices) {
+		int repriced = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				stripe.version++;
+				for (Map.Entry<Long, BigDecimal> price : prices.entrySet()) {
+					Set<Long> customerIds = stripe.customersByProduct.get(price.getKey());
+					if (customerIds == null) {
+						continue;
+					}
+					// 數量不變，apply 不會改變索引，可以邊走訪邊更新
+					for (Long customerId : customerIds) {
+						CartState state = stripe.carts.get(customerId);
+						Line line = state.lines.get(price.getKey());
+						if (price.getValue().compareTo(line.unitPrice) != 0) {
+							// 改價不算客戶存取，不延後閒置移出
+							long lastAccess = state.lastAccess;
+							apply(stripe, customerId, state, price.getKey(), line.quantity, price.getValue());
+							state.lastAccess = lastAccess;
+							repriced++;
+						}
+					}
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return repriced;
+	}
+
+	/**
+	 * 清空購物車
+	 * 
+	 * @return 購物車不在記憶體時回傳 false
+	 */
+	public boolean clear(Long customerId) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return false;
+			}
+			if (journal != null) {
+				journal.appendClear(stripe.journalLane, customerId);
+			}
+			stripe.unindexCart(customerId, state);
+			state.lines.clear();
+			state.touch();
+			stripe.dirty.add(customerId);
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 扣除已結帳的數量：每個商品減去快照中的數量，減到 0 時移除；
+	 * 快照之後才加入的商品、或之後增加的數量留在購物車
+	 * 
+	 * @param lines 結帳時的購物車明細
+	 * @return 購物車不在記憶體時回傳 false
+	 */
+	public boolean subtract(Long customerId, List<CartLine> lines) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return false;
+			}
+			for (CartLine checkedOut : lines) {
+				Line line = state.lines.get(checkedOut.getProductId());
+				if (line != null) {
+					apply(stripe, customerId, state, checkedOut.getProductId(),
+							Math.max(0, line.quantity - checkedOut.getQuantity()), line.unitPrice);
+				}
+			}
+			return true;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 重播日誌記錄（購物車必須已載入，不再寫入日誌）
+	 */
+	public void replay(CartJournal.Record record) {
+		Stripe stripe = stripe(record.getCustomerId());
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.computeIfAbsent(record.getCustomerId(), id -> new CartState());
+			if (record.isClear()) {
+				stripe.unindexCart(record.getCustomerId(), state);
+				state.lines.clear();
+			} else if (record.getQuantity() > 0) {
+				state.lines.put(record.getProductId(), new Line(record.getQuantity(), record.getUnitPrice()));
+				stripe.index(record.getProductId(), record.getCustomerId());
+			} else {
+				state.lines.remove(record.getProductId());
+				stripe.unindex(record.getProductId(), record.getCustomerId());
+			}
+			stripe.dirty.add(record.getCustomerId());
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return 購物車快照，不在記憶體時回傳 null
+	 */
+	public CartView view(Long customerId) {
+		Stripe stripe = stripe(customerId);
+		stripe.lock.lock();
+		try {
+			CartState state = stripe.carts.get(customerId);
+			if (state == null) {
+				return null;
+			}
+			state.touch();
+			return state.toView(customerId);
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * 取出所有待寫回的購物車快照並清除待寫回標記；之後的異動會重新標記
+	 */
+	public List<CartView> drainDirty() {
+		List<CartView> snapshots = new ArrayList<>();
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				for (Long customerId : stripe.dirty) {
+					CartState state = stripe.carts.get(customerId);
+					if (state != null) {
+						snapshots.add(state.toView(customerId));
+					}
+				}
+				stripe.dirty.clear();
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * 寫回失敗時重新標記為待寫回
+	 */
+	public void markDirty(Collection<Long> customerIds) {
+		for (Long customerId : customerIds) {
+			Stripe stripe = stripe(customerId);
+			stripe.lock.lock();
+			try {
+				if (stripe.carts.containsKey(customerId)) {
+					stripe.dirty.add(customerId);
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 移出已寫回且閒置超過指定時間的購物車
+	 * 
+	 * @param idleSinceMillis 最後存取時間早於此時間（System.currentTimeMillis）者移出
+	 * @return 移出數量
+	 */
+	public int evictIdle(long idleSinceMillis) {
+		int evicted = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				Iterator<Map.Entry<Long, CartState>> iterator = stripe.carts.entrySet().iterator();
+				while (iterator.hasNext()) {
+					Map.Entry<Long, CartState> entry = iterator.next();
+					if (entry.getValue().lastAccess < idleSinceMillis && !stripe.dirty.contains(entry.getKey())) {
+						stripe.unindexCart(entry.getKey(), entry.getValue());
+						iterator.remove();
+						evicted++;
+					}
+				}
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return evicted;
+	}
+
+	/**
+	 * @return 記憶體中的購物車數
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				size += stripe.carts.size();
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return 待寫回的購物車數
+	 */
+	public int dirtyCount() {
+		int count = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				count += stripe.dirty.size();
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return count;
+	}
+
+	private void apply(Stripe stripe, Long customerId, CartState state, Long productId, int quantity, BigDecimal unitPrice) {
+		// 單價換算失敗（小數超過兩位）時不寫日誌
+		Line line = quantity == 0 ? null : new Line(quantity, unitPrice);
+		// 先寫日誌再改記憶體：日誌寫入失敗時記憶體保持原狀
+		if (journal != null) {
+			journal.appendSet(stripe.journalLane, customerId, productId, quantity, unitPrice);
+		}
+		if (line == null) {
+			state.lines.remove(productId);
+			stripe.unindex(productId, customerId);
+		} else {
+			state.lines.put(productId, line);
+			stripe.index(productId, customerId);
+		}
+		state.touch();
+		stripe.dirty.add(customerId);
+	}
+
+	private void put(Stripe stripe, Long customerId, List<CartLine> lines) {
+		if (!stripe.carts.containsKey(customerId)) {
+			CartState state = new CartState();
+			for (CartLine line : lines) {
+				state.lines.put(line.getProductId(), new Line(line.getQuantity(), line.getUnitPrice()));
+				stripe.index(line.getProductId(), customerId);
+			}
+			stripe.carts.put(customerId, state);
+		}
+	}
+
+	private Stripe stripe(Long customerId) {
+		long h = customerId * 0x9E3779B97F4A7C15L;
+		return stripes[(int) (h ^ (h >>> 32)) & mask];
+	}
+
+	private static final class Stripe {
+
+		final int journalLane;
+		final ReentrantLock lock = new ReentrantLock();
+		final Condition deleted = lock.newCondition();
+		final Map<Long, CartState> carts = new HashMap<>();
+		final Set<Long> dirty = new LinkedHashSet<>();
+		final Map<Long, Set<Long>> customersByProduct = new HashMap<>();
+		/**
+		 * 資料庫中的購物車正在刪除的客戶（{@link CartStore#markDeleting}）
+		 */
+		final Set<Long> deleting = new HashSet<>();
+		/**
+		 * 載入版本：開始或結束刪除購物車、改價時遞增
+		 */
+		long version;
+
+		Stripe(int journalLane) {
+			this.journalLane = journalLane;
+		}
+
+		void index(Long productId, Long customerId) {
+			customersByProduct.computeIfAbsent(productId, id -> new HashSet<>()).add(customerId);
+		}
+
+		void unindex(Long productId, Long customerId) {
+			Set<Long> customerIds = customersByProduct.get(productId);
+			if (customerIds != null && customerIds.remove(customerId) && customerIds.isEmpty()) {
+				customersByProduct.remove(productId);
+			}
+		}
+
+		/**
+		 * 移除購物車所有商品的索引（清空或移出購物車之前呼叫）
+		 */
+		void unindexCart(Long customerId, CartState state) {
+			for (Long productId : state.lines.keySet()) {
+				unindex(productId, customerId);
+			}
+		}
+	}
+
+	private static final class CartState {
+
+		final Map<Long, Line> lines = new LinkedHashMap<>();
+		long lastAccess = System.currentTimeMillis();
+
+		void touch() {
+			lastAccess = System.currentTimeMillis();
+		}
+
+		CartView toView(Long customerId) {
+			List<CartLine> snapshot = new ArrayList<>(lines.size());
+			for (Map.Entry<Long, Line> entry : lines.entrySet()) {
+				Line line = entry.getValue();
+				snapshot.add(new CartLine(entry.getKey(), line.quantity, line.unitPrice, line.unitPriceMinor));
+			}
+			return new CartView(customerId, snapshot);
+		}
+	}
+
+	private static final class Line {
+
+		final int quantity;
+		final BigDecimal unitPrice;
+		final long unitPriceMinor;
+
+		Line(int quantity, BigDecimal unitPrice) {
+			this.quantity = quantity;
+			this.unitPrice = unitPrice;
+			// 異動時換算一次，之後每次讀取快照與合計都直接用 long
+			this.unitPriceMinor = Money.toMinor(unitPrice);
+		}
+	}
+}
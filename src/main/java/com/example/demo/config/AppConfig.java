@@ -1,11 +1,22 @@
 package com.example.demo.config;
 
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.bind.annotation.ControllerAdvice;
 
+/**
+ * 根 context 設定
+ * 掃描 controller 以外的所有元件；controller 與 {@link WebMvcConfig} 由 DispatcherServlet 的 context 載入，
+ * 排程、快取、購物車記憶體狀態等單例在整個應用程式中只會建立一次
+ */
 @Configuration
-@ComponentScan(basePackages = "com.example.demo")
+@ComponentScan(basePackages = "com.example.demo", excludeFilters = {
+        @Filter(type = FilterType.ANNOTATION, classes = { Controller.class, ControllerAdvice.class }),
+        @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = WebMvcConfig.class) })
 @EnableTransactionManagement
 public class AppConfig {
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import com.example.demo.auth.PasswordHasher;
+import com.example.demo.auth.UserPrincipal;
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.LocalCatalogCache;
+
+/**
+ * 登入驗證設定：密碼雜湊成本與已登入使用者快取
+ */
+@Configuration
+public class AuthConfig {
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private ThreadPoolTaskExecutor catalogRefreshExecutor;
+
+    @Bean
+    public PasswordHasher passwordHasher() {
+        return new PasswordHasher(
+                env.getProperty("auth.password.iterations", Integer.class, 120_000),
+                env.getProperty("auth.password.maxConcurrent", Integer.class, Runtime.getRuntime().availableProcessors()),
+                env.getProperty("auth.password.acquireTimeoutMs", Long.class, 2_000L));
+    }
+
+    /**
+     * 以 username 為鍵的使用者快取；不存在的名稱也會短暫負向快取，猜帳號的請求不會每次都查資料庫
+     */
+    @Bean
+    public CatalogCache<String, UserPrincipal> principalCache() {
+        return new LocalCatalogCache<>("principal",
+                env.getProperty("auth.principal.maximumSize", Long.class, 10_000L),
+                Duration.ofMillis(env.getProperty("auth.principal.softTtlMs", Long.class, 60_000L)),
+                Duration.ofMillis(env.getProperty("auth.principal.hardTtlMs", Long.class, 300_000L)),
+                Duration.ofMillis(env.getProperty("auth.principal.negativeTtlMs", Long.class, 5_000L)),
+                catalogRefreshExecutor);
+    }
+}
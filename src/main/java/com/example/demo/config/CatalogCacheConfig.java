@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.LocalCatalogCache;
+import com.example.demo.model.Product;
+
+/**
+ * 服務層商品目錄快取設定
+ * 要改用遠端快取時，只需把這裡的 bean 換成其他 {@link CatalogCache} 實作
+ */
+@Configuration
+public class CatalogCacheConfig {
+
+    @Autowired
+    private Environment env;
+
+    @Bean
+    public ThreadPoolTaskExecutor catalogRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("catalog-refresh-");
+        executor.setCorePoolSize(env.getProperty("catalog.cache.refreshThreads", Integer.class, 2));
+        executor.setMaxPoolSize(env.getProperty("catalog.cache.refreshThreads", Integer.class, 2));
+        executor.setQueueCapacity(env.getProperty("catalog.cache.refreshQueueCapacity", Integer.class, 1000));
+        // 佇列滿時直接放棄刷新，讀取端繼續使用舊值
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Bean
+    public CatalogCache<Long, Product> productByIdCache() {
+        return new LocalCatalogCache<>("product-by-id",
+                env.getProperty("catalog.cache.product.maximumSize", Long.class, 10_000L),
+                Duration.ofMillis(env.getProperty("catalog.cache.product.softTtlMs", Long.class, 60_000L)),
+                Duration.ofMillis(env.getProperty("catalog.cache.product.hardTtlMs", Long.class, 600_000L)),
+                Duration.ofMillis(env.getProperty("catalog.cache.negativeTtlMs", Long.class, 30_000L)),
+                catalogRefreshExecutor());
+    }
+
+    @Bean
+    public CatalogCache<String, List<Product>> productListCache() {
+        return new LocalCatalogCache<>("product-list",
+                16,
+                Duration.ofMillis(env.getProperty("catalog.cache.list.softTtlMs", Long.class, 10_000L)),
+                Duration.ofMillis(env.getProperty("catalog.cache.list.hardTtlMs", Long.class, 120_000L)),
+                Duration.ofMillis(env.getProperty("catalog.cache.negativeTtlMs", Long.class, 30_000L)),
+                catalogRefreshExecutor());
+    }
+}
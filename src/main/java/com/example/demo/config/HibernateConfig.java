@@ -1,16 +1,26 @@
 package com.example.demo.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import com.example.demo.datasource.PoolMetricsTrackerFactory;
+import com.example.demo.datasource.ReadWriteRoutingDataSource;
+import com.example.demo.metrics.RequestStatistics;
+import com.example.demo.metrics.SqlDetector;
+import com.example.demo.metrics.SqlTimingListener;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 @Configuration
 @PropertySource("classpath:application.properties")
@@ -21,13 +31,81 @@ public class HibernateConfig {
     private Environment env;
 
     @Bean
+    public PoolMetricsTrackerFactory poolMetricsTrackerFactory() {
+        return new PoolMetricsTrackerFactory();
+    }
+
+    /**
+     * 慢查詢與 N+1 偵測，以 StatementInspector 掛在 SessionFactory 上
+     */
+    @Bean
+    public SqlDetector sqlDetector() {
+        return new SqlDetector(env.getProperty("sql.detector.enabled", Boolean.class, true),
+                env.getProperty("sql.detector.repeatThreshold", Integer.class, 10),
+                env.getProperty("sql.detector.slowQueryMs", Long.class, 200L),
+                env.getProperty("sql.detector.failOnViolation", Boolean.class, false));
+    }
+
+    // ------------------------------
+    // 連線池設定
+    // ------------------------------
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readWriteDataSource() {
+        HikariConfig config = poolConfig("eshop-rw", env.getRequiredProperty("jdbc.url"));
+        config.setMaximumPoolSize(env.getProperty("jdbc.pool.maximumPoolSize", Integer.class, 20));
+        config.setMinimumIdle(env.getProperty("jdbc.pool.minimumIdle", Integer.class, 5));
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readOnlyDataSource() {
+        HikariConfig config = poolConfig("eshop-ro",
+                env.getProperty("jdbc.readonly.url", env.getRequiredProperty("jdbc.url")));
+        config.setMaximumPoolSize(env.getProperty("jdbc.readonly.pool.maximumPoolSize", Integer.class, 20));
+        config.setMinimumIdle(env.getProperty("jdbc.readonly.pool.minimumIdle", Integer.class, 5));
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+
+    private HikariConfig poolConfig(String poolName, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getRequiredProperty("jdbc.driverClassName"));
+        config.setJdbcUrl(url);
+        config.setUsername(env.getRequiredProperty("jdbc.username"));
+        config.setPassword(env.getRequiredProperty("jdbc.password"));
+        config.setConnectionTimeout(env.getProperty("jdbc.pool.connectionTimeout", Long.class, 3000L));
+        config.setIdleTimeout(env.getProperty("jdbc.pool.idleTimeout", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("jdbc.pool.maxLifetime", Long.class, 1800000L));
+        config.setLeakDetectionThreshold(env.getProperty("jdbc.pool.leakDetectionThreshold", Long.class, 0L));
+        config.setMetricsTrackerFactory(poolMetricsTrackerFactory());
+        // MySQL Connector/J 的 PreparedStatement 快取（其他驅動不認得這些設定）
+        if (url.startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", env.getProperty("jdbc.mysql.cachePrepStmts", "true"));
+            config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("jdbc.mysql.prepStmtCacheSize", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("jdbc.mysql.prepStmtCacheSqlLimit", "2048"));
+            config.addDataSourceProperty("useServerPrepStmts", env.getProperty("jdbc.mysql.useServerPrepStmts", "true"));
+            // 將 JDBC batch 改寫成多列 INSERT，batch 才會真正減少來回次數
+            config.addDataSourceProperty("rewriteBatchedStatements", env.getProperty("jdbc.mysql.rewriteBatchedStatements", "true"));
+        }
+        return config;
+    }
+
+    /**
+     * 對外的 DataSource：唯讀交易走唯讀連線池，其餘走主連線池。
+     * LazyConnectionDataSourceProxy 讓實際取得連線延後到第一個 SQL，此時交易的唯讀旗標已可判斷
+     */
+    @Bean
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(env.getRequiredProperty("jdbc.driverClassName"));
-        dataSource.setUrl(env.getRequiredProperty("jdbc.url"));
-        dataSource.setUsername(env.getRequiredProperty("jdbc.username"));
-        dataSource.setPassword(env.getRequiredProperty("jdbc.password"));
-        return dataSource;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.READ_WRITE, readWriteDataSource());
+        targets.put(ReadWriteRoutingDataSource.READ_ONLY, readOnlyDataSource());
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(readWriteDataSource());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
     }
 
     @Bean
@@ -45,6 +123,24 @@ public class HibernateConfig {
         properties.put("hibernate.show_sql", env.getRequiredProperty("hibernate.show_sql"));
         properties.put("hibernate.format_sql", env.getRequiredProperty("hibernate.format_sql"));
         properties.put("hibernate.hbm2ddl.auto", env.getRequiredProperty("hibernate.hbm2ddl.auto"));
+        // JDBC batch：依實體排序 INSERT/UPDATE，讓相同語句能合併成同一批
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_inserts", env.getProperty("hibernate.order_inserts", "true"));
+        properties.put("hibernate.order_updates", env.getProperty("hibernate.order_updates", "true"));
+        properties.put("hibernate.jdbc.batch_versioned_data", "true");
+        // 二級快取：JCache + Caffeine，區域設定在 application.conf
+        properties.put("hibernate.cache.use_second_level_cache", env.getProperty("hibernate.cache.use_second_level_cache", "true"));
+        properties.put("hibernate.cache.use_query_cache", env.getProperty("hibernate.cache.use_query_cache", "true"));
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        properties.put("hibernate.generate_statistics", env.getProperty("hibernate.generate_statistics", "true"));
+        // 統計只供 /admin/cache-stats 查詢，不在每個 Session 結束時寫 log
+        properties.put("hibernate.session.events.log", "false");
+        // 統計同時累加到目前請求，供 /metrics 依路由輸出 SQL 數與查詢列數
+        properties.put("hibernate.stats.factory", RequestStatistics.Factory.class.getName());
+        // 依請求分組 SQL 形狀與執行時間，找出 N+1 與慢查詢
+        properties.put("hibernate.session_factory.statement_inspector", sqlDetector());
+        properties.put("hibernate.session.events.auto", SqlTimingListener.class.getName());
         return properties;
     }
 
@@ -54,4 +150,4 @@ public class HibernateConfig {
         transactionManager.setSessionFactory(sessionFactory().getObject());
         return transactionManager;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import com.example.demo.order.OrderNumberGenerator;
+import com.example.demo.order.SnowflakeOrderNumberGenerator;
+
+/**
+ * 訂單編號產生器設定
+ * 多節點部署時每個節點必須設定不同的 order.number.nodeId；
+ * 除了 dev profile（單機開發，預設 0）之外一律必須明確設定，未設定時啟動失敗，避免兩個節點都用預設值而產生重複的訂單編號
+ */
+@Configuration
+public class OrderNumberConfig {
+
+    @Autowired
+    private Environment env;
+
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator() {
+        Integer nodeId = env.getProperty("order.number.nodeId", Integer.class);
+        if (nodeId == null) {
+            if (!env.acceptsProfiles(Profiles.of("dev"))) {
+                throw new IllegalStateException("order.number.nodeId must be set on every node (0 ~ "
+                        + SnowflakeOrderNumberGenerator.MAX_NODE_ID + ")");
+            }
+            nodeId = 0;
+        }
+        long maxLeadMillis = env.getProperty("order.number.maxLeadMs", Long.class,
+                SnowflakeOrderNumberGenerator.DEFAULT_MAX_LEAD_MILLIS);
+        return new SnowflakeOrderNumberGenerator(nodeId, maxLeadMillis, System::currentTimeMillis);
+    }
+}
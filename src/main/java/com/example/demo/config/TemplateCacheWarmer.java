@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.servlet.ServletContext;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.web.context.ServletContextAware;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * 啟動時預先解析 /WEB-INF/views/ 下的所有模板，放進模板快取
+ * 每個模板以空的 model 渲染一次：解析結果會在渲染前寫入快取，
+ * 需要 model 或表單綁定的模板渲染失敗屬正常情況，不影響快取
+ */
+public class TemplateCacheWarmer implements SmartInitializingSingleton, ServletContextAware {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(TemplateCacheWarmer.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final String prefix;
+
+    private final String suffix;
+
+    private final boolean enabled;
+
+    private ServletContext servletContext;
+
+    public TemplateCacheWarmer(SpringTemplateEngine templateEngine, String prefix, String suffix, boolean enabled) {
+        this.templateEngine = templateEngine;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // 未開啟模板快取（dev）時預熱沒有意義
+        if (!enabled || servletContext == null) {
+            return;
+        }
+        Set<String> templates = new TreeSet<>();
+        collectTemplates(prefix, templates);
+
+        // 預熱時的渲染失敗是預期的，暫時關閉 TemplateEngine 的錯誤日誌
+        Logger engineLogger = (Logger) LoggerFactory.getLogger("org.thymeleaf.TemplateEngine");
+        Level originalLevel = engineLogger.getLevel();
+        engineLogger.setLevel(Level.OFF);
+        long start = System.nanoTime();
+        try {
+            for (String template : templates) {
+                try {
+                    templateEngine.process(template, new Context(), Writer.nullWriter());
+                } catch (TemplateProcessingException e) {
+                    logger.debug("Template {} parsed, empty-model render skipped: {}", template, e.getMessage());
+                }
+            }
+        } finally {
+            engineLogger.setLevel(originalLevel);
+        }
+        logger.info("Pre-warmed {} templates in {} ms", templates.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void collectTemplates(String path, Set<String> templates) {
+        Set<String> resources = servletContext.getResourcePaths(path);
+        if (resources == null) {
+            return;
+        }
+        for (String resource : resources) {
+            if (resource.endsWith("/")) {
+                collectTemplates(resource, templates);
+            } else if (resource.endsWith(suffix)) {
+                templates.add(resource.substring(prefix.length(), resource.length() - suffix.length()));
+            }
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.example.demo.config;
 
 import java.util.Locale;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -13,24 +16,66 @@ import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.thymeleaf.cache.StandardCacheManager;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring5.view.ThymeleafViewResolver;
 import org.thymeleaf.templatemode.TemplateMode;
 
+import com.example.demo.auth.AuthenticationInterceptor;
+import com.example.demo.metrics.RequestMetrics;
+import com.example.demo.metrics.RequestMetricsInterceptor;
+import com.example.demo.metrics.SqlDetector;
+import com.example.demo.metrics.SqlDetectorInterceptor;
+import com.example.demo.service.AuthenticationService;
+
+/**
+ * DispatcherServlet 的 context 設定
+ * 只掃描 controller；服務、DAO 等由根 context（{@link AppConfig}）提供
+ */
 @Configuration
 @EnableWebMvc
-@ComponentScan(basePackages = "com.example.demo") 
+@ComponentScan(basePackages = "com.example.demo.controller")
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private static final String TEMPLATE_PREFIX = "/WEB-INF/views/";
+
+    private static final String TEMPLATE_SUFFIX = ".html";
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Autowired
+    private SqlDetector sqlDetector;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    // ------------------------------
+    // 模板設定
+    // prod profile：模板快取（有上限、有 TTL）並在啟動時預熱
+    // 其他（dev）：每次請求重新讀取模板，修改後立即生效
+    // ------------------------------
+    private boolean isTemplateCacheEnabled() {
+        return env.acceptsProfiles(Profiles.of("prod"));
+    }
+
     @Bean
     public SpringResourceTemplateResolver templateResolver() {
         SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
-        templateResolver.setPrefix("/WEB-INF/views/");
-        templateResolver.setSuffix(".html");
+        templateResolver.setPrefix(TEMPLATE_PREFIX);
+        templateResolver.setSuffix(TEMPLATE_SUFFIX);
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        if (isTemplateCacheEnabled()) {
+            templateResolver.setCacheable(true);
+            templateResolver.setCacheTTLMs(env.getProperty("thymeleaf.cache.ttlMs", Long.class, 3600000L));
+        } else {
+            templateResolver.setCacheable(false);
+        }
         return templateResolver;
     }
 
@@ -39,9 +84,20 @@ public class WebMvcConfig implements WebMvcConfigurer {
         SpringTemplateEngine templateEngine = new SpringTemplateEngine();
         templateEngine.setTemplateResolver(templateResolver());
         templateEngine.setEnableSpringELCompiler(true);
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(env.getProperty("thymeleaf.cache.maxSize", Integer.class, 200));
+        // /admin/template-cache 顯示範本與運算式快取的命中統計，兩者都要開啟計數
+        cacheManager.setTemplateCacheEnableCounters(true);
+        cacheManager.setExpressionCacheEnableCounters(true);
+        templateEngine.setCacheManager(cacheManager);
         return templateEngine;
     }
 
+    @Bean
+    public TemplateCacheWarmer templateCacheWarmer() {
+        return new TemplateCacheWarmer(templateEngine(), TEMPLATE_PREFIX, TEMPLATE_SUFFIX, isTemplateCacheEnabled());
+    }
+
     @Bean
     public ThymeleafViewResolver viewResolver() {
         ThymeleafViewResolver viewResolver = new ThymeleafViewResolver();
@@ -85,6 +141,14 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
+        // 依路由記錄耗時與 SQL 數；/metrics 本身與靜態資源不記錄
+        registry.addInterceptor(new RequestMetricsInterceptor(requestMetrics))
+                .excludePathPatterns("/metrics", "/resources/**");
+        registry.addInterceptor(new SqlDetectorInterceptor(sqlDetector))
+                .excludePathPatterns("/resources/**");
+        // 由 Session 解析登入使用者（走快取，不查資料庫）
+        registry.addInterceptor(new AuthenticationInterceptor(authenticationService))
+                .excludePathPatterns("/metrics", "/resources/**");
     }
 
 }
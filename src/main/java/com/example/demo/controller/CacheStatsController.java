@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.CatalogCacheStats;
+import com.example.demo.cache.SecondLevelCacheStatistics;
+import com.example.demo.cache.SecondLevelCacheStatistics.RegionStats;
+
+@Controller
+@RequestMapping("/admin/cache-stats")
+public class CacheStatsController {
+
+    @Autowired
+    private SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    @Autowired
+    private List<CatalogCache<?, ?>> catalogCaches;
+
+    @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String cacheStats() {
+        StringBuilder out = new StringBuilder();
+        for (RegionStats stats : secondLevelCacheStatistics.snapshot()) {
+            String label = "{region=\"" + stats.getRegion() + "\"}";
+            out.append("hibernate_l2_cache_hits_total").append(label).append(' ').append(stats.getHits()).append('\n');
+            out.append("hibernate_l2_cache_misses_total").append(label).append(' ').append(stats.getMisses()).append('\n');
+            out.append("hibernate_l2_cache_puts_total").append(label).append(' ').append(stats.getPuts()).append('\n');
+            out.append("hibernate_l2_cache_evictions_total").append(label).append(' ').append(stats.getEvictions()).append('\n');
+            out.append("hibernate_l2_cache_hit_ratio").append(label).append(' ')
+                    .append(String.format(Locale.ROOT, "%.4f", stats.getHitRatio())).append('\n');
+        }
+        for (CatalogCache<?, ?> cache : catalogCaches) {
+            CatalogCacheStats stats = cache.stats();
+            String label = "{cache=\"" + stats.getName() + "\"}";
+            out.append("catalog_cache_hits_total").append(label).append(' ').append(stats.getHits()).append('\n');
+            out.append("catalog_cache_misses_total").append(label).append(' ').append(stats.getMisses()).append('\n');
+            out.append("catalog_cache_negative_hits_total").append(label).append(' ').append(stats.getNegativeHits()).append('\n');
+            out.append("catalog_cache_loads_total").append(label).append(' ').append(stats.getLoads()).append('\n');
+            out.append("catalog_cache_refreshes_total").append(label).append(' ').append(stats.getRefreshes()).append('\n');
+            out.append("catalog_cache_load_failures_total").append(label).append(' ').append(stats.getLoadFailures()).append('\n');
+            out.append("catalog_cache_size").append(label).append(' ').append(stats.getSize()).append('\n');
+            out.append("catalog_cache_hit_ratio").append(label).append(' ')
+                    .append(String.format(Locale.ROOT, "%.4f", stats.getHitRatio())).append('\n');
+        }
+        return out.toString();
+    }
+}
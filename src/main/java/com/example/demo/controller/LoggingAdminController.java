@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+import com.example.demo.auth.AuthenticationInterceptor;
+import com.example.demo.auth.UserPrincipal;
+
+@Controller
+@RequestMapping("/admin/logging")
+public class LoggingAdminController {
+
+    /**
+     * Hibernate 輸出 SQL 的 logger，對應 logback.xml 的 ASYNC_SQL
+     */
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    @GetMapping(value = "/sql", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String sqlLogging() {
+        return "org.hibernate.SQL=" + sqlLogger().getEffectiveLevel() + "\n";
+    }
+
+    /**
+     * 執行期間開關 SQL 日誌，例如 POST /admin/logging/sql?enabled=false
+     * SQL 日誌會寫出查詢參數且拖慢所有請求，只有已登入的管理員可以切換，其他人回應 403
+     */
+    @PostMapping(value = "/sql", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public ResponseEntity<String> toggleSqlLogging(@RequestParam("enabled") boolean enabled,
+            @RequestAttribute(name = AuthenticationInterceptor.PRINCIPAL_ATTRIBUTE, required = false) UserPrincipal principal) {
+        if (principal == null || !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).contentType(MediaType.TEXT_PLAIN).body("Forbidden\n");
+        }
+        sqlLogger().setLevel(enabled ? Level.DEBUG : Level.OFF);
+        return ResponseEntity.ok(sqlLogging());
+    }
+
+    private Logger sqlLogger() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        return context.getLogger(SQL_LOGGER);
+    }
+}
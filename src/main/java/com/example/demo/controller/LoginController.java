@@ -0,0 +1,63 @@
+package com.example.demo.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.example.demo.auth.AuthenticationInterceptor;
+import com.example.demo.auth.UserPrincipal;
+import com.example.demo.service.AuthenticationService;
+
+@Controller
+public class LoginController {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @GetMapping("/login")
+    public String showLoginForm() {
+        return "login";
+    }
+
+    @PostMapping("/login")
+    public String login(@RequestParam("username") String username, @RequestParam("password") String password,
+            HttpServletRequest request, Model model) {
+        UserPrincipal principal;
+        try {
+            principal = authenticationService.authenticate(username, password);
+        } catch (IllegalStateException e) {
+            // 雜湊名額已滿（登入尖峰）
+            model.addAttribute("username", username);
+            model.addAttribute("error", "busy");
+            return "login";
+        }
+        if (principal == null) {
+            model.addAttribute("username", username);
+            model.addAttribute("error", "invalid");
+            return "login";
+        }
+        // 登入後更換 Session ID，避免 session fixation
+        if (request.getSession(false) != null) {
+            request.changeSessionId();
+        }
+        HttpSession session = request.getSession();
+        session.setAttribute(AuthenticationInterceptor.SESSION_ATTRIBUTE, principal.getUsername());
+        session.setAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE, principal.getId());
+        return "redirect:/";
+    }
+
+    @PostMapping("/logout")
+    public String logout(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        return "redirect:/login";
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.demo.auth.PasswordHasher;
+import com.example.demo.metrics.LatencyHistogram;
+import com.example.demo.metrics.RequestMetrics;
+import com.example.demo.metrics.RequestMetrics.EndpointStats;
+
+@Controller
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @GetMapping(produces = "text/plain; version=0.0.4; charset=utf-8")
+    @ResponseBody
+    public String metrics() {
+        StringBuilder out = new StringBuilder();
+        // 同一個指標的所有樣本必須連在一起，接在自己的 # HELP / # TYPE 之後
+        List<EndpointStats> endpoints = requestMetrics.getEndpoints();
+        family(out, "http_request_duration_us", "histogram", "Request latency in microseconds");
+        for (EndpointStats endpoint : endpoints) {
+            histogram(out, "http_request_duration_us", labels(endpoint), endpoint.getLatency());
+        }
+        family(out, "http_request_errors_total", "counter", "Requests that ended with an exception or a 5xx status");
+        for (EndpointStats endpoint : endpoints) {
+            sample(out, "http_request_errors_total", labels(endpoint), endpoint.getErrors());
+        }
+        family(out, "http_request_sql_statements_total", "counter", "SQL statements executed by requests");
+        for (EndpointStats endpoint : endpoints) {
+            sample(out, "http_request_sql_statements_total", labels(endpoint), endpoint.getStatements());
+        }
+        family(out, "http_request_sql_rows_total", "counter", "Rows returned or affected by SQL statements of requests");
+        for (EndpointStats endpoint : endpoints) {
+            sample(out, "http_request_sql_rows_total", labels(endpoint), endpoint.getRows());
+        }
+        family(out, "http_request_connection_acquire_us_total", "counter",
+                "Microseconds requests spent waiting for a database connection");
+        for (EndpointStats endpoint : endpoints) {
+            sample(out, "http_request_connection_acquire_us_total", labels(endpoint), endpoint.getConnectionAcquireMicros());
+        }
+
+        family(out, "password_hash_duration_us", "histogram", "Password hash latency in microseconds, excluding queueing");
+        histogram(out, "password_hash_duration_us", "", passwordHasher.getLatency());
+        family(out, "password_hash_iterations", "gauge", "PBKDF2 iterations used for new password hashes");
+        sample(out, "password_hash_iterations", "", passwordHasher.getIterations());
+        family(out, "password_hash_rejected_total", "counter", "Password hashes rejected after waiting too long for a permit");
+        sample(out, "password_hash_rejected_total", "", passwordHasher.getRejected());
+        return out.toString();
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * 輸出直方圖的 _bucket（累計，最後一個為 +Inf）、_sum 與 _count；百分位數由 Prometheus 以 histogram_quantile 計算
+     */
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] bounds = histogram.getBoundsMicros();
+        long[] cumulative = histogram.getCumulativeCounts();
+        String separator = labels.isEmpty() ? "" : ",";
+        for (int i = 0; i < cumulative.length; i++) {
+            String le = i < bounds.length ? String.valueOf(bounds[i]) : "+Inf";
+            out.append(name).append("_bucket{").append(labels).append(separator)
+                    .append("le=\"").append(le).append("\"} ").append(cumulative[i]).append('\n');
+        }
+        sample(out, name + "_sum", labels, histogram.getSumMicros());
+        sample(out, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String labels(EndpointStats endpoint) {
+        return "method=\"" + escape(endpoint.getMethod()) + "\",route=\"" + escape(endpoint.getRoute()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
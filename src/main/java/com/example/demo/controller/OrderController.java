@@ -0,0 +1,78 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.example.demo.auth.AuthenticationInterceptor;
+import com.example.demo.auth.UserPrincipal;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.service.CustomerService;
+import com.example.demo.service.OrderService;
+
+@Controller
+@RequestMapping("/customers/{customerId}/orders")
+public class OrderController {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@GetMapping
+	public String listOrders(@PathVariable("customerId") Long customerId,
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "size", required = false) Integer size,
+			@RequestAttribute(name = AuthenticationInterceptor.PRINCIPAL_ATTRIBUTE, required = false) UserPrincipal principal,
+			Model model) {
+		if (principal == null) {
+			return "redirect:/login";
+		}
+		checkOwner(customerId, principal);
+		OrderHistoryRequest request = new OrderHistoryRequest(customerId, after, size);
+		KeysetPage<OrderSummary> page = orderService.getOrderHistory(request);
+		model.addAttribute("customerId", customerId);
+		model.addAttribute("orders", page.getContent());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		model.addAttribute("hasNext", page.hasNext());
+		model.addAttribute("size", request.getSize());
+		return "order-history";
+	}
+
+	@GetMapping("/{orderId}")
+	public String showOrder(@PathVariable("customerId") Long customerId, @PathVariable("orderId") Long orderId,
+			@RequestAttribute(name = AuthenticationInterceptor.PRINCIPAL_ATTRIBUTE, required = false) UserPrincipal principal,
+			Model model) {
+		if (principal == null) {
+			return "redirect:/login";
+		}
+		checkOwner(customerId, principal);
+		Order order = orderService.getOrderWithItems(orderId);
+		// 只比對客戶 ID，不會初始化 customer 代理；別人的訂單與不存在的訂單一樣回 404
+		if (order == null || !order.getCustomer().getId().equals(customerId)) {
+			throw new ResourceNotFoundException("Order not found: " + orderId);
+		}
+		model.addAttribute("customerId", customerId);
+		model.addAttribute("order", order);
+		model.addAttribute("items", order.getItems());
+		return "order-detail";
+	}
+
+	/**
+	 * 只有客戶本人與管理員可以查看訂單；別人的客戶與不存在的客戶一樣回 404，不透露客戶是否存在
+	 */
+	private void checkOwner(Long customerId, UserPrincipal principal) {
+		if (!principal.isAdmin() && !customerService.isOwnedBy(customerId, principal.getId())) {
+			throw new ResourceNotFoundException("Customer not found: " + customerId);
+		}
+	}
+}
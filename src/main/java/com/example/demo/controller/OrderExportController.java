@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.example.demo.export.ExportFormat;
+import com.example.demo.service.OrderExportService;
+
+@Controller
+@RequestMapping("/orders/export")
+public class OrderExportController {
+
+	@Autowired
+	private OrderExportService orderExportService;
+
+	/**
+	 * 串流匯出訂單，例如 /orders/export?format=NDJSON&from=2024-01-01&to=2024-01-31
+	 * from、to 皆為包含的日期
+	 */
+	@GetMapping
+	public void exportOrders(@RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			HttpServletResponse response) throws IOException {
+		response.setContentType(format.getContentType() + ";charset=UTF-8");
+		response.setHeader("Content-Disposition",
+				"attachment; filename=\"orders-" + from + "-" + to + "." + format.getExtension() + "\"");
+		orderExportService.exportOrders(format, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+				Channels.newChannel(response.getOutputStream()));
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.demo.controller;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.demo.datasource.AcquireTimeHistogram;
+import com.example.demo.datasource.PoolMetrics;
+import com.example.demo.datasource.PoolMetricsTrackerFactory;
+
+@Controller
+@RequestMapping("/admin/pool-metrics")
+public class PoolMetricsController {
+
+    @Autowired
+    private PoolMetricsTrackerFactory poolMetricsTrackerFactory;
+
+    @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String poolMetrics() {
+        StringBuilder out = new StringBuilder();
+        for (PoolMetrics pool : poolMetricsTrackerFactory.getPools()) {
+            String label = "{pool=\"" + pool.getPoolName() + "\"}";
+            out.append("hikari_connections_active").append(label).append(' ').append(pool.getActiveConnections()).append('\n');
+            out.append("hikari_connections_idle").append(label).append(' ').append(pool.getIdleConnections()).append('\n');
+            out.append("hikari_connections_pending").append(label).append(' ').append(pool.getPendingThreads()).append('\n');
+            out.append("hikari_connections_total").append(label).append(' ').append(pool.getTotalConnections()).append('\n');
+            out.append("hikari_connections_max").append(label).append(' ').append(pool.getMaxConnections()).append('\n');
+            out.append("hikari_connections_created_total").append(label).append(' ').append(pool.getConnectionsCreated()).append('\n');
+            out.append("hikari_connections_timeout_total").append(label).append(' ').append(pool.getConnectionTimeouts()).append('\n');
+            out.append("hikari_connections_usage_avg_ms").append(label).append(' ')
+                    .append(String.format(Locale.ROOT, "%.3f", pool.getAverageUsageMillis())).append('\n');
+
+            AcquireTimeHistogram histogram = pool.getAcquireTime();
+            long[] bounds = histogram.getBoundsMicros();
+            long[] cumulative = histogram.getCumulativeCounts();
+            for (int i = 0; i < cumulative.length; i++) {
+                String le = i < bounds.length ? String.valueOf(bounds[i]) : "+Inf";
+                out.append("hikari_connections_acquire_us_bucket{pool=\"").append(pool.getPoolName())
+                        .append("\",le=\"").append(le).append("\"} ").append(cumulative[i]).append('\n');
+            }
+            out.append("hikari_connections_acquire_us_sum").append(label).append(' ').append(histogram.getSumMicros()).append('\n');
+            out.append("hikari_connections_acquire_us_count").append(label).append(' ').append(histogram.getCount()).append('\n');
+            out.append("hikari_connections_acquire_us_p99").append(label).append(' ').append(histogram.getPercentileMicros(0.99)).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.demo.controller;
 
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.dto.ProductSort;
 import com.example.demo.model.Product;
+import com.example.demo.model.Product.ProductStatus;
 import com.example.demo.service.ProductService;
 
 @Controller
@@ -15,11 +22,44 @@ public class ProductController {
 	private ProductService productService;
 	
 	@GetMapping
-	public String listProducts(Model model) {
-		model.addAttribute("products", productService.getAllProducts());
+	public String listProducts(@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "size", required = false) Integer size,
+			@RequestParam(value = "type", required = false) String type,
+			@RequestParam(value = "status", required = false) ProductStatus status,
+			@RequestParam(value = "sort", defaultValue = "NEWEST") ProductSort sort,
+			Model model) {
+		ProductPageRequest request = new ProductPageRequest(sort, after, size, type, status);
+		KeysetPage<Product> page = productService.getProductPage(request);
+		model.addAttribute("products", page.getContent());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		model.addAttribute("hasNext", page.hasNext());
+		model.addAttribute("size", request.getSize());
+		model.addAttribute("type", type);
+		model.addAttribute("status", status);
+		model.addAttribute("sort", sort);
 		return "products";
 	}
 	
+	@GetMapping("/search")
+	public String searchProducts(@RequestParam(value = "q", defaultValue = "") String query,
+			@RequestParam(value = "size", required = false) Integer size,
+			Model model) {
+		int limit = size == null ? ProductPageRequest.DEFAULT_SIZE : Math.max(1, Math.min(size, ProductPageRequest.MAX_SIZE));
+		List<ProductSearchHit> hits = productService.searchProducts(query, limit);
+		model.addAttribute("hits", hits);
+		model.addAttribute("q", query);
+		model.addAttribute("size", limit);
+		return "product-search";
+	}
+	
+	@GetMapping(value = "/suggest", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+	@ResponseBody
+	public String suggestProducts(@RequestParam(value = "q", defaultValue = "") String prefix,
+			@RequestParam(value = "size", defaultValue = "10") int size) {
+		// 一行一個商品名稱
+		return String.join("\n", productService.suggestProducts(prefix, Math.max(1, Math.min(size, 20))));
+	}
+	
 	@GetMapping("/add")
 	public String showAddForm(Model model) {
 		model.addAttribute("product", new Product());
@@ -0,0 +1,14 @@
+package com.example.demo.controller;
+
+/**
+ * 要求的資源不存在，或不屬於網址中的擁有者（兩者回應相同，不洩漏資源是否存在）
+ * 由 {@link WebExceptionHandler} 轉成 404
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ResourceNotFoundException(String message) {
+		super(message);
+	}
+}
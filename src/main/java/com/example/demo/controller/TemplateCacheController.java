@@ -0,0 +1,44 @@
+package com.example.demo.controller;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.StandardCache;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+@Controller
+@RequestMapping("/admin/template-cache")
+public class TemplateCacheController {
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String templateCache() {
+        StringBuilder out = new StringBuilder();
+        append(out, "template", templateEngine.getCacheManager().getTemplateCache());
+        append(out, "expression", templateEngine.getCacheManager().getExpressionCache());
+        return out.toString();
+    }
+
+    private void append(StringBuilder out, String name, ICache<?, ?> cache) {
+        if (!(cache instanceof StandardCache)) {
+            return;
+        }
+        StandardCache<?, ?> standardCache = (StandardCache<?, ?>) cache;
+        String label = "{cache=\"" + name + "\"}";
+        out.append("thymeleaf_cache_size").append(label).append(' ').append(standardCache.size()).append('\n');
+        out.append("thymeleaf_cache_max_size").append(label).append(' ').append(standardCache.getMaxSize()).append('\n');
+        out.append("thymeleaf_cache_hits_total").append(label).append(' ').append(standardCache.getHitCount()).append('\n');
+        out.append("thymeleaf_cache_misses_total").append(label).append(' ').append(standardCache.getMissCount()).append('\n');
+        out.append("thymeleaf_cache_hit_ratio").append(label).append(' ')
+                .append(String.format(Locale.ROOT, "%.4f", standardCache.getHitRatio())).append('\n');
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSort;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +19,21 @@ public class UserController {
     private UserService userService;
     
     @GetMapping
-    public String listUsers(Model model) {
-        model.addAttribute("users", userService.getAllUsers());
+    public String listUsers(@RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "email", required = false) String email,
+            @RequestParam(value = "sort", defaultValue = "NEWEST") UserSort sort,
+            Model model) {
+        UserPageRequest request = new UserPageRequest(sort, after, size, username, email);
+        KeysetPage<UserSummary> page = userService.getUserPage(request);
+        model.addAttribute("users", page.getContent());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("hasNext", page.hasNext());
+        model.addAttribute("size", request.getSize());
+        model.addAttribute("username", request.getUsernamePrefix());
+        model.addAttribute("email", request.getEmailPrefix());
+        model.addAttribute("sort", request.getSort());
         return "users";
     }
     
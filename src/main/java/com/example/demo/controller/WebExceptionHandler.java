@@ -0,0 +1,36 @@
+package com.example.demo.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.example.demo.dto.InvalidCursorException;
+
+/**
+ * 把用戶端輸入錯誤轉成 4xx，而不是落到容器的 500 錯誤頁
+ */
+@ControllerAdvice
+public class WebExceptionHandler {
+
+    /**
+     * 無法解析的分頁游標：回 400，前端應回到第一頁
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    /**
+     * 資源不存在或不屬於這個客戶：回 404
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<String> notFound(ResourceNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+}
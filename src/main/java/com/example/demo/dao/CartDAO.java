@@ -0,0 +1,78 @@
+package com.example.demo.dao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.dto.ExpiredCart;
+import com.example.demo.model.Cart;
+
+public interface CartDAO {
+
+	/**
+	 * 查詢客戶購物車中的商品（只查純量欄位，不載入 Cart/Product 實體）
+	 * 
+	 * @param customerId 客戶ID
+	 * @return 購物車商品，沒有購物車時為空清單
+	 */
+	List<CartLine> findLines(Long customerId);
+	
+	/**
+	 * 一次查詢多位客戶的購物車商品
+	 * 
+	 * @param customerIds 客戶ID
+	 * @return 客戶ID → 購物車商品（沒有購物車的客戶不會出現）
+	 */
+	Map<Long, List<CartLine>> findLines(Collection<Long> customerIds);
+	
+	/**
+	 * 依具名實體圖載入客戶的購物車實體
+	 * 
+	 * @param customerId 客戶ID
+	 * @param fetchGraph {@link com.example.demo.model.FetchGraphs} 中的名稱，null 時只載入購物車本身
+	 * @return 購物車，沒有購物車時為 null
+	 */
+	Cart findByCustomerId(Long customerId, String fetchGraph);
+	
+	/**
+	 * 把購物車快照寫入 carts / cart_items：不存在的購物車會建立，
+	 * 數量或單價有變的明細 UPDATE、新商品 INSERT、快照中沒有的明細 DELETE，全部以 JDBC batch 執行
+	 * 
+	 * @param snapshots 購物車快照
+	 */
+	void saveSnapshots(Collection<CartView> snapshots);
+	
+	/**
+	 * 把含有指定商品的購物車明細改成新單價並重算小計，每個商品一句
+	 * UPDATE ... WHERE product_id = ?（走 idx_cart_items_product），以 JDBC batch 執行；單價相同的明細不更新
+	 * 
+	 * @param prices 商品ID → 新單價
+	 * @return 更新的明細數
+	 */
+	int updateUnitPrices(Map<Long, BigDecimal> prices);
+	
+	/**
+	 * 依 (updated_at, id) 順序以 keyset 分頁查詢閒置過久的購物車（走 idx_carts_updated_id，不回表）
+	 * 
+	 * @param updatedBefore 只查最後更新時間早於此時間的購物車
+	 * @param after 上一批最後一筆，null 代表從頭開始
+	 * @param limit 筆數上限
+	 * @return 閒置的購物車
+	 */
+	List<ExpiredCart> findExpired(LocalDateTime updatedBefore, ExpiredCart after, int limit);
+	
+	/**
+	 * 刪除閒置的購物車與其明細：先以 SELECT ... FOR UPDATE 鎖住仍然閒置的購物車，
+	 * 再以 DELETE ... WHERE cart_id IN (...) 與 DELETE ... WHERE id IN (...) 整批刪除；
+	 * 查詢後又被更新的購物車不會刪除
+	 * 
+	 * @param cartIds 購物車ID
+	 * @param updatedBefore 最後更新時間早於此時間才刪除
+	 * @return 刪除的購物車數
+	 */
+	int deleteExpired(Collection<Long> cartIds, LocalDateTime updatedBefore);
+}
@@ -1,5 +1,6 @@
 package com.example.demo.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.example.demo.model.Customer;
@@ -10,6 +11,37 @@ public interface CustomerDAO {
 	
 	Customer findById(Long id);
 	
+	/**
+	 * 依具名實體圖載入客戶
+	 * 
+	 * @param fetchGraph {@link com.example.demo.model.FetchGraphs} 中的名稱，null 時只載入客戶本身
+	 */
+	Customer findById(Long id, String fetchGraph);
+	
+	/**
+	 * 以 IN 條件分段批次查詢客戶，每段一次查詢；不存在的 ID 直接略過
+	 * 
+	 * @param ids 客戶ID
+	 * @param withUser true 時以 JOIN FETCH 一併載入 User，不會再逐筆查詢
+	 * @return 客戶清單（不保證順序）
+	 */
+	List<Customer> findByIds(Collection<Long> ids, boolean withUser);
+	
+	/**
+	 * 以 id 為 keyset 分頁查詢客戶（id 遞增）
+	 * 
+	 * @param afterId 上一頁最後一筆的 ID，第一頁為 null
+	 * @param limit 最多回傳筆數
+	 * @param withUser true 時以 JOIN FETCH 一併載入 User
+	 * @return 客戶清單
+	 */
+	List<Customer> findPage(Long afterId, int limit, boolean withUser);
+	
+	/**
+	 * 取得只帶 ID 的參考（不查詢資料庫），用來設定外鍵
+	 */
+	Customer getReference(Long id);
+	
 	void save(Customer customer);
 	
 	void delete(Long id);
@@ -0,0 +1,20 @@
+package com.example.demo.dao;
+
+public interface JobCheckpointDAO {
+
+	/**
+	 * 查詢背景工作目前的位置
+	 *
+	 * @param name 工作名稱
+	 * @return 目前位置，沒有記錄或已重設時為 null
+	 */
+	String findPosition(String name);
+
+	/**
+	 * 記錄背景工作目前的位置，應與該批處理在同一個交易中，處理回滾時位置也一起回滾
+	 *
+	 * @param name 工作名稱
+	 * @param position 目前位置，null 代表下次從頭開始
+	 */
+	void savePosition(String name, String position);
+}
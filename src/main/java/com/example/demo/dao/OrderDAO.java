@@ -0,0 +1,67 @@
+package com.example.demo.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.example.demo.dto.OrderExportRow;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+
+public interface OrderDAO {
+
+	/**
+	 * 以唯讀、僅能向前的游標逐列讀取指定期間的訂單與明細，不會把結果集整個載入記憶體
+	 * 
+	 * @param from 建立時間起（含）
+	 * @param to 建立時間迄（不含）
+	 * @param consumer 每列的處理方式
+	 * @return 讀取列數
+	 */
+	long streamOrderLines(LocalDateTime from, LocalDateTime to, Consumer<OrderExportRow> consumer);
+	
+	/**
+	 * 新增訂單與所有明細，明細在同一次 flush 中以 JDBC batch 寫入
+	 * 
+	 * @param order 訂單
+	 * @param items 訂單明細
+	 */
+	void insert(Order order, List<OrderItem> items);
+	
+	/**
+	 * 依具名實體圖載入訂單，圖中的關聯以 JOIN 一次查出，其餘維持 LAZY
+	 * 
+	 * @param id 訂單ID
+	 * @param fetchGraph {@link com.example.demo.model.FetchGraphs} 中的名稱，null 時只載入訂單本身
+	 * @return 訂單，不存在時為 null
+	 */
+	Order findById(Long id, String fetchGraph);
+	
+	/**
+	 * 以 SELECT ... FOR UPDATE 載入訂單，同一訂單的狀態轉換在交易結束前不會並行
+	 * 
+	 * @param id 訂單ID
+	 * @return 訂單，不存在時為 null
+	 */
+	Order findByIdForUpdate(Long id);
+	
+	/**
+	 * 依建立時間新到舊查詢客戶的訂單（投影），走 idx_orders_customer_created_id 的範圍掃描
+	 * 
+	 * @param request 查詢條件
+	 * @return 最多 size + 1 筆，多出的一筆用來判斷是否還有下一頁
+	 */
+	List<OrderSummary> findHistory(OrderHistoryRequest request);
+	
+	/**
+	 * 一次查詢多筆訂單的商品總件數
+	 * 
+	 * @param orderIds 訂單ID
+	 * @return 訂單ID → 明細數量合計（沒有明細的訂單不會出現）
+	 */
+	Map<Long, Long> sumItemQuantities(Collection<Long> orderIds);
+}
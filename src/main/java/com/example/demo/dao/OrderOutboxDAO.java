@@ -0,0 +1,36 @@
+package com.example.demo.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.example.demo.model.OrderOutbox;
+
+public interface OrderOutboxDAO {
+
+	/**
+	 * 新增事件，必須與訂單狀態變更在同一個交易中
+	 * 
+	 * @param event 事件
+	 */
+	void insert(OrderOutbox event);
+	
+	/**
+	 * 依ID順序查詢尚未發送的事件（走 published_at, id 索引）
+	 * 
+	 * @param createdBefore 只查這個時間之前建立的事件
+	 * @param afterId 只查ID大於此值的事件
+	 * @param limit 筆數上限
+	 * @return 尚未發送的事件
+	 */
+	List<OrderOutbox> findUnpublished(LocalDateTime createdBefore, long afterId, int limit);
+	
+	/**
+	 * 以 UPDATE ... WHERE id IN (...) 批次標記事件已發送
+	 * 
+	 * @param ids 事件ID
+	 * @param publishedAt 發送完成時間
+	 * @return 更新筆數
+	 */
+	int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+}
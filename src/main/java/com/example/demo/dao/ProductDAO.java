@@ -1,15 +1,78 @@
 package com.example.demo.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import com.example.demo.dto.ProductPageRequest;
 import com.example.demo.model.Product;
 
 public interface ProductDAO {
 
 	List<Product> findAll();
 	
+	/**
+	 * 以 keyset 分頁查詢商品，最多回傳 size + 1 筆以判斷是否還有下一頁。
+	 * 每種「篩選 + 排序」組合都有以篩選欄位開頭、排序欄位與 id 結尾的索引，查詢只是一段索引範圍掃描；
+	 * 唯一的例外是同時篩選類型與狀態並依價格排序：走 (type, price, id) 後再以狀態過濾，
+	 * 每頁讀取的列數與該類型中不符合狀態的商品比例有關
+	 * 
+	 * @param request 分頁條件
+	 * @return 商品清單
+	 */
+	List<Product> findPage(ProductPageRequest request);
+	
 	Product findById(Long id);
 	
+	/**
+	 * 以 IN 條件一次查出多個商品（每 1000 個 ID 一次查詢）
+	 * 
+	 * @param ids 商品ID
+	 * @return 商品清單，不存在的 ID 不會出現，順序不固定
+	 */
+	List<Product> findByIds(Collection<Long> ids);
+	
 	void save(Product product);
 	
+	/**
+	 * 批次新增商品，每 batchSize 筆 flush 並清空 Session，記憶體用量與總筆數無關
+	 * 
+	 * @param products 商品資料流
+	 * @param batchSize 每批筆數，同時作為這段期間 Session 的 JDBC batch 大小（不影響其他 Session）
+	 * @return 新增筆數
+	 */
+	long insertAll(Stream<Product> products, int batchSize);
+	
+	/**
+	 * 以唯讀、逐列串流的方式走訪所有商品（不經過 Session 快取），供建立搜尋索引使用
+	 * 
+	 * @param consumer 處理每一筆商品
+	 * @return 商品筆數
+	 */
+	long streamAll(Consumer<Product> consumer);
+	
+	/**
+	 * 直接從資料庫讀取庫存（不經過快取）
+	 * 
+	 * @param ids 商品ID
+	 * @return 商品ID 對應庫存，不存在的商品不會出現
+	 */
+	Map<Long, Integer> findStocks(Collection<Long> ids);
+	
+	/**
+	 * 條件式扣庫存（WHERE stock >= quantity），扣到 0 時把上架中的商品轉為缺貨
+	 * 
+	 * @return 更新筆數；庫存不足時為 0
+	 */
+	int decreaseStock(Long id, int quantity);
+	
+	/**
+	 * 增加庫存，缺貨中的商品補貨後恢復上架
+	 * 
+	 * @return 更新筆數
+	 */
+	int increaseStock(Long id, int quantity);
+	
 	void delete(Long id);
 }
@@ -1,5 +1,7 @@
 package com.example.demo.dao;
 
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
 import java.util.List;
 
@@ -7,8 +9,24 @@ public interface UserDAO {
     
     List<User> findAll();
     
+    /**
+     * 以 keyset 分頁查詢使用者列表欄位，最多回傳 size + 1 筆以判斷是否還有下一頁
+     * 
+     * @param request 分頁與前綴篩選條件
+     * @return 使用者摘要清單
+     */
+    List<UserSummary> findPage(UserPageRequest request);
+    
     User findById(Long id);
     
+    /**
+     * 以使用者名稱查詢，走 username 的唯一索引
+     * 
+     * @param username 使用者名稱
+     * @return 使用者，不存在時為 null
+     */
+    User findByUsername(String username);
+    
     void save(User user);
     
     void delete(Long id);
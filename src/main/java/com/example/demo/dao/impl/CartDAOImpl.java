@@ -0,0 +1,322 @@
+package com.example.demo.dao.impl;
+
+import com.example.demo.dao.CartDAO;
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.dto.ExpiredCart;
+import com.example.demo.model.Cart;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class CartDAOImpl implements CartDAO {
+
+	/**
+	 * IN 條件每次最多帶入的 ID 數
+	 */
+	private static final int IN_CHUNK_SIZE = 1000;
+
+	/**
+	 * 只載入實體圖中的關聯，其餘一律 LAZY
+	 */
+	private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Value("${hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+
+	private Session getCurrrentSession() {
+		return sessionFactory.getCurrentSession();
+	}
+
+	@Override
+	public List<CartLine> findLines(Long customerId) {
+		List<CartLine> lines = findLines(List.of(customerId)).get(customerId);
+		return lines != null ? lines : new ArrayList<>();
+	}
+
+	@Override
+	public Map<Long, List<CartLine>> findLines(Collection<Long> customerIds) {
+		Map<Long, List<CartLine>> result = new HashMap<>();
+		for (List<Long> chunk : chunks(customerIds)) {
+			List<Object[]> rows = getCurrrentSession().createQuery(
+					"SELECT c.customer.id, i.product.id, i.quantity, i.unitPrice"
+							+ " FROM CartItem i JOIN i.cart c WHERE c.customer.id IN :customerIds ORDER BY i.id", Object[].class)
+					.setParameter("customerIds", chunk)
+					.list();
+			for (Object[] row : rows) {
+				result.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+						.add(new CartLine((Long) row[1], (Integer) row[2], (BigDecimal) row[3]));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Cart findByCustomerId(Long customerId, String fetchGraph) {
+		Query<Cart> query = getCurrrentSession().createQuery("FROM Cart c WHERE c.customer.id = :customerId", Cart.class)
+				.setParameter("customerId", customerId);
+		if (fetchGraph != null) {
+			query.setHint(FETCH_GRAPH_HINT, getCurrrentSession().getEntityGraph(fetchGraph));
+		}
+		return query.uniqueResult();
+	}
+
+	@Override
+	public void saveSnapshots(Collection<CartView> snapshots) {
+		if (snapshots.isEmpty()) {
+			return;
+		}
+		Session session = getCurrrentSession();
+		List<Long> customerIds = new ArrayList<>(snapshots.size());
+		for (CartView snapshot : snapshots) {
+			customerIds.add(snapshot.getCustomerId());
+		}
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+		Map<Long, Long> cartIds = findCartIds(customerIds);
+		List<Long> missing = new ArrayList<>();
+		for (Long customerId : customerIds) {
+			if (!cartIds.containsKey(customerId)) {
+				missing.add(customerId);
+			}
+		}
+		if (!missing.isEmpty()) {
+			session.doWork(connection -> {
+				try (PreparedStatement insert = connection.prepareStatement(
+						"INSERT INTO carts (customer_id, created_at, updated_at) VALUES (?, ?, ?)")) {
+					int pending = 0;
+					for (Long customerId : missing) {
+						insert.setLong(1, customerId);
+						insert.setTimestamp(2, now);
+						insert.setTimestamp(3, now);
+						insert.addBatch();
+						pending = executeIfFull(insert, ++pending);
+					}
+					insert.executeBatch();
+				}
+			});
+			cartIds.putAll(findCartIds(missing));
+		}
+
+		// 現有明細：cartId → (productId → 明細)
+		Map<Long, Map<Long, ExistingItem>> existing = new HashMap<>();
+		for (List<Long> chunk : chunks(cartIds.values())) {
+			List<Object[]> rows = session.createQuery(
+					"SELECT i.id, i.cart.id, i.product.id, i.quantity, i.unitPrice FROM CartItem i WHERE i.cart.id IN :cartIds",
+					Object[].class)
+					.setParameter("cartIds", chunk)
+					.list();
+			for (Object[] row : rows) {
+				existing.computeIfAbsent((Long) row[1], id -> new HashMap<>())
+						.put((Long) row[2], new ExistingItem((Long) row[0], (Integer) row[3], (BigDecimal) row[4]));
+			}
+		}
+
+		session.doWork(connection -> {
+			try (PreparedStatement update = connection.prepareStatement(
+					"UPDATE cart_items SET quantity = ?, unit_price = ?, subtotal = ?, updated_at = ? WHERE id = ?");
+					PreparedStatement insert = connection.prepareStatement(
+							"INSERT INTO cart_items (cart_id, product_id, quantity, unit_price, subtotal, created_at, updated_at)"
+									+ " VALUES (?, ?, ?, ?, ?, ?, ?)");
+					PreparedStatement delete = connection.prepareStatement("DELETE FROM cart_items WHERE id = ?");
+					PreparedStatement touch = connection.prepareStatement("UPDATE carts SET updated_at = ? WHERE id = ?")) {
+				int updates = 0;
+				int inserts = 0;
+				int deletes = 0;
+				int touches = 0;
+				for (CartView snapshot : snapshots) {
+					Long cartId = cartIds.get(snapshot.getCustomerId());
+					Map<Long, ExistingItem> items = existing.getOrDefault(cartId, new HashMap<>());
+					for (CartLine line : snapshot.getLines()) {
+						ExistingItem item = items.remove(line.getProductId());
+						if (item == null) {
+							insert.setLong(1, cartId);
+							insert.setLong(2, line.getProductId());
+							insert.setInt(3, line.getQuantity());
+							insert.setBigDecimal(4, line.getUnitPrice());
+							insert.setBigDecimal(5, line.getSubtotal());
+							insert.setTimestamp(6, now);
+							insert.setTimestamp(7, now);
+							insert.addBatch();
+							inserts = executeIfFull(insert, ++inserts);
+						} else if (item.quantity != line.getQuantity() || item.unitPrice.compareTo(line.getUnitPrice()) != 0) {
+							update.setInt(1, line.getQuantity());
+							update.setBigDecimal(2, line.getUnitPrice());
+							update.setBigDecimal(3, line.getSubtotal());
+							update.setTimestamp(4, now);
+							update.setLong(5, item.id);
+							update.addBatch();
+							updates = executeIfFull(update, ++updates);
+						}
+					}
+					// 快照中已沒有的商品
+					for (ExistingItem item : items.values()) {
+						delete.setLong(1, item.id);
+						delete.addBatch();
+						deletes = executeIfFull(delete, ++deletes);
+					}
+					touch.setTimestamp(1, now);
+					touch.setLong(2, cartId);
+					touch.addBatch();
+					touches = executeIfFull(touch, ++touches);
+				}
+				delete.executeBatch();
+				update.executeBatch();
+				insert.executeBatch();
+				touch.executeBatch();
+			}
+		});
+	}
+
+	@Override
+	public int updateUnitPrices(Map<Long, BigDecimal> prices) {
+		if (prices.isEmpty()) {
+			return 0;
+		}
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		return getCurrrentSession().doReturningWork(connection -> {
+			int updated = 0;
+			try (PreparedStatement update = connection.prepareStatement(
+					"UPDATE cart_items SET unit_price = ?, subtotal = quantity * ?, updated_at = ?"
+							+ " WHERE product_id = ? AND unit_price <> ?")) {
+				int pending = 0;
+				for (Map.Entry<Long, BigDecimal> price : prices.entrySet()) {
+					update.setBigDecimal(1, price.getValue());
+					update.setBigDecimal(2, price.getValue());
+					update.setTimestamp(3, now);
+					update.setLong(4, price.getKey());
+					update.setBigDecimal(5, price.getValue());
+					update.addBatch();
+					if (++pending == batchSize) {
+						updated += sum(update.executeBatch());
+						pending = 0;
+					}
+				}
+				updated += sum(update.executeBatch());
+			}
+			return updated;
+		});
+	}
+
+	@Override
+	public List<ExpiredCart> findExpired(LocalDateTime updatedBefore, ExpiredCart after, int limit) {
+		StringBuilder hql = new StringBuilder("SELECT new com.example.demo.dto.ExpiredCart(c.id, c.customer.id, c.updatedAt)"
+				+ " FROM Cart c WHERE c.updatedAt < :updatedBefore");
+		if (after != null) {
+			hql.append(" AND (c.updatedAt > :afterUpdatedAt OR (c.updatedAt = :afterUpdatedAt AND c.id > :afterId))");
+		}
+		hql.append(" ORDER BY c.updatedAt, c.id");
+		Query<ExpiredCart> query = getCurrrentSession().createQuery(hql.toString(), ExpiredCart.class)
+				.setParameter("updatedBefore", updatedBefore)
+				.setMaxResults(limit);
+		if (after != null) {
+			query.setParameter("afterUpdatedAt", after.getUpdatedAt())
+					.setParameter("afterId", after.getCartId());
+		}
+		return query.list();
+	}
+
+	@Override
+	public int deleteExpired(Collection<Long> cartIds, LocalDateTime updatedBefore) {
+		Session session = getCurrrentSession();
+		int deleted = 0;
+		for (List<Long> chunk : chunks(cartIds)) {
+			// 鎖住仍然閒置的購物車，寫回中的購物車（UPDATE carts SET updated_at）會等這個交易結束
+			List<Long> locked = session.createQuery(
+					"SELECT c.id FROM Cart c WHERE c.id IN :cartIds AND c.updatedAt < :updatedBefore", Long.class)
+					.setParameter("cartIds", chunk)
+					.setParameter("updatedBefore", updatedBefore)
+					.setLockMode("c", LockMode.PESSIMISTIC_WRITE)
+					.list();
+			if (locked.isEmpty()) {
+				continue;
+			}
+			session.createQuery("DELETE FROM CartItem i WHERE i.cart.id IN :cartIds")
+					.setParameter("cartIds", locked)
+					.executeUpdate();
+			deleted += session.createQuery("DELETE FROM Cart c WHERE c.id IN :cartIds")
+					.setParameter("cartIds", locked)
+					.executeUpdate();
+		}
+		return deleted;
+	}
+
+	private static int sum(int[] counts) {
+		int sum = 0;
+		for (int count : counts) {
+			// 驅動可能回傳 SUCCESS_NO_INFO（-2），此時無法得知筆數
+			sum += Math.max(count, 0);
+		}
+		return sum;
+	}
+
+	private Map<Long, Long> findCartIds(Collection<Long> customerIds) {
+		Map<Long, Long> cartIds = new HashMap<>();
+		for (List<Long> chunk : chunks(customerIds)) {
+			List<Object[]> rows = getCurrrentSession().createQuery(
+					"SELECT c.customer.id, c.id FROM Cart c WHERE c.customer.id IN :customerIds", Object[].class)
+					.setParameter("customerIds", chunk)
+					.list();
+			for (Object[] row : rows) {
+				cartIds.put((Long) row[0], (Long) row[1]);
+			}
+		}
+		return cartIds;
+	}
+
+	private int executeIfFull(PreparedStatement statement, int pending) throws SQLException {
+		if (pending < batchSize) {
+			return pending;
+		}
+		statement.executeBatch();
+		return 0;
+	}
+
+	private static List<List<Long>> chunks(Collection<Long> ids) {
+		List<List<Long>> chunks = new ArrayList<>();
+		List<Long> chunk = new ArrayList<>(Math.min(ids.size(), IN_CHUNK_SIZE));
+		for (Long id : ids) {
+			chunk.add(id);
+			if (chunk.size() == IN_CHUNK_SIZE) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>(IN_CHUNK_SIZE);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	private static final class ExistingItem {
+
+		final Long id;
+		final int quantity;
+		final BigDecimal unitPrice;
+
+		ExistingItem(Long id, int quantity, BigDecimal unitPrice) {
+			this.id = id;
+			this.quantity = quantity;
+			this.unitPrice = unitPrice;
+		}
+	}
+}
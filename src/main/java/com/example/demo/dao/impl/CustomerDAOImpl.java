@@ -8,11 +8,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class CustomerDAOImpl implements CustomerDAO{
 	
+	/**
+	 * 只載入實體圖中的關聯，其餘一律 LAZY
+	 */
+	private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+	
+	/**
+	 * IN 條件每次最多帶入的 ID 數
+	 */
+	private static final int IN_CHUNK_SIZE = 1000;
+	
 	@Autowired
 	private SessionFactory sessionFactory;
 	
@@ -30,6 +44,49 @@ public class CustomerDAOImpl implements CustomerDAO{
         return getCurrentSession().get(Customer.class, id);
 	}
 
+	@Override
+	public Customer findById(Long id, String fetchGraph) {
+		Session session = getCurrentSession();
+		if (fetchGraph == null) {
+			return session.get(Customer.class, id);
+		}
+		return session.find(Customer.class, id, Map.of(FETCH_GRAPH_HINT, session.getEntityGraph(fetchGraph)));
+	}
+
+	@Override
+	public List<Customer> findByIds(Collection<Long> ids, boolean withUser) {
+		List<Customer> customers = new ArrayList<>(ids.size());
+		List<Long> idList = new ArrayList<>(ids);
+		String hql = withUser ? "SELECT c FROM Customer c JOIN FETCH c.user WHERE c.id IN (:ids)"
+				: "FROM Customer c WHERE c.id IN (:ids)";
+		for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+			customers.addAll(getCurrentSession().createQuery(hql, Customer.class)
+					.setParameterList("ids", idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size())))
+					.list());
+		}
+		return customers;
+	}
+
+	@Override
+	public List<Customer> findPage(Long afterId, int limit, boolean withUser) {
+		StringBuilder hql = new StringBuilder(withUser ? "SELECT c FROM Customer c JOIN FETCH c.user" : "FROM Customer c");
+		if (afterId != null) {
+			hql.append(" WHERE c.id > :afterId");
+		}
+		hql.append(" ORDER BY c.id");
+		Query<Customer> query = getCurrentSession().createQuery(hql.toString(), Customer.class);
+		if (afterId != null) {
+			query.setParameter("afterId", afterId);
+		}
+		// JOIN FETCH 的是對一關聯，筆數限制仍在 SQL 中套用
+		return query.setMaxResults(limit).list();
+	}
+
+	@Override
+	public Customer getReference(Long id) {
+		return getCurrentSession().load(Customer.class, id);
+	}
+
 	@Override
 	public void save(Customer customer) {
 		getCurrentSession().saveOrUpdate(customer);
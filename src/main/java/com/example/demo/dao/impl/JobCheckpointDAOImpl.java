@@ -0,0 +1,37 @@
+package com.example.demo.dao.impl;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dao.JobCheckpointDAO;
+import com.example.demo.model.JobCheckpoint;
+
+@Repository
+public class JobCheckpointDAOImpl implements JobCheckpointDAO {
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	private Session getCurrentSession() {
+		return sessionFactory.getCurrentSession();
+	}
+
+	@Override
+	public String findPosition(String name) {
+		JobCheckpoint checkpoint = getCurrentSession().get(JobCheckpoint.class, name);
+		return checkpoint != null ? checkpoint.getPosition() : null;
+	}
+
+	@Override
+	public void savePosition(String name, String position) {
+		Session session = getCurrentSession();
+		JobCheckpoint checkpoint = session.get(JobCheckpoint.class, name);
+		if (checkpoint == null) {
+			session.persist(new JobCheckpoint(name, position));
+		} else {
+			checkpoint.setPosition(position);
+		}
+	}
+}
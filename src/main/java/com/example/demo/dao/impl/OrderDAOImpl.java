@@ -0,0 +1,144 @@
+package com.example.demo.dao.impl;
+
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dto.OrderExportRow;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Order.PaymentStatus;
+import org.hibernate.LockMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+public class OrderDAOImpl implements OrderDAO {
+
+	/**
+	 * IN 條件每次最多帶入的 ID 數
+	 */
+	private static final int IN_CHUNK_SIZE = 1000;
+
+	/**
+	 * 只載入實體圖中的關聯，其餘一律 LAZY
+	 */
+	private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+	/**
+	 * 匯出用的 JDBC fetch size；MySQL Connector/J 只有在 Integer.MIN_VALUE 時才會逐列串流
+	 */
+	@Value("${export.orders.fetchSize:-2147483648}")
+	private int exportFetchSize;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	private Session getCurrentSession() {
+		return sessionFactory.getCurrentSession();
+	}
+
+	@Override
+	public long streamOrderLines(LocalDateTime from, LocalDateTime to, Consumer<OrderExportRow> consumer) {
+		// 只查純量欄位：不建立實體、不觸發 Order.customer 等關聯的額外查詢
+		String hql = "SELECT o.id, o.orderNo, o.customer.id, o.totalAmount, o.status, o.paymentMethod, o.paymentStatus, o.createdAt,"
+				+ " i.id, i.product.id, i.quantity, i.unitPrice, i.subtotal"
+				+ " FROM Order o LEFT JOIN OrderItem i ON i.order = o"
+				+ " WHERE o.createdAt >= :from AND o.createdAt < :to"
+				+ " ORDER BY o.id, i.id";
+		long count = 0;
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				ScrollableResults results = session.createQuery(hql)
+						.setParameter("from", from)
+						.setParameter("to", to)
+						.setReadOnly(true)
+						.setFetchSize(exportFetchSize)
+						.scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				Object[] row = results.get();
+				consumer.accept(new OrderExportRow(
+						(Long) row[0], (String) row[1], (Long) row[2], (BigDecimal) row[3],
+						(OrderStatus) row[4], (PaymentMethod) row[5], (PaymentStatus) row[6], (LocalDateTime) row[7],
+						(Long) row[8], (Long) row[9], (Integer) row[10], (BigDecimal) row[11], (BigDecimal) row[12]));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void insert(Order order, List<OrderItem> items) {
+		Session session = getCurrentSession();
+		session.persist(order);
+		for (OrderItem item : items) {
+			session.persist(item);
+		}
+		session.flush();
+	}
+
+	@Override
+	public Order findById(Long id, String fetchGraph) {
+		Session session = getCurrentSession();
+		if (fetchGraph == null) {
+			return session.get(Order.class, id);
+		}
+		return session.find(Order.class, id, Map.of(FETCH_GRAPH_HINT, session.getEntityGraph(fetchGraph)));
+	}
+
+	@Override
+	public Order findByIdForUpdate(Long id) {
+		return getCurrentSession().get(Order.class, id, LockMode.PESSIMISTIC_WRITE);
+	}
+
+	@Override
+	public List<OrderSummary> findHistory(OrderHistoryRequest request) {
+		StringBuilder hql = new StringBuilder("SELECT new com.example.demo.dto.OrderSummary(o.id, o.orderNo, o.status, o.totalAmount, o.createdAt)"
+				+ " FROM Order o WHERE o.customer.id = :customerId");
+		if (request.getAfterId() != null) {
+			// (created_at, id) 在游標之後：展開成 OR 形式，MySQL 會轉成複合索引上的範圍掃描
+			hql.append(" AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+		}
+		hql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+		Query<OrderSummary> query = getCurrentSession().createQuery(hql.toString(), OrderSummary.class)
+				.setParameter("customerId", request.getCustomerId());
+		if (request.getAfterId() != null) {
+			query.setParameter("afterCreatedAt", request.getAfterCreatedAt());
+			query.setParameter("afterId", request.getAfterId());
+		}
+		return query.setMaxResults(request.getSize() + 1).list();
+	}
+
+	@Override
+	public Map<Long, Long> sumItemQuantities(Collection<Long> orderIds) {
+		Map<Long, Long> quantities = new HashMap<>();
+		List<Long> idList = new ArrayList<>(orderIds);
+		for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+			List<Object[]> rows = getCurrentSession().createQuery("SELECT i.order.id, SUM(i.quantity) FROM OrderItem i"
+					+ " WHERE i.order.id IN (:orderIds) GROUP BY i.order.id", Object[].class)
+					.setParameterList("orderIds", idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size())))
+					.list();
+			for (Object[] row : rows) {
+				quantities.put((Long) row[0], ((Number) row[1]).longValue());
+			}
+		}
+		return quantities;
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.demo.dao.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dao.OrderOutboxDAO;
+import com.example.demo.model.OrderOutbox;
+
+@Repository
+public class OrderOutboxDAOImpl implements OrderOutboxDAO {
+
+	/**
+	 * IN 條件每次最多帶入的 ID 數
+	 */
+	private static final int IN_CHUNK_SIZE = 1000;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	private Session getCurrentSession() {
+		return sessionFactory.getCurrentSession();
+	}
+
+	@Override
+	public void insert(OrderOutbox event) {
+		getCurrentSession().persist(event);
+	}
+
+	@Override
+	public List<OrderOutbox> findUnpublished(LocalDateTime createdBefore, long afterId, int limit) {
+		return getCurrentSession().createQuery("FROM OrderOutbox e"
+				+ " WHERE e.publishedAt IS NULL AND e.id > :afterId AND e.createdAt < :createdBefore"
+				+ " ORDER BY e.id", OrderOutbox.class)
+				.setParameter("afterId", afterId)
+				.setParameter("createdBefore", createdBefore)
+				.setMaxResults(limit)
+				.setReadOnly(true)
+				.list();
+	}
+
+	@Override
+	public int markPublished(Collection<Long> ids, LocalDateTime publishedAt) {
+		List<Long> idList = new ArrayList<>(ids);
+		int updated = 0;
+		for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+			updated += getCurrentSession().createQuery("UPDATE OrderOutbox e SET e.publishedAt = :publishedAt"
+					+ " WHERE e.id IN (:ids) AND e.publishedAt IS NULL")
+					.setParameter("publishedAt", publishedAt)
+					.setParameterList("ids", idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size())))
+					.executeUpdate();
+		}
+		return updated;
+	}
+}
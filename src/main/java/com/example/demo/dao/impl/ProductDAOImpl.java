@@ -1,17 +1,50 @@
 package com.example.demo.dao.impl;
 
 import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSort;
 import com.example.demo.model.Product;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class ProductDAOImpl implements ProductDAO{
 	
+	/**
+	 * 商品列表查詢快取區域
+	 */
+	public static final String PRODUCT_LIST_REGION = "product-list";
+	
+	/**
+	 * 走訪全部商品時的 JDBC fetch size；MySQL Connector/J 只有在 Integer.MIN_VALUE 時才會逐列串流
+	 */
+	/**
+	 * IN 條件每次最多帶的 ID 數
+	 */
+	private static final int IN_CHUNK_SIZE = 1000;
+	
+	@Value("${search.index.fetchSize:-2147483648}")
+	private int streamFetchSize;
+	
 	@Autowired
 	private SessionFactory sessionFactory;
 	
@@ -21,7 +54,49 @@ public class ProductDAOImpl implements ProductDAO{
 	
 	@Override
 	public List<Product> findAll() {
-		return getCurrrentSession().createQuery("FROM Product", Product.class).list();
+		return getCurrrentSession().createQuery("FROM Product", Product.class)
+				.setCacheable(true)
+				.setCacheRegion(PRODUCT_LIST_REGION)
+				.list();
+	}
+	
+	@Override
+	public List<Product> findPage(ProductPageRequest request) {
+		ProductSort sort = request.getSort();
+		String property = "p." + sort.getProperty();
+		String direction = sort.isAscending() ? "ASC" : "DESC";
+		String comparator = sort.isAscending() ? ">" : "<";
+
+		StringBuilder hql = new StringBuilder("FROM Product p WHERE ").append(property).append(" IS NOT NULL");
+		if (request.getType() != null) {
+			hql.append(" AND p.type = :type");
+		}
+		if (request.getStatus() != null) {
+			hql.append(" AND p.status = :status");
+		}
+		if (request.getAfterId() != null) {
+			// (sortValue, id) 在游標之後：展開成 OR 形式，MySQL 會轉成複合索引上的範圍掃描
+			hql.append(" AND (").append(property).append(' ').append(comparator).append(" :afterValue")
+					.append(" OR (").append(property).append(" = :afterValue AND p.id ").append(comparator).append(" :afterId))");
+		}
+		hql.append(" ORDER BY ").append(property).append(' ').append(direction)
+				.append(", p.id ").append(direction);
+
+		Query<Product> query = getCurrrentSession().createQuery(hql.toString(), Product.class);
+		if (request.getType() != null) {
+			query.setParameter("type", request.getType());
+		}
+		if (request.getStatus() != null) {
+			query.setParameter("status", request.getStatus());
+		}
+		if (request.getAfterId() != null) {
+			query.setParameter("afterValue", request.getAfterValue());
+			query.setParameter("afterId", request.getAfterId());
+		}
+		return query.setMaxResults(request.getSize() + 1)
+				.setCacheable(true)
+				.setCacheRegion(PRODUCT_LIST_REGION)
+				.list();
 	}
 	
 	@Override
@@ -29,11 +104,113 @@ public class ProductDAOImpl implements ProductDAO{
 		return getCurrrentSession().get(Product.class, id);
 	}
 	
+	@Override
+	public List<Product> findByIds(Collection<Long> ids) {
+		List<Product> products = new ArrayList<>(ids.size());
+		List<Long> idList = new ArrayList<>(ids);
+		for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+			products.addAll(getCurrrentSession().createQuery("FROM Product p WHERE p.id IN (:ids)", Product.class)
+					.setParameterList("ids", idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size())))
+					.list());
+		}
+		return products;
+	}
+	
 	@Override
 	public void save(Product product) {
 		getCurrrentSession().saveOrUpdate(product);
 	}
 	
+	@Override
+	public long insertAll(Stream<Product> products, int batchSize) {
+		Session session = getCurrrentSession();
+		FlushMode originalFlushMode = session.getHibernateFlushMode();
+		CacheMode originalCacheMode = session.getCacheMode();
+		Integer originalBatchSize = session.getJdbcBatchSize();
+		// 匯入的商品不放進二級快取，避免把熱門商品擠出去；也不在查詢前自動 flush
+		session.setHibernateFlushMode(FlushMode.MANUAL);
+		session.setCacheMode(CacheMode.IGNORE);
+		// 只有這個 Session 用較大的 batch：一次 flush 就是一個 executeBatch，MySQL 會改寫成一句多列 INSERT
+		session.setJdbcBatchSize(batchSize);
+		long count = 0;
+		try {
+			Iterator<Product> iterator = products.iterator();
+			while (iterator.hasNext()) {
+				session.persist(iterator.next());
+				if (++count % batchSize == 0) {
+					session.flush();
+					session.clear();
+				}
+			}
+			session.flush();
+			session.clear();
+		} finally {
+			session.setHibernateFlushMode(originalFlushMode);
+			session.setCacheMode(originalCacheMode);
+			session.setJdbcBatchSize(originalBatchSize);
+		}
+		return count;
+	}
+	
+	@Override
+	public long streamAll(Consumer<Product> consumer) {
+		long count = 0;
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				ScrollableResults results = session.createQuery("FROM Product p ORDER BY p.id", Product.class)
+						.setReadOnly(true)
+						.setFetchSize(streamFetchSize)
+						.scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				consumer.accept((Product) results.get(0));
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	@Override
+	public Map<Long, Integer> findStocks(Collection<Long> ids) {
+		Map<Long, Integer> stocks = new HashMap<>();
+		List<Long> idList = new ArrayList<>(ids);
+		for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+			List<Object[]> rows = getCurrrentSession()
+					.createQuery("SELECT p.id, p.stock FROM Product p WHERE p.id IN (:ids)", Object[].class)
+					.setParameterList("ids", idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size())))
+					.list();
+			for (Object[] row : rows) {
+				stocks.put((Long) row[0], (Integer) row[1]);
+			}
+		}
+		return stocks;
+	}
+	
+	@Override
+	public int decreaseStock(Long id, int quantity) {
+		// status 放在 stock 之前：MySQL 由左到右套用 SET，後面的運算式會看到前面更新過的值
+		return getCurrrentSession().createNativeQuery("UPDATE product SET "
+				+ "status = CASE WHEN status = 'ACTIVE' AND stock <= :quantity THEN 'OUT_OF_STOCK' ELSE status END, "
+				+ "stock = stock - :quantity, updated_at = :now "
+				+ "WHERE id = :id AND stock >= :quantity")
+				.setParameter("quantity", quantity)
+				.setParameter("now", LocalDateTime.now())
+				.setParameter("id", id)
+				.addSynchronizedEntityClass(Product.class)
+				.executeUpdate();
+	}
+	
+	@Override
+	public int increaseStock(Long id, int quantity) {
+		return getCurrrentSession().createNativeQuery("UPDATE product SET "
+				+ "status = CASE WHEN status = 'OUT_OF_STOCK' AND stock + :quantity > 0 THEN 'ACTIVE' ELSE status END, "
+				+ "stock = stock + :quantity, updated_at = :now "
+				+ "WHERE id = :id")
+				.setParameter("quantity", quantity)
+				.setParameter("now", LocalDateTime.now())
+				.setParameter("id", id)
+				.addSynchronizedEntityClass(Product.class)
+				.executeUpdate();
+	}
+	
 	@Override
 	public void delete(Long id) {
 		Product product = getCurrrentSession().get(Product.class, id);
@@ -0,0 +1,66 @@
+package com.example.demo.dao.impl;
+
+import java.sql.Statement;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 啟動時校正以表模擬的序列（product_seq、order_items_seq）
+ * 這些 ID 原本由 AUTO_INCREMENT 產生，MySQL 改用序列表後，hbm2ddl 建立的初始值可能小於既有的最大 ID，
+ * 這裡把 next_val 推進到 MAX(id) + 1 以避免主鍵衝突（已經超過時不會改動）
+ */
+@Component
+public class TableSequenceInitializer implements InitializingBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(TableSequenceInitializer.class);
+
+	/**
+	 * 序列表與對應的資料表
+	 */
+	private static final String[][] SEQUENCES = {
+			{ "product_seq", "product" },
+			{ "order_items_seq", "order_items" }
+	};
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Override
+	public void afterPropertiesSet() {
+		// 支援原生 SEQUENCE 的資料庫不會建立序列表
+		if (sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect().supportsSequences()) {
+			return;
+		}
+		for (String[] sequence : SEQUENCES) {
+			align(sequence[0], sequence[1]);
+		}
+	}
+
+	private void align(String sequence, String table) {
+		try (Session session = sessionFactory.openSession()) {
+			session.doWork(connection -> {
+				boolean autoCommit = connection.getAutoCommit();
+				connection.setAutoCommit(true);
+				try (Statement statement = connection.createStatement()) {
+					int updated = statement.executeUpdate(
+							"UPDATE " + sequence + " SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ")"
+									+ " WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM " + table + ")");
+					if (updated > 0) {
+						logger.info("Advanced {} past existing {} ids", sequence, table);
+					}
+				} finally {
+					connection.setAutoCommit(autoCommit);
+				}
+			});
+		} catch (RuntimeException e) {
+			logger.warn("Unable to align {} with existing {} ids: {}", sequence, table, e.getMessage());
+		}
+	}
+}
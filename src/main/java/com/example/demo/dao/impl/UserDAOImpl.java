@@ -1,9 +1,13 @@
 package com.example.demo.dao.impl;
 
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSort;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -24,11 +28,56 @@ public class UserDAOImpl implements UserDAO {
         return getCurrentSession().createQuery("FROM User", User.class).list();
     }
 
+    @Override
+    public List<UserSummary> findPage(UserPageRequest request) {
+        UserSort sort = request.getSort();
+        String property = "u." + sort.getProperty();
+        String direction = sort.isAscending() ? "ASC" : "DESC";
+        String comparator = sort.isAscending() ? ">" : "<";
+
+        StringBuilder hql = new StringBuilder("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.enabled, u.role, u.createdAt)"
+                + " FROM User u WHERE 1 = 1");
+        // 前綴條件寫成 LIKE 'prefix%'，可以用 username 唯一索引或 idx_users_email_id 做範圍掃描
+        if (request.getUsernamePrefix() != null) {
+            hql.append(" AND u.username LIKE :usernamePrefix ESCAPE '").append(UserPageRequest.LIKE_ESCAPE).append("'");
+        }
+        if (request.getEmailPrefix() != null) {
+            hql.append(" AND u.email LIKE :emailPrefix ESCAPE '").append(UserPageRequest.LIKE_ESCAPE).append("'");
+        }
+        if (request.getAfterId() != null) {
+            // (sortValue, id) 在游標之後：展開成 OR 形式，MySQL 會轉成複合索引上的範圍掃描
+            hql.append(" AND (").append(property).append(' ').append(comparator).append(" :afterValue")
+                    .append(" OR (").append(property).append(" = :afterValue AND u.id ").append(comparator).append(" :afterId))");
+        }
+        hql.append(" ORDER BY ").append(property).append(' ').append(direction)
+                .append(", u.id ").append(direction);
+
+        Query<UserSummary> query = getCurrentSession().createQuery(hql.toString(), UserSummary.class);
+        if (request.getUsernamePrefix() != null) {
+            query.setParameter("usernamePrefix", UserPageRequest.toLikePattern(request.getUsernamePrefix()));
+        }
+        if (request.getEmailPrefix() != null) {
+            query.setParameter("emailPrefix", UserPageRequest.toLikePattern(request.getEmailPrefix()));
+        }
+        if (request.getAfterId() != null) {
+            query.setParameter("afterValue", request.getAfterValue());
+            query.setParameter("afterId", request.getAfterId());
+        }
+        return query.setMaxResults(request.getSize() + 1).list();
+    }
+
     @Override
     public User findById(Long id) {
         return getCurrentSession().get(User.class, id);
     }
 
+    @Override
+    public User findByUsername(String username) {
+        return getCurrentSession().createQuery("FROM User u WHERE u.username = :username", User.class)
+                .setParameter("username", username)
+                .uniqueResult();
+    }
+
     @Override
     public void save(User user) {
         getCurrentSession().saveOrUpdate(user);
@@ -0,0 +1,22 @@
+package com.example.demo.datasource;
+
+import com.example.demo.metrics.LatencyHistogram;
+
+/**
+ * 連線取得時間直方圖
+ * 以固定的指數級距（微秒）累計 HikariCP 取得連線所花費的時間，
+ * 記錄時只做 LongAdder 累加，不會阻塞取得連線的執行緒
+ */
+public class AcquireTimeHistogram extends LatencyHistogram {
+
+    /**
+     * 各級距的上限（微秒），最後一格為 +Inf
+     */
+    private static final long[] BOUNDS_MICROS = {
+            50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000
+    };
+
+    public AcquireTimeHistogram() {
+        super(BOUNDS_MICROS);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.datasource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.demo.metrics.RequestSample;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * 單一連線池的監控資料
+ * 由 HikariCP 在取得、建立、歸還連線時回呼，並保留 PoolStats 供即時查詢
+ */
+public class PoolMetrics implements IMetricsTracker {
+
+    private final String poolName;
+
+    private final PoolStats poolStats;
+
+    private final AcquireTimeHistogram acquireTime = new AcquireTimeHistogram();
+
+    private final LongAdder connectionTimeouts = new LongAdder();
+
+    private final LongAdder connectionsCreated = new LongAdder();
+
+    private final LongAdder usageMillis = new LongAdder();
+
+    private final LongAdder usageCount = new LongAdder();
+
+    public PoolMetrics(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireTime.record(elapsedAcquiredNanos);
+        // HikariCP 在借出連線的執行緒上回呼，可以直接記到目前的請求
+        RequestSample.connectionAcquired(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        connectionsCreated.increment();
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+        usageCount.increment();
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        connectionTimeouts.increment();
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        return poolStats.getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        return poolStats.getIdleConnections();
+    }
+
+    public int getPendingThreads() {
+        return poolStats.getPendingThreads();
+    }
+
+    public int getTotalConnections() {
+        return poolStats.getTotalConnections();
+    }
+
+    public int getMaxConnections() {
+        return poolStats.getMaxConnections();
+    }
+
+    public AcquireTimeHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public long getConnectionTimeouts() {
+        return connectionTimeouts.sum();
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    /**
+     * 取得平均借用時間（毫秒）
+     *
+     * @return 平均借用時間，沒有樣本時回傳 0
+     */
+    public double getAverageUsageMillis() {
+        long count = usageCount.sum();
+        return count == 0 ? 0 : (double) usageMillis.sum() / count;
+    }
+}
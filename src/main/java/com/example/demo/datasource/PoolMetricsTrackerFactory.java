@@ -0,0 +1,35 @@
+package com.example.demo.datasource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * HikariCP 監控工廠
+ * 每個連線池建立時會取得一個 PoolMetrics，並依連線池名稱登記以便查詢
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+        pools.put(poolName, metrics);
+        return metrics;
+    }
+
+    /**
+     * 取得所有已登記連線池的監控資料
+     *
+     * @return 監控資料
+     */
+    public Collection<PoolMetrics> getPools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 讀寫分流 DataSource
+ * 唯讀交易（@Transactional(readOnly = true)）走唯讀連線池，其餘走主連線池。
+ * 必須包在 LazyConnectionDataSourceProxy 內，確保實際取得連線時交易的唯讀旗標已設定
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String READ_WRITE = "read-write";
+
+    public static final String READ_ONLY = "read-only";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ_ONLY : READ_WRITE;
+    }
+}
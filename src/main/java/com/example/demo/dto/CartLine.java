@@ -0,0 +1,61 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+import com.example.demo.money.Money;
+
+/**
+ * 購物車中的一項商品（記憶體中的購物車狀態，不是 JPA 實體）
+ */
+public class CartLine {
+
+	private final Long productId;
+	private final int quantity;
+	private final BigDecimal unitPrice;
+	private final long unitPriceMinor;
+
+	public CartLine(Long productId, int quantity, BigDecimal unitPrice) {
+		this(productId, quantity, unitPrice, Money.toMinor(unitPrice));
+	}
+
+	/**
+	 * @param unitPriceMinor 已換算好的單價最小單位，必須與 unitPrice 相等（避免每次建立快照都重新換算）
+	 */
+	public CartLine(Long productId, int quantity, BigDecimal unitPrice, long unitPriceMinor) {
+		this.productId = productId;
+		this.quantity = quantity;
+		this.unitPrice = unitPrice;
+		this.unitPriceMinor = unitPriceMinor;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * 加入購物車時的商品單價
+	 */
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	public BigDecimal getSubtotal() {
+		return Money.toAmount(getSubtotalMinor());
+	}
+
+	/**
+	 * 以最小單位（0.01）計算的小計
+	 */
+	public long getSubtotalMinor() {
+		return Money.multiply(unitPriceMinor, quantity);
+	}
+
+	@Override
+	public String toString() {
+		return "CartLine [productId=" + productId + ", quantity=" + quantity + ", unitPrice=" + unitPrice + "]";
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.example.demo.money.Money;
+
+/**
+ * 客戶購物車的唯讀快照
+ */
+public class CartView {
+
+	private final Long customerId;
+	private final List<CartLine> lines;
+
+	public CartView(Long customerId, List<CartLine> lines) {
+		this.customerId = customerId;
+		this.lines = lines;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public List<CartLine> getLines() {
+		return lines;
+	}
+
+	public boolean isEmpty() {
+		return lines.isEmpty();
+	}
+
+	public int getTotalQuantity() {
+		int total = 0;
+		for (CartLine line : lines) {
+			total += line.getQuantity();
+		}
+		return total;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return Money.toAmount(getTotalMinor());
+	}
+
+	/**
+	 * 以最小單位（0.01）累加的合計，中間不建立任何 BigDecimal
+	 * 
+	 * @throws ArithmeticException 溢位
+	 */
+	public long getTotalMinor() {
+		long total = 0;
+		for (CartLine line : lines) {
+			total = Math.addExact(total, line.getSubtotalMinor());
+		}
+		return total;
+	}
+
+	public Money getTotal() {
+		return Money.ofMinor(getTotalMinor());
+	}
+
+	@Override
+	public String toString() {
+		return "CartView [customerId=" + customerId + ", lines=" + lines + "]";
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 客戶 keyset 分頁查詢條件（id 遞增）
+ * 游標內容為上一頁最後一筆的 id，以 Base64 URL 編碼後傳給前端
+ */
+public class CustomerPageRequest {
+
+	public static final int DEFAULT_SIZE = 50;
+
+	public static final int MAX_SIZE = 500;
+
+	private int size = DEFAULT_SIZE;
+
+	private boolean withUser;
+
+	private Long afterId;
+
+	public CustomerPageRequest(String after, Integer size, boolean withUser) {
+		setSize(size != null ? size : DEFAULT_SIZE);
+		this.withUser = withUser;
+		decodeCursor(after);
+	}
+
+	/**
+	 * 將客戶 ID 編碼為游標
+	 * 
+	 * @param customerId 本頁最後一筆客戶的 ID
+	 * @return 游標字串
+	 */
+	public static String encodeCursor(Long customerId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(String.valueOf(customerId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return;
+		}
+		try {
+			this.afterId = Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * 設定每頁筆數，限制在 1 ~ MAX_SIZE 之間
+	 * 
+	 * @param size 每頁筆數
+	 */
+	public void setSize(int size) {
+		this.size = Math.max(1, Math.min(size, MAX_SIZE));
+	}
+
+	/**
+	 * 是否一併載入客戶的 User
+	 * 
+	 * @return true: 以 JOIN FETCH 載入 User
+	 */
+	public boolean isWithUser() {
+		return withUser;
+	}
+
+	/**
+	 * 取得游標的客戶 id
+	 * 
+	 * @return 客戶 id，第一頁時為 null
+	 */
+	public Long getAfterId() {
+		return afterId;
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 閒置過久的購物車（投影，不建立 Cart 實體）
+ * 欄位都在 idx_carts_updated_id 中，掃描不需要回表
+ */
+public class ExpiredCart {
+
+	private final Long cartId;
+	private final Long customerId;
+	private final LocalDateTime updatedAt;
+
+	public ExpiredCart(Long cartId, Long customerId, LocalDateTime updatedAt) {
+		this.cartId = cartId;
+		this.customerId = customerId;
+		this.updatedAt = updatedAt;
+	}
+
+	public Long getCartId() {
+		return cartId;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpiredCart [cartId=" + cartId + ", customerId=" + customerId + ", updatedAt=" + updatedAt + "]";
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.demo.dto;
+
+/**
+ * 批次匯入結果
+ * 記錄匯入筆數與耗時，用來觀察每秒寫入筆數
+ */
+public class ImportResult {
+
+	private final long rows;
+
+	private final long elapsedMillis;
+
+	public ImportResult(long rows, long elapsedMillis) {
+		this.rows = rows;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * 取得匯入筆數
+	 * 
+	 * @return 匯入筆數
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * 取得耗時（毫秒）
+	 * 
+	 * @return 耗時
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * 取得每秒匯入筆數
+	 * 
+	 * @return 每秒匯入筆數
+	 */
+	public double getRowsPerSecond() {
+		return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "ImportResult{" +
+				"rows=" + rows +
+				", elapsedMillis=" + elapsedMillis +
+				", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) +
+				'}';
+	}
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+/**
+ * 分頁游標無法解析（被竄改、過期格式或與排序方式不符）
+ * 屬於用戶端輸入錯誤，由 {@link com.example.demo.controller.WebExceptionHandler} 轉成 400
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InvalidCursorException(String cursor) {
+		super("Invalid page cursor: " + cursor);
+	}
+
+	public InvalidCursorException(String cursor, Throwable cause) {
+		super("Invalid page cursor: " + cursor, cause);
+	}
+}
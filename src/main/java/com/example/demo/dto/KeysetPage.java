@@ -0,0 +1,49 @@
+package com.example.demo.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset（seek）分頁結果
+ * 只回傳本頁資料與下一頁游標，不計算總筆數，因此每頁的查詢成本與頁數深度無關
+ *
+ * @param <T> 資料型別
+ */
+public class KeysetPage<T> {
+
+	private final List<T> content;
+
+	private final String nextCursor;
+
+	public KeysetPage(List<T> content, String nextCursor) {
+		this.content = content != null ? content : Collections.emptyList();
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * 取得本頁資料
+	 * 
+	 * @return 本頁資料
+	 */
+	public List<T> getContent() {
+		return content;
+	}
+
+	/**
+	 * 取得下一頁游標
+	 * 
+	 * @return 下一頁游標，已是最後一頁時為 null
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * 是否還有下一頁
+	 * 
+	 * @return true: 還有下一頁, false: 已是最後一頁
+	 */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Order.PaymentStatus;
+
+/**
+ * 訂單匯出列
+ * 一列代表一筆訂單明細（沒有明細的訂單，明細欄位為 null），依訂單 ID、明細 ID 排序
+ */
+public class OrderExportRow {
+
+	private final Long orderId;
+	private final String orderNo;
+	private final Long customerId;
+	private final BigDecimal totalAmount;
+	private final OrderStatus status;
+	private final PaymentMethod paymentMethod;
+	private final PaymentStatus paymentStatus;
+	private final LocalDateTime createdAt;
+	private final Long itemId;
+	private final Long productId;
+	private final Integer quantity;
+	private final BigDecimal unitPrice;
+	private final BigDecimal subtotal;
+
+	public OrderExportRow(Long orderId, String orderNo, Long customerId, BigDecimal totalAmount,
+			OrderStatus status, PaymentMethod paymentMethod, PaymentStatus paymentStatus, LocalDateTime createdAt,
+			Long itemId, Long productId, Integer quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+		this.orderId = orderId;
+		this.orderNo = orderNo;
+		this.customerId = customerId;
+		this.totalAmount = totalAmount;
+		this.status = status;
+		this.paymentMethod = paymentMethod;
+		this.paymentStatus = paymentStatus;
+		this.createdAt = createdAt;
+		this.itemId = itemId;
+		this.productId = productId;
+		this.quantity = quantity;
+		this.unitPrice = unitPrice;
+		this.subtotal = subtotal;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public String getOrderNo() {
+		return orderNo;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public PaymentMethod getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public PaymentStatus getPaymentStatus() {
+		return paymentStatus;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	public BigDecimal getSubtotal() {
+		return subtotal;
+	}
+}
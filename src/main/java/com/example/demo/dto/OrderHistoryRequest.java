@@ -0,0 +1,112 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 客戶訂單歷史 keyset 分頁查詢條件（新到舊）
+ * 游標內容為上一頁最後一筆的（created_at, id），以 Base64 URL 編碼後傳給前端
+ */
+public class OrderHistoryRequest {
+
+	public static final int DEFAULT_SIZE = 20;
+
+	public static final int MAX_SIZE = 100;
+
+	private final Long customerId;
+
+	private int size = DEFAULT_SIZE;
+
+	private LocalDateTime afterCreatedAt;
+
+	private Long afterId;
+
+	public OrderHistoryRequest(Long customerId, String after, Integer size) {
+		if (customerId == null) {
+			throw new IllegalArgumentException("Customer id is required");
+		}
+		this.customerId = customerId;
+		setSize(size != null ? size : DEFAULT_SIZE);
+		decodeCursor(after);
+	}
+
+	/**
+	 * 將訂單編碼為游標
+	 * 
+	 * @param order 本頁最後一筆訂單
+	 * @return 游標字串
+	 */
+	public static String encodeCursor(OrderSummary order) {
+		String raw = order.getCreatedAt() + "|" + order.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return;
+		}
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+		int separator = raw.lastIndexOf('|');
+		if (separator <= 0) {
+			throw new InvalidCursorException(cursor);
+		}
+		try {
+			this.afterCreatedAt = LocalDateTime.parse(raw.substring(0, separator));
+			this.afterId = Long.valueOf(raw.substring(separator + 1));
+		} catch (RuntimeException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * 設定每頁筆數，限制在 1 ~ MAX_SIZE 之間
+	 * 
+	 * @param size 每頁筆數
+	 */
+	public void setSize(int size) {
+		this.size = Math.max(1, Math.min(size, MAX_SIZE));
+	}
+
+	/**
+	 * 取得游標的建立時間
+	 * 
+	 * @return 建立時間，第一頁時為 null
+	 */
+	public LocalDateTime getAfterCreatedAt() {
+		return afterCreatedAt;
+	}
+
+	/**
+	 * 取得游標的訂單 id
+	 * 
+	 * @return 訂單 id，第一頁時為 null
+	 */
+	public Long getAfterId() {
+		return afterId;
+	}
+
+	/**
+	 * 設定游標位置
+	 * 
+	 * @param afterCreatedAt 建立時間
+	 * @param afterId 訂單 id
+	 */
+	public void setAfter(LocalDateTime afterCreatedAt, Long afterId) {
+		this.afterCreatedAt = afterCreatedAt;
+		this.afterId = afterId;
+	}
+}
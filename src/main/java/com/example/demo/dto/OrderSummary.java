@@ -0,0 +1,67 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.demo.model.Order.OrderStatus;
+
+/**
+ * 訂單歷史列表的一筆訂單（投影，不建立 Order 實體）
+ * 欄位都在 idx_orders_customer_created_id 中，查詢不需要回表
+ */
+public class OrderSummary {
+
+	private final Long id;
+	private final String orderNo;
+	private final OrderStatus status;
+	private final BigDecimal totalAmount;
+	private final LocalDateTime createdAt;
+	private long itemQuantity;
+
+	public OrderSummary(Long id, String orderNo, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt) {
+		this.id = id;
+		this.orderNo = orderNo;
+		this.status = status;
+		this.totalAmount = totalAmount;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getOrderNo() {
+		return orderNo;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * 取得訂單的商品總件數
+	 * 
+	 * @return 所有明細數量的合計
+	 */
+	public long getItemQuantity() {
+		return itemQuantity;
+	}
+
+	public void setItemQuantity(long itemQuantity) {
+		this.itemQuantity = itemQuantity;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderSummary [id=" + id + ", orderNo=" + orderNo + ", status=" + status + ", totalAmount=" + totalAmount
+				+ ", createdAt=" + createdAt + ", itemQuantity=" + itemQuantity + "]";
+	}
+}
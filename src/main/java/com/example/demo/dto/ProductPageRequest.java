@@ -0,0 +1,147 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Product.ProductStatus;
+
+/**
+ * 商品 keyset 分頁查詢條件
+ * 游標內容為上一頁最後一筆的（排序值, id），以 Base64 URL 編碼後傳給前端
+ */
+public class ProductPageRequest {
+
+	public static final int DEFAULT_SIZE = 20;
+
+	public static final int MAX_SIZE = 100;
+
+	private ProductSort sort = ProductSort.NEWEST;
+
+	private int size = DEFAULT_SIZE;
+
+	private String type;
+
+	private ProductStatus status;
+
+	private Object afterValue;
+
+	private Long afterId;
+
+	public ProductPageRequest() {
+	}
+
+	public ProductPageRequest(ProductSort sort, String after, Integer size, String type, ProductStatus status) {
+		if (sort != null) {
+			this.sort = sort;
+		}
+		setSize(size != null ? size : DEFAULT_SIZE);
+		this.type = type != null && !type.isEmpty() ? type : null;
+		this.status = status;
+		decodeCursor(after);
+	}
+
+	/**
+	 * 將商品編碼為指定排序的游標
+	 * 
+	 * @param sort 排序方式
+	 * @param product 本頁最後一筆商品
+	 * @return 游標字串
+	 */
+	public static String encodeCursor(ProductSort sort, Product product) {
+		Object value = sort == ProductSort.NEWEST ? product.getCreatedAt() : product.getPrice();
+		String raw = (value != null ? value.toString() : "") + "|" + product.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return;
+		}
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+		int separator = raw.lastIndexOf('|');
+		if (separator <= 0) {
+			throw new InvalidCursorException(cursor);
+		}
+		String value = raw.substring(0, separator);
+		try {
+			this.afterValue = sort == ProductSort.NEWEST ? LocalDateTime.parse(value) : new BigDecimal(value);
+			this.afterId = Long.valueOf(raw.substring(separator + 1));
+		} catch (RuntimeException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+	}
+
+	public ProductSort getSort() {
+		return sort;
+	}
+
+	public void setSort(ProductSort sort) {
+		this.sort = sort;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * 設定每頁筆數，限制在 1 ~ MAX_SIZE 之間
+	 * 
+	 * @param size 每頁筆數
+	 */
+	public void setSize(int size) {
+		this.size = Math.max(1, Math.min(size, MAX_SIZE));
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public ProductStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(ProductStatus status) {
+		this.status = status;
+	}
+
+	/**
+	 * 取得游標的排序值（LocalDateTime 或 BigDecimal）
+	 * 
+	 * @return 排序值，第一頁時為 null
+	 */
+	public Object getAfterValue() {
+		return afterValue;
+	}
+
+	/**
+	 * 取得游標的商品 id
+	 * 
+	 * @return 商品 id，第一頁時為 null
+	 */
+	public Long getAfterId() {
+		return afterId;
+	}
+
+	/**
+	 * 設定游標位置
+	 * 
+	 * @param afterValue 排序值
+	 * @param afterId 商品 id
+	 */
+	public void setAfter(Object afterValue, Long afterId) {
+		this.afterValue = afterValue;
+		this.afterId = afterId;
+	}
+}
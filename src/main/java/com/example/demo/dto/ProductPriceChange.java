@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 商品改價事件，交易提交後由 ProductService 發布
+ */
+public class ProductPriceChange {
+
+	private final Map<Long, BigDecimal> prices;
+
+	public ProductPriceChange(Map<Long, BigDecimal> prices) {
+		this.prices = Collections.unmodifiableMap(prices);
+	}
+
+	/**
+	 * 商品ID → 新單價
+	 */
+	public Map<Long, BigDecimal> getPrices() {
+		return prices;
+	}
+
+	@Override
+	public String toString() {
+		return "ProductPriceChange [prices=" + prices + "]";
+	}
+}
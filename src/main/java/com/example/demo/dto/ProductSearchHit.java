@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+import com.example.demo.model.Product.ProductStatus;
+
+/**
+ * 商品搜尋結果
+ * 欄位取自搜尋索引，顯示結果清單不需要再查資料庫
+ */
+public class ProductSearchHit {
+
+	private final Long productId;
+	private final String name;
+	private final String type;
+	private final BigDecimal price;
+	private final ProductStatus status;
+	private final float score;
+
+	public ProductSearchHit(Long productId, String name, String type, BigDecimal price, ProductStatus status, float score) {
+		this.productId = productId;
+		this.name = name;
+		this.type = type;
+		this.price = price;
+		this.status = status;
+		this.score = score;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public ProductStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * BM25 分數，越高越相關
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "ProductSearchHit [productId=" + productId + ", name=" + name + ", score=" + score + "]";
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+/**
+ * 商品列表排序方式
+ * 每種排序都以 id 作為第二排序鍵，確保 keyset 游標唯一
+ */
+public enum ProductSort {
+	/**
+	 * 最新上架優先（created_at DESC, id DESC）
+	 */
+	NEWEST("createdAt", false),
+
+	/**
+	 * 價格由低到高（price ASC, id ASC）
+	 */
+	PRICE_ASC("price", true),
+
+	/**
+	 * 價格由高到低（price DESC, id DESC）
+	 */
+	PRICE_DESC("price", false);
+
+	private final String property;
+	private final boolean ascending;
+
+	ProductSort(String property, boolean ascending) {
+		this.property = property;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * 取得排序的實體屬性名稱
+	 * 
+	 * @return 屬性名稱
+	 */
+	public String getProperty() {
+		return property;
+	}
+
+	/**
+	 * 是否為遞增排序
+	 * 
+	 * @return true: 遞增, false: 遞減
+	 */
+	public boolean isAscending() {
+		return ascending;
+	}
+}
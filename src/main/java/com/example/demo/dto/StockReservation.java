@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+/**
+ * 庫存預留（結帳前先保留的數量），逾時未確認會自動歸還
+ */
+public class StockReservation {
+
+	private final long id;
+	private final Long productId;
+	private final int quantity;
+	private final long expiresAt;
+
+	public StockReservation(long id, Long productId, int quantity, long expiresAt) {
+		this.id = id;
+		this.productId = productId;
+		this.quantity = quantity;
+		this.expiresAt = expiresAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * 到期時間（epoch 毫秒）
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	@Override
+	public String toString() {
+		return "StockReservation [id=" + id + ", productId=" + productId + ", quantity=" + quantity + ", expiresAt=" + expiresAt + "]";
+	}
+}
@@ -0,0 +1,180 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 使用者 keyset 分頁查詢條件
+ * 游標內容為上一頁最後一筆的（排序值, id），以 Base64 URL 編碼後傳給前端。
+ * 指定使用者名稱或電子郵件前綴時，排序固定為該欄位（使用者名稱優先），
+ * 讓篩選與排序落在同一個索引上，查詢只是一段範圍掃描，不必先找出所有符合的使用者再排序；
+ * 有篩選時傳入的排序會被忽略（畫面上也不提供排序連結）。
+ * 兩個前綴同時指定時只有使用者名稱走索引範圍，電子郵件前綴是對該範圍逐筆過濾，
+ * 一頁要掃描的筆數取決於名稱前綴符合、但電子郵件不符合的使用者有多少，不是固定成本
+ */
+public class UserPageRequest {
+
+	public static final int DEFAULT_SIZE = 20;
+
+	public static final int MAX_SIZE = 100;
+
+	/**
+	 * LIKE 的跳脫字元，前綴中的 %、_ 與跳脫字元本身都會被跳脫
+	 */
+	public static final char LIKE_ESCAPE = '!';
+
+	private UserSort sort = UserSort.NEWEST;
+
+	private int size = DEFAULT_SIZE;
+
+	private String usernamePrefix;
+
+	private String emailPrefix;
+
+	private Object afterValue;
+
+	private Long afterId;
+
+	public UserPageRequest() {
+	}
+
+	public UserPageRequest(UserSort sort, String after, Integer size, String usernamePrefix, String emailPrefix) {
+		this.usernamePrefix = normalizePrefix(usernamePrefix);
+		this.emailPrefix = normalizePrefix(emailPrefix);
+		if (this.usernamePrefix != null) {
+			this.sort = UserSort.USERNAME;
+		} else if (this.emailPrefix != null) {
+			this.sort = UserSort.EMAIL;
+		} else if (sort != null) {
+			this.sort = sort;
+		}
+		setSize(size != null ? size : DEFAULT_SIZE);
+		decodeCursor(after);
+	}
+
+	/**
+	 * 將使用者編碼為指定排序的游標
+	 * 
+	 * @param sort 排序方式
+	 * @param user 本頁最後一筆使用者
+	 * @return 游標字串
+	 */
+	public static String encodeCursor(UserSort sort, UserSummary user) {
+		Object value;
+		switch (sort) {
+		case USERNAME:
+			value = user.getUsername();
+			break;
+		case EMAIL:
+			value = user.getEmail();
+			break;
+		default:
+			value = user.getCreatedAt();
+		}
+		String raw = (value != null ? value.toString() : "") + "|" + user.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 將前綴轉為 LIKE 條件，跳脫萬用字元
+	 * 
+	 * @param prefix 前綴
+	 * @return LIKE 樣式，例如 "a!_b%"
+	 */
+	public static String toLikePattern(String prefix) {
+		StringBuilder pattern = new StringBuilder(prefix.length() + 2);
+		for (int i = 0; i < prefix.length(); i++) {
+			char c = prefix.charAt(i);
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				pattern.append(LIKE_ESCAPE);
+			}
+			pattern.append(c);
+		}
+		return pattern.append('%').toString();
+	}
+
+	private static String normalizePrefix(String prefix) {
+		if (prefix == null) {
+			return null;
+		}
+		String trimmed = prefix.trim();
+		return trimmed.isEmpty() ? null : trimmed;
+	}
+
+	private void decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return;
+		}
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+		int separator = raw.lastIndexOf('|');
+		if (separator <= 0) {
+			throw new InvalidCursorException(cursor);
+		}
+		String value = raw.substring(0, separator);
+		try {
+			this.afterValue = sort == UserSort.NEWEST ? LocalDateTime.parse(value) : value;
+			this.afterId = Long.valueOf(raw.substring(separator + 1));
+		} catch (RuntimeException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+	}
+
+	public UserSort getSort() {
+		return sort;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * 設定每頁筆數，限制在 1 ~ MAX_SIZE 之間
+	 * 
+	 * @param size 每頁筆數
+	 */
+	public void setSize(int size) {
+		this.size = Math.max(1, Math.min(size, MAX_SIZE));
+	}
+
+	/**
+	 * 取得使用者名稱前綴
+	 * 
+	 * @return 前綴，未篩選時為 null
+	 */
+	public String getUsernamePrefix() {
+		return usernamePrefix;
+	}
+
+	/**
+	 * 取得電子郵件前綴
+	 * 
+	 * @return 前綴，未篩選時為 null
+	 */
+	public String getEmailPrefix() {
+		return emailPrefix;
+	}
+
+	/**
+	 * 取得游標的排序值（NEWEST 為 LocalDateTime，其他為 String）
+	 * 
+	 * @return 排序值，第一頁時為 null
+	 */
+	public Object getAfterValue() {
+		return afterValue;
+	}
+
+	/**
+	 * 取得游標的使用者 id
+	 * 
+	 * @return 使用者 id，第一頁時為 null
+	 */
+	public Long getAfterId() {
+		return afterId;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+/**
+ * 使用者列表排序方式
+ * 每種排序都以 id 作為第二排序鍵，確保 keyset 游標唯一
+ */
+public enum UserSort {
+	/**
+	 * 最新註冊優先（created_at DESC, id DESC），使用 idx_users_created_id
+	 */
+	NEWEST("createdAt", false),
+
+	/**
+	 * 使用者名稱（username ASC, id ASC），使用 username 的唯一索引
+	 */
+	USERNAME("username", true),
+
+	/**
+	 * 電子郵件（email ASC, id ASC），使用 idx_users_email_id
+	 */
+	EMAIL("email", true);
+
+	private final String property;
+	private final boolean ascending;
+
+	UserSort(String property, boolean ascending) {
+		this.property = property;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * 取得排序的實體屬性名稱
+	 * 
+	 * @return 屬性名稱
+	 */
+	public String getProperty() {
+		return property;
+	}
+
+	/**
+	 * 是否為遞增排序
+	 * 
+	 * @return true: 遞增, false: 遞減
+	 */
+	public boolean isAscending() {
+		return ascending;
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.demo.model.UserRole;
+
+/**
+ * 使用者管理列表的一筆使用者（投影，不建立 User 實體）
+ * 只包含列表顯示的欄位，不會讀出密碼雜湊，也不會放進 Session 或二級快取
+ */
+public class UserSummary {
+
+	private final Long id;
+	private final String username;
+	private final String email;
+	private final Boolean enabled;
+	private final UserRole role;
+	private final LocalDateTime createdAt;
+
+	public UserSummary(Long id, String username, String email, Boolean enabled, UserRole role, LocalDateTime createdAt) {
+		this.id = id;
+		this.username = username;
+		this.email = email;
+		this.enabled = enabled;
+		this.role = role;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public Boolean getEnabled() {
+		return enabled;
+	}
+
+	public UserRole getRole() {
+		return role;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.demo.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 以固定大小的緩衝區將文字以 UTF-8 寫入 NIO Channel
+ * 不論寫入多少資料，記憶體只佔用一個字元緩衝區與一個位元組緩衝區
+ */
+public class ChannelTextWriter implements Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final WritableByteChannel channel;
+
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+	private final CharBuffer chars;
+
+	private final ByteBuffer bytes;
+
+	public ChannelTextWriter(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	public ChannelTextWriter(WritableByteChannel channel, int bufferSize) {
+		this.channel = channel;
+		this.chars = CharBuffer.allocate(bufferSize);
+		this.bytes = ByteBuffer.allocateDirect(bufferSize * 3);
+	}
+
+	/**
+	 * 寫入文字
+	 * 
+	 * @param text 文字，null 視為空字串
+	 * @return this
+	 * @throws IOException 寫入失敗
+	 */
+	public ChannelTextWriter append(CharSequence text) throws IOException {
+		if (text == null) {
+			return this;
+		}
+		int offset = 0;
+		int length = text.length();
+		while (offset < length) {
+			if (!chars.hasRemaining()) {
+				encode(false);
+			}
+			int chunk = Math.min(chars.remaining(), length - offset);
+			chars.append(text, offset, offset + chunk);
+			offset += chunk;
+		}
+		return this;
+	}
+
+	/**
+	 * 寫入單一字元
+	 * 
+	 * @param c 字元
+	 * @return this
+	 * @throws IOException 寫入失敗
+	 */
+	public ChannelTextWriter append(char c) throws IOException {
+		if (!chars.hasRemaining()) {
+			encode(false);
+		}
+		chars.put(c);
+		return this;
+	}
+
+	/**
+	 * 將緩衝區內容全部寫出
+	 * 
+	 * @throws IOException 寫入失敗
+	 */
+	public void flush() throws IOException {
+		encode(false);
+		writeBytes();
+	}
+
+	/**
+	 * 寫出剩餘內容並關閉 Channel
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			encode(true);
+			while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+				writeBytes();
+			}
+			writeBytes();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void encode(boolean endOfInput) throws IOException {
+		chars.flip();
+		while (true) {
+			CoderResult result = encoder.encode(chars, bytes, endOfInput);
+			if (result.isOverflow()) {
+				writeBytes();
+			} else if (result.isError()) {
+				result.throwException();
+			} else {
+				break;
+			}
+		}
+		// 未編碼的字元（例如被切開的代理對）留在緩衝區開頭
+		chars.compact();
+	}
+
+	private void writeBytes() throws IOException {
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.demo.export;
+
+import java.io.IOException;
+
+import com.example.demo.dto.OrderExportRow;
+
+/**
+ * CSV 格式：每筆訂單明細一列，訂單欄位在每列重複
+ */
+public class CsvOrderExportWriter implements OrderExportWriter {
+
+	private static final String HEADER = "order_id,order_no,customer_id,total_amount,status,payment_method,payment_status,created_at,"
+			+ "item_id,product_id,quantity,unit_price,subtotal\n";
+
+	private final ChannelTextWriter out;
+
+	private boolean headerWritten;
+
+	public CsvOrderExportWriter(ChannelTextWriter out) {
+		this.out = out;
+	}
+
+	@Override
+	public void write(OrderExportRow row) throws IOException {
+		writeHeader();
+		out.append(value(row.getOrderId())).append(',')
+				.append(escape(row.getOrderNo())).append(',')
+				.append(value(row.getCustomerId())).append(',')
+				.append(value(row.getTotalAmount())).append(',')
+				.append(value(row.getStatus())).append(',')
+				.append(value(row.getPaymentMethod())).append(',')
+				.append(value(row.getPaymentStatus())).append(',')
+				.append(value(row.getCreatedAt())).append(',')
+				.append(value(row.getItemId())).append(',')
+				.append(value(row.getProductId())).append(',')
+				.append(value(row.getQuantity())).append(',')
+				.append(value(row.getUnitPrice())).append(',')
+				.append(value(row.getSubtotal())).append('\n');
+	}
+
+	@Override
+	public void finish() throws IOException {
+		writeHeader();
+	}
+
+	private void writeHeader() throws IOException {
+		if (!headerWritten) {
+			out.append(HEADER);
+			headerWritten = true;
+		}
+	}
+
+	private static String value(Object value) {
+		return value != null ? value.toString() : "";
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
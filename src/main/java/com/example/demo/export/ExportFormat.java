@@ -0,0 +1,42 @@
+package com.example.demo.export;
+
+/**
+ * 訂單匯出格式
+ */
+public enum ExportFormat {
+	/**
+	 * CSV，每筆訂單明細一列
+	 */
+	CSV("text/csv", "csv"),
+
+	/**
+	 * NDJSON，每筆訂單一行
+	 */
+	NDJSON("application/x-ndjson", "ndjson");
+
+	private final String contentType;
+	private final String extension;
+
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * 建立此格式的寫入器
+	 * 
+	 * @param out 輸出目的地
+	 * @return 寫入器
+	 */
+	public OrderExportWriter newWriter(ChannelTextWriter out) {
+		return this == CSV ? new CsvOrderExportWriter(out) : new NdjsonOrderExportWriter(out);
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.demo.export;
+
+import java.io.IOException;
+
+import com.example.demo.dto.OrderExportRow;
+
+/**
+ * NDJSON 格式：每筆訂單一行 JSON，明細放在 items 陣列
+ * 只保留目前這筆訂單的內容，記憶體用量與訂單總數無關
+ */
+public class NdjsonOrderExportWriter implements OrderExportWriter {
+
+	private final ChannelTextWriter out;
+
+	private final StringBuilder line = new StringBuilder(512);
+
+	private Long currentOrderId;
+
+	private boolean hasItems;
+
+	public NdjsonOrderExportWriter(ChannelTextWriter out) {
+		this.out = out;
+	}
+
+	@Override
+	public void write(OrderExportRow row) throws IOException {
+		if (!row.getOrderId().equals(currentOrderId)) {
+			finish();
+			startOrder(row);
+		}
+		if (row.getItemId() != null) {
+			if (hasItems) {
+				line.append(',');
+			}
+			line.append("{\"id\":").append(row.getItemId())
+					.append(",\"productId\":").append(row.getProductId())
+					.append(",\"quantity\":").append(row.getQuantity())
+					.append(",\"unitPrice\":").append(number(row.getUnitPrice()))
+					.append(",\"subtotal\":").append(number(row.getSubtotal()))
+					.append('}');
+			hasItems = true;
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (currentOrderId != null) {
+			line.append("]}\n");
+			out.append(line);
+			line.setLength(0);
+			currentOrderId = null;
+		}
+	}
+
+	private void startOrder(OrderExportRow row) {
+		currentOrderId = row.getOrderId();
+		hasItems = false;
+		line.append("{\"id\":").append(row.getOrderId())
+				.append(",\"orderNo\":").append(string(row.getOrderNo()))
+				.append(",\"customerId\":").append(row.getCustomerId())
+				.append(",\"totalAmount\":").append(number(row.getTotalAmount()))
+				.append(",\"status\":").append(string(row.getStatus()))
+				.append(",\"paymentMethod\":").append(string(row.getPaymentMethod()))
+				.append(",\"paymentStatus\":").append(string(row.getPaymentStatus()))
+				.append(",\"createdAt\":").append(string(row.getCreatedAt()))
+				.append(",\"items\":[");
+	}
+
+	private static String number(Object value) {
+		return value != null ? value.toString() : "null";
+	}
+
+	private static String string(Object value) {
+		if (value == null) {
+			return "null";
+		}
+		String text = value.toString();
+		StringBuilder escaped = new StringBuilder(text.length() + 2).append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"':
+				escaped.append("\\\"");
+				break;
+			case '\\':
+				escaped.append("\\\\");
+				break;
+			case '\n':
+				escaped.append("\\n");
+				break;
+			case '\r':
+				escaped.append("\\r");
+				break;
+			case '\t':
+				escaped.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					escaped.append(String.format("\\u%04x", (int) c));
+				} else {
+					escaped.append(c);
+				}
+			}
+		}
+		return escaped.append('"').toString();
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.demo.export;
+
+import java.io.IOException;
+
+import com.example.demo.dto.OrderExportRow;
+
+/**
+ * 訂單匯出格式
+ * 依序接收訂單匯出列（同一訂單的明細相鄰），寫入 ChannelTextWriter
+ */
+public interface OrderExportWriter {
+
+	/**
+	 * 寫入一列訂單明細
+	 * 
+	 * @param row 訂單匯出列
+	 * @throws IOException 寫入失敗
+	 */
+	void write(OrderExportRow row) throws IOException;
+
+	/**
+	 * 寫出尚未輸出的內容
+	 * 
+	 * @throws IOException 寫入失敗
+	 */
+	void finish() throws IOException;
+}
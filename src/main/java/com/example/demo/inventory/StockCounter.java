@@ -0,0 +1,132 @@
+package com.example.demo.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分片的無鎖庫存計數器
+ * 可用數量分散在多個分片（各自以 CAS 更新），每個執行緒優先從自己的分片扣減，
+ * 熱門商品被大量同時預留時不會全部擠在同一個 CAS 位置上。
+ * 自己的分片不足時依序向其他分片取；單一分片都不夠時從多個分片湊齊，湊不齊就全部歸還。
+ * 湊數量的過程中其他執行緒可能短暫看到不足而失敗，但總數永遠不會扣成負數
+ */
+public final class StockCounter {
+
+	/**
+	 * 分片之間相隔 16 個 long（128 bytes），避免不同分片落在同一條 cache line
+	 */
+	private static final int PADDING = 16;
+
+	private final AtomicLongArray cells;
+
+	private final int mask;
+
+	/**
+	 * @param shards 分片數，會調整為 2 的次方
+	 * @param initial 初始可用數量，平均分配到各分片
+	 */
+	public StockCounter(int shards, long initial) {
+		int size = 1;
+		while (size < shards) {
+			size <<= 1;
+		}
+		this.cells = new AtomicLongArray(size * PADDING);
+		this.mask = size - 1;
+		long share = initial / size;
+		long remainder = initial % size;
+		for (int i = 0; i < size; i++) {
+			cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+		}
+	}
+
+	/**
+	 * 扣減數量
+	 * 
+	 * @param quantity 數量，必須大於 0
+	 * @return 是否扣減成功；可用數量不足時不做任何變更
+	 */
+	public boolean tryAcquire(long quantity) {
+		int home = home();
+		for (int i = 0; i <= mask; i++) {
+			if (tryTake((home + i) & mask, quantity)) {
+				return true;
+			}
+		}
+		long taken = 0;
+		for (int i = 0; i <= mask && taken < quantity; i++) {
+			taken += takeUpTo((home + i) & mask, quantity - taken);
+		}
+		if (taken == quantity) {
+			return true;
+		}
+		if (taken > 0) {
+			cells.getAndAdd(home * PADDING, taken);
+		}
+		return false;
+	}
+
+	/**
+	 * 歸還數量（預留取消、逾時或補貨）
+	 */
+	public void release(long quantity) {
+		cells.getAndAdd(home() * PADDING, quantity);
+	}
+
+	/**
+	 * 盡量扣減，不足時扣到 0 為止（資料庫庫存被調低時使用）
+	 * 
+	 * @return 實際扣減的數量
+	 */
+	public long withdrawUpTo(long quantity) {
+		long taken = 0;
+		for (int i = 0; i <= mask && taken < quantity; i++) {
+			taken += takeUpTo(i, quantity - taken);
+		}
+		return taken;
+	}
+
+	/**
+	 * 目前可用數量（各分片加總，併發更新時只是近似值）
+	 */
+	public long available() {
+		long sum = 0;
+		for (int i = 0; i <= mask; i++) {
+			sum += cells.get(i * PADDING);
+		}
+		return sum;
+	}
+
+	public int getShards() {
+		return mask + 1;
+	}
+
+	private boolean tryTake(int shard, long quantity) {
+		int index = shard * PADDING;
+		long current;
+		do {
+			current = cells.get(index);
+			if (current < quantity) {
+				return false;
+			}
+		} while (!cells.compareAndSet(index, current, current - quantity));
+		return true;
+	}
+
+	private long takeUpTo(int shard, long quantity) {
+		int index = shard * PADDING;
+		long current;
+		long taken;
+		do {
+			current = cells.get(index);
+			if (current <= 0) {
+				return 0;
+			}
+			taken = Math.min(current, quantity);
+		} while (!cells.compareAndSet(index, current, current - taken));
+		return taken;
+	}
+
+	private int home() {
+		long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+}
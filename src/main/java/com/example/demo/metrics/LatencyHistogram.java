@@ -0,0 +1,115 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗時直方圖
+ * 以固定級距（微秒）累計耗時，輸出 Prometheus 風格的累計級距；
+ * 記錄時只做 LongAdder 累加與一次 CAS 取最大值，不會阻塞記錄的執行緒
+ */
+public class LatencyHistogram {
+
+    /**
+     * 各級距的上限（微秒），最後一格為 +Inf
+     */
+    private final long[] boundsMicros;
+
+    private final LongAdder[] buckets;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sumMicros = new LongAdder();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * @param boundsMicros 由小到大的級距上限（微秒），不含 +Inf
+     */
+    public LatencyHistogram(long[] boundsMicros) {
+        this.boundsMicros = boundsMicros.clone();
+        this.buckets = new LongAdder[boundsMicros.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 記錄一次耗時
+     *
+     * @param nanos 耗時（奈秒）
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int index = 0;
+        while (index < boundsMicros.length && micros > boundsMicros[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sumMicros.add(micros);
+        long currentMax;
+        while (micros > (currentMax = maxMicros.get())) {
+            if (maxMicros.compareAndSet(currentMax, micros)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 取得各級距上限（微秒），不含 +Inf
+     *
+     * @return 級距上限
+     */
+    public long[] getBoundsMicros() {
+        return boundsMicros.clone();
+    }
+
+    /**
+     * 取得各級距的累計次數（Prometheus 風格，每格包含較小級距的次數），最後一格為 +Inf
+     *
+     * @return 累計次數
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    /**
+     * 依直方圖估算百分位數（取所在級距的上限）
+     *
+     * @param percentile 百分位數，例如 0.99
+     * @return 估算值（微秒），沒有樣本時回傳 0
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] cumulative = getCumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        for (int i = 0; i < boundsMicros.length; i++) {
+            if (cumulative[i] >= rank) {
+                return boundsMicros[i];
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+}
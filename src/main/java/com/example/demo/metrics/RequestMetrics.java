@@ -0,0 +1,141 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 依路由（HTTP 方法 + 對應的 URL pattern）累計請求的耗時、SQL 數、查詢列數與取得連線的時間
+ * 路由數量受限於 Controller 的對應數，記錄時只做兩次 map 查詢與 LongAdder 累加，不配置物件
+ */
+@Component
+public class RequestMetrics {
+
+    /**
+     * 沒有對應到任何 Controller 的請求（例如 404）
+     */
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    /**
+     * 請求耗時級距上限（微秒）
+     */
+    private static final long[] LATENCY_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    /**
+     * URL pattern → HTTP 方法 → 統計
+     */
+    private final Map<String, Map<String, EndpointStats>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 記錄一次請求
+     *
+     * @param method HTTP 方法
+     * @param route 對應的 URL pattern，null 時記在 {@link #UNMATCHED_ROUTE}
+     * @param error 是否失敗（例外或 5xx）
+     * @param elapsedNanos 耗時（奈秒）
+     * @param sample 請求期間累計的資料
+     */
+    public void record(String method, String route, boolean error, long elapsedNanos, RequestSample sample) {
+        String key = route != null ? route : UNMATCHED_ROUTE;
+        Map<String, EndpointStats> methods = routes.get(key);
+        if (methods == null) {
+            methods = routes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+        EndpointStats stats = methods.get(method);
+        if (stats == null) {
+            stats = methods.computeIfAbsent(method, m -> new EndpointStats(m, key));
+        }
+        stats.record(error, elapsedNanos, sample);
+    }
+
+    /**
+     * 取得所有路由的統計
+     *
+     * @return 統計（依路由、方法排序）
+     */
+    public List<EndpointStats> getEndpoints() {
+        List<EndpointStats> endpoints = new ArrayList<>();
+        for (Map<String, EndpointStats> methods : routes.values()) {
+            endpoints.addAll(methods.values());
+        }
+        endpoints.sort((a, b) -> {
+            int byRoute = a.getRoute().compareTo(b.getRoute());
+            return byRoute != 0 ? byRoute : a.getMethod().compareTo(b.getMethod());
+        });
+        return endpoints;
+    }
+
+    /**
+     * 單一路由的統計
+     */
+    public static final class EndpointStats {
+
+        private final String method;
+
+        private final String route;
+
+        private final LatencyHistogram latency = new LatencyHistogram(LATENCY_BOUNDS_MICROS);
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder statements = new LongAdder();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder connectionAcquireMicros = new LongAdder();
+
+        EndpointStats(String method, String route) {
+            this.method = method;
+            this.route = route;
+        }
+
+        void record(boolean error, long elapsedNanos, RequestSample sample) {
+            latency.record(elapsedNanos);
+            if (error) {
+                errors.increment();
+            }
+            statements.add(sample.getStatements());
+            rows.add(sample.getRows());
+            connectionAcquireMicros.add(sample.getConnectionAcquireNanos() / 1_000);
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRequests() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getConnectionAcquireMicros() {
+            return connectionAcquireMicros.sum();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 量測每個請求的耗時，連同請求期間累計的 SQL 數、查詢列數與取得連線的時間記到 {@link RequestMetrics}
+ * 路由取對應到的 URL pattern（例如 /users/edit/{id}），不用實際路徑，避免每個 ID 各自成為一個路由
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private final RequestMetrics requestMetrics;
+
+    public RequestMetricsInterceptor(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestSample.current().begin(System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestSample sample = RequestSample.current();
+        if (!sample.isActive()) {
+            return;
+        }
+        try {
+            long elapsedNanos = System.nanoTime() - sample.getStartNanos();
+            String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            boolean error = ex != null || response.getStatus() >= 500;
+            requestMetrics.record(request.getMethod(), route, error, elapsedNanos, sample);
+        } finally {
+            sample.end();
+        }
+    }
+}
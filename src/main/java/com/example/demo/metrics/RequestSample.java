@@ -0,0 +1,99 @@
+package com.example.demo.metrics;
+
+/**
+ * 目前請求的累計資料（每個執行緒一個，重複使用不另外配置）
+ * 由 {@link RequestMetricsInterceptor} 在請求開始時啟用、結束時停用；
+ * Hibernate 統計與連線池在同一個執行緒上回呼時累加，請求以外的執行緒（排程、背景工作）不會累加
+ */
+public final class RequestSample {
+
+    private static final ThreadLocal<RequestSample> CURRENT = ThreadLocal.withInitial(RequestSample::new);
+
+    private boolean active;
+
+    private long startNanos;
+
+    private int statements;
+
+    private long rows;
+
+    private long connectionAcquireNanos;
+
+    private RequestSample() {
+    }
+
+    /**
+     * 取得目前執行緒的樣本
+     *
+     * @return 樣本，目前不在請求中時 {@link #isActive()} 為 false
+     */
+    public static RequestSample current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 記錄一次 JDBC statement 準備
+     */
+    public static void statementPrepared() {
+        RequestSample sample = CURRENT.get();
+        if (sample.active) {
+            sample.statements++;
+        }
+    }
+
+    /**
+     * 記錄查詢回傳的列數
+     *
+     * @param rows 列數
+     */
+    public static void rowsFetched(int rows) {
+        RequestSample sample = CURRENT.get();
+        if (sample.active && rows > 0) {
+            sample.rows += rows;
+        }
+    }
+
+    /**
+     * 記錄一次從連線池取得連線的時間
+     *
+     * @param nanos 取得連線所花費的奈秒數
+     */
+    public static void connectionAcquired(long nanos) {
+        RequestSample sample = CURRENT.get();
+        if (sample.active) {
+            sample.connectionAcquireNanos += nanos;
+        }
+    }
+
+    void begin(long nanos) {
+        active = true;
+        startNanos = nanos;
+        statements = 0;
+        rows = 0;
+        connectionAcquireNanos = 0;
+    }
+
+    void end() {
+        active = false;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getConnectionAcquireNanos() {
+        return connectionAcquireNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate 統計：除了原本的全域統計，也把 statement 數與查詢列數累加到目前請求的 {@link RequestSample}
+ * 由 hibernate.stats.factory 設定啟用，只在 hibernate.generate_statistics=true 時會被呼叫。
+ * 列數來自 HQL / native query 的結果筆數；以 ID 載入實體、直接用 JDBC 的批次寫入不計入
+ */
+public class RequestStatistics extends StatisticsImpl {
+
+    public RequestStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        RequestSample.statementPrepared();
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        RequestSample.rowsFetched(rows);
+    }
+
+    /**
+     * 供 hibernate.stats.factory 以類別名稱建立
+     */
+    public static class Factory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new RequestStatistics(sessionFactory);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一個請求（或測試區塊）期間送出的 SQL，依形狀分組累計次數與執行時間
+ * 綁在目前執行緒上，由 {@link SqlDetector} 開始與結束；同一執行緒上的 Hibernate 回呼才會記錄
+ */
+final class SqlCapture {
+
+    private static final ThreadLocal<SqlCapture> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 慢查詢只保留前幾筆完整 SQL，避免一個請求佔用太多記憶體
+     */
+    private static final int MAX_SLOW_STATEMENTS = 20;
+
+    final String origin;
+
+    final long slowQueryNanos;
+
+    final Map<String, ShapeStats> shapes = new LinkedHashMap<>();
+
+    final List<SqlReport.SlowStatement> slowStatements = new ArrayList<>();
+
+    int statements;
+
+    private ShapeStats last;
+
+    private String lastSql;
+
+    private long executeStartNanos;
+
+    private SqlCapture(String origin, long slowQueryNanos) {
+        this.origin = origin;
+        this.slowQueryNanos = slowQueryNanos;
+    }
+
+    static SqlCapture current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 新的記錄，目前執行緒已經在記錄中時回傳 null（巢狀時由外層負責）
+     */
+    static SqlCapture begin(String origin, long slowQueryNanos) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        SqlCapture capture = new SqlCapture(origin, slowQueryNanos);
+        CURRENT.set(capture);
+        return capture;
+    }
+
+    static void end(SqlCapture capture) {
+        if (CURRENT.get() == capture) {
+            CURRENT.remove();
+        }
+    }
+
+    void prepared(String sql) {
+        statements++;
+        last = shapes.computeIfAbsent(SqlShape.normalize(sql), ShapeStats::new);
+        last.count++;
+        lastSql = sql;
+    }
+
+    void executeStarted() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 執行時間算在最近一次準備的語句上（Hibernate 準備後立即執行）
+     */
+    void executeEnded() {
+        if (last == null || executeStartNanos == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - executeStartNanos;
+        executeStartNanos = 0;
+        last.totalNanos += elapsed;
+        if (elapsed >= slowQueryNanos && slowStatements.size() < MAX_SLOW_STATEMENTS) {
+            slowStatements.add(new SqlReport.SlowStatement(lastSql, elapsed));
+        }
+    }
+
+    static final class ShapeStats {
+
+        final String shape;
+
+        int count;
+
+        long totalNanos;
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.metrics;
+
+import java.util.function.Supplier;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 慢查詢與 N+1 偵測
+ * 以 StatementInspector 掛在 HibernateConfig 建立的 SessionFactory 上，{@link SqlTimingListener} 提供每個語句的執行時間。
+ * 每個請求（{@link SqlDetectorInterceptor}）或測試區塊（{@link #capture}）依 SQL 形狀分組，結束時：
+ * 同一形狀執行次數達到 sql.detector.repeatThreshold 視為可能的 N+1，
+ * 單一語句超過 sql.detector.slowQueryMs 視為慢查詢，有任何一項就以 WARN 記錄精簡報告（含 Controller 方法）；
+ * sql.detector.failOnViolation=true 時改為丟出 IllegalStateException，讓測試直接失敗
+ */
+public class SqlDetector implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlDetector.class);
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean enabled;
+
+    private final int repeatThreshold;
+
+    private final long slowQueryNanos;
+
+    private final boolean failOnViolation;
+
+    public SqlDetector(boolean enabled, int repeatThreshold, long slowQueryMillis, boolean failOnViolation) {
+        this.enabled = enabled;
+        this.repeatThreshold = repeatThreshold;
+        this.slowQueryNanos = slowQueryMillis * 1_000_000;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlCapture capture = SqlCapture.current();
+        if (capture != null) {
+            capture.prepared(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 開始記錄目前執行緒送出的 SQL；已經在記錄中時沿用外層的記錄（不支援巢狀報告）
+     *
+     * @param origin 來源，會出現在報告中
+     */
+    public void begin(String origin) {
+        if (enabled) {
+            SqlCapture.begin(origin, slowQueryNanos);
+        }
+    }
+
+    /**
+     * 結束目前執行緒的記錄並產生報告，有違規時記錄 WARN
+     *
+     * @return 報告，沒有在記錄時回傳 null
+     * @throws IllegalStateException sql.detector.failOnViolation=true 且有違規
+     */
+    public SqlReport end() {
+        SqlCapture capture = SqlCapture.current();
+        if (capture == null) {
+            return null;
+        }
+        SqlCapture.end(capture);
+        SqlReport report = SqlReport.of(capture, repeatThreshold);
+        if (report.hasViolations()) {
+            if (failOnViolation) {
+                throw new IllegalStateException("SQL thresholds exceeded by " + report);
+            }
+            logger.warn("SQL thresholds exceeded by {}", report);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{}", report);
+        }
+        return report;
+    }
+
+    /**
+     * 記錄一段程式送出的 SQL 並回傳報告，主要給測試使用
+     *
+     * @param origin 來源
+     * @param work 要執行的程式
+     * @return 報告，偵測停用時為 null
+     * @throws IllegalStateException sql.detector.failOnViolation=true 且有違規
+     */
+    public SqlReport capture(String origin, Supplier<?> work) {
+        if (SqlCapture.current() != null) {
+            throw new IllegalStateException("SQL capture already active on this thread");
+        }
+        begin(origin);
+        try {
+            work.get();
+        } catch (RuntimeException | Error e) {
+            SqlCapture.end(SqlCapture.current());
+            throw e;
+        }
+        return end();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 每個請求各自記錄 SQL，請求結束時由 {@link SqlDetector} 產生報告；報告來源為處理請求的 Controller 方法
+ */
+public class SqlDetectorInterceptor implements HandlerInterceptor {
+
+    private final SqlDetector sqlDetector;
+
+    public SqlDetectorInterceptor(SqlDetector sqlDetector) {
+        this.sqlDetector = sqlDetector;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (sqlDetector.isEnabled()) {
+            sqlDetector.begin(origin(request, handler));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        sqlDetector.end();
+    }
+
+    private static String origin(HttpServletRequest request, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 一個請求的 SQL 報告：重複執行的查詢形狀（可能是 N+1）與超過門檻的慢查詢
+ */
+public class SqlReport {
+
+    private final String origin;
+
+    private final int statements;
+
+    private final List<RepeatedShape> repeatedShapes;
+
+    private final List<SlowStatement> slowStatements;
+
+    SqlReport(String origin, int statements, List<RepeatedShape> repeatedShapes, List<SlowStatement> slowStatements) {
+        this.origin = origin;
+        this.statements = statements;
+        this.repeatedShapes = Collections.unmodifiableList(repeatedShapes);
+        this.slowStatements = Collections.unmodifiableList(slowStatements);
+    }
+
+    static SqlReport of(SqlCapture capture, int repeatThreshold) {
+        List<RepeatedShape> repeated = new ArrayList<>();
+        for (SqlCapture.ShapeStats stats : capture.shapes.values()) {
+            if (stats.count >= repeatThreshold) {
+                repeated.add(new RepeatedShape(stats.shape, stats.count, stats.totalNanos));
+            }
+        }
+        repeated.sort((a, b) -> Integer.compare(b.getCount(), a.getCount()));
+        return new SqlReport(capture.origin, capture.statements, repeated, new ArrayList<>(capture.slowStatements));
+    }
+
+    /**
+     * 發出 SQL 的來源，例如 UserController#listUsers
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public List<RepeatedShape> getRepeatedShapes() {
+        return repeatedShapes;
+    }
+
+    public List<SlowStatement> getSlowStatements() {
+        return slowStatements;
+    }
+
+    public boolean hasViolations() {
+        return !repeatedShapes.isEmpty() || !slowStatements.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(origin).append(": ").append(statements).append(" statements, ")
+                .append(repeatedShapes.size()).append(" repeated shapes, ")
+                .append(slowStatements.size()).append(" slow");
+        for (RepeatedShape shape : repeatedShapes) {
+            out.append("\n  N+1? ").append(shape.getCount()).append("x ")
+                    .append(millis(shape.getTotalNanos())).append(" ").append(shape.getShape());
+        }
+        for (SlowStatement statement : slowStatements) {
+            out.append("\n  slow ").append(millis(statement.getElapsedNanos())).append(" ").append(statement.getSql());
+        }
+        return out.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 同一請求中執行次數達到門檻的查詢形狀
+     */
+    public static final class RepeatedShape {
+
+        private final String shape;
+
+        private final int count;
+
+        private final long totalNanos;
+
+        RepeatedShape(String shape, int count, long totalNanos) {
+            this.shape = shape;
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+    }
+
+    /**
+     * 執行時間超過門檻的語句
+     */
+    public static final class SlowStatement {
+
+        private final String sql;
+
+        private final long elapsedNanos;
+
+        SlowStatement(String sql, long elapsedNanos) {
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
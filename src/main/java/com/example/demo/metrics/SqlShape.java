@@ -0,0 +1,85 @@
+package com.example.demo.metrics;
+
+/**
+ * 把 SQL 正規化成「形狀」：字串與數字常數換成 ?，IN 清單 (?, ?, ?) 收成 (?)，連續空白收成一個空白。
+ * 只差在參數值或 IN 清單長度的語句會得到相同的形狀，用來找出同一請求中重複執行的查詢（N+1）
+ */
+public final class SqlShape {
+
+    private SqlShape() {
+    }
+
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < length) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '\'') {
+                // 字串常數，'' 為跳脫的單引號
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                appendPlaceholder(out);
+                continue;
+            }
+            if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                appendPlaceholder(out);
+                continue;
+            }
+            if (c == '?') {
+                i++;
+                appendPlaceholder(out);
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    /**
+     * 緊接在 "?, " 或 "?," 之後的 ? 視為同一個清單，不再重複輸出
+     */
+    private static void appendPlaceholder(StringBuilder out) {
+        int end = out.length();
+        if (end >= 3 && out.charAt(end - 1) == ' ' && out.charAt(end - 2) == ',' && out.charAt(end - 3) == '?') {
+            out.setLength(end - 2);
+            return;
+        }
+        if (end >= 2 && out.charAt(end - 1) == ',' && out.charAt(end - 2) == '?') {
+            out.setLength(end - 1);
+            return;
+        }
+        out.append('?');
+    }
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+}
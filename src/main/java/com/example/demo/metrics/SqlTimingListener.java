@@ -0,0 +1,46 @@
+package com.example.demo.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * 量測每個 JDBC 語句（含 batch）的執行時間，交給目前執行緒的 {@link SqlCapture}
+ * 由 hibernate.session.events.auto 以類別名稱為每個 Session 建立；沒有在記錄時什麼都不做
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ended();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ended();
+    }
+
+    private static void started() {
+        SqlCapture capture = SqlCapture.current();
+        if (capture != null) {
+            capture.executeStarted();
+        }
+    }
+
+    private static void ended() {
+        SqlCapture capture = SqlCapture.current();
+        if (capture != null) {
+            capture.executeEnded();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.persistence.*;
 
@@ -12,7 +14,12 @@ import org.hibernate.annotations.UpdateTimestamp;
  * 存放客戶的購物車資訊，一個客戶擁有一個購物車
  */
 @Entity
-@Table(name = "carts")
+@NamedEntityGraph(name = FetchGraphs.CART_WITH_PRODUCTS, attributeNodes = @NamedAttributeNode(value = "items", subgraph = "product"),
+		subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("product")))
+@Table(name = "carts", indexes = {
+		// 清除閒置購物車時依最後更新時間分批掃描
+		@Index(name = "idx_carts_updated_id", columnList = "updated_at, id, customer_id")
+})
 public class Cart {
 	
 	
@@ -28,10 +35,18 @@ public class Cart {
 	 * 所屬客戶（關聯到 Customer）
 	 * 一對一關係，一個客戶擁有一個購物車
 	 */
-	@OneToOne
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "customer_id", nullable = false, unique = true)
 	private Customer customer;
 	
+	/**
+	 * 購物車明細
+	 * 由 CartItem.cart 維護，只在以 {@link FetchGraphs#CART_WITH_PRODUCTS} 載入時才會一起查詢
+	 */
+	@OneToMany(mappedBy = "cart")
+	@OrderBy("id")
+	private List<CartItem> items = new ArrayList<>();
+	
 	/**
 	 * 建立時間
 	 * 購物車建立的時間
@@ -60,7 +75,6 @@ public class Cart {
 	 * @param customer 所屬客戶
 	 */
 	public Cart(Customer customer) {
-					customer != null ? customer.getId() : null);
 		this.customer = customer;
 	}
 	
@@ -97,10 +111,18 @@ public class Cart {
 	 * @param customer 所屬客戶
 	 */
 	public void setCustomer(Customer customer) {
-					customer != null ? customer.getId() : null, id);
 		this.customer = customer;
 	}
 	
+	/**
+	 * 取得購物車明細（唯讀，新增明細請直接儲存 CartItem）
+	 * 
+	 * @return 購物車明細
+	 */
+	public List<CartItem> getItems() {
+		return items;
+	}
+	
 	/**
 	 * 取得建立時間
 	 * 
@@ -8,12 +8,17 @@ import javax.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.example.demo.money.Money;
+
 /**
  * 購物車明細實體類別
  * 存放購物車中的商品明細資訊，包含商品、數量、價格等
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+		// 商品改價時依商品找出所有購物車明細
+		@Index(name = "idx_cart_items_product", columnList = "product_id")
+})
 public class CartItem {
 	
 	
@@ -29,7 +34,7 @@ public class CartItem {
 	 * 所屬購物車（關聯到 Cart）
 	 * 多對一關係，一個購物車可以有多個購物車明細
 	 */
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "cart_id", nullable = false)
 	private Cart cart;
 	
@@ -37,7 +42,7 @@ public class CartItem {
 	 * 商品（關聯到 Product）
 	 * 多對一關係，一個商品可以在多個購物車明細中
 	 */
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "product_id", nullable = false)
 	private Product product;
 	
@@ -62,6 +67,16 @@ public class CartItem {
 	@Column(name = "subtotal", precision = 10, scale = 2, nullable = false)
 	private BigDecimal subtotal;
 	
+	/**
+	 * unitPrice 換算成最小單位的快取（不存入資料庫）
+	 * unitPriceMinorOf 記錄換算時的 unitPrice 物件，Hibernate 直接寫入欄位後會自動重新換算
+	 */
+	@Transient
+	private long unitPriceMinor;
+	
+	@Transient
+	private BigDecimal unitPriceMinorOf;
+	
 	/**
 	 * 建立時間
 	 * 商品加入購物車的時間
@@ -93,15 +108,12 @@ public class CartItem {
 	 * @param unitPrice 商品單價
 	 */
 	public CartItem(Cart cart, Product product, Integer quantity, BigDecimal unitPrice) {
-					cart != null ? cart.getId() : null, 
-					product != null ? product.getId() : null, 
-					quantity, unitPrice);
 		this.cart = cart;
 		this.product = product;
 		this.quantity = quantity;
 		this.unitPrice = unitPrice;
 		// 自動計算小計
-		this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+		this.subtotal = subtotalOf(quantity);
 	}
 	
 	/**
@@ -137,7 +149,6 @@ public class CartItem {
 	 * @param cart 所屬購物車
 	 */
 	public void setCart(Cart cart) {
-					cart != null ? cart.getId() : null, id);
 		this.cart = cart;
 	}
 	
@@ -156,7 +167,6 @@ public class CartItem {
 	 * @param product 商品
 	 */
 	public void setProduct(Product product) {
-					product != null ? product.getId() : null, id);
 		this.product = product;
 	}
 	
@@ -179,7 +189,7 @@ public class CartItem {
 		this.quantity = quantity;
 		// 自動重新計算小計
 		if (this.unitPrice != null) {
-			this.subtotal = this.unitPrice.multiply(BigDecimal.valueOf(quantity));
+			this.subtotal = subtotalOf(quantity);
 		}
 	}
 	
@@ -202,7 +212,7 @@ public class CartItem {
 		this.unitPrice = unitPrice;
 		// 自動重新計算小計
 		if (this.quantity != null) {
-			this.subtotal = unitPrice.multiply(BigDecimal.valueOf(this.quantity));
+			this.subtotal = subtotalOf(this.quantity);
 		}
 	}
 	
@@ -266,10 +276,8 @@ public class CartItem {
 	 */
 	public void calculateSubtotal() {
 		if (this.unitPrice != null && this.quantity != null && this.quantity > 0) {
-			this.subtotal = this.unitPrice.multiply(BigDecimal.valueOf(this.quantity));
-						this.subtotal, this.quantity, this.unitPrice);
+			this.subtotal = subtotalOf(this.quantity);
 		} else {
-						this.unitPrice, this.quantity);
 		}
 	}
 	
@@ -280,7 +288,6 @@ public class CartItem {
 	 */
 	public void increaseQuantity(Integer additionalQuantity) {
 		if (additionalQuantity != null && additionalQuantity > 0) {
-						this.quantity, this.quantity + additionalQuantity, id);
 			setQuantity(this.quantity + additionalQuantity);
 		}
 	}
@@ -292,7 +299,6 @@ public class CartItem {
 	 */
 	public void decreaseQuantity(Integer decreaseQuantity) {
 		if (decreaseQuantity != null && decreaseQuantity > 0 && this.quantity > decreaseQuantity) {
-						this.quantity, this.quantity - decreaseQuantity, id);
 			setQuantity(this.quantity - decreaseQuantity);
 		} else {
 		}
@@ -306,7 +312,6 @@ public class CartItem {
 	 */
 	public void updatePrice(BigDecimal newPrice) {
 		if (newPrice != null && newPrice.compareTo(BigDecimal.ZERO) >= 0) {
-						this.unitPrice, newPrice, id);
 			this.unitPrice = newPrice;
 			calculateSubtotal();
 		} else {
@@ -325,10 +330,26 @@ public class CartItem {
 		}
 		
 		boolean isValid = product.isActive() && !product.isOutOfStock();
-					isValid, product.getId(), id);
 		return isValid;
 	}
 	
+	/**
+	 * 以最小單位的 long 計算小計，只在最後配置一個 BigDecimal
+	 * 
+	 * @throws ArithmeticException 小計溢位或超出金額欄位範圍
+	 */
+	private BigDecimal subtotalOf(int quantity) {
+		return Money.toAmount(Money.multiply(unitPriceMinor(), quantity));
+	}
+	
+	private long unitPriceMinor() {
+		if (unitPriceMinorOf != unitPrice) {
+			unitPriceMinor = Money.toMinor(unitPrice);
+			unitPriceMinorOf = unitPrice;
+		}
+		return unitPriceMinor;
+	}
+	
 	@Override
 	public String toString() {
 		return "CartItem{" +
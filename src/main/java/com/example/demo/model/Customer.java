@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +14,9 @@ import org.hibernate.annotations.UpdateTimestamp;
  * 存放客戶的詳細資訊，與 User 實體相關聯
  */
 @Entity
+@NamedEntityGraph(name = FetchGraphs.CUSTOMER_WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 @Table(name = "customers")
 public class Customer {
     
@@ -28,7 +33,7 @@ public class Customer {
      * 使用者帳號（關聯到 User）
      * 一對一關係
      */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
     
@@ -162,7 +167,6 @@ public class Customer {
      * @param user 使用者帳號
      */
     public void setUser(User user) {
-                    user != null ? user.getId() : null, id);
         this.user = user;
     }
     
@@ -0,0 +1,31 @@
+package com.example.demo.model;
+
+/**
+ * 具名實體圖（fetch profile）名稱
+ * 所有關聯預設都是 LAZY，需要一起載入關聯的畫面依用途指定其中一個，只會多出該用途需要的 JOIN
+ */
+public final class FetchGraphs {
+
+	/**
+	 * 訂單 + 客戶
+	 */
+	public static final String ORDER_WITH_CUSTOMER = "order-with-customer";
+
+	/**
+	 * 訂單 + 明細 + 明細的商品
+	 */
+	public static final String ORDER_WITH_ITEMS = "order-with-items";
+
+	/**
+	 * 購物車 + 明細 + 明細的商品
+	 */
+	public static final String CART_WITH_PRODUCTS = "cart-with-products";
+
+	/**
+	 * 客戶 + 使用者帳號
+	 */
+	public static final String CUSTOMER_WITH_USER = "customer-with-user";
+
+	private FetchGraphs() {
+	}
+}
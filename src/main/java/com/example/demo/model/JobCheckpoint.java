@@ -0,0 +1,83 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+/**
+ * 背景工作進度實體類別
+ * 記錄分批掃描的背景工作（例如清除閒置購物車）目前掃描到的位置，程序重啟後由此繼續
+ */
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+
+	/**
+	 * 工作名稱（主鍵）
+	 */
+	@Id
+	@Column(name = "name", length = 64)
+	private String name;
+
+	/**
+	 * 目前位置，格式由各工作自行決定；null 代表從頭開始
+	 */
+	@Column(name = "last_position", length = 255)
+	private String position;
+
+	/**
+	 * 最後更新時間
+	 */
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	/**
+	 * 預設建構子
+	 */
+	public JobCheckpoint() {
+	}
+
+	/**
+	 * 建構子（帶基本參數）
+	 *
+	 * @param name 工作名稱
+	 * @param position 目前位置
+	 */
+	public JobCheckpoint(String name, String position) {
+		this.name = name;
+		this.position = position;
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getPosition() {
+		return position;
+	}
+
+	/**
+	 * 設定目前位置，同時更新最後更新時間
+	 *
+	 * @param position 目前位置
+	 */
+	public void setPosition(String position) {
+		this.position = position;
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "JobCheckpoint{" +
+				"name='" + name + '\'' +
+				", position='" + position + '\'' +
+				", updatedAt=" + updatedAt +
+				'}';
+	}
+}
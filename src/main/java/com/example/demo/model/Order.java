@@ -2,6 +2,8 @@ package com.example.demo.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.persistence.*;
 
@@ -13,7 +15,14 @@ import org.hibernate.annotations.UpdateTimestamp;
  * 存放訂單的資訊，包含客戶、金額、狀態等
  */
 @Entity
-@Table(name = "orders")
+@NamedEntityGraph(name = FetchGraphs.ORDER_WITH_CUSTOMER, attributeNodes = @NamedAttributeNode("customer"))
+@NamedEntityGraph(name = FetchGraphs.ORDER_WITH_ITEMS, attributeNodes = @NamedAttributeNode(value = "items", subgraph = "product"),
+		subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("product")))
+@Table(name = "orders", indexes = {
+		@Index(name = "idx_orders_created_at", columnList = "created_at"),
+		// 客戶訂單歷史：依 (customer_id, created_at, id) 做 keyset 分頁，其餘欄位放進索引讓查詢不需要回表
+		@Index(name = "idx_orders_customer_created_id", columnList = "customer_id, created_at, id, status, total_amount, order_no")
+})
 public class Order {
 	
 	
@@ -36,10 +45,18 @@ public class Order {
 	 * 客戶（關聯到 Customer）
 	 * 多對一關係，一個客戶可以有多個訂單
 	 */
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "customer_id", nullable = false)
 	private Customer customer;
 	
+	/**
+	 * 訂單明細
+	 * 由 OrderItem.order 維護，只在以 {@link FetchGraphs#ORDER_WITH_ITEMS} 載入時才會一起查詢
+	 */
+	@OneToMany(mappedBy = "order")
+	@OrderBy("id")
+	private List<OrderItem> items = new ArrayList<>();
+	
 	/**
 	 * 訂單總金額
 	 * 使用 BigDecimal 確保精確的小數運算
@@ -236,6 +253,42 @@ public class Order {
 		}
 	}
 	
+	/**
+	 * 訂單狀態轉換枚舉
+	 * 合法的來源狀態見 {@link Order#canApply(Transition)}
+	 */
+	public enum Transition {
+		/**
+		 * 付款：UNPAID → PAID（貨到付款可在送達後付款）
+		 */
+		PAY,
+		
+		/**
+		 * 開始處理：PENDING → PROCESSING
+		 */
+		PROCESS,
+		
+		/**
+		 * 出貨：PENDING / PROCESSING → SHIPPED
+		 */
+		SHIP,
+		
+		/**
+		 * 送達：SHIPPED → DELIVERED
+		 */
+		DELIVER,
+		
+		/**
+		 * 取消：PENDING / PROCESSING → CANCELLED
+		 */
+		CANCEL,
+		
+		/**
+		 * 退款：已付款的 CANCELLED / DELIVERED → REFUNDED，付款狀態改為 REFUNDED
+		 */
+		REFUND
+	}
+	
 	/**
 	 * 預設建構子
 	 */
@@ -249,7 +302,6 @@ public class Order {
 	 * @param customer 客戶
 	 */
 	public Order(String orderNo, Customer customer) {
-					orderNo, customer != null ? customer.getId() : null);
 		this.orderNo = orderNo;
 		this.customer = customer;
 		this.status = OrderStatus.PENDING;
@@ -307,10 +359,18 @@ public class Order {
 	 * @param customer 客戶
 	 */
 	public void setCustomer(Customer customer) {
-					customer != null ? customer.getId() : null, id);
 		this.customer = customer;
 	}
 	
+	/**
+	 * 取得訂單明細（唯讀，新增明細請直接儲存 OrderItem）
+	 * 
+	 * @return 訂單明細
+	 */
+	public List<OrderItem> getItems() {
+		return items;
+	}
+	
 	/**
 	 * 取得訂單總金額
 	 * 
@@ -461,36 +521,108 @@ public class Order {
 	 * @return true: 可以取消, false: 不可以取消
 	 */
 	public boolean canCancel() {
-		boolean canCancel = status == OrderStatus.PENDING || status == OrderStatus.PROCESSING;
-		return canCancel;
+		return canApply(Transition.CANCEL);
+	}
+	
+	/**
+	 * 檢查目前的狀態是否允許進行指定的轉換
+	 * 
+	 * @param transition 狀態轉換
+	 * @return true: 允許, false: 不允許
+	 */
+	public boolean canApply(Transition transition) {
+		switch (transition) {
+		case PAY:
+			// 貨到付款在送達時才收款，送達後仍可登記付款，之後才能退款
+			return paymentStatus == PaymentStatus.UNPAID
+					&& (status == OrderStatus.PENDING || status == OrderStatus.PROCESSING || status == OrderStatus.SHIPPED
+							|| (status == OrderStatus.DELIVERED && paymentMethod == PaymentMethod.CASH));
+		case PROCESS:
+			return status == OrderStatus.PENDING;
+		case SHIP:
+			// 貨到付款（現金）可以未付款先出貨，其他付款方式必須先付款
+			return (status == OrderStatus.PENDING || status == OrderStatus.PROCESSING)
+					&& (paymentStatus == PaymentStatus.PAID || paymentMethod == PaymentMethod.CASH);
+		case DELIVER:
+			return status == OrderStatus.SHIPPED;
+		case CANCEL:
+			return status == OrderStatus.PENDING || status == OrderStatus.PROCESSING;
+		case REFUND:
+			return paymentStatus == PaymentStatus.PAID
+					&& (status == OrderStatus.CANCELLED || status == OrderStatus.DELIVERED);
+		default:
+			return false;
+		}
+	}
+	
+	/**
+	 * 進行狀態轉換
+	 * 
+	 * @param transition 狀態轉換
+	 * @throws IllegalStateException 目前的狀態不允許這個轉換
+	 */
+	public void apply(Transition transition) {
+		if (!canApply(transition)) {
+			throw new IllegalStateException("Cannot " + transition + " order " + orderNo
+					+ " in status " + status + "/" + paymentStatus);
+		}
+		switch (transition) {
+		case PAY:
+			this.paymentStatus = PaymentStatus.PAID;
+			break;
+		case PROCESS:
+			this.status = OrderStatus.PROCESSING;
+			break;
+		case SHIP:
+			this.status = OrderStatus.SHIPPED;
+			break;
+		case DELIVER:
+			this.status = OrderStatus.DELIVERED;
+			break;
+		case CANCEL:
+			this.status = OrderStatus.CANCELLED;
+			break;
+		case REFUND:
+			this.status = OrderStatus.REFUNDED;
+			this.paymentStatus = PaymentStatus.REFUNDED;
+			break;
+		}
 	}
 	
 	/**
 	 * 取消訂單
+	 * 
+	 * @throws IllegalStateException 訂單已出貨、已送達或已結束
 	 */
 	public void cancel() {
-		this.status = OrderStatus.CANCELLED;
+		apply(Transition.CANCEL);
 	}
 	
 	/**
 	 * 完成付款
+	 * 
+	 * @throws IllegalStateException 訂單已付款或已結束
 	 */
 	public void completePayment() {
-		this.paymentStatus = PaymentStatus.PAID;
+		apply(Transition.PAY);
 	}
 	
 	/**
 	 * 標記為已出貨
+	 * 
+	 * @throws IllegalStateException 訂單不是待處理或處理中，或尚未付款（現金除外）
 	 */
 	public void markAsShipped() {
-		this.status = OrderStatus.SHIPPED;
+		apply(Transition.SHIP);
 	}
 	
 	/**
 	 * 標記為已送達
+	 * 
+	 * @throws IllegalStateException 訂單尚未出貨
 	 */
 	public void markAsDelivered() {
-		this.status = OrderStatus.DELIVERED;
+		apply(Transition.DELIVER);
 	}
 	
 	@Override
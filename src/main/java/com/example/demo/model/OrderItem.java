@@ -6,30 +6,42 @@ import java.time.LocalDateTime;
 import javax.persistence.*;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.example.demo.money.Money;
+
 /**
  * 訂單明細實體類別
  * 存放訂單中的商品明細資訊，包含商品、數量、價格等
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+		// 訂單歷史的件數合計只需要讀這個索引
+		@Index(name = "idx_order_items_order_quantity", columnList = "order_id, quantity")
+})
 public class OrderItem {
 	
 	
 	/**
 	 * 訂單明細ID（主鍵）
-	 * 自動遞增
+	 * 由 order_items_seq 以 pooled-lo 方式一次配置 50 個，結帳時整張訂單的明細可以一次批次 INSERT
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+	@GenericGenerator(name = "order_items_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+			@Parameter(name = "sequence_name", value = "order_items_seq"),
+			@Parameter(name = "increment_size", value = "50"),
+			@Parameter(name = "optimizer", value = "pooled-lo")
+	})
 	private Long id;
 	
 	/**
 	 * 所屬訂單（關聯到 Order）
 	 * 多對一關係，一個訂單可以有多個訂單明細
 	 */
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "order_id", nullable = false)
 	private Order order;
 	
@@ -37,7 +49,7 @@ public class OrderItem {
 	 * 商品（關聯到 Product）
 	 * 多對一關係，一個商品可以在多個訂單明細中
 	 */
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "product_id", nullable = false)
 	private Product product;
 	
@@ -62,6 +74,16 @@ public class OrderItem {
 	@Column(name = "subtotal", precision = 10, scale = 2, nullable = false)
 	private BigDecimal subtotal;
 	
+	/**
+	 * unitPrice 換算成最小單位的快取（不存入資料庫）
+	 * unitPriceMinorOf 記錄換算時的 unitPrice 物件，Hibernate 直接寫入欄位後會自動重新換算
+	 */
+	@Transient
+	private long unitPriceMinor;
+	
+	@Transient
+	private BigDecimal unitPriceMinorOf;
+	
 	/**
 	 * 建立時間
 	 * 由 Hibernate 自動設定
@@ -93,15 +115,12 @@ public class OrderItem {
 	 * @param unitPrice 商品單價
 	 */
 	public OrderItem(Order order, Product product, Integer quantity, BigDecimal unitPrice) {
-					order != null ? order.getId() : null, 
-					product != null ? product.getId() : null, 
-					quantity, unitPrice);
 		this.order = order;
 		this.product = product;
 		this.quantity = quantity;
 		this.unitPrice = unitPrice;
 		// 自動計算小計
-		this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+		this.subtotal = subtotalOf(quantity);
 	}
 	
 	/**
@@ -137,7 +156,6 @@ public class OrderItem {
 	 * @param order 所屬訂單
 	 */
 	public void setOrder(Order order) {
-					order != null ? order.getId() : null, id);
 		this.order = order;
 	}
 	
@@ -156,7 +174,6 @@ public class OrderItem {
 	 * @param product 商品
 	 */
 	public void setProduct(Product product) {
-					product != null ? product.getId() : null, id);
 		this.product = product;
 	}
 	
@@ -179,7 +196,7 @@ public class OrderItem {
 		this.quantity = quantity;
 		// 自動重新計算小計
 		if (this.unitPrice != null) {
-			this.subtotal = this.unitPrice.multiply(BigDecimal.valueOf(quantity));
+			this.subtotal = subtotalOf(quantity);
 		}
 	}
 	
@@ -202,7 +219,7 @@ public class OrderItem {
 		this.unitPrice = unitPrice;
 		// 自動重新計算小計
 		if (this.quantity != null) {
-			this.subtotal = unitPrice.multiply(BigDecimal.valueOf(this.quantity));
+			this.subtotal = subtotalOf(this.quantity);
 		}
 	}
 	
@@ -215,6 +232,16 @@ public class OrderItem {
 		return subtotal;
 	}
 	
+	/**
+	 * 以最小單位（0.01）取得小計，供訂單合計以 long 累加
+	 * 
+	 * @return 小計的最小單位金額
+	 * @throws ArithmeticException 小計溢位
+	 */
+	public long getSubtotalMinor() {
+		return Money.multiply(unitPriceMinor(), quantity);
+	}
+	
 	/**
 	 * 設定此明細的小計
 	 * 
@@ -266,10 +293,8 @@ public class OrderItem {
 	 */
 	public void calculateSubtotal() {
 		if (this.unitPrice != null && this.quantity != null && this.quantity > 0) {
-			this.subtotal = this.unitPrice.multiply(BigDecimal.valueOf(this.quantity));
-						this.subtotal, this.quantity, this.unitPrice);
+			this.subtotal = subtotalOf(this.quantity);
 		} else {
-						this.unitPrice, this.quantity);
 		}
 	}
 	
@@ -280,7 +305,6 @@ public class OrderItem {
 	 */
 	public void increaseQuantity(Integer additionalQuantity) {
 		if (additionalQuantity != null && additionalQuantity > 0) {
-						this.quantity, this.quantity + additionalQuantity, id);
 			setQuantity(this.quantity + additionalQuantity);
 		}
 	}
@@ -292,12 +316,28 @@ public class OrderItem {
 	 */
 	public void decreaseQuantity(Integer decreaseQuantity) {
 		if (decreaseQuantity != null && decreaseQuantity > 0 && this.quantity > decreaseQuantity) {
-						this.quantity, this.quantity - decreaseQuantity, id);
 			setQuantity(this.quantity - decreaseQuantity);
 		} else {
 		}
 	}
 	
+	/**
+	 * 以最小單位的 long 計算小計，只在最後配置一個 BigDecimal
+	 * 
+	 * @throws ArithmeticException 小計溢位或超出金額欄位範圍
+	 */
+	private BigDecimal subtotalOf(int quantity) {
+		return Money.toAmount(Money.multiply(unitPriceMinor(), quantity));
+	}
+	
+	private long unitPriceMinor() {
+		if (unitPriceMinorOf != unitPrice) {
+			unitPriceMinor = Money.toMinor(unitPrice);
+			unitPriceMinorOf = unitPrice;
+		}
+		return unitPriceMinor;
+	}
+	
 	@Override
 	public String toString() {
 		return "OrderItem{" +
@@ -0,0 +1,175 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentStatus;
+import com.example.demo.model.Order.Transition;
+
+/**
+ * 訂單事件外寄箱（transactional outbox）實體類別
+ * 與訂單狀態變更在同一個交易中寫入，交易提交後才會發送；
+ * 發送完成前 published_at 為 NULL，程序重啟後會重新發送
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+		@Index(name = "idx_order_outbox_published_at", columnList = "published_at, id")
+})
+public class OrderOutbox {
+	
+	
+	/**
+	 * 事件ID（主鍵）
+	 * 自動遞增
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	/**
+	 * 訂單ID
+	 * 只存ID，不關聯 Order，發送時不需要載入訂單
+	 */
+	@Column(name = "order_id", nullable = false, updatable = false)
+	private Long orderId;
+	
+	/**
+	 * 訂單編號
+	 */
+	@Column(name = "order_no", nullable = false, updatable = false, length = 50)
+	private String orderNo;
+	
+	/**
+	 * 客戶ID
+	 */
+	@Column(name = "customer_id", nullable = false, updatable = false)
+	private Long customerId;
+	
+	/**
+	 * 狀態轉換
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "transition", nullable = false, updatable = false, length = 50)
+	private Transition transition;
+	
+	/**
+	 * 轉換前的訂單狀態
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "from_status", nullable = false, updatable = false, length = 50)
+	private OrderStatus fromStatus;
+	
+	/**
+	 * 轉換後的訂單狀態
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "to_status", nullable = false, updatable = false, length = 50)
+	private OrderStatus toStatus;
+	
+	/**
+	 * 轉換後的付款狀態
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "payment_status", nullable = false, updatable = false, length = 50)
+	private PaymentStatus paymentStatus;
+	
+	/**
+	 * 建立時間（事件發生時間）
+	 * 由 Hibernate 自動設定
+	 */
+	@CreationTimestamp
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+	
+	/**
+	 * 發送完成時間
+	 * 所有監聽器處理完成後設定，NULL 表示尚未發送
+	 */
+	@Column(name = "published_at")
+	private LocalDateTime publishedAt;
+	
+	/**
+	 * 預設建構子
+	 */
+	public OrderOutbox() {
+	}
+	
+	/**
+	 * 建構子（記錄剛完成的狀態轉換）
+	 * 
+	 * @param order 已套用轉換的訂單
+	 * @param transition 狀態轉換
+	 * @param fromStatus 轉換前的訂單狀態
+	 */
+	public OrderOutbox(Order order, Transition transition, OrderStatus fromStatus) {
+		this.orderId = order.getId();
+		this.orderNo = order.getOrderNo();
+		this.customerId = order.getCustomer().getId();
+		this.transition = transition;
+		this.fromStatus = fromStatus;
+		this.toStatus = order.getStatus();
+		this.paymentStatus = order.getPaymentStatus();
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public Long getOrderId() {
+		return orderId;
+	}
+	
+	public String getOrderNo() {
+		return orderNo;
+	}
+	
+	public Long getCustomerId() {
+		return customerId;
+	}
+	
+	public Transition getTransition() {
+		return transition;
+	}
+	
+	public OrderStatus getFromStatus() {
+		return fromStatus;
+	}
+	
+	public OrderStatus getToStatus() {
+		return toStatus;
+	}
+	
+	public PaymentStatus getPaymentStatus() {
+		return paymentStatus;
+	}
+	
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+	
+	public LocalDateTime getPublishedAt() {
+		return publishedAt;
+	}
+	
+	public void setPublishedAt(LocalDateTime publishedAt) {
+		this.publishedAt = publishedAt;
+	}
+	
+	@Override
+	public String toString() {
+		return "OrderOutbox{" +
+				"id=" + id +
+				", orderNo='" + orderNo + '\'' +
+				", transition=" + transition +
+				", fromStatus=" + fromStatus +
+				", toStatus=" + toStatus +
+				", paymentStatus=" + paymentStatus +
+				", createdAt=" + createdAt +
+				", publishedAt=" + publishedAt +
+				'}';
+	}
+}
@@ -5,7 +5,11 @@ import java.time.LocalDateTime;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 
 /**
@@ -13,16 +17,32 @@ import org.hibernate.annotations.UpdateTimestamp;
  * 存放商品的資訊，包含名稱、價格、描述、狀態等
  */
 @Entity
-@Table(name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@Table(name = "product", indexes = {
+		@Index(name = "idx_product_created_id", columnList = "created_at, id"),
+		@Index(name = "idx_product_price_id", columnList = "price, id"),
+		@Index(name = "idx_product_status_created_id", columnList = "status, created_at, id"),
+		@Index(name = "idx_product_status_price_id", columnList = "status, price, id"),
+		@Index(name = "idx_product_type_created_id", columnList = "type, created_at, id"),
+		@Index(name = "idx_product_type_price_id", columnList = "type, price, id"),
+		@Index(name = "idx_product_type_status_created_id", columnList = "type, status, created_at, id")
+})
 public class Product {
 	
 	
 	/**
 	 * 商品ID（主鍵）
-	 * 自動遞增
+	 * 由 product_seq 表以 pooled-lo 方式一次配置 50 個，讓 Hibernate 可以批次 INSERT
+	 * （IDENTITY 必須逐筆 INSERT 才能取得 ID，會停用 JDBC batch）
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+	@GenericGenerator(name = "product_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+			@Parameter(name = "sequence_name", value = "product_seq"),
+			@Parameter(name = "increment_size", value = "50"),
+			@Parameter(name = "optimizer", value = "pooled-lo")
+	})
 	private Long id;
 
 	/**
@@ -69,6 +89,14 @@ public class Product {
 	@Column(name = "status", nullable = false)
 	private ProductStatus status = ProductStatus.ACTIVE;
 
+	/**
+	 * 庫存數量
+	 * 結帳時的扣減由庫存預留引擎在記憶體完成，再定期以條件式 UPDATE 同步回資料庫；
+	 * 扣到 0 時狀態自動轉為 OUT_OF_STOCK
+	 */
+	@Column(name = "stock", nullable = false)
+	private int stock;
+
 	/**
 	 * 建立時間
 	 * 由 Hibernate 自動設定，建立後不可修改
@@ -105,6 +133,24 @@ public class Product {
 		this.status = ProductStatus.ACTIVE;
 	}
 
+	/**
+	 * 複製所有欄位，得到一個不屬於任何 Session 的商品
+	 * 服務層快取只保存脫離 Session 的商品，交給呼叫端的都是複本，呼叫端修改不會影響快取內容
+	 * 
+	 * @return 商品複本
+	 */
+	public Product copy() {
+		Product copy = new Product(name, type, price);
+		copy.id = id;
+		copy.description = description;
+		copy.imageUrl = imageUrl;
+		copy.status = status;
+		copy.stock = stock;
+		copy.createdAt = createdAt;
+		copy.updatedAt = updatedAt;
+		return copy;
+	}
+
 	/**
 	 * 商品狀態枚舉
 	 */
@@ -289,6 +335,24 @@ public class Product {
 		this.status = status;
 	}
 
+	/**
+	 * 取得庫存數量
+	 * 
+	 * @return 庫存數量
+	 */
+	public int getStock() {
+		return stock;
+	}
+
+	/**
+	 * 設定庫存數量
+	 * 
+	 * @param stock 庫存數量
+	 */
+	public void setStock(int stock) {
+		this.stock = stock;
+	}
+
 	/**
 	 * 取得建立時間
 	 * 
@@ -374,6 +438,7 @@ public class Product {
 				", type='" + type + '\'' +
 				", price=" + price +
 				", status=" + status +
+				", stock=" + stock +
 				", createdAt=" + createdAt +
 				", updatedAt=" + updatedAt +
 				'}';
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +14,12 @@ import org.hibernate.annotations.UpdateTimestamp;
  * 存放使用者基本資訊、認證資訊及角色權限
  */
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_email_id", columnList = "email, id"),
+        @Index(name = "idx_users_created_id", columnList = "created_at, id")
+})
 public class User {
     
     /**
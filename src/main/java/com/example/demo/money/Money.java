@@ -0,0 +1,206 @@
+package com.example.demo.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * 金額值物件：以 long 存放最小單位（0.01，與資料庫 precision = 10, scale = 2 的金額欄位一致）加上幣別
+ * 購物車與訂單在記憶體中的小計、合計用 long 運算，只在讀寫金額欄位時與 BigDecimal 互轉；
+ * 所有運算溢位時丟出 ArithmeticException，不會默默繞回
+ *
+ * 熱路徑（例如 CartItem.setQuantity）直接使用 {@link #toMinor}、{@link #multiply}、{@link #toAmount}
+ * 這幾個 long 版本的靜態方法，連 Money 物件都不建立
+ */
+public final class Money implements Comparable<Money> {
+
+	/**
+	 * 金額欄位的小數位數
+	 */
+	public static final int SCALE = 2;
+
+	/**
+	 * 金額欄位的總位數
+	 */
+	public static final int COLUMN_PRECISION = 10;
+
+	/**
+	 * 金額欄位可存放的最大絕對值（以最小單位計）：99,999,999.99
+	 */
+	public static final long MAX_COLUMN_MINOR = 9_999_999_999L;
+
+	/**
+	 * 目前所有商品都以新台幣計價
+	 */
+	public static final Currency DEFAULT_CURRENCY = Currency.getInstance("TWD");
+
+	private static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+	private final long minor;
+	private final Currency currency;
+
+	private Money(long minor, Currency currency) {
+		this.minor = minor;
+		this.currency = Objects.requireNonNull(currency, "currency");
+	}
+
+	public static Money zero() {
+		return ZERO;
+	}
+
+	public static Money zero(Currency currency) {
+		return DEFAULT_CURRENCY.equals(currency) ? ZERO : new Money(0, currency);
+	}
+
+	public static Money ofMinor(long minor) {
+		return new Money(minor, DEFAULT_CURRENCY);
+	}
+
+	public static Money ofMinor(long minor, Currency currency) {
+		return new Money(minor, currency);
+	}
+
+	/**
+	 * @throws ArithmeticException 金額的小數超過兩位，或超出 long 範圍
+	 */
+	public static Money of(BigDecimal amount) {
+		return new Money(toMinor(amount), DEFAULT_CURRENCY);
+	}
+
+	/**
+	 * @throws ArithmeticException 金額的小數超過兩位，或超出 long 範圍
+	 */
+	public static Money of(BigDecimal amount, Currency currency) {
+		return new Money(toMinor(amount), currency);
+	}
+
+	/**
+	 * BigDecimal 金額精確轉成最小單位；不做任何四捨五入
+	 *
+	 * @throws ArithmeticException 金額的小數超過兩位（例如 1.005），或超出 long 範圍
+	 */
+	public static long toMinor(BigDecimal amount) {
+		// 已經是兩位小數時 setScale 回傳同一個物件；scale 0 的 compact 值 longValueExact 不會再配置物件
+		return amount.setScale(SCALE).movePointRight(SCALE).longValueExact();
+	}
+
+	/**
+	 * 最小單位轉回金額欄位的 BigDecimal（scale 固定為 2）
+	 *
+	 * @throws ArithmeticException 超出金額欄位 precision = 10 的範圍
+	 */
+	public static BigDecimal toAmount(long minor) {
+		checkColumn(minor);
+		return BigDecimal.valueOf(minor, SCALE);
+	}
+
+	/**
+	 * 單價（最小單位）乘上數量
+	 *
+	 * @throws ArithmeticException 溢位
+	 */
+	public static long multiply(long unitMinor, int quantity) {
+		return Math.multiplyExact(unitMinor, quantity);
+	}
+
+	/**
+	 * 是否能存進 precision = 10, scale = 2 的金額欄位
+	 */
+	public static boolean fitsColumn(long minor) {
+		return minor >= -MAX_COLUMN_MINOR && minor <= MAX_COLUMN_MINOR;
+	}
+
+	private static void checkColumn(long minor) {
+		if (!fitsColumn(minor)) {
+			throw new ArithmeticException("Amount exceeds DECIMAL(" + COLUMN_PRECISION + "," + SCALE + "): "
+					+ BigDecimal.valueOf(minor, SCALE).toPlainString());
+		}
+	}
+
+	/**
+	 * 取得最小單位的金額
+	 */
+	public long getMinor() {
+		return minor;
+	}
+
+	public Currency getCurrency() {
+		return currency;
+	}
+
+	public boolean isZero() {
+		return minor == 0;
+	}
+
+	public boolean isNegative() {
+		return minor < 0;
+	}
+
+	/**
+	 * @throws IllegalArgumentException 幣別不同
+	 * @throws ArithmeticException 溢位
+	 */
+	public Money plus(Money other) {
+		checkCurrency(other);
+		return other.minor == 0 ? this : new Money(Math.addExact(minor, other.minor), currency);
+	}
+
+	/**
+	 * @throws IllegalArgumentException 幣別不同
+	 * @throws ArithmeticException 溢位
+	 */
+	public Money minus(Money other) {
+		checkCurrency(other);
+		return other.minor == 0 ? this : new Money(Math.subtractExact(minor, other.minor), currency);
+	}
+
+	/**
+	 * @throws ArithmeticException 溢位
+	 */
+	public Money times(int quantity) {
+		return quantity == 1 ? this : new Money(multiply(minor, quantity), currency);
+	}
+
+	/**
+	 * 轉成存入金額欄位用的 BigDecimal
+	 *
+	 * @throws ArithmeticException 超出金額欄位 precision = 10 的範圍
+	 */
+	public BigDecimal toBigDecimal() {
+		return toAmount(minor);
+	}
+
+	private void checkCurrency(Money other) {
+		if (!currency.equals(other.currency)) {
+			throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+		}
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		checkCurrency(other);
+		return Long.compare(minor, other.minor);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Money)) {
+			return false;
+		}
+		Money other = (Money) obj;
+		return minor == other.minor && currency.equals(other.currency);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(minor) + currency.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return currency.getCurrencyCode() + " " + BigDecimal.valueOf(minor, SCALE).toPlainString();
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.demo.order;
+
+import java.time.LocalDateTime;
+
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentStatus;
+import com.example.demo.model.Order.Transition;
+
+/**
+ * 訂單狀態轉換事件（對應 order_outbox 的一列）
+ * 事件至少送達一次：程序重啟或監聽器失敗時會重送，監聽器需以 {@link #getId()} 自行去重
+ */
+public class OrderEvent {
+
+	private final long id;
+	private final Long orderId;
+	private final String orderNo;
+	private final Long customerId;
+	private final Transition transition;
+	private final OrderStatus fromStatus;
+	private final OrderStatus toStatus;
+	private final PaymentStatus paymentStatus;
+	private final LocalDateTime occurredAt;
+
+	public OrderEvent(long id, Long orderId, String orderNo, Long customerId, Transition transition,
+			OrderStatus fromStatus, OrderStatus toStatus, PaymentStatus paymentStatus, LocalDateTime occurredAt) {
+		this.id = id;
+		this.orderId = orderId;
+		this.orderNo = orderNo;
+		this.customerId = customerId;
+		this.transition = transition;
+		this.fromStatus = fromStatus;
+		this.toStatus = toStatus;
+		this.paymentStatus = paymentStatus;
+		this.occurredAt = occurredAt;
+	}
+
+	/**
+	 * 事件ID（order_outbox.id）
+	 */
+	public long getId() {
+		return id;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public String getOrderNo() {
+		return orderNo;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public Transition getTransition() {
+		return transition;
+	}
+
+	public OrderStatus getFromStatus() {
+		return fromStatus;
+	}
+
+	public OrderStatus getToStatus() {
+		return toStatus;
+	}
+
+	public PaymentStatus getPaymentStatus() {
+		return paymentStatus;
+	}
+
+	public LocalDateTime getOccurredAt() {
+		return occurredAt;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderEvent [id=" + id + ", orderNo=" + orderNo + ", transition=" + transition + ", fromStatus=" + fromStatus
+				+ ", toStatus=" + toStatus + ", paymentStatus=" + paymentStatus + "]";
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.demo.order;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 程序內的非同步訂單事件匯流排
+ * 事件依訂單ID分到 order.events.lanes 條單執行緒的通道，同一訂單的事件依序處理；
+ * 每條通道的佇列上限為 order.events.queueCapacity，佇列滿時 {@link #publish(OrderEvent)} 直接回傳 false，
+ * 不阻塞呼叫端，事件留在外寄箱中由 {@link OrderOutboxRelay} 稍後重送。
+ * 所有監聽器都處理完成的事件ID會保留到 {@link #drainDelivered(Collection)} 取走並寫回外寄箱為止
+ */
+@Component
+public class OrderEventBus implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderEventBus.class);
+
+	@Autowired(required = false)
+	private List<OrderEventListener> listeners = Collections.emptyList();
+
+	@Value("${order.events.lanes:4}")
+	private int laneCount;
+
+	@Value("${order.events.queueCapacity:10000}")
+	private int queueCapacity;
+
+	private ThreadPoolExecutor[] lanes;
+
+	/**
+	 * 已排入或處理完成但尚未寫回外寄箱的事件ID，避免同一事件重複排入
+	 */
+	private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		lanes = new ThreadPoolExecutor[laneCount];
+		for (int i = 0; i < laneCount; i++) {
+			lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+					runnable -> {
+						Thread thread = new Thread(runnable, "order-events-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}, new ThreadPoolExecutor.AbortPolicy());
+		}
+		logger.info("Order event bus started with {} lanes and {} listeners", laneCount, listeners.size());
+	}
+
+	@Override
+	public void destroy() {
+		shutdown();
+	}
+
+	/**
+	 * 停止接收新事件，等待已排入的事件處理完成；可重複呼叫
+	 */
+	public void shutdown() {
+		if (lanes == null) {
+			return;
+		}
+		for (ThreadPoolExecutor lane : lanes) {
+			lane.shutdown();
+		}
+		try {
+			for (ThreadPoolExecutor lane : lanes) {
+				lane.awaitTermination(30, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 把事件排入所屬訂單的通道，不等待處理
+	 * 
+	 * @param event 訂單事件
+	 * @return 已排入（或已在處理中）時回傳 true；通道佇列已滿或已停止時回傳 false
+	 */
+	public boolean publish(OrderEvent event) {
+		if (!inFlight.add(event.getId())) {
+			return true;
+		}
+		ThreadPoolExecutor lane = lanes[Math.floorMod(Long.hashCode(event.getOrderId()), lanes.length)];
+		try {
+			lane.execute(() -> dispatch(event));
+			return true;
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(event.getId());
+			return false;
+		}
+	}
+
+	/**
+	 * 取走已處理完成的事件ID；呼叫端寫回外寄箱後必須呼叫 {@link #release(Collection)}
+	 * 
+	 * @param ids 放入已處理完成的事件ID
+	 * @return 取走的數量
+	 */
+	public int drainDelivered(Collection<Long> ids) {
+		int count = 0;
+		Long id;
+		while ((id = delivered.poll()) != null) {
+			ids.add(id);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * 事件已寫回外寄箱（或寫回失敗需要重送）後，讓同一事件可以再次排入
+	 */
+	public void release(Collection<Long> ids) {
+		inFlight.removeAll(ids);
+	}
+
+	/**
+	 * 目前排隊中的事件數
+	 */
+	public int getQueuedCount() {
+		int queued = 0;
+		for (ThreadPoolExecutor lane : lanes) {
+			queued += lane.getQueue().size();
+		}
+		return queued;
+	}
+
+	private void dispatch(OrderEvent event) {
+		try {
+			for (OrderEventListener listener : listeners) {
+				listener.onEvent(event);
+			}
+			delivered.add(event.getId());
+		} catch (RuntimeException e) {
+			inFlight.remove(event.getId());
+			logger.error("Order event listener failed for {}, will redeliver", event, e);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.demo.order;
+
+/**
+ * 訂單事件監聽器
+ * 註冊成 Spring bean 即會收到所有事件；在事件匯流排的執行緒上執行，不在請求執行緒也不在交易中。
+ * 同一訂單的事件依發生順序送達，丟出例外時整個事件稍後重送
+ */
+public interface OrderEventListener {
+
+	/**
+	 * 處理事件
+	 * 
+	 * @param event 訂單事件
+	 */
+	void onEvent(OrderEvent event);
+}
@@ -0,0 +1,15 @@
+package com.example.demo.order;
+
+/**
+ * 訂單編號產生器
+ * 實作必須是執行緒安全的，且多個應用程式節點同時產生時也不可重複
+ */
+public interface OrderNumberGenerator {
+
+	/**
+	 * 產生下一個訂單編號
+	 * 
+	 * @return 訂單編號（不超過 Order.orderNo 的 50 字元）
+	 */
+	String next();
+}
@@ -0,0 +1,173 @@
+package com.example.demo.order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.OrderOutboxDAO;
+import com.example.demo.model.OrderOutbox;
+
+/**
+ * 訂單事件外寄箱轉送
+ * {@link #append(OrderOutbox)} 在目前的交易中寫入 order_outbox，交易提交後才把事件交給 {@link OrderEventBus}，
+ * 回滾時事件連同狀態變更一起消失。背景排程每 order.outbox.relayIntervalMs 把已處理完成的事件批次標記為已發送，
+ * 並重送超過 order.outbox.redeliverAfterMs 仍未發送的事件（佇列已滿、監聽器失敗），
+ * 啟動前留下的未發送事件會在第一次排程時全部重送
+ */
+@Component
+public class OrderOutboxRelay implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+	@Autowired
+	private OrderOutboxDAO outboxRepository;
+
+	@Autowired
+	private OrderEventBus eventBus;
+
+	@Value("${order.outbox.relayIntervalMs:1000}")
+	private long relayIntervalMs;
+
+	@Value("${order.outbox.redeliverAfterMs:30000}")
+	private long redeliverAfterMs;
+
+	@Value("${order.outbox.batchSize:500}")
+	private int batchSize;
+
+	private TransactionTemplate writeTransaction;
+
+	private LocalDateTime startedAt;
+
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		// 一律查主資料庫：唯讀副本的延遲會讓已發送的事件看起來還沒發送
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		startedAt = LocalDateTime.now();
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "order-outbox-relay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::scheduledRelay, relayIntervalMs, relayIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		eventBus.shutdown();
+		markDelivered();
+	}
+
+	/**
+	 * 在目前的交易中寫入事件，交易提交後交給事件匯流排
+	 * 
+	 * @param event 事件
+	 * @throws IllegalStateException 不在交易中
+	 */
+	public void append(OrderOutbox event) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Order events must be appended within a transaction");
+		}
+		outboxRepository.insert(event);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				// 佇列已滿時不阻塞請求執行緒，由排程稍後重送
+				eventBus.publish(toEvent(event));
+			}
+		});
+	}
+
+	/**
+	 * 標記已處理完成的事件，再重送逾時未發送的事件
+	 * 
+	 * @return 重新排入的事件數
+	 */
+	public int relay() {
+		markDelivered();
+		LocalDateTime redeliverBefore = LocalDateTime.now().minusNanos(redeliverAfterMs * 1_000_000);
+		LocalDateTime createdBefore = redeliverBefore.isAfter(startedAt) ? redeliverBefore : startedAt;
+		int published = 0;
+		long afterId = 0;
+		while (true) {
+			long lastId = afterId;
+			List<OrderOutbox> batch = writeTransaction.execute(
+					status -> outboxRepository.findUnpublished(createdBefore, lastId, batchSize));
+			for (OrderOutbox event : batch) {
+				if (!eventBus.publish(toEvent(event))) {
+					logger.warn("Order event bus is full, {} events redelivered so far", published);
+					return published;
+				}
+				published++;
+				afterId = event.getId();
+			}
+			if (batch.size() < batchSize) {
+				break;
+			}
+		}
+		if (published > 0) {
+			logger.info("Redelivered {} unpublished order events", published);
+		}
+		return published;
+	}
+
+	private void scheduledRelay() {
+		try {
+			relay();
+		} catch (RuntimeException e) {
+			logger.error("Order outbox relay run failed", e);
+		}
+	}
+
+	/**
+	 * 把已處理完成的事件批次標記為已發送；寫回失敗的事件會在逾時後重送
+	 */
+	private void markDelivered() {
+		List<Long> ids = new ArrayList<>();
+		if (eventBus.drainDelivered(ids) == 0) {
+			return;
+		}
+		try {
+			LocalDateTime now = LocalDateTime.now();
+			writeTransaction.executeWithoutResult(status -> outboxRepository.markPublished(ids, now));
+		} catch (RuntimeException e) {
+			logger.error("Failed to mark {} order events as published", ids.size(), e);
+		} finally {
+			eventBus.release(ids);
+		}
+	}
+
+	private static OrderEvent toEvent(OrderOutbox event) {
+		return new OrderEvent(event.getId(), event.getOrderId(), event.getOrderNo(), event.getCustomerId(),
+				event.getTransition(), event.getFromStatus(), event.getToStatus(), event.getPaymentStatus(),
+				event.getCreatedAt());
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.demo.order;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake 式訂單編號
+ * 64 位元 ID = 41 位元毫秒時間（自 2024-01-01 起）| 10 位元節點ID | 12 位元同一毫秒內的序號，
+ * 依時間遞增，不查資料庫也不加鎖：「時間 + 序號」存在同一個 AtomicLong 中以 CAS 前進，
+ * 同一毫秒超過 4096 個時直接借用下一毫秒，時鐘倒退時沿用上次的時間繼續遞增；
+ * 借用的時間最多領先時鐘 maxLeadMillis，超過時暫停到時鐘追上，避免長時間的尖峰或大幅倒退讓編號時間越跑越遠。
+ * 不同節點只要 order.number.nodeId 不同就不會重複。
+ * 字串形式是 13 碼 Crockford Base32（不含 I、L、O、U，不易看錯），固定長度所以字串排序與時間順序一致
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+	/**
+	 * 2024-01-01T00:00:00Z
+	 */
+	public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+	public static final int NODE_BITS = 10;
+
+	public static final int SEQUENCE_BITS = 12;
+
+	public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+	/**
+	 * 預設最多領先時鐘的毫秒數
+	 */
+	public static final long DEFAULT_MAX_LEAD_MILLIS = 1000;
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+	private static final int ENCODED_LENGTH = 13;
+
+	private final long nodeBits;
+
+	private final LongSupplier clock;
+
+	private final long maxLeadMillis;
+
+	/**
+	 * (時間 << SEQUENCE_BITS) | 序號，即上一個發出的 ID 去掉節點位元
+	 */
+	private final AtomicLong lastIssued = new AtomicLong();
+
+	public SnowflakeOrderNumberGenerator(int nodeId) {
+		this(nodeId, DEFAULT_MAX_LEAD_MILLIS, System::currentTimeMillis);
+	}
+
+	public SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+		this(nodeId, DEFAULT_MAX_LEAD_MILLIS, clock);
+	}
+
+	/**
+	 * @param nodeId 節點ID（0 ~ 1023），每個應用程式節點必須不同
+	 * @param maxLeadMillis 編號時間最多領先時鐘的毫秒數
+	 * @param clock 目前時間（epoch 毫秒），測試時可替換
+	 */
+	public SnowflakeOrderNumberGenerator(int nodeId, long maxLeadMillis, LongSupplier clock) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		if (maxLeadMillis < 0) {
+			throw new IllegalArgumentException("Max lead must not be negative: " + maxLeadMillis);
+		}
+		this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+		this.maxLeadMillis = maxLeadMillis;
+		this.clock = clock;
+	}
+
+	@Override
+	public String next() {
+		return encode(nextId());
+	}
+
+	/**
+	 * 產生下一個數字 ID
+	 */
+	public long nextId() {
+		long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+		long previous;
+		long issued;
+		while (true) {
+			previous = lastIssued.get();
+			// 序號用完時 previous + 1 會自然進位到下一毫秒
+			issued = Math.max(previous + 1, now);
+			long lead = (issued >>> SEQUENCE_BITS) - (now >>> SEQUENCE_BITS);
+			if (lead > maxLeadMillis) {
+				// 領先太多：等時鐘追上後重新讀取
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lead - maxLeadMillis));
+				now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+				continue;
+			}
+			if (lastIssued.compareAndSet(previous, issued)) {
+				break;
+			}
+		}
+		long timestamp = issued >>> SEQUENCE_BITS;
+		long sequence = issued & ((1L << SEQUENCE_BITS) - 1);
+		return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+	}
+
+	/**
+	 * 把 ID 轉成 13 碼 Crockford Base32
+	 */
+	public static String encode(long id) {
+		char[] chars = new char[ENCODED_LENGTH];
+		for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+			chars[i] = ALPHABET[(int) (id & 31)];
+			id >>>= 5;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 把訂單編號還原成 ID；依 Crockford 規則不分大小寫，並把 O 視為 0、I / L 視為 1
+	 * 
+	 * @throws IllegalArgumentException 格式不正確
+	 */
+	public static long decode(String orderNo) {
+		if (orderNo == null || orderNo.length() != ENCODED_LENGTH) {
+			throw new IllegalArgumentException("Invalid order number: " + orderNo);
+		}
+		long id = 0;
+		for (int i = 0; i < ENCODED_LENGTH; i++) {
+			int value = valueOf(Character.toUpperCase(orderNo.charAt(i)));
+			// 13 個字元共 65 位元，ID 只有 63 位元（不含符號位元），第一個字元最大為 7
+			if (value < 0 || (i == 0 && value > 7)) {
+				throw new IllegalArgumentException("Invalid order number: " + orderNo);
+			}
+			id = (id << 5) | value;
+		}
+		return id;
+	}
+
+	/**
+	 * 取得 ID 的產生時間（epoch 毫秒）
+	 */
+	public static long timestampOf(long id) {
+		return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+	}
+
+	/**
+	 * 取得 ID 的節點ID
+	 */
+	public static int nodeIdOf(long id) {
+		return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+
+	private static int valueOf(char c) {
+		if (c == 'O') {
+			return 0;
+		}
+		if (c == 'I' || c == 'L') {
+			return 1;
+		}
+		for (int i = 0; i < ALPHABET.length; i++) {
+			if (ALPHABET[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
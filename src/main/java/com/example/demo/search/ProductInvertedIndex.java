@@ -0,0 +1,553 @@
+package com.example.demo.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.model.Product;
+import com.example.demo.model.Product.ProductStatus;
+
+/**
+ * 商品倒排索引（名稱、類型、描述）
+ * <p>
+ * 每個商品對應一個遞增的內部文件編號，posting list 依編號排序，查詢時以最短的清單為起點做交集（AND），
+ * 查詢中不存在於索引的中文 bigram 則略過。
+ * 排序採 BM25，欄位權重為名稱 3、類型 2、描述 1（詞頻乘上權重後再計分）。
+ * 更新商品時舊文件只標記刪除，累積過多刪除文件時才壓縮整個索引。
+ * <p>
+ * 本類別非執行緒安全：多個執行緒可以同時查詢，但寫入必須與查詢互斥（見 {@link ProductSearchIndex}）
+ */
+public class ProductInvertedIndex {
+
+	static final int NAME_WEIGHT = 3;
+	static final int TYPE_WEIGHT = 2;
+	static final int DESCRIPTION_WEIGHT = 1;
+
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+
+	/**
+	 * 前綴查詢最多展開的詞數（取文件數最少、鑑別度最高者）、最多掃描的詞數，以及展開後 posting 總數上限
+	 */
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+	private static final int MAX_PREFIX_SCAN = 4096;
+	private static final int MAX_PREFIX_POSTINGS = 1 << 18;
+
+	/**
+	 * 刪除文件超過此數量且超過全部文件的四分之一時壓縮索引
+	 */
+	private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	private final Map<Long, Integer> docByProductId = new HashMap<>();
+	private Doc[] docs = new Doc[1024];
+	/**
+	 * 每個文件的加權長度，已刪除的文件為 -1；計分與略過刪除文件只讀這個連續陣列，不必逐一存取 Doc 物件
+	 */
+	private int[] lengths = new int[1024];
+	private int docCount;
+	private int deletedCount;
+	private long totalLength;
+
+	/**
+	 * 新增或更新商品
+	 * 
+	 * @param product 商品，ID 不可為 null
+	 */
+	public void add(Product product) {
+		remove(product.getId());
+		Map<String, int[]> frequencies = new HashMap<>();
+		int length = collect(product.getName(), NAME_WEIGHT, frequencies)
+				+ collect(product.getType(), TYPE_WEIGHT, frequencies)
+				+ collect(product.getDescription(), DESCRIPTION_WEIGHT, frequencies);
+		if (docCount == docs.length) {
+			docs = Arrays.copyOf(docs, docs.length * 2);
+			lengths = Arrays.copyOf(lengths, docs.length);
+		}
+		int doc = docCount++;
+		docs[doc] = new Doc(product.getId(), product.getName(), product.getType(), product.getPrice(),
+				product.getStatus());
+		lengths[doc] = length;
+		for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+			terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue()[0]);
+		}
+		docByProductId.put(product.getId(), doc);
+		totalLength += length;
+	}
+
+	/**
+	 * 移除商品
+	 * 
+	 * @param productId 商品ID
+	 * @return 索引中原本是否有此商品
+	 */
+	public boolean remove(Long productId) {
+		Integer doc = docByProductId.remove(productId);
+		if (doc == null) {
+			return false;
+		}
+		totalLength -= lengths[doc];
+		docs[doc] = null;
+		lengths[doc] = -1;
+		deletedCount++;
+		if (deletedCount >= MIN_DELETED_FOR_COMPACTION && deletedCount * 4 > docCount) {
+			compact();
+		}
+		return true;
+	}
+
+	/**
+	 * 全文搜尋：所有詞都必須出現（單一字元的詞以前綴比對），依 BM25 分數由高到低排序
+	 * 
+	 * @param query 查詢字串
+	 * @param limit 最多回傳筆數
+	 * @return 搜尋結果
+	 */
+	public List<ProductSearchHit> search(String query, int limit) {
+		return execute(ProductTokenizer.tokenize(query), false, limit);
+	}
+
+	/**
+	 * 自動完成：最後一個詞以前綴比對，回傳最相關的商品名稱（不重複）
+	 * 
+	 * @param prefix 使用者目前輸入的字串
+	 * @param limit 最多回傳筆數
+	 * @return 商品名稱
+	 */
+	public List<String> suggest(String prefix, int limit) {
+		Set<String> names = new LinkedHashSet<>();
+		for (ProductSearchHit hit : execute(ProductTokenizer.tokenize(prefix), true, limit * 4)) {
+			names.add(hit.getName());
+			if (names.size() == limit) {
+				break;
+			}
+		}
+		return new ArrayList<>(names);
+	}
+
+	public int getDocumentCount() {
+		return docCount - deletedCount;
+	}
+
+	public int getDeletedCount() {
+		return deletedCount;
+	}
+
+	public int getTermCount() {
+		return terms.size();
+	}
+
+	private List<ProductSearchHit> execute(List<String> tokens, boolean lastIsPrefix, int limit) {
+		if (tokens.isEmpty() || limit <= 0 || getDocumentCount() == 0) {
+			return Collections.emptyList();
+		}
+		List<Clause> clauses = new ArrayList<>();
+		Set<String> seen = new LinkedHashSet<>(tokens);
+		int index = 0;
+		for (String token : seen) {
+			boolean last = ++index == seen.size();
+			boolean prefix = (lastIsPrefix && last) || token.codePointCount(0, token.length()) == 1;
+			Clause clause = prefix ? prefixClause(token) : termClause(token);
+			if (clause != null) {
+				clauses.add(clause);
+			} else if (prefix || !ProductTokenizer.isCjk(token)) {
+				return Collections.emptyList();
+			}
+			// 索引中沒有的中文 bigram 多半跨越詞界（例如「大同電鍋」的「同電」），略過不影響結果
+		}
+		if (clauses.isEmpty()) {
+			return Collections.emptyList();
+		}
+		clauses.sort((a, b) -> Long.compare(a.cost, b.cost));
+
+		float averageLength = Math.max(1f, (float) totalLength / getDocumentCount());
+		// BM25 長度正規化 K1 * (1 - B + B * length / averageLength) 拆成兩個常數，計分時不需要除法
+		float normBase = K1 * (1 - B);
+		float normPerLength = K1 * B / averageLength;
+		Candidates candidates = clauses.get(0).materialize(normBase, normPerLength);
+		for (int i = 1; i < clauses.size() && candidates.size > 0; i++) {
+			clauses.get(i).intersect(candidates, normBase, normPerLength);
+		}
+		return topHits(candidates, limit);
+	}
+
+	private Clause termClause(String term) {
+		Postings postings = terms.get(term);
+		return postings == null ? null : new Clause(new Postings[] { postings }, new float[] { idf(postings) });
+	}
+
+	private Clause prefixClause(String prefix) {
+		// 以文件數為序的最大堆積，超過上限時丟棄文件數最多的詞
+		PriorityQueue<Postings> top = new PriorityQueue<>((a, b) -> Integer.compare(b.size, a.size));
+		int scanned = 0;
+		for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+			top.add(postings);
+			if (top.size() > MAX_PREFIX_EXPANSIONS) {
+				top.poll();
+			}
+			if (++scanned == MAX_PREFIX_SCAN) {
+				break;
+			}
+		}
+		if (top.isEmpty()) {
+			return null;
+		}
+		Postings[] expansions = top.toArray(new Postings[0]);
+		Arrays.sort(expansions, (a, b) -> Integer.compare(a.size, b.size));
+		// 由小到大累加，posting 總數超過上限就停止（至少保留一個詞），聯集的候選陣列因此有上限
+		int count = 1;
+		long total = expansions[0].size;
+		while (count < expansions.length && total + expansions[count].size <= MAX_PREFIX_POSTINGS) {
+			total += expansions[count++].size;
+		}
+		expansions = Arrays.copyOf(expansions, count);
+		float[] idfs = new float[expansions.length];
+		for (int i = 0; i < expansions.length; i++) {
+			idfs[i] = idf(expansions[i]);
+		}
+		return new Clause(expansions, idfs);
+	}
+
+	private float idf(Postings postings) {
+		int n = getDocumentCount();
+		int df = Math.min(postings.size, n);
+		return (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+	}
+
+	private static float score(int frequency, int length, float idf, float normBase, float normPerLength) {
+		return idf * frequency * (K1 + 1) / (frequency + normBase + normPerLength * length);
+	}
+
+	private List<ProductSearchHit> topHits(Candidates candidates, int limit) {
+		// 以候選位置組成的最小堆積保留前 limit 名，避免裝箱
+		float[] scores = candidates.scores;
+		int[] heap = new int[Math.min(limit, candidates.size)];
+		int heapSize = 0;
+		for (int i = 0; i < candidates.size; i++) {
+			if (heapSize < heap.length) {
+				heap[heapSize] = i;
+				siftUp(heap, heapSize++, scores);
+			} else if (scores[i] > scores[heap[0]]) {
+				heap[0] = i;
+				siftDown(heap, heapSize, scores);
+			}
+		}
+		ProductSearchHit[] hits = new ProductSearchHit[heapSize];
+		while (heapSize > 0) {
+			int candidate = heap[0];
+			heap[0] = heap[--heapSize];
+			siftDown(heap, heapSize, scores);
+			Doc doc = docs[candidates.docs[candidate]];
+			hits[heapSize] = new ProductSearchHit(doc.productId, doc.name, doc.type, doc.price, doc.status,
+					scores[candidate]);
+		}
+		return Arrays.asList(hits);
+	}
+
+	private static void siftUp(int[] heap, int position, float[] scores) {
+		int value = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (scores[heap[parent]] <= scores[value]) {
+				break;
+			}
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = value;
+	}
+
+	private static void siftDown(int[] heap, int size, float[] scores) {
+		if (size == 0) {
+			return;
+		}
+		int value = heap[0];
+		int position = 0;
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && scores[heap[child + 1]] < scores[heap[child]]) {
+				child++;
+			}
+			if (scores[value] <= scores[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = value;
+	}
+
+	private static int collect(String text, int weight, Map<String, int[]> frequencies) {
+		List<String> tokens = ProductTokenizer.tokenize(text);
+		for (String token : tokens) {
+			frequencies.computeIfAbsent(token, t -> new int[1])[0] += weight;
+		}
+		return tokens.size() * weight;
+	}
+
+	/**
+	 * 移除已刪除的文件並重新編號；新編號保持原本順序，posting list 不需重新排序
+	 */
+	private void compact() {
+		int[] remap = new int[docCount];
+		Doc[] compacted = new Doc[Math.max(1024, docCount - deletedCount)];
+		int[] compactedLengths = new int[compacted.length];
+		int live = 0;
+		for (int doc = 0; doc < docCount; doc++) {
+			if (docs[doc] == null) {
+				remap[doc] = -1;
+			} else {
+				remap[doc] = live;
+				compacted[live] = docs[doc];
+				compactedLengths[live] = lengths[doc];
+				docByProductId.put(docs[doc].productId, live);
+				live++;
+			}
+		}
+		terms.values().removeIf(postings -> postings.remap(remap) == 0);
+		docs = compacted;
+		lengths = compactedLengths;
+		docCount = live;
+		deletedCount = 0;
+	}
+
+	/**
+	 * 一個查詢詞：一般詞只有一個 posting list；前綴詞為多個 posting list 的聯集（總數受 MAX_PREFIX_POSTINGS 限制）
+	 */
+	private final class Clause {
+
+		final Postings[] postings;
+		final float[] idfs;
+		final long cost;
+
+		Clause(Postings[] postings, float[] idfs) {
+			this.postings = postings;
+			this.idfs = idfs;
+			long total = 0;
+			for (Postings p : postings) {
+				total += p.size;
+			}
+			this.cost = total;
+		}
+
+		Candidates materialize(float normBase, float normPerLength) {
+			int[] lengths = ProductInvertedIndex.this.lengths;
+			if (postings.length == 1) {
+				Postings p = postings[0];
+				Candidates result = new Candidates(p.size);
+				for (int i = 0; i < p.size; i++) {
+					int doc = p.docs[i];
+					int length = lengths[doc];
+					if (length >= 0) {
+						result.add(doc, score(p.frequencies[i], length, idfs[0], normBase, normPerLength));
+					}
+				}
+				return result;
+			}
+			// 聯集：以各 posting list 目前的文件編號組成最小堆積做 k 路合併，相同文件的分數相加
+			int[] cursors = new int[postings.length];
+			int[] heap = new int[postings.length];
+			int heapSize = 0;
+			for (int t = 0; t < postings.length; t++) {
+				if (postings[t].size > 0) {
+					heap[heapSize++] = t;
+				}
+			}
+			for (int i = heapSize / 2 - 1; i >= 0; i--) {
+				siftDownByDoc(heap, heapSize, i, cursors);
+			}
+			Candidates result = new Candidates((int) Math.min(cost, docCount));
+			while (heapSize > 0) {
+				int t = heap[0];
+				Postings p = postings[t];
+				int i = cursors[t];
+				int doc = p.docs[i];
+				int length = lengths[doc];
+				if (length >= 0) {
+					float score = score(p.frequencies[i], length, idfs[t], normBase, normPerLength);
+					if (result.size > 0 && result.docs[result.size - 1] == doc) {
+						result.scores[result.size - 1] += score;
+					} else {
+						result.add(doc, score);
+					}
+				}
+				if (++cursors[t] == p.size) {
+					heap[0] = heap[--heapSize];
+				}
+				siftDownByDoc(heap, heapSize, 0, cursors);
+			}
+			return result;
+		}
+
+		private void siftDownByDoc(int[] heap, int size, int position, int[] cursors) {
+			if (size == 0) {
+				return;
+			}
+			int value = heap[position];
+			int valueDoc = postings[value].docs[cursors[value]];
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= size) {
+					break;
+				}
+				int childDoc = postings[heap[child]].docs[cursors[heap[child]]];
+				if (child + 1 < size) {
+					int rightDoc = postings[heap[child + 1]].docs[cursors[heap[child + 1]]];
+					if (rightDoc < childDoc) {
+						child++;
+						childDoc = rightDoc;
+					}
+				}
+				if (valueDoc <= childDoc) {
+					break;
+				}
+				heap[position] = heap[child];
+				position = child;
+			}
+			heap[position] = value;
+		}
+
+		/**
+		 * 只保留也出現在本詞的候選文件，並累加分數；候選文件編號遞增，每個 posting list 只需往前搜尋
+		 */
+		void intersect(Candidates candidates, float normBase, float normPerLength) {
+			int[] lengths = ProductInvertedIndex.this.lengths;
+			int[] cursors = new int[postings.length];
+			int kept = 0;
+			for (int c = 0; c < candidates.size; c++) {
+				int doc = candidates.docs[c];
+				float added = 0;
+				boolean matched = false;
+				for (int t = 0; t < postings.length; t++) {
+					Postings p = postings[t];
+					int position = p.advance(cursors[t], doc);
+					cursors[t] = position;
+					if (position < p.size && p.docs[position] == doc) {
+						added += score(p.frequencies[position], lengths[doc], idfs[t], normBase, normPerLength);
+						matched = true;
+					}
+				}
+				if (matched) {
+					candidates.docs[kept] = doc;
+					candidates.scores[kept] = candidates.scores[c] + added;
+					kept++;
+				}
+			}
+			candidates.size = kept;
+		}
+	}
+
+	private static final class Candidates {
+
+		final int[] docs;
+		final float[] scores;
+		int size;
+
+		Candidates(int capacity) {
+			docs = new int[capacity];
+			scores = new float[capacity];
+		}
+
+		void add(int doc, float score) {
+			docs[size] = doc;
+			scores[size] = score;
+			size++;
+		}
+	}
+
+	/**
+	 * 單一詞的 posting list：依文件編號遞增的文件與加權詞頻
+	 */
+	private static final class Postings {
+
+		private static final int LINEAR_SCAN = 8;
+
+		int[] docs = new int[2];
+		int[] frequencies = new int[2];
+		int size;
+
+		void add(int doc, int frequency) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+			}
+			docs[size] = doc;
+			frequencies[size] = frequency;
+			size++;
+		}
+
+		/**
+		 * 從 from 開始找第一個編號 >= target 的位置
+		 * 密集的 posting list 目標通常就在幾格之內，先線性掃描 LINEAR_SCAN 格，找不到再指數搜尋 + 二分搜尋
+		 */
+		int advance(int from, int target) {
+			int end = Math.min(size, from + LINEAR_SCAN);
+			for (int i = from; i < end; i++) {
+				if (docs[i] >= target) {
+					return i;
+				}
+			}
+			if (end == size) {
+				return size;
+			}
+			from = end - 1;
+			int step = 1;
+			int low = from;
+			int high = from + step;
+			while (high < size && docs[high] < target) {
+				low = high;
+				step <<= 1;
+				high = from + step;
+			}
+			int position = Arrays.binarySearch(docs, low + 1, Math.min(high, size - 1) + 1, target);
+			return position >= 0 ? position : -position - 1;
+		}
+
+		int remap(int[] remap) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				int doc = remap[docs[i]];
+				if (doc >= 0) {
+					docs[kept] = doc;
+					frequencies[kept] = frequencies[i];
+					kept++;
+				}
+			}
+			size = kept;
+			if (kept < docs.length / 4) {
+				docs = Arrays.copyOf(docs, Math.max(2, kept));
+				frequencies = Arrays.copyOf(frequencies, Math.max(2, kept));
+			}
+			return kept;
+		}
+	}
+
+	private static final class Doc {
+
+		final Long productId;
+		final String name;
+		final String type;
+		final BigDecimal price;
+		final ProductStatus status;
+
+		Doc(Long productId, String name, String type, BigDecimal price, ProductStatus status) {
+			this.productId = productId;
+			this.name = name;
+			this.type = type;
+			this.price = price;
+			this.status = status;
+		}
+	}
+}
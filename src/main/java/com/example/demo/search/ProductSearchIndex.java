@@ -0,0 +1,200 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.model.Product;
+
+/**
+ * 商品搜尋索引
+ * 啟動時從資料庫建立完整索引，之後由 ProductService 在交易提交後逐筆更新，查詢完全在記憶體內完成。
+ * 查詢共用讀鎖，寫入使用寫鎖；重建索引時在鎖外建立新索引，
+ * 期間收到的更新會記下來，切換到新索引前重播一次，不會遺失
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	@Autowired
+	private ProductDAO productReposity;
+
+	@Value("${search.index.buildOnStartup:true}")
+	private boolean buildOnStartup;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "product-search-rebuild");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * 已排入但尚未開始的背景重建；連續的重建請求合併成一次
+	 */
+	private CompletableFuture<Void> queuedRebuild;
+
+	private final Object rebuildMonitor = new Object();
+
+	private ProductInvertedIndex index = new ProductInvertedIndex();
+
+	/**
+	 * 重建期間收到的更新，null 代表目前沒有在重建
+	 */
+	private List<Consumer<ProductInvertedIndex>> pendingUpdates;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (buildOnStartup) {
+			rebuild();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		rebuildExecutor.shutdownNow();
+	}
+
+	/**
+	 * 在背景重建索引（例如大量匯入之後），重建期間仍以舊索引回應查詢
+	 * 
+	 * @return 重建完成時完成的 Future
+	 */
+	public synchronized CompletableFuture<Void> rebuildAsync() {
+		if (queuedRebuild == null) {
+			queuedRebuild = CompletableFuture.runAsync(() -> {
+				synchronized (this) {
+					queuedRebuild = null;
+				}
+				rebuild();
+			}, rebuildExecutor);
+		}
+		return queuedRebuild;
+	}
+
+	/**
+	 * 從資料庫重新建立整個索引
+	 */
+	public void rebuild() {
+		synchronized (rebuildMonitor) {
+			doRebuild();
+		}
+	}
+
+	private void doRebuild() {
+		lock.writeLock().lock();
+		try {
+			pendingUpdates = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		long start = System.nanoTime();
+		ProductInvertedIndex rebuilt = new ProductInvertedIndex();
+		try {
+			productReposity.streamAll(rebuilt::add);
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				pendingUpdates = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			for (Consumer<ProductInvertedIndex> update : pendingUpdates) {
+				update.accept(rebuilt);
+			}
+			pendingUpdates = null;
+			index = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Product search index built: documents={}, terms={}, elapsedMillis={}",
+				rebuilt.getDocumentCount(), rebuilt.getTermCount(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * 新增或更新索引中的商品
+	 * 
+	 * @param product 商品
+	 */
+	public void index(Product product) {
+		if (product == null || product.getId() == null) {
+			return;
+		}
+		update(target -> target.add(product));
+	}
+
+	/**
+	 * 從索引移除商品
+	 * 
+	 * @param productId 商品ID
+	 */
+	public void remove(Long productId) {
+		if (productId == null) {
+			return;
+		}
+		update(target -> target.remove(productId));
+	}
+
+	public List<ProductSearchHit> search(String query, int limit) {
+		lock.readLock().lock();
+		try {
+			return index.search(query, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<String> suggest(String prefix, int limit) {
+		lock.readLock().lock();
+		try {
+			return index.suggest(prefix, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return 索引中的商品數
+	 */
+	public int getDocumentCount() {
+		lock.readLock().lock();
+		try {
+			return index.getDocumentCount();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void update(Consumer<ProductInvertedIndex> update) {
+		lock.writeLock().lock();
+		try {
+			update.accept(index);
+			if (pendingUpdates != null) {
+				pendingUpdates.add(update);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+}
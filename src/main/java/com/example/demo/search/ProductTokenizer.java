@@ -0,0 +1,87 @@
+package com.example.demo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 商品搜尋斷詞器
+ * 先做 NFKC 正規化（全形轉半形）並轉小寫，再依字元種類切分：
+ * <ul>
+ * <li>中日韓文字：以相鄰兩字為一詞（bigram），例如「藍牙耳機」→ 藍牙、牙耳、耳機；單獨一個字則保留單字</li>
+ * <li>英文字母、數字：連續的字元為一詞</li>
+ * <li>其他字元（空白、標點）：當作分隔</li>
+ * </ul>
+ */
+public final class ProductTokenizer {
+
+	private ProductTokenizer() {
+	}
+
+	/**
+	 * 斷詞，依原文順序回傳（可能重複）
+	 * 
+	 * @param text 原文，可為 null
+	 * @return 詞彙清單
+	 */
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+		int length = normalized.length();
+		int i = 0;
+		while (i < length) {
+			int codePoint = normalized.codePointAt(i);
+			if (isCjk(codePoint)) {
+				int start = i;
+				while (i < length && isCjk(normalized.codePointAt(i))) {
+					i += Character.charCount(normalized.codePointAt(i));
+				}
+				addBigrams(normalized.substring(start, i), tokens);
+			} else if (Character.isLetterOrDigit(codePoint)) {
+				int start = i;
+				while (i < length) {
+					int c = normalized.codePointAt(i);
+					if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+						break;
+					}
+					i += Character.charCount(c);
+				}
+				tokens.add(normalized.substring(start, i));
+			} else {
+				i += Character.charCount(codePoint);
+			}
+		}
+		return tokens;
+	}
+
+	private static void addBigrams(String run, List<String> tokens) {
+		int[] codePoints = run.codePoints().toArray();
+		if (codePoints.length == 1) {
+			tokens.add(run);
+			return;
+		}
+		for (int i = 0; i + 1 < codePoints.length; i++) {
+			tokens.add(new String(codePoints, i, 2));
+		}
+	}
+
+	/**
+	 * @param token 斷詞結果
+	 * @return 是否為中日韓文字的詞（bigram 或單字）
+	 */
+	static boolean isCjk(String token) {
+		return !token.isEmpty() && isCjk(token.codePointAt(0));
+	}
+
+	private static boolean isCjk(int codePoint) {
+		Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+		return script == Character.UnicodeScript.HAN
+				|| script == Character.UnicodeScript.HIRAGANA
+				|| script == Character.UnicodeScript.KATAKANA
+				|| script == Character.UnicodeScript.HANGUL;
+	}
+}
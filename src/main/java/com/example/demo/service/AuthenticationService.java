@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import com.example.demo.auth.UserPrincipal;
+
+/**
+ * 登入驗證與已登入使用者查詢
+ * 使用者以 username 為鍵快取成 {@link UserPrincipal}，每個請求解析登入狀態時不需要查詢資料庫
+ */
+public interface AuthenticationService {
+
+    /**
+     * 驗證帳號密碼；成功且密碼雜湊的迭代次數不是目前設定時，順便以新設定重新雜湊
+     *
+     * @param username 使用者名稱
+     * @param password 明文密碼
+     * @return 驗證成功的使用者，帳號不存在、已停用或密碼錯誤時為 null
+     * @throws IllegalStateException 密碼雜湊的名額已滿（登入尖峰），應請使用者稍後再試
+     */
+    UserPrincipal authenticate(String username, String password);
+
+    /**
+     * 取得使用者快照（讀穿快取）
+     *
+     * @param username 使用者名稱
+     * @return 使用者快照，不存在時為 null
+     */
+    UserPrincipal getPrincipal(String username);
+
+    /**
+     * 讓使用者的快照失效，下次存取時重新從資料庫載入
+     *
+     * @param username 使用者名稱
+     */
+    void invalidate(String username);
+}
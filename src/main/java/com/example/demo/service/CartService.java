@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.dto.ExpiredCart;
+
+/**
+ * 購物車服務
+ * 購物車異動只更新記憶體並寫入異動日誌，由背景排程批次寫回資料庫（write-behind）
+ */
+public interface CartService {
+
+	CartView getCart(Long customerId);
+
+	/**
+	 * 加入商品；已在購物車中時增加數量
+	 * 
+	 * @throws IllegalArgumentException 商品不存在或未上架
+	 */
+	CartView addItem(Long customerId, Long productId, int quantity);
+
+	void increaseQuantity(Long customerId, Long productId, int amount);
+
+	void decreaseQuantity(Long customerId, Long productId, int amount);
+
+	/**
+	 * 設定商品數量，小於等於 0 時移除
+	 */
+	void updateQuantity(Long customerId, Long productId, int quantity);
+
+	void removeItem(Long customerId, Long productId);
+
+	void clearCart(Long customerId);
+
+	/**
+	 * 結帳成功後扣除已下單的數量；結帳期間才加入的商品或增加的數量保留在購物車
+	 * 
+	 * @param lines 結帳時的購物車明細
+	 */
+	void removeCheckedOut(Long customerId, List<CartLine> lines);
+
+	/**
+	 * 把記憶體中購物車的指定商品改成新單價，改動會跟其他異動一樣寫入日誌並批次寫回
+	 * 
+	 * @param prices 商品ID → 新單價
+	 * @return 變更的明細數
+	 */
+	int repriceProducts(Map<Long, BigDecimal> prices);
+
+	/**
+	 * 刪除資料庫中閒置過久的購物車；已載入記憶體的（近期有使用，或有尚未寫回的異動）不刪除。
+	 * 必須在交易中呼叫：檢查到交易結束之間，這些客戶的購物車無法載入記憶體
+	 * 
+	 * @param carts 閒置過久的購物車
+	 * @param updatedBefore 只刪除此時間之前更新的購物車（刪除前會再確認一次）
+	 * @return 刪除的購物車數
+	 */
+	int deleteAbandoned(List<ExpiredCart> carts, LocalDateTime updatedBefore);
+
+	/**
+	 * 立即把所有待寫回的購物車寫入資料庫
+	 * 
+	 * @return 寫入的購物車數
+	 */
+	int flush();
+}
@@ -0,0 +1,22 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.Order.PaymentMethod;
+
+/**
+ * 結帳服務：把購物車轉成訂單
+ */
+public interface CheckoutService {
+
+	/**
+	 * 以購物車目前的內容建立訂單（依商品現價計算），預留庫存並在交易提交後清空購物車
+	 * 
+	 * @param customerId 客戶ID
+	 * @param shippingAddress 收件地址
+	 * @param paymentMethod 付款方式
+	 * @return 新訂單
+	 * @throws IllegalArgumentException 購物車是空的，或有商品不存在、未上架、缺貨
+	 * @throws IllegalStateException 可用庫存不足
+	 */
+	Order checkout(Long customerId, String shippingAddress, PaymentMethod paymentMethod);
+}
@@ -1,7 +1,11 @@
 package com.example.demo.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import com.example.demo.dto.CustomerPageRequest;
+import com.example.demo.dto.KeysetPage;
 import com.example.demo.model.Customer;
 
 public interface CustomerService {
@@ -10,9 +14,44 @@ public interface CustomerService {
     
     Customer getCustomerById(Long id);
     
+    /**
+     * 檢查客戶是否屬於指定的使用者帳號
+     * 
+     * @param customerId 客戶ID
+     * @param userId 使用者ID
+     * @return 客戶存在且屬於該使用者時為 true
+     */
+    boolean isOwnedBy(Long customerId, Long userId);
+    
+    /**
+     * 批次取得客戶，IN 條件每 1000 筆一次查詢，不會逐筆查詢
+     * 
+     * @param ids 客戶ID
+     * @param withUser true 時一併載入 User（交易結束後仍可存取）
+     * @return 以客戶ID為鍵的客戶，依傳入 ID 的順序排列；不存在的 ID 不會出現
+     */
+    Map<Long, Customer> getCustomersByIds(Collection<Long> ids, boolean withUser);
+    
+    /**
+     * 取得一頁客戶（依 ID 遞增）
+     * 
+     * @param request 分頁條件
+     * @return 本頁客戶與下一頁游標
+     */
+    KeysetPage<Customer> getCustomerPage(CustomerPageRequest request);
+    
     void saveCustomer(Customer customer);
     
     void updateCustomer(Long id, Customer updatedCustomer);
     
+    /**
+     * 批次更新客戶資料（姓名、電話、地址等，不含 User 關聯）
+     * 在同一個交易中批次載入後修改，UPDATE 依 hibernate.jdbc.batch_size 合併送出
+     * 
+     * @param updatedCustomers 帶有客戶ID與新資料的客戶
+     * @return 實際更新的客戶數，不存在的 ID 不計入
+     */
+    int updateCustomers(Collection<Customer> updatedCustomers);
+    
     void deleteCustomer(Long id);
 }
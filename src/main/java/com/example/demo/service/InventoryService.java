@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+import com.example.demo.dto.StockReservation;
+import com.example.demo.model.Product;
+
+/**
+ * 庫存預留服務
+ * 結帳前先在記憶體中預留庫存（不鎖資料庫的商品列），確認後的扣減由背景排程批次同步回資料庫
+ */
+public interface InventoryService {
+
+	/**
+	 * 預留庫存
+	 * 商品由呼叫端載入（例如結帳時以一次 IN 查詢載入整張購物車的商品），這裡只檢查狀態，不再逐筆查詢
+	 * 
+	 * @param product 要預留的商品，null 視為不存在
+	 * @return 預留結果；可用庫存不足時回傳 null
+	 * @throws IllegalArgumentException 商品不存在或已下架
+	 */
+	StockReservation reserve(Product product, int quantity);
+
+	/**
+	 * 確認預留（下單成功），預留的數量會在下次對帳時從資料庫庫存扣除
+	 * 
+	 * @return 預留已逾時或不存在時回傳 false
+	 */
+	boolean confirm(long reservationId);
+
+	/**
+	 * 一次確認多筆預留：全部有效才確認，任何一筆已逾時或不存在時全部歸還、都不確認
+	 * 
+	 * @return 是否全部確認
+	 */
+	boolean confirmAll(List<StockReservation> reservations);
+
+	/**
+	 * 撤銷已確認的預留（例如確認後交易提交失敗），數量立即歸還；已扣回資料庫的部分在下次對帳時加回
+	 */
+	void cancelConfirmed(List<StockReservation> reservations);
+
+	/**
+	 * 取消預留，數量立即歸還
+	 * 
+	 * @return 預留已逾時或不存在時回傳 false
+	 */
+	boolean release(long reservationId);
+
+	/**
+	 * 目前可預留的數量
+	 */
+	long getAvailable(Long productId);
+
+	/**
+	 * 歸還所有已逾時的預留
+	 * 
+	 * @return 歸還的預留數
+	 */
+	int expireReservations();
+
+	/**
+	 * 把已確認的扣減寫回資料庫，並把資料庫的庫存變化（後台補貨或調整）套用到記憶體
+	 * 
+	 * @return 對帳的商品數
+	 */
+	int reconcile();
+}
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import com.example.demo.export.ExportFormat;
+
+public interface OrderExportService {
+
+	/**
+	 * 將指定期間的訂單與明細串流寫出，寫完後關閉 Channel
+	 * 
+	 * @param format 匯出格式
+	 * @param from 建立時間起（含）
+	 * @param to 建立時間迄（不含）
+	 * @param channel 輸出目的地
+	 * @return 匯出列數
+	 * @throws IOException 寫入失敗
+	 */
+	long exportOrders(ExportFormat format, LocalDateTime from, LocalDateTime to, WritableByteChannel channel) throws IOException;
+
+	/**
+	 * 將指定期間的訂單與明細匯出到檔案（覆寫既有檔案）
+	 * 
+	 * @param format 匯出格式
+	 * @param from 建立時間起（含）
+	 * @param to 建立時間迄（不含）
+	 * @param file 檔案路徑
+	 * @return 匯出列數
+	 * @throws IOException 寫入失敗
+	 */
+	long exportOrders(ExportFormat format, LocalDateTime from, LocalDateTime to, Path file) throws IOException;
+}
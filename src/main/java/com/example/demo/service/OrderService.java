@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.model.Order.Transition;
+
+/**
+ * 訂單狀態服務
+ * 狀態轉換與對應的事件在同一個交易中寫入，事件在交易提交後由事件匯流排非同步送給監聽器
+ */
+public interface OrderService {
+
+	/**
+	 * 載入訂單明細頁需要的資料：訂單、明細與各明細的商品以一次查詢載入
+	 * 
+	 * @param orderId 訂單ID
+	 * @return 訂單（getItems() 與每個明細的 getProduct() 已載入），不存在時為 null
+	 */
+	Order getOrderWithItems(Long orderId);
+	
+	/**
+	 * 進行訂單狀態轉換
+	 * 
+	 * @param orderId 訂單ID
+	 * @param transition 狀態轉換
+	 * @return 轉換後的訂單
+	 * @throws IllegalArgumentException 訂單不存在
+	 * @throws IllegalStateException 訂單目前的狀態不允許這個轉換
+	 */
+	Order transition(Long orderId, Transition transition);
+
+	/**
+	 * 依建立時間新到舊分頁查詢客戶的訂單（不載入 Order 實體）
+	 * 
+	 * @param request 查詢條件
+	 * @return 本頁訂單與下一頁游標
+	 */
+	KeysetPage<OrderSummary> getOrderHistory(OrderHistoryRequest request);
+}
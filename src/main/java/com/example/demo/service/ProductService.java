@@ -1,18 +1,86 @@
 package com.example.demo.service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSearchHit;
 import com.example.demo.model.Product;
 
 public interface ProductService {
 	
 	List<Product> getAllProducts();
 	
+	KeysetPage<Product> getProductPage(ProductPageRequest request);
+	
 	Product getProductById(Long id);
+	
+	/**
+	 * 以記憶體內的搜尋索引查詢商品（名稱、類型、描述），不查資料庫
+	 * 
+	 * @param query 查詢字串
+	 * @param limit 最多回傳筆數
+	 * @return 依相關度排序的結果
+	 */
+	List<ProductSearchHit> searchProducts(String query, int limit);
+	
+	/**
+	 * 搜尋框自動完成
+	 * 
+	 * @param prefix 目前輸入的字串
+	 * @param limit 最多回傳筆數
+	 * @return 商品名稱
+	 */
+	List<String> suggestProducts(String prefix, int limit);
 
 	void saveProduct(Product product);
 	
+	/**
+	 * 批次匯入商品（JDBC batch INSERT），整批在同一個交易內完成
+	 * 
+	 * @param products 商品資料流，呼叫端負責關閉
+	 * @return 匯入結果
+	 */
+	ImportResult importProducts(Stream<Product> products);
+	
+	/**
+	 * 更新商品，價格有變時在交易提交後發布 {@link com.example.demo.dto.ProductPriceChange}
+	 */
 	void updateProduct(Long id, Product product);
 	
+	/**
+	 * 批次改價（例如促銷活動），整批在同一個交易內以 JDBC batch UPDATE，
+	 * 交易提交後發布一個 {@link com.example.demo.dto.ProductPriceChange}，購物車的單價由背景非同步更新
+	 * 
+	 * @param prices 商品ID → 新單價
+	 * @return 價格有變動的商品數
+	 */
+	int updatePrices(Map<Long, BigDecimal> prices);
+	
 	void deletProduct(Long id);
+	
+	/**
+	 * 直接從資料庫讀取庫存（不經過快取），供庫存預留引擎對帳
+	 * 
+	 * @param ids 商品ID
+	 * @return 商品ID 對應庫存
+	 */
+	Map<Long, Integer> getStocks(Collection<Long> ids);
+	
+	/**
+	 * 以條件式 UPDATE 扣庫存；資料庫庫存不足時只扣到 0，扣到 0 的商品自動轉為缺貨
+	 * 
+	 * @return 實際扣減的數量
+	 */
+	int deductStock(Long id, int quantity);
+	
+	/**
+	 * 補貨，缺貨中的商品恢復上架
+	 */
+	void addStock(Long id, int quantity);
 
 }
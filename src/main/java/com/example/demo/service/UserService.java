@@ -2,12 +2,24 @@ package com.example.demo.service;
 
 import java.util.List;
 
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
+import com.example.demo.model.UserRole;
 
 public interface UserService {
     
     List<User> getAllUsers();
     
+    /**
+     * 取得一頁使用者管理列表，只查詢列表顯示的欄位
+     * 
+     * @param request 分頁、排序與前綴篩選條件
+     * @return 本頁使用者與下一頁游標
+     */
+    KeysetPage<UserSummary> getUserPage(UserPageRequest request);
+    
     User getUserById(Long id);
     
     void saveUser(User user);
@@ -15,4 +27,20 @@ public interface UserService {
     void updateUser(Long id, User updatedUser);
     
     void deleteUser(Long id);
+    
+    /**
+     * 啟用或停用帳號，已快取的登入資料會一併失效
+     * 
+     * @param id 使用者ID
+     * @param enabled true: 啟用, false: 停用
+     */
+    void setEnabled(Long id, boolean enabled);
+    
+    /**
+     * 變更使用者角色，已快取的登入資料會一併失效
+     * 
+     * @param id 使用者ID
+     * @param role 新角色
+     */
+    void changeRole(Long id, UserRole role);
 }
@@ -0,0 +1,102 @@
+package com.example.demo.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.PasswordHasher;
+import com.example.demo.auth.UserPrincipal;
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.dao.UserDAO;
+import com.example.demo.model.User;
+import com.example.demo.service.AuthenticationService;
+
+/**
+ * 登入驗證
+ * 不在類別上宣告 @Transactional：雜湊密碼可能花上數十毫秒，不能在這段時間佔住資料庫連線，
+ * 只有載入使用者與升級雜湊時各自開短交易
+ */
+@Service
+public class AuthenticationServiceImpl implements AuthenticationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationServiceImpl.class);
+
+    @Autowired
+    private UserDAO userRepository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private CatalogCache<String, UserPrincipal> principalCache;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate writeTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // 快取的背景刷新在其他執行緒執行，需要自己開唯讀交易
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public UserPrincipal authenticate(String username, String password) {
+        UserPrincipal principal = username != null ? getPrincipal(username) : null;
+        if (principal == null || !principal.isEnabled()) {
+            passwordHasher.matchesNothing(password);
+            return null;
+        }
+        String stored = principal.getPasswordHash();
+        // 尚未轉換的舊明文密碼同樣以固定時間比較，相符後下面會立即換成雜湊
+        boolean matched = passwordHasher.isEncoded(stored)
+                ? passwordHasher.matches(password, stored)
+                : passwordHasher.matchesPlain(password, stored);
+        if (!matched) {
+            return null;
+        }
+        if (passwordHasher.needsRehash(stored)) {
+            rehash(principal, password);
+        }
+        return principal;
+    }
+
+    /**
+     * 以目前的迭代次數重新雜湊（舊明文密碼也在這裡轉成雜湊）；期間密碼已被修改時不覆蓋
+     */
+    private void rehash(UserPrincipal principal, String password) {
+        String upgraded = passwordHasher.hash(password);
+        boolean updated = writeTransaction.execute(status -> {
+            User user = userRepository.findById(principal.getId());
+            if (user == null || !principal.getPasswordHash().equals(user.getPassword())) {
+                return false;
+            }
+            user.setPassword(upgraded);
+            return true;
+        });
+        if (updated) {
+            invalidate(principal.getUsername());
+            logger.info("Upgraded password hash to {} iterations: userId={}", passwordHasher.getIterations(), principal.getId());
+        }
+    }
+
+    @Override
+    public UserPrincipal getPrincipal(String username) {
+        return principalCache.get(username, key -> readOnlyTransaction.execute(status -> {
+            User user = userRepository.findByUsername(key);
+            return user != null ? UserPrincipal.of(user) : null;
+        }));
+    }
+
+    @Override
+    public void invalidate(String username) {
+        if (username != null) {
+            principalCache.invalidate(username);
+        }
+    }
+}
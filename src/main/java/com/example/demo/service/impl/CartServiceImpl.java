@@ -0,0 +1,295 @@
+package com.example.demo.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.cart.CartJournal;
+import com.example.demo.cart.CartStore;
+import com.example.demo.dao.CartDAO;
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.dto.ExpiredCart;
+import com.example.demo.model.Product;
+import com.example.demo.service.CartService;
+import com.example.demo.service.ProductService;
+
+/**
+ * 購物車服務（記憶體 + write-behind）
+ * 購物車第一次使用時從資料庫載入到 {@link CartStore}，之後的異動都在記憶體完成並寫入 {@link CartJournal}；
+ * 背景排程每 cart.flush.intervalMs 把有異動的購物車分批（cart.flush.batchSize）寫回資料庫，
+ * 同一購物車在兩次寫回之間的多次異動只寫一次。啟動時會重播上次未寫回的日誌。
+ * 異動不在交易中進行，載入與寫回各自開交易
+ */
+@Service
+public class CartServiceImpl implements CartService, SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(CartServiceImpl.class);
+
+	@Autowired
+	private CartDAO cartRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Value("${cart.store.stripes:64}")
+	private int stripes;
+
+	@Value("${cart.flush.intervalMs:1000}")
+	private long flushIntervalMs;
+
+	@Value("${cart.flush.batchSize:200}")
+	private int flushBatchSize;
+
+	@Value("${cart.store.idleEvictMs:1800000}")
+	private long idleEvictMs;
+
+	@Value("${cart.journal.dir:data/cart-journal}")
+	private String journalDirectory;
+
+	@Value("${cart.journal.syncOnWrite:false}")
+	private boolean journalSyncOnWrite;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	private TransactionTemplate writeTransaction;
+
+	private CartJournal journal;
+
+	private CartStore store;
+
+	private ScheduledExecutorService flushScheduler;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		try {
+			// 每個 stripe 一個 lane，寫日誌不會成為所有 stripe 共用的瓶頸
+			journal = new CartJournal(Paths.get(journalDirectory), journalSyncOnWrite, stripes);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open cart journal in " + journalDirectory, e);
+		}
+		store = new CartStore(stripes, journal);
+		recover();
+		flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cart-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		flushScheduler.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		if (flushScheduler != null) {
+			flushScheduler.shutdown();
+			try {
+				flushScheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (store != null) {
+			flush();
+			journal.close();
+		}
+	}
+
+	@Override
+	public CartView getCart(Long customerId) {
+		CartView view;
+		while ((view = store.view(customerId)) == null) {
+			load(customerId);
+		}
+		return view;
+	}
+
+	@Override
+	public CartView addItem(Long customerId, Long productId, int quantity) {
+		Product product = productService.getProductById(productId);
+		if (product == null || !product.isActive()) {
+			throw new IllegalArgumentException("Product is not available: " + productId);
+		}
+		if (quantity > 0) {
+			mutate(customerId, s -> s.addQuantity(customerId, productId, quantity, product.getPrice()));
+		}
+		return getCart(customerId);
+	}
+
+	@Override
+	public void increaseQuantity(Long customerId, Long productId, int amount) {
+		if (amount > 0) {
+			mutate(customerId, s -> s.addQuantity(customerId, productId, amount, null));
+		}
+	}
+
+	@Override
+	public void decreaseQuantity(Long customerId, Long productId, int amount) {
+		mutate(customerId, s -> s.decreaseQuantity(customerId, productId, amount));
+	}
+
+	@Override
+	public void updateQuantity(Long customerId, Long productId, int quantity) {
+		mutate(customerId, s -> s.setQuantity(customerId, productId, Math.max(0, quantity), null));
+	}
+
+	@Override
+	public void removeItem(Long customerId, Long productId) {
+		mutate(customerId, s -> s.setQuantity(customerId, productId, 0, null));
+	}
+
+	@Override
+	public void clearCart(Long customerId) {
+		mutate(customerId, s -> s.clear(customerId));
+	}
+
+	@Override
+	public void removeCheckedOut(Long customerId, List<CartLine> lines) {
+		mutate(customerId, s -> s.subtract(customerId, lines));
+	}
+
+	@Override
+	public int repriceProducts(Map<Long, BigDecimal> prices) {
+		return store.reprice(prices);
+	}
+
+	@Override
+	public int deleteAbandoned(List<ExpiredCart> carts, LocalDateTime updatedBefore) {
+		if (carts.isEmpty()) {
+			return 0;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("deleteAbandoned must be called within a transaction");
+		}
+		Map<Long, Long> cartIds = new HashMap<>();
+		for (ExpiredCart cart : carts) {
+			cartIds.put(cart.getCustomerId(), cart.getCartId());
+		}
+		// 標記到交易結束才清除：提交前刪除中的購物車不會被載入，提交後才開始的載入讀到的是刪除後的資料
+		Set<Long> deleting = store.markDeleting(cartIds.keySet());
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				store.finishDeleting(deleting);
+			}
+		});
+		List<Long> deletable = new ArrayList<>(deleting.size());
+		for (Long customerId : deleting) {
+			deletable.add(cartIds.get(customerId));
+		}
+		return deletable.isEmpty() ? 0 : cartRepository.deleteExpired(deletable, updatedBefore);
+	}
+
+	@Override
+	public synchronized int flush() {
+		// 先封存日誌再取快照：封存前寫入的異動一定包含在這次的快照中
+		long sealed = journal.rotate();
+		List<CartView> snapshots = store.drainDirty();
+		boolean failed = false;
+		for (int from = 0; from < snapshots.size(); from += flushBatchSize) {
+			List<CartView> batch = snapshots.subList(from, Math.min(from + flushBatchSize, snapshots.size()));
+			try {
+				writeTransaction.executeWithoutResult(status -> cartRepository.saveSnapshots(batch));
+			} catch (RuntimeException e) {
+				failed = true;
+				List<Long> customerIds = new ArrayList<>(batch.size());
+				for (CartView snapshot : batch) {
+					customerIds.add(snapshot.getCustomerId());
+				}
+				store.markDirty(customerIds);
+				logger.error("Cart write-behind failed for {} carts, will retry", batch.size(), e);
+			}
+		}
+		// 有失敗時保留日誌，下次寫回成功後一併刪除
+		if (!failed) {
+			journal.deleteUpTo(sealed);
+		}
+		if (!snapshots.isEmpty()) {
+			logger.debug("Cart write-behind flushed {} carts", snapshots.size());
+		}
+		return snapshots.size();
+	}
+
+	private synchronized void scheduledFlush() {
+		try {
+			flush();
+			int evicted = store.evictIdle(System.currentTimeMillis() - idleEvictMs);
+			if (evicted > 0) {
+				logger.debug("Evicted {} idle carts from memory", evicted);
+			}
+		} catch (RuntimeException e) {
+			logger.error("Cart write-behind run failed", e);
+		}
+	}
+
+	/**
+	 * 在記憶體中套用異動；購物車不在記憶體時先從資料庫載入
+	 */
+	private void mutate(Long customerId, Predicate<CartStore> mutation) {
+		while (!mutation.test(store)) {
+			load(customerId);
+		}
+	}
+
+	private void load(Long customerId) {
+		long version;
+		List<CartLine> lines;
+		// 讀取期間同一個 stripe 有閒置購物車被刪除或有商品改價時重新讀取，避免放回剛刪除的購物車或改價前的單價
+		do {
+			version = store.loadVersion(customerId);
+			lines = readOnlyTransaction.execute(status -> cartRepository.findLines(customerId));
+		} while (!store.load(customerId, lines, version));
+	}
+
+	/**
+	 * 重播上次未寫回的日誌：先載入相關購物車的資料庫狀態，再套上日誌記錄，然後立即寫回
+	 */
+	private void recover() {
+		List<CartJournal.Record> records = new ArrayList<>();
+		journal.replay(records::add);
+		if (records.isEmpty()) {
+			return;
+		}
+		Set<Long> customerIds = new HashSet<>();
+		for (CartJournal.Record record : records) {
+			customerIds.add(record.getCustomerId());
+		}
+		Map<Long, List<CartLine>> lines = readOnlyTransaction.execute(status -> cartRepository.findLines(customerIds));
+		for (Long customerId : customerIds) {
+			store.load(customerId, lines.getOrDefault(customerId, new ArrayList<>()));
+		}
+		records.forEach(store::replay);
+		int flushed = flush();
+		logger.info("Recovered {} cart journal records, flushed {} carts", records.size(), flushed);
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.dto.StockReservation;
+import com.example.demo.model.CartItem;
+import com.example.demo.model.Order;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.money.Money;
+import com.example.demo.order.OrderNumberGenerator;
+import com.example.demo.service.CartService;
+import com.example.demo.service.CheckoutService;
+import com.example.demo.service.InventoryService;
+
+/**
+ * 結帳服務
+ * 取購物車快照後以一次 IN 查詢載入所有商品並驗證，依現價計算明細與總額，
+ * 以已載入的商品在記憶體中預留庫存，再於同一個交易內新增訂單、以一次 flush 批次寫入所有明細。
+ * 提交前確認所有預留，任何一筆已逾時就讓交易回滾（不會有沒扣庫存的訂單）；
+ * 提交後從購物車扣除快照中的數量，結帳期間新加入的商品保留；回滾時歸還預留，購物車保持原樣
+ */
+@Service
+@Transactional
+public class CheckoutServiceImpl implements CheckoutService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductDAO productReposity;
+
+	@Autowired
+	private CustomerDAO customerRepository;
+
+	@Autowired
+	private OrderDAO orderRepository;
+
+	@Autowired
+	private OrderNumberGenerator orderNumberGenerator;
+
+	@Override
+	public Order checkout(Long customerId, String shippingAddress, PaymentMethod paymentMethod) {
+		long start = System.nanoTime();
+		CartView cart = cartService.getCart(customerId);
+		if (cart.isEmpty()) {
+			throw new IllegalArgumentException("Cart is empty: " + customerId);
+		}
+
+		List<Long> productIds = new ArrayList<>(cart.getLines().size());
+		for (CartLine line : cart.getLines()) {
+			productIds.add(line.getProductId());
+		}
+		Map<Long, Product> products = new HashMap<>();
+		for (Product product : productReposity.findByIds(productIds)) {
+			products.put(product.getId(), product);
+		}
+
+		Order order = new Order(orderNumberGenerator.next(), customerRepository.getReference(customerId));
+		order.setShippingAddress(shippingAddress);
+		order.setPaymentMethod(paymentMethod);
+		List<OrderItem> items = new ArrayList<>(cart.getLines().size());
+		long totalMinor = 0;
+		for (CartLine line : cart.getLines()) {
+			Product product = products.get(line.getProductId());
+			if (product == null || !new CartItem(null, product, line.getQuantity(), product.getPrice()).isProductValid()) {
+				throw new IllegalArgumentException("Product is not available: " + line.getProductId());
+			}
+			OrderItem item = new OrderItem(order, product, line.getQuantity(), product.getPrice());
+			items.add(item);
+			totalMinor = Math.addExact(totalMinor, item.getSubtotalMinor());
+		}
+		order.setTotalAmount(Money.toAmount(totalMinor));
+
+		reserveStock(cart, customerId, products);
+		orderRepository.insert(order, items);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Checked out order {} with {} items, elapsedMicros={}", order.getOrderNo(), items.size(),
+					(System.nanoTime() - start) / 1000);
+		}
+		return order;
+	}
+
+	/**
+	 * 預留購物車中所有商品的庫存；先註冊交易同步，任何一步失敗時都會歸還已預留的部分
+	 */
+	private void reserveStock(CartView cart, Long customerId, Map<Long, Product> products) {
+		List<StockReservation> reservations = new ArrayList<>(cart.getLines().size());
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			private boolean confirmed;
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				// 在這裡丟出例外會讓交易回滾，afterCompletion 收到的不是 STATUS_COMMITTED
+				if (!inventoryService.confirmAll(reservations)) {
+					throw new IllegalStateException("Stock reservations expired before checkout committed: customer " + customerId);
+				}
+				confirmed = true;
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					cartService.removeCheckedOut(customerId, cart.getLines());
+				} else if (confirmed) {
+					// 確認之後資料庫提交失敗
+					logger.warn("Checkout for customer {} did not commit after confirming stock, returning reservations", customerId);
+					inventoryService.cancelConfirmed(reservations);
+				} else {
+					for (StockReservation reservation : reservations) {
+						inventoryService.release(reservation.getId());
+					}
+				}
+			}
+		});
+		for (CartLine line : cart.getLines()) {
+			StockReservation reservation = inventoryService.reserve(products.get(line.getProductId()), line.getQuantity());
+			if (reservation == null) {
+				throw new IllegalStateException("Insufficient stock for product " + line.getProductId());
+			}
+			reservations.add(reservation);
+		}
+	}
+}
@@ -1,5 +1,138 @@
 package com.example.demo.service.impl;
 
-public class CustomerServiceImpl {
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dto.CustomerPageRequest;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.model.Customer;
+import com.example.demo.service.CustomerService;
+
+/**
+ * 客戶服務
+ * 多筆客戶一律以 IN 條件批次載入，需要 User 時以 JOIN FETCH 同一次查詢帶出，
+ * 管理頁面與訂單處理不會因為逐筆存取 customer.getUser() 而產生 N+1 查詢
+ */
+@Service
+@Transactional
+public class CustomerServiceImpl implements CustomerService {
+
+	@Autowired
+	private CustomerDAO customerRepository;
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Customer> getAllCustomers() {
+		return customerRepository.findAll();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Customer getCustomerById(Long id) {
+		return customerRepository.findById(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean isOwnedBy(Long customerId, Long userId) {
+		Customer customer = customerRepository.findById(customerId);
+		// 取 LAZY 代理的 ID 不會查詢 User
+		return customer != null && customer.getUser().getId().equals(userId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Long, Customer> getCustomersByIds(Collection<Long> ids, boolean withUser) {
+		Set<Long> distinctIds = new LinkedHashSet<>(ids);
+		distinctIds.remove(null);
+		if (distinctIds.isEmpty()) {
+			return new LinkedHashMap<>();
+		}
+		Map<Long, Customer> loaded = new HashMap<>();
+		for (Customer customer : customerRepository.findByIds(distinctIds, withUser)) {
+			loaded.put(customer.getId(), customer);
+		}
+		// 依傳入順序排列，呼叫端可以直接對應原本的清單
+		Map<Long, Customer> customers = new LinkedHashMap<>();
+		for (Long id : distinctIds) {
+			Customer customer = loaded.get(id);
+			if (customer != null) {
+				customers.put(id, customer);
+			}
+		}
+		return customers;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<Customer> getCustomerPage(CustomerPageRequest request) {
+		List<Customer> rows = customerRepository.findPage(request.getAfterId(), request.getSize() + 1, request.isWithUser());
+		if (rows.size() <= request.getSize()) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<Customer> content = rows.subList(0, request.getSize());
+		return new KeysetPage<>(content, CustomerPageRequest.encodeCursor(content.get(content.size() - 1).getId()));
+	}
+
+	@Override
+	public void saveCustomer(Customer customer) {
+		customerRepository.save(customer);
+	}
+
+	@Override
+	public void updateCustomer(Long id, Customer updatedCustomer) {
+		Customer existingCustomer = customerRepository.findById(id);
+		if (existingCustomer != null) {
+			copyProfile(updatedCustomer, existingCustomer);
+		}
+	}
+
+	@Override
+	public int updateCustomers(Collection<Customer> updatedCustomers) {
+		Map<Long, Customer> updates = new LinkedHashMap<>();
+		for (Customer updated : updatedCustomers) {
+			if (updated.getId() != null) {
+				updates.put(updated.getId(), updated);
+			}
+		}
+		if (updates.isEmpty()) {
+			return 0;
+		}
+		int count = 0;
+		// 一次批次載入，修改後由交易提交時的 flush 以 JDBC batch 送出 UPDATE
+		for (Customer existingCustomer : customerRepository.findByIds(updates.keySet(), false)) {
+			copyProfile(updates.get(existingCustomer.getId()), existingCustomer);
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public void deleteCustomer(Long id) {
+		customerRepository.delete(id);
+	}
+
+	/**
+	 * 複製可由管理頁面修改的欄位；User 關聯與時間戳記不變
+	 */
+	private static void copyProfile(Customer source, Customer target) {
+		target.setName(source.getName());
+		target.setPhone(source.getPhone());
+		target.setAddress(source.getAddress());
+		target.setCity(source.getCity());
+		target.setPostalCode(source.getPostalCode());
+		target.setCountry(source.getCountry());
+		target.setBirthday(source.getBirthday());
+		target.setGender(source.getGender());
+	}
 }
@@ -0,0 +1,341 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.StockReservation;
+import com.example.demo.inventory.StockCounter;
+import com.example.demo.model.Product;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.ProductService;
+
+/**
+ * 庫存預留服務（記憶體計數器 + 定期對帳）
+ * 每個商品第一次預留時從資料庫載入庫存到分片的 {@link StockCounter}，預留與取消只做 CAS，不碰資料庫。
+ * 背景排程每 inventory.reconcile.intervalMs 把已確認的數量以條件式 UPDATE（WHERE stock >= ?）扣回資料庫，
+ * 再把資料庫端的變化（補貨、後台調整）套用到計數器；逾時未確認的預留每 inventory.reservation.sweepIntervalMs 歸還。
+ * 計數器只存在單一節點的記憶體中，已確認但尚未對帳的數量在程序異常終止時會遺失（最多一個對帳週期）
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService, SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+	@Autowired
+	private ProductService productService;
+
+	@Value("${inventory.counter.shards:16}")
+	private int shards;
+
+	@Value("${inventory.reservation.ttlMs:900000}")
+	private long reservationTtlMs;
+
+	@Value("${inventory.reservation.sweepIntervalMs:1000}")
+	private long sweepIntervalMs;
+
+	@Value("${inventory.reconcile.intervalMs:1000}")
+	private long reconcileIntervalMs;
+
+	private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+
+	private final Map<Long, StockReservation> reservations = new ConcurrentHashMap<>();
+
+	private final AtomicLong reservationSequence = new AtomicLong();
+
+	private TransactionTemplate writeTransaction;
+
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		// 庫存一律讀主資料庫：唯讀副本還沒看到剛扣回的數量時，對帳會把它當成補貨而多放出庫存
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "inventory-reconciler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::scheduledSweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+		scheduler.scheduleWithFixedDelay(this::scheduledReconcile, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		reconcile();
+	}
+
+	@Override
+	public StockReservation reserve(Product product, int quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+		}
+		ProductStock stock = product == null || product.getStatus() == Product.ProductStatus.INACTIVE ? null : stockOf(product.getId());
+		if (stock == null) {
+			throw new IllegalArgumentException("Product is not available: " + (product != null ? product.getId() : null));
+		}
+		if (!stock.counter.tryAcquire(quantity)) {
+			return null;
+		}
+		StockReservation reservation = new StockReservation(reservationSequence.incrementAndGet(), product.getId(), quantity,
+				System.currentTimeMillis() + reservationTtlMs);
+		reservations.put(reservation.getId(), reservation);
+		return reservation;
+	}
+
+	@Override
+	public boolean confirm(long reservationId) {
+		StockReservation reservation = reservations.remove(reservationId);
+		if (reservation == null) {
+			return false;
+		}
+		// 已過期但還沒被掃到的預留視同逾時
+		if (reservation.getExpiresAt() <= System.currentTimeMillis()) {
+			giveBack(reservation);
+			return false;
+		}
+		ProductStock stock = stocks.get(reservation.getProductId());
+		if (stock != null) {
+			stock.confirmed.addAndGet(reservation.getQuantity());
+		}
+		return true;
+	}
+
+	@Override
+	public boolean confirmAll(List<StockReservation> pending) {
+		long now = System.currentTimeMillis();
+		// 先從預留清單取出（逾時掃描就不會再歸還），全部有效才計入已確認
+		List<StockReservation> taken = new ArrayList<>(pending.size());
+		boolean valid = true;
+		for (StockReservation reservation : pending) {
+			StockReservation removed = reservations.remove(reservation.getId());
+			if (removed == null) {
+				valid = false;
+				break;
+			}
+			taken.add(removed);
+			if (removed.getExpiresAt() <= now) {
+				valid = false;
+				break;
+			}
+		}
+		if (!valid) {
+			for (StockReservation reservation : taken) {
+				giveBack(reservation);
+			}
+			return false;
+		}
+		for (StockReservation reservation : taken) {
+			ProductStock stock = stocks.get(reservation.getProductId());
+			if (stock != null) {
+				stock.confirmed.addAndGet(reservation.getQuantity());
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void cancelConfirmed(List<StockReservation> confirmed) {
+		for (StockReservation reservation : confirmed) {
+			ProductStock stock = stocks.get(reservation.getProductId());
+			if (stock != null) {
+				// 對帳可能已把這筆扣回資料庫，此時 confirmed 變成負數，下次對帳會把數量加回資料庫
+				stock.confirmed.addAndGet(-reservation.getQuantity());
+				stock.counter.release(reservation.getQuantity());
+			}
+		}
+	}
+
+	@Override
+	public boolean release(long reservationId) {
+		StockReservation reservation = reservations.remove(reservationId);
+		if (reservation == null) {
+			return false;
+		}
+		giveBack(reservation);
+		return true;
+	}
+
+	@Override
+	public long getAvailable(Long productId) {
+		ProductStock stock = stockOf(productId);
+		return stock == null ? 0 : stock.counter.available();
+	}
+
+	@Override
+	public int expireReservations() {
+		long now = System.currentTimeMillis();
+		int expired = 0;
+		for (StockReservation reservation : reservations.values()) {
+			if (reservation.getExpiresAt() <= now && reservations.remove(reservation.getId(), reservation)) {
+				giveBack(reservation);
+				expired++;
+			}
+		}
+		return expired;
+	}
+
+	@Override
+	public synchronized int reconcile() {
+		if (stocks.isEmpty()) {
+			return 0;
+		}
+		List<Long> productIds = new ArrayList<>(stocks.keySet());
+		long[] pending = new long[productIds.size()];
+		for (int i = 0; i < productIds.size(); i++) {
+			ProductStock stock = stocks.get(productIds.get(i));
+			long quantity = stock.confirmed.getAndSet(0);
+			if (quantity == 0) {
+				continue;
+			}
+			try {
+				if (quantity < 0) {
+					// 已扣回資料庫後才撤銷的確認（見 cancelConfirmed），把數量加回去
+					productService.addStock(productIds.get(i), (int) -quantity);
+					pending[i] = quantity;
+					continue;
+				}
+				int deducted = productService.deductStock(productIds.get(i), (int) quantity);
+				if (deducted < quantity) {
+					logger.warn("Product {} oversold by {} (database stock was lower than confirmed reservations)",
+							productIds.get(i), quantity - deducted);
+				}
+				pending[i] = quantity;
+			} catch (RuntimeException e) {
+				stock.confirmed.addAndGet(quantity);
+				logger.error("Cannot deduct stock of product {}, will retry", productIds.get(i), e);
+			}
+		}
+
+		Map<Long, Integer> databaseStocks = readStocks(productIds);
+		for (int i = 0; i < productIds.size(); i++) {
+			Long productId = productIds.get(i);
+			Integer databaseStock = databaseStocks.get(productId);
+			if (databaseStock == null) {
+				stocks.remove(productId);
+				continue;
+			}
+			stocks.get(productId).adjust(databaseStock, pending[i]);
+		}
+		return productIds.size();
+	}
+
+	private void scheduledSweep() {
+		try {
+			int expired = expireReservations();
+			if (expired > 0) {
+				logger.debug("Released {} expired stock reservations", expired);
+			}
+		} catch (RuntimeException e) {
+			logger.error("Stock reservation sweep failed", e);
+		}
+	}
+
+	private void scheduledReconcile() {
+		try {
+			reconcile();
+		} catch (RuntimeException e) {
+			logger.error("Inventory reconciliation failed", e);
+		}
+	}
+
+	/**
+	 * 取得商品的計數器，第一次使用時從資料庫載入；商品不存在時回傳 null
+	 */
+	private ProductStock stockOf(Long productId) {
+		ProductStock stock = stocks.get(productId);
+		if (stock != null) {
+			return stock;
+		}
+		return stocks.computeIfAbsent(productId, id -> {
+			Integer available = readStocks(Collections.singleton(id)).get(id);
+			return available == null ? null : new ProductStock(new StockCounter(shards, available), available);
+		});
+	}
+
+	private Map<Long, Integer> readStocks(Collection<Long> productIds) {
+		return writeTransaction.execute(status -> productService.getStocks(productIds));
+	}
+
+	private void giveBack(StockReservation reservation) {
+		ProductStock stock = stocks.get(reservation.getProductId());
+		if (stock != null) {
+			stock.counter.release(reservation.getQuantity());
+		}
+	}
+
+	/**
+	 * 單一商品的記憶體庫存
+	 * 計數器 + 未確認的預留 + 已確認未對帳的數量 = 上次對帳時的資料庫庫存（baseline）
+	 */
+	private static final class ProductStock {
+
+		private final StockCounter counter;
+
+		/**
+		 * 已確認、尚未扣回資料庫的數量
+		 */
+		private final AtomicLong confirmed = new AtomicLong();
+
+		/**
+		 * 以下欄位只在 reconcile() 中存取
+		 */
+		private long baseline;
+
+		/**
+		 * 資料庫庫存被調低、但當時的數量都在預留中而無法從計數器扣除的部分，之後的對帳再補扣
+		 */
+		private long deficit;
+
+		private ProductStock(StockCounter counter, long baseline) {
+			this.counter = counter;
+			this.baseline = baseline;
+		}
+
+		/**
+		 * 把資料庫端的變化套用到計數器
+		 * 
+		 * @param databaseStock 目前資料庫庫存
+		 * @param deducted 這次對帳扣回資料庫的已確認數量
+		 */
+		private void adjust(long databaseStock, long deducted) {
+			long drift = databaseStock - (baseline - deducted) - deficit;
+			baseline = databaseStock;
+			deficit = 0;
+			if (drift > 0) {
+				counter.release(drift);
+			} else if (drift < 0) {
+				deficit = -drift - counter.withdrawUpTo(-drift);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.export.ChannelTextWriter;
+import com.example.demo.export.ExportFormat;
+import com.example.demo.export.OrderExportWriter;
+import com.example.demo.service.OrderExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+@Service
+@Transactional(readOnly = true)
+public class OrderExportServiceImpl implements OrderExportService {
+
+	@Autowired
+	private OrderDAO orderRepository;
+
+	@Override
+	public long exportOrders(ExportFormat format, LocalDateTime from, LocalDateTime to, WritableByteChannel channel) throws IOException {
+		try (ChannelTextWriter out = new ChannelTextWriter(channel)) {
+			OrderExportWriter writer = format.newWriter(out);
+			long rows;
+			try {
+				rows = orderRepository.streamOrderLines(from, to, row -> {
+					try {
+						writer.write(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			writer.finish();
+			return rows;
+		}
+	}
+
+	@Override
+	public long exportOrders(ExportFormat format, LocalDateTime from, LocalDateTime to, Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		return exportOrders(format, from, to, channel);
+	}
+}
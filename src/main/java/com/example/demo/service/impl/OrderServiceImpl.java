@@ -0,0 +1,76 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.FetchGraphs;
+import com.example.demo.model.Order;
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.Transition;
+import com.example.demo.model.OrderOutbox;
+import com.example.demo.order.OrderOutboxRelay;
+import com.example.demo.service.OrderService;
+
+/**
+ * 訂單狀態服務
+ * 以 SELECT ... FOR UPDATE 載入訂單後檢查並套用轉換，同一交易中寫入外寄箱；
+ * 後續處理（通知、庫存、統計）都由 {@link com.example.demo.order.OrderEventListener} 在交易提交後非同步進行
+ */
+@Service
+@Transactional
+public class OrderServiceImpl implements OrderService {
+
+	@Autowired
+	private OrderDAO orderRepository;
+
+	@Autowired
+	private OrderOutboxRelay outboxRelay;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Order getOrderWithItems(Long orderId) {
+		return orderRepository.findById(orderId, FetchGraphs.ORDER_WITH_ITEMS);
+	}
+
+	@Override
+	public Order transition(Long orderId, Transition transition) {
+		Order order = orderRepository.findByIdForUpdate(orderId);
+		if (order == null) {
+			throw new IllegalArgumentException("Order not found: " + orderId);
+		}
+		OrderStatus fromStatus = order.getStatus();
+		order.apply(transition);
+		outboxRelay.append(new OrderOutbox(order, transition, fromStatus));
+		return order;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<OrderSummary> getOrderHistory(OrderHistoryRequest request) {
+		List<OrderSummary> rows = orderRepository.findHistory(request);
+		List<OrderSummary> content = rows.size() > request.getSize() ? rows.subList(0, request.getSize()) : rows;
+		if (!content.isEmpty()) {
+			List<Long> orderIds = new ArrayList<>(content.size());
+			for (OrderSummary order : content) {
+				orderIds.add(order.getId());
+			}
+			Map<Long, Long> quantities = orderRepository.sumItemQuantities(orderIds);
+			for (OrderSummary order : content) {
+				order.setItemQuantity(quantities.getOrDefault(order.getId(), 0L));
+			}
+		}
+		String nextCursor = rows.size() > request.getSize()
+				? OrderHistoryRequest.encodeCursor(content.get(content.size() - 1))
+				: null;
+		return new KeysetPage<>(content, nextCursor);
+	}
+}
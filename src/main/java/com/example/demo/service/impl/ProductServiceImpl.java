@@ -1,48 +1,277 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CatalogCache;
 import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductPriceChange;
+import com.example.demo.dto.ProductSearchHit;
 import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
 import com.example.demo.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+	private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+
+	private static final String ALL_PRODUCTS_KEY = "all";
+
 	@Autowired
 	private ProductDAO productReposity;
 
+	@Autowired
+	private CatalogCache<Long, Product> productByIdCache;
+
+	@Autowired
+	private CatalogCache<String, List<Product>> productListCache;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${product.import.batchSize:1000}")
+	private int importBatchSize;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		// 快取的 loader 一律在自己的唯讀交易（獨立 Session）中執行：背景刷新在其他執行緒沒有交易，
+		// 呼叫端在寫入交易中未命中時也不會把呼叫端 Session 管理中（可能尚未提交）的商品放進快取。
+		// 交易結束後 Session 關閉，快取保存的是脫離 Session 的商品
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
 	@Override
+	@Transactional(readOnly = true)
 	public List<Product> getAllProducts() {
-		return productReposity.findAll();
+		List<Product> products = productListCache.get(ALL_PRODUCTS_KEY,
+				key -> readOnlyTransaction.execute(status -> Collections.unmodifiableList(productReposity.findAll())));
+		List<Product> copies = new ArrayList<>(products.size());
+		for (Product product : products) {
+			copies.add(product.copy());
+		}
+		return copies;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public KeysetPage<Product> getProductPage(ProductPageRequest request) {
+		List<Product> rows = productReposity.findPage(request);
+		if (rows.size() <= request.getSize()) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<Product> content = rows.subList(0, request.getSize());
+		String nextCursor = ProductPageRequest.encodeCursor(request.getSort(), content.get(content.size() - 1));
+		return new KeysetPage<>(content, nextCursor);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Product getProductById(Long id) {
-		return productReposity.findById(id);
+		Product product = productByIdCache.get(id,
+				key -> readOnlyTransaction.execute(status -> productReposity.findById(key)));
+		return product != null ? product.copy() : null;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public List<ProductSearchHit> searchProducts(String query, int limit) {
+		return productSearchIndex.search(query, limit);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public List<String> suggestProducts(String prefix, int limit) {
+		return productSearchIndex.suggest(prefix, limit);
 	}
 
 	@Override
 	public void saveProduct(Product product) {
 		productReposity.save(product);
+		evict(product.getId());
+		afterCommit(() -> productSearchIndex.index(product));
+	}
+
+	@Override
+	public ImportResult importProducts(Stream<Product> products) {
+		long start = System.nanoTime();
+		long rows = productReposity.insertAll(products, importBatchSize);
+		ImportResult result = new ImportResult(rows, (System.nanoTime() - start) / 1_000_000);
+		logger.info("Imported products: {}", result);
+		// 新匯入的 ID 可能已被負向快取
+		evictAll();
+		afterCommit(productSearchIndex::rebuildAsync);
+		return result;
 	}
 
 	@Override
 	public void updateProduct(Long id, Product updateProduct) {
 		Product existingProduct = productReposity.findById(id);
 		if (existingProduct != null) {
+			boolean priceChanged = isPriceChange(existingProduct.getPrice(), updateProduct.getPrice());
 			existingProduct.setName(updateProduct.getName());
 			existingProduct.setType(updateProduct.getType());
 			existingProduct.setPrice(updateProduct.getPrice());
 			productReposity.save(existingProduct);
+			afterCommit(() -> productSearchIndex.index(existingProduct));
+			if (priceChanged) {
+				afterCommit(() -> eventPublisher.publishEvent(
+						new ProductPriceChange(Collections.singletonMap(id, existingProduct.getPrice()))));
+			}
+		}
+		evict(id);
+	}
+
+	@Override
+	public int updatePrices(Map<Long, BigDecimal> prices) {
+		Map<Long, BigDecimal> changed = new HashMap<>();
+		List<Product> products = productReposity.findByIds(prices.keySet());
+		for (Product product : products) {
+			BigDecimal price = prices.get(product.getId());
+			if (isPriceChange(product.getPrice(), price)) {
+				// 由 dirty checking 在 flush 時以 JDBC batch UPDATE
+				product.setPrice(price);
+				changed.put(product.getId(), price);
+			}
+		}
+		if (!changed.isEmpty()) {
+			evictAll();
+			afterCommit(() -> {
+				for (Product product : products) {
+					if (changed.containsKey(product.getId())) {
+						productSearchIndex.index(product);
+					}
+				}
+				eventPublisher.publishEvent(new ProductPriceChange(changed));
+			});
 		}
+		return changed.size();
 	}
 
 	@Override
 	public void deletProduct(Long id) {
 		productReposity.delete(id);
+		evict(id);
+		afterCommit(() -> productSearchIndex.remove(id));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Long, Integer> getStocks(Collection<Long> ids) {
+		return productReposity.findStocks(ids);
+	}
+
+	@Override
+	public int deductStock(Long id, int quantity) {
+		int deducted = quantity;
+		if (productReposity.decreaseStock(id, quantity) == 0) {
+			// 資料庫的庫存比要扣的少（例如後台調低了庫存）：只扣到 0，差額由呼叫端記為超賣
+			Integer stock = productReposity.findStocks(Collections.singleton(id)).get(id);
+			deducted = stock == null ? 0 : Math.min(stock, quantity);
+			if (deducted <= 0 || productReposity.decreaseStock(id, deducted) == 0) {
+				return 0;
+			}
+		}
+		stockChanged(id);
+		return deducted;
+	}
+
+	@Override
+	public void addStock(Long id, int quantity) {
+		if (productReposity.increaseStock(id, quantity) > 0) {
+			stockChanged(id);
+		}
+	}
+
+	private static boolean isPriceChange(BigDecimal oldPrice, BigDecimal newPrice) {
+		return newPrice != null && (oldPrice == null || oldPrice.compareTo(newPrice) != 0);
+	}
+
+	/**
+	 * 庫存更新可能改變商品狀態，搜尋索引中的狀態也要一起更新
+	 */
+	private void stockChanged(Long id) {
+		evict(id);
+		Product product = productReposity.findById(id);
+		if (product != null) {
+			afterCommit(() -> productSearchIndex.index(product));
+		}
+	}
+
+	/**
+	 * 立即移除快取，並在交易結束後再移除一次，
+	 * 避免提交前有其他請求把舊資料重新載入快取
+	 */
+	private void evict(Long id) {
+		invalidateNowAndAfterCompletion(() -> {
+			if (id != null) {
+				productByIdCache.invalidate(id);
+			}
+			productListCache.invalidateAll();
+		});
+	}
+
+	private void evictAll() {
+		invalidateNowAndAfterCompletion(() -> {
+			productByIdCache.invalidateAll();
+			productListCache.invalidateAll();
+		});
+	}
+
+	private void invalidateNowAndAfterCompletion(Runnable invalidation) {
+		invalidation.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidation.run();
+				}
+			});
+		}
+	}
+
+	/**
+	 * 交易提交後才執行（例如更新搜尋索引），交易回滾時不執行；沒有交易時立即執行
+	 */
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
 	}
 }
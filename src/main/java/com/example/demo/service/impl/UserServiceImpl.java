@@ -1,11 +1,19 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.auth.PasswordHasher;
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
+import com.example.demo.model.UserRole;
+import com.example.demo.service.AuthenticationService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.List;
 
 @Service
@@ -15,11 +23,29 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserDAO userRepository;
 
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<UserSummary> getUserPage(UserPageRequest request) {
+        List<UserSummary> rows = userRepository.findPage(request);
+        if (rows.size() <= request.getSize()) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<UserSummary> content = rows.subList(0, request.getSize());
+        String nextCursor = UserPageRequest.encodeCursor(request.getSort(), content.get(content.size() - 1));
+        return new KeysetPage<>(content, nextCursor);
+    }
+
     @Override
     public User getUserById(Long id) {
         return userRepository.findById(id);
@@ -27,21 +53,72 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void saveUser(User user) {
+        if (user.getPassword() != null && !passwordHasher.isEncoded(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(user.getPassword()));
+        }
         userRepository.save(user);
+        evictPrincipal(user.getUsername());
     }
 
     @Override
     public void updateUser(Long id, User updatedUser) {
         User existingUser = userRepository.findById(id);
         if (existingUser != null) {
-            existingUser.setName(updatedUser.getName());
+            evictPrincipal(existingUser.getUsername());
+            existingUser.setUsername(updatedUser.getUsername());
             existingUser.setEmail(updatedUser.getEmail());
             userRepository.save(existingUser);
+            evictPrincipal(existingUser.getUsername());
         }
     }
 
     @Override
     public void deleteUser(Long id) {
+        User existingUser = userRepository.findById(id);
+        if (existingUser != null) {
+            evictPrincipal(existingUser.getUsername());
+        }
         userRepository.delete(id);
     }
+
+    @Override
+    public void setEnabled(Long id, boolean enabled) {
+        User existingUser = userRepository.findById(id);
+        if (existingUser != null) {
+            if (enabled) {
+                existingUser.enable();
+            } else {
+                existingUser.disable();
+            }
+            evictPrincipal(existingUser.getUsername());
+        }
+    }
+
+    @Override
+    public void changeRole(Long id, UserRole role) {
+        User existingUser = userRepository.findById(id);
+        if (existingUser != null) {
+            existingUser.setRole(role);
+            evictPrincipal(existingUser.getUsername());
+        }
+    }
+
+    /**
+     * 讓登入快取中的使用者失效：立即一次，交易結束後再一次，
+     * 避免提交前被其他請求以舊資料重新載入
+     */
+    private void evictPrincipal(String username) {
+        if (username == null) {
+            return;
+        }
+        authenticationService.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    authenticationService.invalidate(username);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.config.OrderNumberConfig;
+import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dao.UserDAO;
+import com.example.demo.dao.impl.CartDAOImpl;
+import com.example.demo.dao.impl.CustomerDAOImpl;
+import com.example.demo.dao.impl.OrderDAOImpl;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dao.impl.UserDAOImpl;
+import com.example.demo.model.Customer;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.CartService;
+import com.example.demo.service.CheckoutService;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.CartServiceImpl;
+import com.example.demo.service.impl.CheckoutServiceImpl;
+import com.example.demo.service.impl.InventoryServiceImpl;
+import com.example.demo.service.impl.ProductServiceImpl;
+
+/**
+ * 結帳流程負載測試
+ * threads 個執行緒各自負責一批客戶，反覆「加入 1~5 項商品 → 結帳」，
+ * 量測 checkout（快照、批次查商品、預留庫存、新增訂單與明細、清空購物車）的端到端延遲與每秒訂單數。
+ * 會在設定的資料庫中建立測試用的使用者、客戶、商品與訂單。
+ * 
+ * 執行方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.demo.benchmark.CheckoutBenchmark -Dexec.args="16 20000"
+ */
+public class CheckoutBenchmark {
+
+	private static final int PRODUCTS = 1_000;
+
+	private static final int CUSTOMERS_PER_THREAD = 20;
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int orders = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+		// 單機壓測：沒有指定 -Dorder.number.nodeId 時以 dev profile 使用節點 0
+		System.setProperty("spring.profiles.default", "dev");
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				HibernateConfig.class, CatalogCacheConfig.class, ProductDAOImpl.class, TableSequenceInitializer.class,
+				ProductSearchIndex.class, ProductServiceImpl.class, CartDAOImpl.class, CartServiceImpl.class,
+				InventoryServiceImpl.class, UserDAOImpl.class, CustomerDAOImpl.class, OrderDAOImpl.class,
+				OrderNumberConfig.class, CheckoutServiceImpl.class)) {
+			ProductService productService = context.getBean(ProductService.class);
+			CartService cartService = context.getBean(CartService.class);
+			CheckoutService checkoutService = context.getBean(CheckoutService.class);
+
+			String run = Long.toString(System.currentTimeMillis(), 36);
+			List<Product> products = new ArrayList<>(PRODUCTS);
+			for (int i = 0; i < PRODUCTS; i++) {
+				Product product = new Product("Checkout " + run + " " + i, "checkout", BigDecimal.valueOf(100 + i % 900));
+				product.setStock(Integer.MAX_VALUE);
+				products.add(product);
+			}
+			productService.importProducts(products.stream());
+			long[] productIds = products.stream().mapToLong(Product::getId).toArray();
+			long[][] customers = createCustomers(context, run, threads);
+
+			// 暖機
+			runLoad(cartService, checkoutService, customers, productIds, Math.min(orders, 2_000));
+
+			long start = System.nanoTime();
+			long[] latencies = runLoad(cartService, checkoutService, customers, productIds, orders);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			Arrays.sort(latencies);
+			System.out.printf("threads=%d orders=%d throughput=%,.0f orders/s%n", threads, orders, orders / seconds);
+			System.out.printf("checkout p50: %7.3f ms  p99: %7.3f ms  p99.9: %7.3f ms  max: %7.3f ms%n",
+					latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6,
+					latencies[latencies.length * 999 / 1000] / 1e6, latencies[latencies.length - 1] / 1e6);
+		}
+	}
+
+	private static long[] runLoad(CartService cartService, CheckoutService checkoutService, long[][] customers,
+			long[] productIds, int orders) throws Exception {
+		int threads = customers.length;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<long[]>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				long[] owned = customers[t];
+				int count = orders / threads + (t < orders % threads ? 1 : 0);
+				results.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					long[] latencies = new long[count];
+					for (int i = 0; i < count; i++) {
+						Long customerId = owned[i % owned.length];
+						int lines = 1 + random.nextInt(5);
+						for (int l = 0; l < lines; l++) {
+							cartService.addItem(customerId, productIds[random.nextInt(productIds.length)], 1 + random.nextInt(3));
+						}
+						long t0 = System.nanoTime();
+						checkoutService.checkout(customerId, "台北市信義區", PaymentMethod.CREDIT_CARD);
+						latencies[i] = System.nanoTime() - t0;
+					}
+					return latencies;
+				}));
+			}
+			long[] all = new long[orders];
+			int offset = 0;
+			for (Future<long[]> result : results) {
+				long[] latencies = result.get();
+				System.arraycopy(latencies, 0, all, offset, latencies.length);
+				offset += latencies.length;
+			}
+			return all;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 每個執行緒分配各自的客戶，避免同一個購物車被兩個執行緒同時結帳
+	 */
+	private static long[][] createCustomers(AnnotationConfigApplicationContext context, String run, int threads) {
+		UserDAO userDAO = context.getBean(UserDAO.class);
+		CustomerDAO customerDAO = context.getBean(CustomerDAO.class);
+		TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		return transaction.execute(status -> {
+			long[][] customers = new long[threads][CUSTOMERS_PER_THREAD];
+			for (int t = 0; t < threads; t++) {
+				for (int c = 0; c < CUSTOMERS_PER_THREAD; c++) {
+					String username = "ck" + run + "-" + t + "-" + c;
+					User user = new User(username, username + "@example.com", "benchmark");
+					userDAO.save(user);
+					Customer customer = new Customer(user, "結帳測試 " + t + "-" + c);
+					customerDAO.save(customer);
+					customers[t][c] = customer.getId();
+				}
+			}
+			return customers;
+		});
+	}
+}
@@ -0,0 +1,198 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dao.UserDAO;
+import com.example.demo.dao.impl.CustomerDAOImpl;
+import com.example.demo.dao.impl.OrderDAOImpl;
+import com.example.demo.dao.impl.OrderOutboxDAOImpl;
+import com.example.demo.dao.impl.UserDAOImpl;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Customer;
+import com.example.demo.model.User;
+import com.example.demo.order.OrderEventBus;
+import com.example.demo.order.OrderOutboxRelay;
+import com.example.demo.order.SnowflakeOrderNumberGenerator;
+import com.example.demo.service.OrderService;
+import com.example.demo.service.impl.OrderServiceImpl;
+
+/**
+ * 客戶訂單歷史分頁基準測試
+ * 對 application.properties 設定的 MySQL 執行，orders 不足 targetRows 筆時會先以 JDBC batch 補足
+ * （平均分給 1,000 位客戶，建立時間分散在三年內），然後對同一位客戶比較：
+ * keyset 第 1 頁、keyset 第 500 頁、OFFSET 第 500 頁，以及載入完整 Order 實體（連同客戶）的第 1 頁，
+ * 並印出 keyset 查詢的 EXPLAIN，確認是 idx_orders_customer_created_id 上的 index-only 掃描（Using index）。
+ * 
+ * 執行方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.demo.benchmark.OrderHistoryBenchmark -Dexec.args="50000000"
+ */
+public class OrderHistoryBenchmark {
+
+	private static final int CUSTOMERS = 1_000;
+	private static final int PAGE_SIZE = 20;
+	private static final int DEEP_PAGE = 500;
+	private static final int ROUNDS = 20;
+	private static final int SEED_BATCH = 10_000;
+
+	public static void main(String[] args) throws Exception {
+		long targetRows = args.length > 0 ? Long.parseLong(args[0]) : 50_000_000L;
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				HibernateConfig.class, UserDAOImpl.class, CustomerDAOImpl.class, OrderDAOImpl.class,
+				OrderOutboxDAOImpl.class, OrderEventBus.class, OrderOutboxRelay.class, OrderServiceImpl.class)) {
+			DataSource dataSource = context.getBean("readWriteDataSource", DataSource.class);
+			OrderService orderService = context.getBean(OrderService.class);
+			long[] customerIds = createCustomers(context, dataSource);
+			seed(dataSource, customerIds, targetRows);
+			Long customerId = customerIds[0];
+
+			// 走訪到第 500 頁，記下各頁游標
+			String[] cursors = new String[DEEP_PAGE];
+			String cursor = null;
+			for (int page = 0; page < DEEP_PAGE; page++) {
+				cursors[page] = cursor;
+				cursor = orderService.getOrderHistory(new OrderHistoryRequest(customerId, cursor, PAGE_SIZE)).getNextCursor();
+			}
+
+			long firstPage = 0;
+			long deepPage = 0;
+			long offsetPage = 0;
+			long entityPage = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				firstPage += timePage(orderService, customerId, cursors[0]);
+				deepPage += timePage(orderService, customerId, cursors[DEEP_PAGE - 1]);
+				offsetPage += timeSql(dataSource, "SELECT id, order_no, status, total_amount, created_at FROM orders"
+						+ " WHERE customer_id = " + customerId + " ORDER BY created_at DESC, id DESC"
+						+ " LIMIT " + PAGE_SIZE + " OFFSET " + (DEEP_PAGE - 1) * PAGE_SIZE);
+				entityPage += timeSql(dataSource, "SELECT o.*, c.* FROM orders o JOIN customers c ON c.id = o.customer_id"
+						+ " WHERE o.customer_id = " + customerId + " ORDER BY o.created_at DESC, o.id DESC LIMIT " + PAGE_SIZE);
+			}
+
+			System.out.printf("keyset page 1         : %8.3f ms%n", firstPage / ROUNDS / 1e6);
+			System.out.printf("keyset page %d       : %8.3f ms%n", DEEP_PAGE, deepPage / ROUNDS / 1e6);
+			System.out.printf("offset page %d       : %8.3f ms%n", DEEP_PAGE, offsetPage / ROUNDS / 1e6);
+			System.out.printf("entity + join page 1  : %8.3f ms%n", entityPage / ROUNDS / 1e6);
+			explain(dataSource, customerId);
+		}
+	}
+
+	private static long timePage(OrderService orderService, Long customerId, String cursor) {
+		long start = System.nanoTime();
+		KeysetPage<OrderSummary> page = orderService.getOrderHistory(new OrderHistoryRequest(customerId, cursor, PAGE_SIZE));
+		long elapsed = System.nanoTime() - start;
+		if (page.getContent().isEmpty()) {
+			throw new IllegalStateException("Empty page, seed data missing");
+		}
+		return elapsed;
+	}
+
+	private static long timeSql(DataSource dataSource, String sql) throws Exception {
+		long start = System.nanoTime();
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				rs.getLong(1);
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void explain(DataSource dataSource, Long customerId) throws Exception {
+		String sql = "EXPLAIN SELECT id, order_no, status, total_amount, created_at FROM orders"
+				+ " WHERE customer_id = " + customerId + " AND (created_at < NOW() OR (created_at = NOW() AND id < 1))"
+				+ " ORDER BY created_at DESC, id DESC LIMIT " + (PAGE_SIZE + 1);
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				System.out.printf("EXPLAIN: type=%s key=%s rows=%s extra=%s%n",
+						rs.getString("type"), rs.getString("key"), rs.getString("rows"), rs.getString("Extra"));
+			}
+		}
+	}
+
+	/**
+	 * 建立測試客戶；上次執行已建立的客戶直接沿用，訂單才能累積到目標筆數
+	 */
+	private static long[] createCustomers(AnnotationConfigApplicationContext context, DataSource dataSource) throws Exception {
+		long[] customerIds = new long[CUSTOMERS];
+		int existing = 0;
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("SELECT c.id FROM customers c JOIN users u ON u.id = c.user_id"
+						+ " WHERE u.username LIKE 'history-%' ORDER BY c.id LIMIT " + CUSTOMERS)) {
+			while (rs.next()) {
+				customerIds[existing++] = rs.getLong(1);
+			}
+		}
+		UserDAO userDAO = context.getBean(UserDAO.class);
+		CustomerDAO customerDAO = context.getBean(CustomerDAO.class);
+		TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		int from = existing;
+		transaction.executeWithoutResult(status -> {
+			for (int c = from; c < CUSTOMERS; c++) {
+				String username = "history-" + c;
+				User user = new User(username, username + "@example.com", "benchmark");
+				userDAO.save(user);
+				Customer customer = new Customer(user, "歷史訂單測試 " + c);
+				customerDAO.save(customer);
+				customerIds[c] = customer.getId();
+			}
+		});
+		return customerIds;
+	}
+
+	private static void seed(DataSource dataSource, long[] customerIds, long targetRows) throws Exception {
+		long existing;
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM orders")) {
+			rs.next();
+			existing = rs.getLong(1);
+		}
+		System.out.printf("Seeding %d orders...%n", Math.max(0, targetRows - existing));
+		SnowflakeOrderNumberGenerator orderNumbers = new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID);
+		LocalDateTime since = LocalDateTime.now().minusYears(3);
+		long spanSeconds = 3L * 365 * 24 * 3600;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String sql = "INSERT INTO orders (order_no, customer_id, total_amount, status, payment_method, payment_status,"
+				+ " created_at, updated_at) VALUES (?, ?, ?, 'DELIVERED', 'CREDIT_CARD', 'PAID', ?, ?)";
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(sql)) {
+			connection.setAutoCommit(false);
+			for (long row = existing; row < targetRows; row++) {
+				Timestamp createdAt = Timestamp.valueOf(since.plusSeconds(random.nextLong(spanSeconds)));
+				statement.setString(1, orderNumbers.next());
+				statement.setLong(2, customerIds[(int) (row % customerIds.length)]);
+				statement.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+				statement.setTimestamp(4, createdAt);
+				statement.setTimestamp(5, createdAt);
+				statement.addBatch();
+				if ((row + 1) % SEED_BATCH == 0 || row + 1 == targetRows) {
+					statement.executeBatch();
+					connection.commit();
+					if ((row + 1) % 1_000_000 == 0) {
+						System.out.printf("  %,d orders%n", row + 1);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.ProductServiceImpl;
+
+/**
+ * 商品匯入基準測試
+ * 比較逐筆 saveProduct（每筆一個交易）與 importProducts（JDBC batch）的每秒寫入筆數。
+ * 
+ * 記錄（20,000 筆，記憶體 H2（MODE=MySQL），單 CPU，JDK 17）：逐筆約 3,300 筆/秒，
+ * 批次（product.import.batchSize=1000）約 20,000 筆/秒，約 6 倍（三次 5.7x ~ 6.1x）；batchSize=50 時約 5.5 倍。
+ * H2 沒有網路往返，省下的只有每筆的交易與 Session 開銷，未達 10 倍的目標；
+ * 10 倍需要在 MySQL（rewriteBatchedStatements=true）上量測，尚未驗證。
+ * H2 執行時需加上 -Djdbc.url=jdbc:h2:mem:imp;MODE=MySQL;DB_CLOSE_DELAY=-1 -Djdbc.driverClassName=org.h2.Driver
+ *     -Dhibernate.dialect=org.hibernate.dialect.H2Dialect -Dhibernate.hbm2ddl.auto=create -Dsearch.index.fetchSize=1000
+ *     （jdbc.readonly.url、jdbc.username、jdbc.password 同 FetchGraphQueryCountTest）
+ * 
+ * 執行方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.demo.benchmark.ProductImportBenchmark -Dexec.args=20000
+ */
+public class ProductImportBenchmark {
+
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				HibernateConfig.class, CatalogCacheConfig.class, ProductDAOImpl.class, TableSequenceInitializer.class,
+				ProductSearchIndex.class, ProductServiceImpl.class)) {
+			ProductService productService = context.getBean(ProductService.class);
+
+			// 暖機
+			productService.importProducts(products(0, 1_000));
+			for (int i = 0; i < 200; i++) {
+				productService.saveProduct(product(i));
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < rows; i++) {
+				productService.saveProduct(product(i));
+			}
+			ImportResult perRow = new ImportResult(rows, (System.nanoTime() - start) / 1_000_000);
+
+			ImportResult batched = productService.importProducts(products(0, rows));
+
+			System.out.println("per-row : " + perRow);
+			System.out.println("batched : " + batched);
+			System.out.printf("speedup : %.1fx%n", batched.getRowsPerSecond() / perRow.getRowsPerSecond());
+		}
+	}
+
+	private static Stream<Product> products(long from, long to) {
+		return LongStream.range(from, to).mapToObj(ProductImportBenchmark::product);
+	}
+
+	private static Product product(long i) {
+		return new Product("Import " + i, "import-" + (i % 20), BigDecimal.valueOf(100 + i % 1_000));
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.stream.LongStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSort;
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.ProductServiceImpl;
+
+/**
+ * 商品 keyset 分頁基準測試
+ * 對 application.properties 設定的 MySQL 執行，商品不足一百萬筆時會先以批次匯入補足，
+ * 然後比較第 1 頁與第 500 頁的查詢延遲，並以 OFFSET 分頁的第 500 頁作為對照。
+ * 
+ * 執行方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.demo.benchmark.ProductPagingBenchmark
+ */
+public class ProductPagingBenchmark {
+
+	private static final int TARGET_ROWS = 1_000_000;
+	private static final int PAGE_SIZE = 20;
+	private static final int DEEP_PAGE = 500;
+	private static final int ROUNDS = 20;
+
+	public static void main(String[] args) throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				HibernateConfig.class, CatalogCacheConfig.class, ProductDAOImpl.class, TableSequenceInitializer.class,
+				ProductSearchIndex.class, ProductServiceImpl.class)) {
+			DataSource dataSource = context.getBean("readWriteDataSource", DataSource.class);
+			ProductService productService = context.getBean(ProductService.class);
+			seed(dataSource, productService);
+
+			// 走訪到第 500 頁，記下各頁游標
+			String[] cursors = new String[DEEP_PAGE];
+			String cursor = null;
+			for (int page = 0; page < DEEP_PAGE; page++) {
+				cursors[page] = cursor;
+				cursor = productService.getProductPage(
+						new ProductPageRequest(ProductSort.NEWEST, cursor, PAGE_SIZE, null, null)).getNextCursor();
+			}
+
+			long firstPage = 0;
+			long deepPage = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				firstPage += timePage(productService, cursors[0]);
+				deepPage += timePage(productService, cursors[DEEP_PAGE - 1]);
+			}
+			long offsetPage = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				offsetPage += timeOffsetPage(dataSource, (DEEP_PAGE - 1) * PAGE_SIZE);
+			}
+
+			System.out.printf("keyset page 1   : %8.3f ms%n", firstPage / ROUNDS / 1e6);
+			System.out.printf("keyset page %d : %8.3f ms%n", DEEP_PAGE, deepPage / ROUNDS / 1e6);
+			System.out.printf("offset page %d : %8.3f ms%n", DEEP_PAGE, offsetPage / ROUNDS / 1e6);
+		}
+	}
+
+	private static long timePage(ProductService productService, String cursor) {
+		long start = System.nanoTime();
+		KeysetPage<Product> page = productService.getProductPage(
+				new ProductPageRequest(ProductSort.NEWEST, cursor, PAGE_SIZE, null, null));
+		long elapsed = System.nanoTime() - start;
+		if (page.getContent().isEmpty()) {
+			throw new IllegalStateException("Empty page, seed data missing");
+		}
+		return elapsed;
+	}
+
+	private static long timeOffsetPage(DataSource dataSource, int offset) throws Exception {
+		String sql = "SELECT * FROM product ORDER BY created_at DESC, id DESC LIMIT " + PAGE_SIZE + " OFFSET " + offset;
+		long start = System.nanoTime();
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				rs.getLong("id");
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void seed(DataSource dataSource, ProductService productService) throws Exception {
+		long existing;
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM product")) {
+			rs.next();
+			existing = rs.getLong(1);
+		}
+		System.out.printf("Seeding %d products...%n", Math.max(0, TARGET_ROWS - existing));
+		// 每 100,000 筆一個交易，走批次匯入路徑
+		for (long from = existing; from < TARGET_ROWS; from += 100_000) {
+			long to = Math.min(TARGET_ROWS, from + 100_000);
+			productService.importProducts(LongStream.range(from, to).mapToObj(
+					i -> new Product("Product " + i, "type-" + (i % 50), BigDecimal.valueOf(100 + i % 10_000))));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductInvertedIndex;
+
+/**
+ * 商品搜尋索引基準測試（純記憶體，不需要資料庫）
+ * 以隨機組合的繁體中文商品名稱、類型、描述建立一百萬筆索引，
+ * 量測全文搜尋與自動完成的 p50 / p99 延遲，以及逐筆更新的速度。
+ * 
+ * 執行方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.demo.benchmark.ProductSearchBenchmark
+ *     （一百萬筆約需 2GB heap：MAVEN_OPTS=-Xmx2g）
+ */
+public class ProductSearchBenchmark {
+
+	private static final String[] BRANDS = { "Apple", "Sony", "華碩", "宏碁", "小米", "大同", "象印", "無印良品", "Nike", "愛迪達" };
+	private static final String[] ADJECTIVES = { "無線", "藍牙", "輕薄", "防水", "降噪", "智慧", "迷你", "大容量", "高速", "復古" };
+	private static final String[] NOUNS = { "耳機", "喇叭", "筆電", "滑鼠", "鍵盤", "電鍋", "保溫瓶", "背包", "球鞋", "手錶", "行動電源", "吹風機" };
+	private static final String[] TYPES = { "3C", "家電", "生活", "運動", "服飾" };
+	private static final String[] PHRASES = { "一年保固", "台灣公司貨", "限時優惠", "送禮自用兩相宜", "快速出貨", "環保材質", "人體工學設計", "長效續航" };
+	private static final String[] QUERIES = { "藍牙耳機", "無線滑鼠", "sony 喇叭", "大同電鍋", "防水手錶", "行動電源", "nike 球鞋", "保固" };
+	private static final String[] PREFIXES = { "藍", "無線滑", "son", "行動電", "象印 電", "ap" };
+
+	private static final int ROUNDS = 2_000;
+
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		Random random = new Random(42);
+		ProductInvertedIndex index = new ProductInvertedIndex();
+
+		long start = System.nanoTime();
+		for (long id = 1; id <= rows; id++) {
+			index.add(product(id, random));
+		}
+		System.out.printf("indexed %d products in %.1f s, terms=%d%n",
+				rows, (System.nanoTime() - start) / 1e9, index.getTermCount());
+
+		// 暖機
+		for (int i = 0; i < ROUNDS; i++) {
+			index.search(QUERIES[i % QUERIES.length], 20);
+			index.suggest(PREFIXES[i % PREFIXES.length], 10);
+		}
+
+		long[] search = new long[ROUNDS];
+		long[] suggest = new long[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			long t0 = System.nanoTime();
+			index.search(QUERIES[i % QUERIES.length], 20);
+			long t1 = System.nanoTime();
+			index.suggest(PREFIXES[i % PREFIXES.length], 10);
+			long t2 = System.nanoTime();
+			search[i] = t1 - t0;
+			suggest[i] = t2 - t1;
+		}
+		report("search ", search);
+		report("suggest", suggest);
+
+		int updates = 100_000;
+		start = System.nanoTime();
+		for (int i = 0; i < updates; i++) {
+			index.add(product(1 + random.nextInt(rows), random));
+		}
+		System.out.printf("updates: %,.0f products/s%n", updates / ((System.nanoTime() - start) / 1e9));
+		System.out.println("sample: " + index.search("藍牙耳機", 3));
+	}
+
+	private static void report(String label, long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%s p50: %7.3f ms  p99: %7.3f ms  max: %7.3f ms%n", label,
+				sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6, sorted[sorted.length - 1] / 1e6);
+	}
+
+	private static Product product(long id, Random random) {
+		String name = pick(BRANDS, random) + " " + pick(ADJECTIVES, random) + pick(ADJECTIVES, random) + pick(NOUNS, random)
+				+ " " + (100 + random.nextInt(900));
+		Product product = new Product(name, pick(TYPES, random), new BigDecimal(100 + random.nextInt(10_000)));
+		product.setId(id);
+		product.setDescription(pick(PHRASES, random) + "，" + pick(PHRASES, random) + "，" + pick(NOUNS, random) + "推薦");
+		return product;
+	}
+
+	private static String pick(String[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+}
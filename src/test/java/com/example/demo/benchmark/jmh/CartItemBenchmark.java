@@ -0,0 +1,54 @@
+package com.example.demo.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.CartItem;
+
+/**
+ * 購物車明細小計（BigDecimal 乘法）基準測試
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartItemBenchmark {
+
+	@Param({ "199", "1234.56" })
+	private String unitPrice;
+
+	private CartItem cartItem;
+	private int quantity;
+
+	@Setup
+	public void setUp() {
+		cartItem = new CartItem(null, null, 1, new BigDecimal(unitPrice));
+	}
+
+	@Benchmark
+	public BigDecimal setQuantity() {
+		quantity = quantity % 99 + 1;
+		cartItem.setQuantity(quantity);
+		return cartItem.getSubtotal();
+	}
+
+	@Benchmark
+	public BigDecimal calculateSubtotal() {
+		cartItem.calculateSubtotal();
+		return cartItem.getSubtotal();
+	}
+}
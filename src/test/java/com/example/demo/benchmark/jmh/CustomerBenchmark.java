@@ -0,0 +1,51 @@
+package com.example.demo.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.Customer;
+
+/**
+ * Customer.getFullAddress 基準測試（完整地址與只有部分欄位）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerBenchmark {
+
+	private Customer fullAddress;
+	private Customer partialAddress;
+
+	@Setup
+	public void setUp() {
+		fullAddress = new Customer(null, "王小明", "0912345678", "信義路五段7號");
+		fullAddress.setCity("台北市");
+		fullAddress.setPostalCode("110");
+		fullAddress.setCountry("台灣");
+		partialAddress = new Customer(null, "陳小華");
+		partialAddress.setCity("高雄市");
+	}
+
+	@Benchmark
+	public String getFullAddress() {
+		return fullAddress.getFullAddress();
+	}
+
+	@Benchmark
+	public String getFullAddressPartial() {
+		return partialAddress.getFullAddress();
+	}
+}
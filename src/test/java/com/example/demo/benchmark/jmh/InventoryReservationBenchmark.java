@@ -0,0 +1,100 @@
+package com.example.demo.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dto.StockReservation;
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.InventoryServiceImpl;
+import com.example.demo.service.impl.ProductServiceImpl;
+
+import ch.qos.logback.classic.Logger;
+
+/**
+ * 庫存預留熱門商品競爭基準測試
+ * 16 個執行緒同時對同一個商品預留後確認（或取消），背景每 100ms 對帳寫回內嵌的 H2；
+ * 以 shards=1 對照單一 CAS 位置的情況
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class InventoryReservationBenchmark {
+
+	@Param({ "1", "16" })
+	private int shards;
+
+	private AnnotationConfigApplicationContext context;
+	private InventoryService inventoryService;
+	private Product product;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String url = "jdbc:h2:mem:inventory;MODE=MySQL;DB_CLOSE_DELAY=-1";
+		System.setProperty("jdbc.driverClassName", "org.h2.Driver");
+		System.setProperty("jdbc.url", url);
+		System.setProperty("jdbc.readonly.url", url);
+		System.setProperty("jdbc.username", "sa");
+		System.setProperty("jdbc.password", "");
+		System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		System.setProperty("hibernate.hbm2ddl.auto", "create");
+		System.setProperty("search.index.fetchSize", "1000");
+		System.setProperty("inventory.counter.shards", String.valueOf(shards));
+		System.setProperty("inventory.reconcile.intervalMs", "100");
+		((Logger) LoggerFactory.getLogger("org.hibernate.SQL")).setLevel(ch.qos.logback.classic.Level.OFF);
+
+		context = new AnnotationConfigApplicationContext(HibernateConfig.class, CatalogCacheConfig.class,
+				ProductDAOImpl.class, TableSequenceInitializer.class, ProductSearchIndex.class, ProductServiceImpl.class,
+				InventoryServiceImpl.class);
+		ProductService productService = context.getBean(ProductService.class);
+		Product product = new Product("限量商品", "flash-sale", new BigDecimal("999"));
+		product.setStock(Integer.MAX_VALUE);
+		productService.saveProduct(product);
+		this.product = product;
+		inventoryService = context.getBean(InventoryService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public boolean reserveAndConfirm() {
+		StockReservation reservation = inventoryService.reserve(product, 1);
+		return reservation != null && inventoryService.confirm(reservation.getId());
+	}
+
+	@Benchmark
+	public boolean reserveAndRelease() {
+		StockReservation reservation = inventoryService.reserve(product, 1);
+		return reservation != null && inventoryService.release(reservation.getId());
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.demo.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.money.Money;
+
+/**
+ * 購物車／訂單合計：原本的 BigDecimal 乘法與累加 vs. Money 的 long 最小單位運算
+ * 以 -prof gc 執行可比較每次操作配置的位元組數（gc.alloc.rate.norm）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+	@Param({ "5", "50" })
+	private int lines;
+
+	private BigDecimal[] unitPrices;
+	private long[] unitPricesMinor;
+	private int[] quantities;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		unitPrices = new BigDecimal[lines];
+		unitPricesMinor = new long[lines];
+		quantities = new int[lines];
+		for (int i = 0; i < lines; i++) {
+			unitPrices[i] = BigDecimal.valueOf(100 + random.nextInt(500_000), Money.SCALE);
+			unitPricesMinor[i] = Money.toMinor(unitPrices[i]);
+			quantities[i] = 1 + random.nextInt(20);
+		}
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalTotal() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < lines; i++) {
+			total = total.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public BigDecimal minorTotal() {
+		long total = 0;
+		for (int i = 0; i < lines; i++) {
+			total = Math.addExact(total, Money.multiply(unitPricesMinor[i], quantities[i]));
+		}
+		return Money.toAmount(total);
+	}
+
+	@Benchmark
+	public Money moneyTotal() {
+		Money total = Money.zero();
+		for (int i = 0; i < lines; i++) {
+			total = total.plus(Money.ofMinor(unitPricesMinor[i]).times(quantities[i]));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalSubtotal() {
+		return unitPrices[0].multiply(BigDecimal.valueOf(quantities[0]));
+	}
+
+	@Benchmark
+	public BigDecimal minorSubtotal() {
+		return Money.toAmount(Money.multiply(unitPricesMinor[0], quantities[0]));
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.benchmark.jmh;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.order.SnowflakeOrderNumberGenerator;
+
+/**
+ * 訂單編號產生基準測試
+ * 16 個執行緒共用同一個產生器，以 UUID 作為對照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+	private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+
+	@Benchmark
+	public long nextId() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	public String next() {
+		return generator.next();
+	}
+
+	@Benchmark
+	public String randomUuid() {
+		return "ORD-" + UUID.randomUUID();
+	}
+}
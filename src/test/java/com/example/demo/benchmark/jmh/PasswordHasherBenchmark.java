@@ -0,0 +1,48 @@
+package com.example.demo.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.auth.PasswordHasher;
+
+/**
+ * 密碼驗證成本：不同 auth.password.iterations 下單次驗證的耗時
+ * 單核每秒可處理的登入數約為 1000 / 平均毫秒數，乘上 auth.password.maxConcurrent 即為登入尖峰時的處理上限；
+ * 以 -t 指定執行緒數可觀察名額限制下的吞吐量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+	@Param({ "10000", "120000", "310000" })
+	private int iterations;
+
+	private PasswordHasher hasher;
+	private String encoded;
+
+	@Setup
+	public void setUp() {
+		hasher = new PasswordHasher(iterations, Runtime.getRuntime().availableProcessors(), 60_000);
+		encoded = hasher.hash("correct horse battery staple");
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return hasher.matches("correct horse battery staple", encoded);
+	}
+}
@@ -0,0 +1,132 @@
+package com.example.demo.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dto.KeysetPage;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.dto.ProductSort;
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.ProductServiceImpl;
+
+import ch.qos.logback.classic.Logger;
+
+/**
+ * ProductServiceImpl 讀取路徑基準測試
+ * 對內嵌的 H2（MySQL 相容模式）執行，預先匯入 rows 筆商品；
+ * 分別量測經過服務層快取與略過快取的 getProductById、第一頁分頁查詢與全文搜尋。
+ * 略過快取的版本每次同時清除服務層快取與 Hibernate 二級快取的該筆商品，量測的是實際查詢資料庫的成本
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+	@Param({ "10000" })
+	private int rows;
+
+	private AnnotationConfigApplicationContext context;
+	private ProductService productService;
+	private CatalogCache<Long, Product> productByIdCache;
+	private Cache secondLevelCache;
+	private ProductPageRequest firstPage;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		// 系統屬性優先於 application.properties
+		String url = "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1";
+		System.setProperty("jdbc.driverClassName", "org.h2.Driver");
+		System.setProperty("jdbc.url", url);
+		System.setProperty("jdbc.readonly.url", url);
+		System.setProperty("jdbc.username", "sa");
+		System.setProperty("jdbc.password", "");
+		System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		System.setProperty("hibernate.hbm2ddl.auto", "create");
+		System.setProperty("search.index.fetchSize", "1000");
+		// 量測應用程式本身，不含 SQL 日誌
+		((Logger) LoggerFactory.getLogger("org.hibernate.SQL")).setLevel(ch.qos.logback.classic.Level.OFF);
+
+		context = new AnnotationConfigApplicationContext(HibernateConfig.class, CatalogCacheConfig.class,
+				ProductDAOImpl.class, TableSequenceInitializer.class, ProductSearchIndex.class, ProductServiceImpl.class);
+		productService = context.getBean(ProductService.class);
+		productByIdCache = context.getBean("productByIdCache", CatalogCache.class);
+		secondLevelCache = context.getBean(SessionFactory.class).getCache();
+		productService.importProducts(LongStream.rangeClosed(1, rows).mapToObj(i -> {
+			Product product = new Product("商品 " + i + (i % 3 == 0 ? " 藍牙耳機" : " 保溫瓶"), "type-" + (i % 20),
+					BigDecimal.valueOf(100 + i % 5000));
+			product.setDescription("基準測試商品 " + i);
+			return product;
+		}));
+		context.getBean(ProductSearchIndex.class).rebuildAsync().get();
+		// 先把所有商品載入服務層快取，getProductByIdCached 只量測命中
+		for (long id = 1; id <= rows; id++) {
+			productService.getProductById(id);
+		}
+		firstPage = new ProductPageRequest(ProductSort.NEWEST, null, ProductPageRequest.DEFAULT_SIZE, null, null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	private long randomId() {
+		return 1 + ThreadLocalRandom.current().nextInt(rows);
+	}
+
+	@Benchmark
+	public Product getProductByIdCached() {
+		return productService.getProductById(randomId());
+	}
+
+	@Benchmark
+	public Product getProductByIdUncached() {
+		long id = randomId();
+		productByIdCache.invalidate(id);
+		secondLevelCache.evictEntityData(Product.class, id);
+		return productService.getProductById(id);
+	}
+
+	@Benchmark
+	public KeysetPage<Product> getProductPageFirst() {
+		return productService.getProductPage(firstPage);
+	}
+
+	@Benchmark
+	public List<ProductSearchHit> searchProducts() {
+		return productService.searchProducts("藍牙耳機", 20);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.demo.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.demo.metrics.RequestMetrics;
+import com.example.demo.metrics.RequestMetricsInterceptor;
+import com.example.demo.metrics.RequestSample;
+
+/**
+ * 每個請求的量測成本：preHandle + 10 次 statement / 查詢列數 / 取得連線回呼 + afterCompletion
+ * 目標是每個請求只增加數微秒以內；以多執行緒執行確認 LongAdder 在同一路由上沒有競爭
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestMetricsBenchmark {
+
+	private RequestMetricsInterceptor interceptor;
+
+	@State(Scope.Thread)
+	public static class Request {
+
+		MockHttpServletRequest request;
+		MockHttpServletResponse response;
+
+		@Setup
+		public void setUp() {
+			request = new MockHttpServletRequest("GET", "/users/edit/42");
+			request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/edit/{id}");
+			response = new MockHttpServletResponse();
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		interceptor = new RequestMetricsInterceptor(new RequestMetrics());
+	}
+
+	@Benchmark
+	public void request(Request request) {
+		interceptor.preHandle(request.request, request.response, null);
+		RequestSample.connectionAcquired(20_000);
+		for (int i = 0; i < 10; i++) {
+			RequestSample.statementPrepared();
+			RequestSample.rowsFetched(5);
+		}
+		interceptor.afterCompletion(request.request, request.response, null, null);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void requestContended(Request request) {
+		request(request);
+	}
+
+	/**
+	 * 請求以外的執行緒（沒有 preHandle）呼叫回呼的成本，例如排程與背景工作
+	 */
+	@Benchmark
+	public void inactiveCallbacks() {
+		RequestSample.statementPrepared();
+		RequestSample.rowsFetched(5);
+	}
+}
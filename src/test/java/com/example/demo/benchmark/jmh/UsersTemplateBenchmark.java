@@ -0,0 +1,83 @@
+package com.example.demo.benchmark.jmh;
+
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import com.example.demo.dto.UserSort;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.model.UserRole;
+
+/**
+ * users.html 渲染基準測試
+ * 與正式環境相同使用 SpringTemplateEngine（SpEL），模板已快取，只量測渲染一頁 rows 筆使用者（含下一頁連結）的時間；
+ * 需在專案根目錄執行（模板從 src/main/webapp/WEB-INF/views/ 讀取）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersTemplateBenchmark {
+
+	@Param({ "20", "100" })
+	private int rows;
+
+	private SpringTemplateEngine templateEngine;
+	private WebContext context;
+
+	@Setup
+	public void setUp() {
+		FileTemplateResolver templateResolver = new FileTemplateResolver();
+		templateResolver.setPrefix("src/main/webapp/WEB-INF/views/");
+		templateResolver.setSuffix(".html");
+		templateResolver.setTemplateMode(TemplateMode.HTML);
+		templateResolver.setCharacterEncoding("UTF-8");
+		templateResolver.setCacheable(true);
+		templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(templateResolver);
+
+		List<UserSummary> users = new ArrayList<>(rows);
+		LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+		for (long i = 1; i <= rows; i++) {
+			users.add(new UserSummary(i, "user" + i, "user" + i + "@example.com", true, UserRole.USER, createdAt.plusMinutes(i)));
+		}
+		MockServletContext servletContext = new MockServletContext();
+		MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/users");
+		request.setContextPath("/eshop");
+		context = new WebContext(request, new MockHttpServletResponse(), servletContext, Locale.TAIWAN);
+		context.setVariable("users", users);
+		context.setVariable("hasNext", true);
+		context.setVariable("nextCursor", "MjAyNC0wMS0wMVQwMDowMHwyMA");
+		context.setVariable("size", rows);
+		context.setVariable("sort", UserSort.NEWEST);
+	}
+
+	@Benchmark
+	public void renderUsers() {
+		templateEngine.process("users", context, Writer.nullWriter());
+	}
+}
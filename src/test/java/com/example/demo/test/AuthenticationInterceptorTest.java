@@ -0,0 +1,57 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import com.example.demo.auth.AuthenticationInterceptor;
+import com.example.demo.auth.UserPrincipal;
+import com.example.demo.model.UserRole;
+import com.example.demo.service.AuthenticationService;
+public class AuthenticationInterceptorTest {
+   private final Map<String, UserPrincipal> users = new HashMap<>();
+   private final AuthenticationInterceptor interceptor = new AuthenticationInterceptor(new AuthenticationService() {
+       @Override
+       public UserPrincipal authenticate(String username, String password) {
+           throw new UnsupportedOperationException();
+       }
+       @Override
+       public UserPrincipal getPrincipal(String username) {
+           return users.get(username);
+       }
+       @Override
+       public void invalidate(String username) {
+           users.remove(username);
+       }
+   });
+   private MockHttpServletRequest request(MockHttpSession session) {
+       MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+       request.setSession(session);
+       interceptor.preHandle(request, new MockHttpServletResponse(), null);
+       return request;
+   }
+   private static MockHttpSession loggedIn(String username, Long userId) {
+       MockHttpSession session = new MockHttpSession();
+       session.setAttribute(AuthenticationInterceptor.SESSION_ATTRIBUTE, username);
+       session.setAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE, userId);
+       return session;
+   }
+   @Test
+   public void testResolvesLoggedInUser() {
+       UserPrincipal alice = new UserPrincipal(1L, "alice", "hash", UserRole.USER, true);
+       users.put("alice", alice);
+       assertEquals(alice, request(loggedIn("alice", 1L)).getAttribute(AuthenticationInterceptor.PRINCIPAL_ATTRIBUTE));
+   }
+   @Test
+   public void testRenamedUserIsNotTakenOverByNewAccount() {
+       // alice 改名後，另一個人以 alice 註冊了新帳號（不同 ID）
+       users.put("alice", new UserPrincipal(2L, "alice", "hash", UserRole.USER, true));
+       MockHttpSession session = loggedIn("alice", 1L);
+       assertNull(request(session).getAttribute(AuthenticationInterceptor.PRINCIPAL_ATTRIBUTE));
+       assertNull("登入狀態應被清除", session.getAttribute(AuthenticationInterceptor.SESSION_ATTRIBUTE));
+       assertNull(session.getAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE));
+   }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import com.example.demo.cart.CartJournal;
+import com.example.demo.cart.CartStore;
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+public class CartStoreTest {
+   private static final BigDecimal PRICE = new BigDecimal("120.00");
+   @Test
+   public void testCoalescedChanges() {
+       CartStore store = new CartStore(8, null);
+       // 購物車未載入時不可異動
+       assertFalse(store.addQuantity(1L, 10L, 1, PRICE));
+       store.load(1L, Collections.emptyList());
+       for (int i = 0; i < 100; i++) {
+           assertTrue(store.addQuantity(1L, 10L, 1, PRICE));
+       }
+       store.decreaseQuantity(1L, 10L, 40);
+       store.addQuantity(1L, 20L, 2, PRICE);
+       // 多次異動只留下一份待寫回的快照
+       List<CartView> dirty = store.drainDirty();
+       assertEquals(1, dirty.size());
+       assertEquals(60, dirty.get(0).getLines().get(0).getQuantity());
+       assertEquals(new BigDecimal("7440.00"), dirty.get(0).getTotalAmount());
+       assertTrue(store.drainDirty().isEmpty());
+   }
+   @Test
+   public void testSubtractCheckedOut() {
+       CartStore store = new CartStore(8, null);
+       store.load(1L, Collections.emptyList());
+       store.addQuantity(1L, 10L, 2, PRICE);
+       store.addQuantity(1L, 20L, 1, PRICE);
+       List<CartLine> snapshot = store.view(1L).getLines();
+       // 結帳期間又加入的數量與商品保留在購物車
+       store.addQuantity(1L, 10L, 3, PRICE);
+       store.addQuantity(1L, 30L, 1, PRICE);
+       assertTrue(store.subtract(1L, snapshot));
+       List<CartLine> lines = store.view(1L).getLines();
+       assertEquals(2, lines.size());
+       assertEquals(Long.valueOf(10L), lines.get(0).getProductId());
+       assertEquals(3, lines.get(0).getQuantity());
+       assertEquals(Long.valueOf(30L), lines.get(1).getProductId());
+   }
+   @Test
+   public void testMarkDeleting() throws Exception {
+       CartStore store = new CartStore(8, null);
+       store.load(1L, Collections.emptyList());
+       long version = store.loadVersion(2L);
+       Set<Long> deleting = store.markDeleting(Arrays.asList(1L, 2L, 3L));
+       // 已在記憶體中的購物車不可刪除，已在刪除中的不重複標記
+       assertEquals(new HashSet<>(Arrays.asList(2L, 3L)), deleting);
+       assertTrue(store.markDeleting(Arrays.asList(2L)).isEmpty());
+       // 標記前讀到的資料與刪除中的購物車都不可放入記憶體
+       assertFalse(store.load(2L, Collections.emptyList(), version));
+       ExecutorService executor = Executors.newSingleThreadExecutor();
+       try {
+           Future<Long> waiting = executor.submit(() -> store.loadVersion(3L));
+           Thread.sleep(50);
+           assertFalse("刪除中的購物車應等到刪除結束才讀取", waiting.isDone());
+           // 等待期間其他客戶不受影響
+           assertTrue(store.addQuantity(1L, 10L, 1, PRICE));
+           store.finishDeleting(deleting);
+           assertTrue(store.load(3L, Collections.emptyList(), waiting.get(1, TimeUnit.SECONDS)));
+       } finally {
+           executor.shutdownNow();
+       }
+       assertFalse(store.contains(2L));
+       assertTrue(store.load(2L, Collections.emptyList(), store.loadVersion(2L)));
+       assertTrue(store.contains(2L));
+   }
+   @Test
+   public void testJournalReplay() throws Exception {
+       Path directory = Files.createTempDirectory("cart-journal");
+       try (CartJournal journal = new CartJournal(directory, false)) {
+           CartStore store = new CartStore(8, journal);
+           store.load(1L, Collections.emptyList());
+           store.addQuantity(1L, 10L, 3, PRICE);
+           store.addQuantity(1L, 20L, 1, PRICE);
+           store.setQuantity(1L, 20L, 0, null);
+           store.load(2L, Collections.emptyList());
+           store.addQuantity(2L, 10L, 1, PRICE);
+           store.clear(2L);
+       }
+       // 模擬當掉後重新啟動：重播未寫回的日誌
+       try (CartJournal journal = new CartJournal(directory, false)) {
+           CartStore store = new CartStore(8, journal);
+           List<CartJournal.Record> records = new ArrayList<>();
+           long sealed = journal.replay(records::add);
+           assertEquals(5, records.size());
+           store.load(1L, Collections.emptyList());
+           store.load(2L, Collections.emptyList());
+           records.forEach(store::replay);
+           assertEquals(1, store.view(1L).getLines().size());
+           assertEquals(3, store.view(1L).getLines().get(0).getQuantity());
+           assertTrue(store.view(2L).isEmpty());
+           journal.deleteUpTo(sealed);
+           // 新的 segment 在第一次寫入時才建立
+           assertTrue(journal.listSegments().isEmpty());
+       }
+   }
+   @Test
+   public void testJournalLanes() throws Exception {
+       Path directory = Files.createTempDirectory("cart-journal");
+       // 舊版單一檔案的 segment 視為 lane 0
+       Files.write(directory.resolve("cart-journal-1.log"), "S 1 10 2 120.00\n".getBytes(StandardCharsets.UTF_8));
+       long sealed;
+       try (CartJournal journal = new CartJournal(directory, false, 4)) {
+           CartStore store = new CartStore(4, journal);
+           for (long customerId = 1; customerId <= 8; customerId++) {
+               store.load(customerId, Collections.emptyList());
+               store.addQuantity(customerId, 20L, 1, PRICE);
+           }
+           sealed = journal.rotate();
+           store.addQuantity(1L, 20L, 4, PRICE);
+       }
+       assertEquals(2, sealed);
+       try (CartJournal journal = new CartJournal(directory, false, 4)) {
+           List<CartJournal.Record> records = new ArrayList<>();
+           assertEquals(3, journal.replay(records::add));
+           assertEquals(10, records.size());
+           // 依 segment 順序重播：同一位客戶的異動保持原本順序
+           assertEquals(10L, records.get(0).getProductId());
+           CartJournal.Record last = records.get(records.size() - 1);
+           assertEquals(1L, last.getCustomerId());
+           assertEquals(5, last.getQuantity());
+           journal.deleteUpTo(3);
+           assertTrue(journal.listSegments().isEmpty());
+       }
+   }
+   @Test
+   public void testJournalDirectoryLock() throws Exception {
+       Path directory = Files.createTempDirectory("cart-journal");
+       try (CartJournal journal = new CartJournal(directory, false)) {
+           // 同一個目錄不能有第二個實例
+           try {
+               new CartJournal(directory, false).close();
+               fail("second journal opened a locked directory");
+           } catch (IllegalStateException expected) {
+               assertTrue(expected.getMessage().contains("locked"));
+           }
+       }
+       // 關閉後鎖即釋放
+       new CartJournal(directory, false).close();
+   }
+   @Test
+   public void testReprice() {
+       CartStore store = new CartStore(8, null);
+       store.load(1L, Collections.emptyList());
+       store.load(2L, Collections.emptyList());
+       store.addQuantity(1L, 10L, 2, PRICE);
+       store.addQuantity(1L, 20L, 1, PRICE);
+       store.addQuantity(2L, 10L, 3, PRICE);
+       store.drainDirty();
+       BigDecimal sale = new BigDecimal("99.00");
+       assertEquals(2, store.reprice(Collections.singletonMap(10L, sale)));
+       // 已是新價格的明細不再變更
+       assertEquals(0, store.reprice(Collections.singletonMap(10L, new BigDecimal("99"))));
+       assertEquals(2, store.drainDirty().size());
+       assertEquals(new BigDecimal("318.00"), store.view(1L).getTotalAmount());
+       assertEquals(sale, store.view(2L).getLines().get(0).getUnitPrice());
+       // 移除、清空或移出後的購物車不再被改價
+       store.setQuantity(1L, 10L, 0, null);
+       store.clear(2L);
+       store.load(3L, Collections.emptyList());
+       store.addQuantity(3L, 10L, 1, sale);
+       assertEquals(1, store.reprice(Collections.singletonMap(10L, PRICE)));
+       store.drainDirty();
+       assertEquals(3, store.evictIdle(Long.MAX_VALUE));
+       assertEquals(0, store.reprice(Collections.singletonMap(10L, sale)));
+       assertEquals(0, store.reprice(Collections.singletonMap(20L, PRICE)));
+   }
+   @Test
+   public void testRepriceDuringLoad() {
+       CartStore store = new CartStore(8, null);
+       long version = store.loadVersion(1L);
+       List<CartLine> stale = Collections.singletonList(new CartLine(10L, 1, PRICE));
+       // 讀取資料庫之後、放入之前改價：讀到的舊單價不可放入，重新讀取後才可以
+       store.reprice(Collections.singletonMap(10L, new BigDecimal("99.00")));
+       assertFalse(store.load(1L, stale, version));
+       assertFalse(store.contains(1L));
+       assertTrue(store.load(1L, Collections.singletonList(new CartLine(10L, 1, new BigDecimal("99.00"))),
+               store.loadVersion(1L)));
+       assertEquals(new BigDecimal("99.00"), store.view(1L).getLines().get(0).getUnitPrice());
+   }
+}
@@ -0,0 +1,208 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.config.CatalogCacheConfig;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.config.OrderNumberConfig;
+import com.example.demo.dao.impl.CartDAOImpl;
+import com.example.demo.dao.impl.CustomerDAOImpl;
+import com.example.demo.dao.impl.OrderDAOImpl;
+import com.example.demo.dao.impl.ProductDAOImpl;
+import com.example.demo.dao.impl.TableSequenceInitializer;
+import com.example.demo.dto.CartLine;
+import com.example.demo.model.Customer;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.service.CartService;
+import com.example.demo.service.CheckoutService;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.CartServiceImpl;
+import com.example.demo.service.impl.CheckoutServiceImpl;
+import com.example.demo.service.impl.InventoryServiceImpl;
+import com.example.demo.service.impl.ProductServiceImpl;
+/**
+ * 結帳的交易邊界：提交前確認庫存、回滾時歸還預留、提交後只從購物車扣除結帳的數量（內嵌 H2）
+ */
+public class CheckoutTransactionTest {
+   private static final String[] PROPERTIES = { "jdbc.driverClassName", "jdbc.url", "jdbc.readonly.url", "jdbc.username",
+           "jdbc.password", "hibernate.dialect", "hibernate.hbm2ddl.auto", "order.number.nodeId", "cart.journal.dir",
+           "search.index.fetchSize" };
+   private static AnnotationConfigApplicationContext context;
+   private static SessionFactory sessionFactory;
+   private static TransactionTemplate transaction;
+   private static CartService cartService;
+   private static CheckoutService checkoutService;
+   private static InventoryService inventoryService;
+   private static ProductService productService;
+   @BeforeClass
+   public static void setUp() throws Exception {
+       String url = "jdbc:h2:mem:checkout;MODE=MySQL;DB_CLOSE_DELAY=-1";
+       System.setProperty("jdbc.driverClassName", "org.h2.Driver");
+       System.setProperty("jdbc.url", url);
+       System.setProperty("jdbc.readonly.url", url);
+       System.setProperty("jdbc.username", "sa");
+       System.setProperty("jdbc.password", "");
+       System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+       System.setProperty("hibernate.hbm2ddl.auto", "create");
+       System.setProperty("order.number.nodeId", "0");
+       // H2 不接受 MySQL 串流讀取用的 fetchSize（Integer.MIN_VALUE）
+       System.setProperty("search.index.fetchSize", "1000");
+       System.setProperty("cart.journal.dir", Files.createTempDirectory("cart-journal").toString());
+       context = new AnnotationConfigApplicationContext(HibernateConfig.class, CatalogCacheConfig.class,
+               ProductDAOImpl.class, TableSequenceInitializer.class, ProductSearchIndex.class, ProductServiceImpl.class,
+               CartDAOImpl.class, CartServiceImpl.class, InventoryServiceImpl.class, CustomerDAOImpl.class,
+               OrderDAOImpl.class, OrderNumberConfig.class, CheckoutServiceImpl.class);
+       sessionFactory = context.getBean(SessionFactory.class);
+       transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+       cartService = context.getBean(CartService.class);
+       checkoutService = context.getBean(CheckoutService.class);
+       inventoryService = context.getBean(InventoryService.class);
+       productService = context.getBean(ProductService.class);
+   }
+   @AfterClass
+   public static void tearDown() {
+       context.close();
+       for (String property : PROPERTIES) {
+           System.clearProperty(property);
+       }
+   }
+   private static Long createCustomer(String username) {
+       return transaction.execute(status -> {
+           Session session = sessionFactory.getCurrentSession();
+           User user = new User(username, username + "@example.com", "secret");
+           session.persist(user);
+           Customer customer = new Customer(user, username);
+           session.persist(customer);
+           return customer.getId();
+       });
+   }
+   private static Long createProduct(String name, int stock) {
+       Product product = new Product(name, "checkout", new BigDecimal("100"));
+       product.setStock(stock);
+       productService.importProducts(Stream.of(product));
+       return product.getId();
+   }
+   private static long countOrders(Long customerId) {
+       return transaction.execute(status -> sessionFactory.getCurrentSession()
+               .createQuery("select count(o) from Order o where o.customer.id = :customerId", Long.class)
+               .setParameter("customerId", customerId).uniqueResult());
+   }
+   private static Map<Long, Integer> cartQuantities(Long customerId) {
+       Map<Long, Integer> quantities = new HashMap<>();
+       for (CartLine line : cartService.getCart(customerId).getLines()) {
+           quantities.put(line.getProductId(), line.getQuantity());
+       }
+       return quantities;
+   }
+   private static int databaseStock(Long productId) {
+       return productService.getStocks(List.of(productId)).get(productId);
+   }
+   @Test
+   public void testCommitKeepsLinesAddedDuringCheckout() {
+       Long customerId = createCustomer("checkout-commit");
+       Long keyboard = createProduct("鍵盤", 10);
+       Long mouse = createProduct("滑鼠", 10);
+       cartService.addItem(customerId, keyboard, 3);
+       // 外層交易提交前，結帳的同步作業還沒執行；這段期間加入的商品與數量都要保留
+       transaction.execute(status -> {
+           checkoutService.checkout(customerId, "台北市", PaymentMethod.CREDIT_CARD);
+           cartService.addItem(customerId, keyboard, 2);
+           cartService.addItem(customerId, mouse, 1);
+           return null;
+       });
+       Map<Long, Integer> expected = new HashMap<>();
+       expected.put(keyboard, 2);
+       expected.put(mouse, 1);
+       assertEquals(expected, cartQuantities(customerId));
+       assertEquals(1, countOrders(customerId));
+       assertEquals(7, inventoryService.getAvailable(keyboard));
+       inventoryService.reconcile();
+       assertEquals(7, databaseStock(keyboard));
+   }
+   @Test
+   public void testExpiredReservationRollsBackOrder() {
+       Long customerId = createCustomer("checkout-expired");
+       Long keyboard = createProduct("鍵盤", 10);
+       cartService.addItem(customerId, keyboard, 3);
+       Object inventory = context.getBean(InventoryServiceImpl.class);
+       Object ttl = ReflectionTestUtils.getField(inventory, "reservationTtlMs");
+       // 預留一建立就逾時，提交前的 confirmAll 失敗
+       ReflectionTestUtils.setField(inventory, "reservationTtlMs", 0L);
+       try {
+           checkoutService.checkout(customerId, "台北市", PaymentMethod.CREDIT_CARD);
+           fail("逾時的預留應讓結帳失敗");
+       } catch (IllegalStateException expected) {
+           // 交易已回滾
+       } finally {
+           ReflectionTestUtils.setField(inventory, "reservationTtlMs", ttl);
+       }
+       assertEquals(0, countOrders(customerId));
+       assertEquals(10, inventoryService.getAvailable(keyboard));
+       assertEquals(Map.of(keyboard, 3), cartQuantities(customerId));
+   }
+   @Test
+   public void testRollbackReleasesReservations() {
+       Long customerId = createCustomer("checkout-rollback");
+       Long keyboard = createProduct("鍵盤", 10);
+       cartService.addItem(customerId, keyboard, 4);
+       transaction.execute(status -> {
+           checkoutService.checkout(customerId, "台北市", PaymentMethod.CREDIT_CARD);
+           assertEquals(6, inventoryService.getAvailable(keyboard));
+           status.setRollbackOnly();
+           return null;
+       });
+       assertEquals(0, countOrders(customerId));
+       assertEquals(10, inventoryService.getAvailable(keyboard));
+       assertEquals(Map.of(keyboard, 4), cartQuantities(customerId));
+   }
+   @Test
+   public void testFailureAfterConfirmCancelsReservations() {
+       Long customerId = createCustomer("checkout-cancel");
+       Long keyboard = createProduct("鍵盤", 10);
+       cartService.addItem(customerId, keyboard, 5);
+       List<String> events = new ArrayList<>();
+       try {
+           transaction.execute(status -> {
+               checkoutService.checkout(customerId, "台北市", PaymentMethod.CREDIT_CARD);
+               // 在結帳的 beforeCommit（確認庫存）之後才失敗
+               TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                   @Override
+                   public void beforeCommit(boolean readOnly) {
+                       events.add("beforeCommit");
+                       throw new IllegalStateException("commit failed");
+                   }
+               });
+               return null;
+           });
+           fail("提交應失敗");
+       } catch (IllegalStateException expected) {
+           assertEquals(List.of("beforeCommit"), events);
+       }
+       assertEquals(0, countOrders(customerId));
+       assertEquals(10, inventoryService.getAvailable(keyboard));
+       assertEquals(Map.of(keyboard, 5), cartQuantities(customerId));
+       inventoryService.reconcile();
+       assertEquals(10, databaseStock(keyboard));
+   }
+}
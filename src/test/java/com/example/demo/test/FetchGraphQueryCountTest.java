@@ -0,0 +1,197 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.dao.CartDAO;
+import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dao.impl.CartDAOImpl;
+import com.example.demo.dao.impl.CustomerDAOImpl;
+import com.example.demo.dao.impl.OrderDAOImpl;
+import com.example.demo.dto.OrderHistoryRequest;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Cart;
+import com.example.demo.model.CartItem;
+import com.example.demo.model.Customer;
+import com.example.demo.model.FetchGraphs;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+/**
+ * 以 Hibernate 統計的 SQL 數量確認每個 fetch profile 只發出預期的查詢，防止 N+1 回歸（內嵌 H2）
+ */
+public class FetchGraphQueryCountTest {
+   private static final String[] PROPERTIES = { "jdbc.driverClassName", "jdbc.url", "jdbc.readonly.url", "jdbc.username",
+           "jdbc.password", "hibernate.dialect", "hibernate.hbm2ddl.auto" };
+   private static final int ITEMS = 5;
+   private static AnnotationConfigApplicationContext context;
+   private static SessionFactory sessionFactory;
+   private static TransactionTemplate transaction;
+   private static Long customerId;
+   private static Long orderId;
+   private static Long orderItemId;
+   @BeforeClass
+   public static void setUp() {
+       String url = "jdbc:h2:mem:fetchgraph;MODE=MySQL;DB_CLOSE_DELAY=-1";
+       System.setProperty("jdbc.driverClassName", "org.h2.Driver");
+       System.setProperty("jdbc.url", url);
+       System.setProperty("jdbc.readonly.url", url);
+       System.setProperty("jdbc.username", "sa");
+       System.setProperty("jdbc.password", "");
+       System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+       System.setProperty("hibernate.hbm2ddl.auto", "create");
+       context = new AnnotationConfigApplicationContext(HibernateConfig.class, OrderDAOImpl.class, CartDAOImpl.class,
+               CustomerDAOImpl.class);
+       sessionFactory = context.getBean(SessionFactory.class);
+       transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+       try (Session session = sessionFactory.openSession()) {
+           session.beginTransaction();
+           User user = new User("fetch-graph", "fetch-graph@example.com", "secret");
+           session.persist(user);
+           Customer customer = new Customer(user, "測試客戶");
+           session.persist(customer);
+           Order order = new Order("FETCHGRAPH001", customer);
+           order.setTotalAmount(BigDecimal.ZERO);
+           session.persist(order);
+           Cart cart = new Cart(customer);
+           session.persist(cart);
+           for (int i = 0; i < ITEMS; i++) {
+               Product product = new Product("商品 " + i, "test", BigDecimal.TEN);
+               session.persist(product);
+               OrderItem orderItem = new OrderItem(order, product, 1, BigDecimal.TEN);
+               session.persist(orderItem);
+               session.persist(new CartItem(cart, product, 1, BigDecimal.TEN));
+               orderItemId = orderItem.getId();
+           }
+           session.getTransaction().commit();
+           customerId = customer.getId();
+           orderId = order.getId();
+       }
+   }
+   @AfterClass
+   public static void tearDown() {
+       context.close();
+       for (String property : PROPERTIES) {
+           System.clearProperty(property);
+       }
+   }
+   /**
+    * 在交易中執行，回傳期間送出的 SQL 數；先清空二級快取，避免快取命中掩蓋 N+1
+    */
+   private static long countStatements(Supplier<Object> work) {
+       sessionFactory.getCache().evictAllRegions();
+       Statistics statistics = sessionFactory.getStatistics();
+       statistics.clear();
+       transaction.execute(status -> work.get());
+       return statistics.getPrepareStatementCount();
+   }
+   @Test
+   public void testOrderItemDoesNotLoadAssociations() {
+       long statements = countStatements(() -> {
+           OrderItem item = sessionFactory.getCurrentSession().get(OrderItem.class, orderItemId);
+           assertFalse("order 應為 LAZY", Hibernate.isInitialized(item.getOrder()));
+           assertFalse("product 應為 LAZY", Hibernate.isInitialized(item.getProduct()));
+           // 取外鍵 ID 不會初始化代理
+           return item.getOrder().getId();
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testOrderWithItemsInOneQuery() {
+       OrderDAO orderDAO = context.getBean(OrderDAO.class);
+       long statements = countStatements(() -> {
+           Order order = orderDAO.findById(orderId, FetchGraphs.ORDER_WITH_ITEMS);
+           assertEquals(ITEMS, order.getItems().size());
+           for (OrderItem item : order.getItems()) {
+               assertTrue(item.getProduct().getName().startsWith("商品"));
+           }
+           assertFalse("customer 不在實體圖中", Hibernate.isInitialized(order.getCustomer()));
+           return order;
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testOrderWithCustomerInOneQuery() {
+       OrderDAO orderDAO = context.getBean(OrderDAO.class);
+       long statements = countStatements(() -> {
+           Order order = orderDAO.findById(orderId, FetchGraphs.ORDER_WITH_CUSTOMER);
+           assertEquals("測試客戶", order.getCustomer().getName());
+           assertFalse("items 不在實體圖中", Hibernate.isInitialized(order.getItems()));
+           assertFalse("user 不在實體圖中", Hibernate.isInitialized(order.getCustomer().getUser()));
+           return order;
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testCartWithProductsInOneQuery() {
+       CartDAO cartDAO = context.getBean(CartDAO.class);
+       long statements = countStatements(() -> {
+           Cart cart = cartDAO.findByCustomerId(customerId, FetchGraphs.CART_WITH_PRODUCTS);
+           assertEquals(ITEMS, cart.getItems().size());
+           for (CartItem item : cart.getItems()) {
+               assertTrue(item.getProduct().getName().startsWith("商品"));
+           }
+           assertFalse("customer 不在實體圖中", Hibernate.isInitialized(cart.getCustomer()));
+           return cart;
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testCustomerWithUserInOneQuery() {
+       CustomerDAO customerDAO = context.getBean(CustomerDAO.class);
+       long statements = countStatements(() -> {
+           Customer customer = customerDAO.findById(customerId, FetchGraphs.CUSTOMER_WITH_USER);
+           return customer.getUser().getUsername();
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testCustomersByIdsWithUserInOneQuery() {
+       CustomerDAO customerDAO = context.getBean(CustomerDAO.class);
+       long statements = countStatements(() -> {
+           List<Customer> customers = customerDAO.findByIds(List.of(customerId, -1L), true);
+           assertEquals(1, customers.size());
+           assertTrue("user 應已由 JOIN FETCH 載入", Hibernate.isInitialized(customers.get(0).getUser()));
+           return customers.get(0).getUser().getUsername();
+       });
+       assertEquals(1, statements);
+   }
+   @Test
+   public void testCustomerPageWithoutUser() {
+       CustomerDAO customerDAO = context.getBean(CustomerDAO.class);
+       long statements = countStatements(() -> {
+           List<Customer> customers = customerDAO.findPage(null, 10, false);
+           assertEquals(1, customers.size());
+           assertFalse("未要求 user 時應為 LAZY", Hibernate.isInitialized(customers.get(0).getUser()));
+           assertTrue(customerDAO.findPage(customerId, 10, false).isEmpty());
+           return customers;
+       });
+       assertEquals(2, statements);
+   }
+   @Test
+   public void testOrderHistoryUsesTwoQueriesPerPage() {
+       OrderDAO orderDAO = context.getBean(OrderDAO.class);
+       long statements = countStatements(() -> {
+           List<OrderSummary> orders = orderDAO.findHistory(new OrderHistoryRequest(customerId, null, 20));
+           assertEquals(1, orders.size());
+           assertEquals(Long.valueOf(ITEMS), orderDAO.sumItemQuantities(List.of(orderId)).get(orderId));
+           return orders;
+       });
+       assertEquals(2, statements);
+   }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import com.example.demo.dto.StockReservation;
+import com.example.demo.model.Product;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.impl.InventoryServiceImpl;
+public class InventoryServiceTest {
+   private final Map<Long, Integer> database = new HashMap<>();
+   private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+   private InventoryServiceImpl inventoryService;
+   private Product first;
+   private Product second;
+   @Before
+   public void setUp() {
+       database.put(1L, 10);
+       database.put(2L, 5);
+       first = product(1L);
+       second = product(2L);
+       ProductService productService = (ProductService) Proxy.newProxyInstance(ProductService.class.getClassLoader(),
+               new Class<?>[] { ProductService.class }, (proxy, method, args) -> {
+                   switch (method.getName()) {
+                   case "getStocks":
+                       assertTrue("庫存必須在讀寫交易中讀取（主資料庫）", transactionManager.readWrite);
+                       Map<Long, Integer> stocks = new HashMap<>();
+                       for (Long id : (Collection<Long>) args[0]) {
+                           if (database.containsKey(id)) {
+                               stocks.put(id, database.get(id));
+                           }
+                       }
+                       return stocks;
+                   case "deductStock":
+                       int deducted = Math.min(database.get(args[0]), (Integer) args[1]);
+                       database.merge((Long) args[0], -deducted, Integer::sum);
+                       return deducted;
+                   case "addStock":
+                       database.merge((Long) args[0], (Integer) args[1], Integer::sum);
+                       return null;
+                   default:
+                       throw new UnsupportedOperationException(method.getName());
+                   }
+               });
+       inventoryService = new InventoryServiceImpl();
+       ReflectionTestUtils.setField(inventoryService, "productService", productService);
+       ReflectionTestUtils.setField(inventoryService, "shards", 4);
+       ReflectionTestUtils.setField(inventoryService, "reservationTtlMs", 60_000L);
+       inventoryService.setTransactionManager(transactionManager);
+   }
+   private static Product product(long id) {
+       Product product = new Product("商品" + id, "3C", new BigDecimal("100"));
+       product.setId(id);
+       return product;
+   }
+   @Test
+   public void testConfirmAllDeductsOnReconcile() {
+       StockReservation a = inventoryService.reserve(first, 3);
+       StockReservation b = inventoryService.reserve(second, 5);
+       assertEquals(0, inventoryService.getAvailable(2L));
+       assertTrue(inventoryService.confirmAll(Arrays.asList(a, b)));
+       assertEquals(2, inventoryService.reconcile());
+       assertEquals(7, database.get(1L).intValue());
+       assertEquals(0, database.get(2L).intValue());
+       assertEquals(7, inventoryService.getAvailable(1L));
+       assertEquals(0, inventoryService.getAvailable(2L));
+   }
+   @Test
+   public void testConfirmAllGivesBackWhenAnyReservationIsGone() {
+       StockReservation a = inventoryService.reserve(first, 3);
+       StockReservation b = inventoryService.reserve(second, 2);
+       assertTrue(inventoryService.release(b.getId()));
+       assertFalse(inventoryService.confirmAll(Arrays.asList(a, b)));
+       // 已取出的預留全部歸還，也不會再被確認
+       assertEquals(10, inventoryService.getAvailable(1L));
+       assertFalse(inventoryService.release(a.getId()));
+       inventoryService.reconcile();
+       assertEquals(10, database.get(1L).intValue());
+       assertEquals(5, database.get(2L).intValue());
+   }
+   @Test
+   public void testCancelConfirmedAfterReconcile() {
+       StockReservation a = inventoryService.reserve(first, 3);
+       assertTrue(inventoryService.confirmAll(Collections.singletonList(a)));
+       inventoryService.reconcile();
+       assertEquals(7, database.get(1L).intValue());
+       // 已扣回資料庫後才撤銷：計數器立即歸還，下次對帳把數量加回資料庫
+       inventoryService.cancelConfirmed(Collections.singletonList(a));
+       assertEquals(10, inventoryService.getAvailable(1L));
+       inventoryService.reconcile();
+       assertEquals(10, database.get(1L).intValue());
+       assertEquals(10, inventoryService.getAvailable(1L));
+   }
+   @Test
+   public void testReconcileAppliesRestockAndDeficit() {
+       assertEquals(10, inventoryService.getAvailable(1L));
+       database.put(1L, 15);
+       inventoryService.reconcile();
+       assertEquals(15, inventoryService.getAvailable(1L));
+       // 資料庫被調低時數量都在預留中：先記為 deficit，預留歸還後的下次對帳再扣除
+       StockReservation all = inventoryService.reserve(first, 15);
+       assertNotNull(all);
+       database.put(1L, 5);
+       inventoryService.reconcile();
+       assertEquals(0, inventoryService.getAvailable(1L));
+       assertTrue(inventoryService.release(all.getId()));
+       inventoryService.reconcile();
+       assertEquals(5, inventoryService.getAvailable(1L));
+   }
+   /**
+    * 記錄目前是否在讀寫交易中
+    */
+   private static final class RecordingTransactionManager implements PlatformTransactionManager {
+       private boolean readWrite;
+       @Override
+       public TransactionStatus getTransaction(TransactionDefinition definition) {
+           readWrite = definition == null || !definition.isReadOnly();
+           return new SimpleTransactionStatus();
+       }
+       @Override
+       public void commit(TransactionStatus status) {
+           readWrite = false;
+       }
+       @Override
+       public void rollback(TransactionStatus status) {
+           readWrite = false;
+       }
+   }
+}
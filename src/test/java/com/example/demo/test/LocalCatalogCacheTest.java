@@ -0,0 +1,72 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import com.example.demo.cache.LocalCatalogCache;
+public class LocalCatalogCacheTest {
+   private final AtomicLong now = new AtomicLong();
+   private LocalCatalogCache<Long, String> newCache() {
+       // 背景刷新直接在呼叫端執行緒跑，測試結果可預期
+       return new LocalCatalogCache<>("test", 100, Duration.ofSeconds(10), Duration.ofSeconds(60),
+               Duration.ofSeconds(5), Runnable::run, now::get);
+   }
+   @Test
+   public void testSingleFlightLoad() throws Exception {
+       LocalCatalogCache<Long, String> cache = newCache();
+       AtomicInteger loads = new AtomicInteger();
+       CountDownLatch release = new CountDownLatch(1);
+       ExecutorService pool = Executors.newFixedThreadPool(16);
+       try {
+           List<Future<String>> results = new ArrayList<>();
+           for (int i = 0; i < 16; i++) {
+               results.add(pool.submit(() -> cache.get(1L, id -> {
+                   loads.incrementAndGet();
+                   try {
+                       release.await(5, TimeUnit.SECONDS);
+                   } catch (InterruptedException e) {
+                       Thread.currentThread().interrupt();
+                   }
+                   return "product-" + id;
+               })));
+           }
+           Thread.sleep(100);
+           release.countDown();
+           for (Future<String> result : results) {
+               assertEquals("product-1", result.get(5, TimeUnit.SECONDS));
+           }
+       } finally {
+           pool.shutdownNow();
+       }
+       assertEquals("同一個鍵只應載入一次", 1, loads.get());
+   }
+   @Test
+   public void testNegativeCachingAndSoftRefresh() {
+       LocalCatalogCache<Long, String> cache = newCache();
+       AtomicInteger loads = new AtomicInteger();
+       // 不存在的 ID 在 negativeTtl 內不會重查
+       assertNull(cache.get(99L, id -> { loads.incrementAndGet(); return null; }));
+       assertNull(cache.get(99L, id -> { loads.incrementAndGet(); return null; }));
+       assertEquals(1, loads.get());
+       now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+       assertEquals("v2", cache.get(99L, id -> { loads.incrementAndGet(); return "v2"; }));
+       assertEquals(2, loads.get());
+       assertEquals(1, cache.stats().getNegativeHits());
+       // 超過 softTtl：先回傳舊值，同時刷新
+       now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+       assertEquals("v2", cache.get(99L, id -> "v3"));
+       assertEquals("v3", cache.get(99L, id -> "v4"));
+       assertEquals(1, cache.stats().getRefreshes());
+       cache.invalidate(99L);
+       assertEquals("v5", cache.get(99L, id -> "v5"));
+   }
+}
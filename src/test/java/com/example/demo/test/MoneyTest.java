@@ -0,0 +1,67 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+import org.junit.Test;
+import com.example.demo.dto.CartLine;
+import com.example.demo.dto.CartView;
+import com.example.demo.model.CartItem;
+import com.example.demo.money.Money;
+public class MoneyTest {
+   @Test
+   public void testExactConversion() {
+       assertEquals(1999L, Money.toMinor(new BigDecimal("19.99")));
+       assertEquals(1900L, Money.toMinor(new BigDecimal("19")));
+       assertEquals(1990L, Money.toMinor(new BigDecimal("19.9")));
+       assertEquals(-5L, Money.toMinor(new BigDecimal("-0.05")));
+       assertEquals(new BigDecimal("19.99"), Money.toAmount(1999L));
+       assertEquals(new BigDecimal("99999999.99"), Money.toAmount(Money.MAX_COLUMN_MINOR));
+   }
+   @Test(expected = ArithmeticException.class)
+   public void testRejectsThirdDecimal() {
+       Money.toMinor(new BigDecimal("1.005"));
+   }
+   @Test(expected = ArithmeticException.class)
+   public void testRejectsColumnOverflow() {
+       Money.toAmount(Money.MAX_COLUMN_MINOR + 1);
+   }
+   @Test(expected = ArithmeticException.class)
+   public void testMultiplyOverflow() {
+       Money.multiply(Long.MAX_VALUE / 2, 3);
+   }
+   @Test
+   public void testArithmetic() {
+       Money price = Money.of(new BigDecimal("12.34"));
+       assertEquals(Money.ofMinor(3702), price.times(3));
+       assertEquals(Money.ofMinor(1334), price.plus(Money.ofMinor(100)));
+       assertTrue(price.minus(price).isZero());
+       assertTrue(Money.zero().minus(price).isNegative());
+       assertEquals(new BigDecimal("37.02"), price.times(3).toBigDecimal());
+   }
+   @Test(expected = IllegalArgumentException.class)
+   public void testCurrencyMismatch() {
+       Money.ofMinor(100).plus(Money.ofMinor(100, Currency.getInstance("USD")));
+   }
+   @Test
+   public void testCartItemSubtotalMatchesBigDecimal() {
+       CartItem item = new CartItem(null, null, 3, new BigDecimal("19.99"));
+       assertEquals(new BigDecimal("59.97"), item.getSubtotal());
+       item.setQuantity(7);
+       assertEquals(new BigDecimal("139.93"), item.getSubtotal());
+       item.setUnitPrice(new BigDecimal("5"));
+       assertEquals(0, new BigDecimal("35").compareTo(item.getSubtotal()));
+       item.setSubtotal(null);
+       item.calculateSubtotal();
+       assertEquals(new BigDecimal("35.00"), item.getSubtotal());
+   }
+   @Test
+   public void testCartViewTotal() {
+       CartView view = new CartView(1L, Arrays.asList(new CartLine(1L, 2, new BigDecimal("0.10")), new CartLine(2L, 1, new BigDecimal("0.20"))));
+       assertEquals(new BigDecimal("0.40"), view.getTotalAmount());
+       assertEquals(40L, view.getTotalMinor());
+       assertFalse(view.getTotal().isNegative());
+   }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.Test;
+import com.example.demo.dto.OrderExportRow;
+import com.example.demo.export.ChannelTextWriter;
+import com.example.demo.export.ExportFormat;
+import com.example.demo.export.OrderExportWriter;
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Order.PaymentStatus;
+public class OrderExportWriterTest {
+   private static final String CSV_HEADER = "order_id,order_no,customer_id,total_amount,status,payment_method,payment_status,created_at,"
+           + "item_id,product_id,quantity,unit_price,subtotal\n";
+   private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+   @Test
+   public void testCsvEmptyResult() throws IOException {
+       assertEquals(CSV_HEADER, export(ExportFormat.CSV));
+   }
+   @Test
+   public void testCsvPlainValues() throws IOException {
+       String csv = export(ExportFormat.CSV, row(1L, "ORD-1", 10L, 2));
+       assertEquals(CSV_HEADER + "1,ORD-1,7,200,PENDING,CASH,UNPAID,2024-05-01T12:30:15,10,3,2,100,200\n", csv);
+   }
+   @Test
+   public void testCsvQuoting() throws IOException {
+       String csv = export(ExportFormat.CSV,
+               row(1L, "A,B", 10L, 1),
+               row(2L, "say \"hi\"", 20L, 1),
+               row(3L, "line1\nline2", 30L, 1),
+               row(4L, "cr\rlf", 40L, 1));
+       assertEquals(CSV_HEADER
+               + "1,\"A,B\"" + tail(10L)
+               + "2,\"say \"\"hi\"\"\"" + tail(20L)
+               + "3,\"line1\nline2\"" + tail(30L)
+               + "4,\"cr\rlf\"" + tail(40L), csv);
+   }
+   @Test
+   public void testCsvNullValues() throws IOException {
+       OrderExportRow row = new OrderExportRow(5L, null, 7L, null, OrderStatus.PENDING, null, null, null,
+               null, null, null, null, null);
+       assertEquals(CSV_HEADER + "5,,7,,PENDING,,,,,,,,\n", export(ExportFormat.CSV, row));
+   }
+   @Test
+   public void testCsvCjkAcrossBufferBoundary() throws IOException {
+       // 緩衝區只有 8 個字元，多位元組字元與代理對會被切在緩衝區邊界
+       ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+       try (ChannelTextWriter out = new ChannelTextWriter(Channels.newChannel(bytes), 8)) {
+           OrderExportWriter writer = ExportFormat.CSV.newWriter(out);
+           writer.write(row(1L, "訂單測試", 10L, 1));
+           writer.write(row(2L, "中文,\"引號\"🎉", 20L, 1));
+           writer.finish();
+       }
+       assertEquals(CSV_HEADER
+               + "1,訂單測試" + tail(10L)
+               + "2,\"中文,\"\"引號\"\"🎉\"" + tail(20L), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+   }
+   @Test
+   public void testNdjsonEmptyResult() throws IOException {
+       assertEquals("", export(ExportFormat.NDJSON));
+   }
+   @Test
+   public void testNdjsonGroupsItemsPerOrder() throws IOException {
+       String ndjson = export(ExportFormat.NDJSON, row(1L, "ORD-1", 10L, 2), row(1L, "ORD-1", 11L, 1), row(2L, "ORD-2", 20L, 3));
+       assertEquals("{\"id\":1,\"orderNo\":\"ORD-1\",\"customerId\":7,\"totalAmount\":200,\"status\":\"PENDING\","
+               + "\"paymentMethod\":\"CASH\",\"paymentStatus\":\"UNPAID\",\"createdAt\":\"2024-05-01T12:30:15\",\"items\":["
+               + "{\"id\":10,\"productId\":3,\"quantity\":2,\"unitPrice\":100,\"subtotal\":200},"
+               + "{\"id\":11,\"productId\":3,\"quantity\":1,\"unitPrice\":100,\"subtotal\":100}]}\n"
+               + "{\"id\":2,\"orderNo\":\"ORD-2\",\"customerId\":7,\"totalAmount\":200,\"status\":\"PENDING\","
+               + "\"paymentMethod\":\"CASH\",\"paymentStatus\":\"UNPAID\",\"createdAt\":\"2024-05-01T12:30:15\",\"items\":["
+               + "{\"id\":20,\"productId\":3,\"quantity\":3,\"unitPrice\":100,\"subtotal\":300}]}\n", ndjson);
+   }
+   @Test
+   public void testNdjsonOrderWithoutItems() throws IOException {
+       OrderExportRow row = new OrderExportRow(5L, null, 7L, null, OrderStatus.PENDING, null, null, null,
+               null, null, null, null, null);
+       assertEquals("{\"id\":5,\"orderNo\":null,\"customerId\":7,\"totalAmount\":null,\"status\":\"PENDING\","
+               + "\"paymentMethod\":null,\"paymentStatus\":null,\"createdAt\":null,\"items\":[]}\n", export(ExportFormat.NDJSON, row));
+   }
+   @Test
+   public void testNdjsonEscaping() throws IOException {
+       String ndjson = export(ExportFormat.NDJSON, row(1L, "q\"b\\n\nr\rt\t\u0001中文🎉", 10L, 1));
+       String expected = "\"orderNo\":\"q\\\"b\\\\n\\nr\\rt\\t\\u0001中文🎉\"";
+       assertEquals(expected, ndjson.substring(ndjson.indexOf("\"orderNo\""), ndjson.indexOf(",\"customerId\"")));
+       // 跳脫後一筆訂單只佔一行
+       assertEquals(ndjson.length() - 1, ndjson.indexOf('\n'));
+   }
+   private static OrderExportRow row(Long orderId, String orderNo, Long itemId, int quantity) {
+       BigDecimal unitPrice = new BigDecimal("100");
+       return new OrderExportRow(orderId, orderNo, 7L, new BigDecimal("200"), OrderStatus.PENDING, PaymentMethod.CASH,
+               PaymentStatus.UNPAID, CREATED_AT, itemId, 3L, quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)));
+   }
+   private static String tail(Long itemId) {
+       return ",7,200,PENDING,CASH,UNPAID,2024-05-01T12:30:15," + itemId + ",3,1,100,100\n";
+   }
+   private static String export(ExportFormat format, OrderExportRow... rows) throws IOException {
+       ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+       try (ChannelTextWriter out = new ChannelTextWriter(Channels.newChannel(bytes))) {
+           OrderExportWriter writer = format.newWriter(out);
+           for (OrderExportRow row : rows) {
+               writer.write(row);
+           }
+           writer.finish();
+       }
+       return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+   }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import com.example.demo.order.SnowflakeOrderNumberGenerator;
+public class OrderNumberGeneratorTest {
+   @Test
+   public void testUniqueAcrossThreadsAndNodes() throws Exception {
+       List<SnowflakeOrderNumberGenerator> generators = new ArrayList<>();
+       generators.add(new SnowflakeOrderNumberGenerator(1));
+       generators.add(new SnowflakeOrderNumberGenerator(2));
+       ExecutorService executor = Executors.newFixedThreadPool(8);
+       try {
+           List<Future<List<String>>> results = new ArrayList<>();
+           for (int t = 0; t < 8; t++) {
+               SnowflakeOrderNumberGenerator generator = generators.get(t % 2);
+               results.add(executor.submit(() -> {
+                   List<String> orderNos = new ArrayList<>(50_000);
+                   for (int i = 0; i < 50_000; i++) {
+                       orderNos.add(generator.next());
+                   }
+                   return orderNos;
+               }));
+           }
+           Set<String> all = new HashSet<>();
+           for (Future<List<String>> result : results) {
+               all.addAll(result.get());
+           }
+           assertEquals(400_000, all.size());
+       } finally {
+           executor.shutdown();
+       }
+   }
+   @Test
+   public void testOrderedWhenClockOverflowsOrGoesBack() {
+       AtomicLong now = new AtomicLong(SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1000);
+       SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, now::get);
+       String previous = generator.next();
+       // 同一毫秒超過 4096 個，再讓時鐘倒退
+       for (int i = 0; i < 10_000; i++) {
+           if (i == 5_000) {
+               now.addAndGet(-500);
+           }
+           String orderNo = generator.next();
+           assertTrue("字串排序必須與產生順序一致", orderNo.compareTo(previous) > 0);
+           previous = orderNo;
+       }
+       long id = SnowflakeOrderNumberGenerator.decode(previous);
+       assertEquals(7, SnowflakeOrderNumberGenerator.nodeIdOf(id));
+       assertTrue(SnowflakeOrderNumberGenerator.timestampOf(id) > SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1000);
+   }
+   @Test
+   public void testWaitsWhenTooFarAhead() throws Exception {
+       long start = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1000;
+       AtomicLong now = new AtomicLong(start);
+       SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, 2, now::get);
+       // 時鐘不動時最多借用到 start + 2，之後的一個必須等時鐘前進
+       ExecutorService executor = Executors.newSingleThreadExecutor();
+       try {
+           Future<Long> last = executor.submit(() -> {
+               long id = 0;
+               for (int i = 0; i < 3 * 4096 + 1; i++) {
+                   id = generator.nextId();
+               }
+               return id;
+           });
+           try {
+               last.get(200, TimeUnit.MILLISECONDS);
+               fail("領先時鐘超過上限時必須等待");
+           } catch (TimeoutException expected) {
+           }
+           now.incrementAndGet();
+           assertEquals(start + 3, SnowflakeOrderNumberGenerator.timestampOf(last.get(5, TimeUnit.SECONDS)));
+       } finally {
+           executor.shutdownNow();
+       }
+   }
+   @Test
+   public void testDecodeRoundTrip() {
+       SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1023);
+       long id = generator.nextId();
+       String orderNo = SnowflakeOrderNumberGenerator.encode(id);
+       assertEquals(13, orderNo.length());
+       assertEquals(id, SnowflakeOrderNumberGenerator.decode(orderNo));
+       assertEquals(id, SnowflakeOrderNumberGenerator.decode(orderNo.toLowerCase().replace('0', 'o')));
+       assertEquals(1023, SnowflakeOrderNumberGenerator.nodeIdOf(id));
+   }
+   @Test(expected = IllegalArgumentException.class)
+   public void testRejectsInvalidNodeId() {
+       new SnowflakeOrderNumberGenerator(1024);
+   }
+   @Test
+   public void testDecodeRejectsIdsBeyond63Bits() {
+       assertEquals(Long.MAX_VALUE, SnowflakeOrderNumberGenerator.decode("7ZZZZZZZZZZZZ"));
+       for (String orderNo : new String[] { "8000000000000", "FZZZZZZZZZZZZ" }) {
+           try {
+               SnowflakeOrderNumberGenerator.decode(orderNo);
+               fail("超過 63 位元的編號應被拒絕: " + orderNo);
+           } catch (IllegalArgumentException expected) {
+               // 超出範圍
+           }
+       }
+   }
+}
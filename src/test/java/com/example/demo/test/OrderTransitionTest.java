@@ -0,0 +1,58 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.example.demo.model.Order;
+import com.example.demo.model.Order.OrderStatus;
+import com.example.demo.model.Order.PaymentMethod;
+import com.example.demo.model.Order.PaymentStatus;
+import com.example.demo.model.Order.Transition;
+public class OrderTransitionTest {
+   @Test
+   public void testPaidOrderLifecycle() {
+       Order order = new Order("0000003X80XRG", null);
+       order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+       assertFalse("未付款不可出貨", order.canApply(Transition.SHIP));
+       order.completePayment();
+       order.apply(Transition.PROCESS);
+       order.markAsShipped();
+       assertFalse("已出貨不可取消", order.canCancel());
+       order.markAsDelivered();
+       order.apply(Transition.REFUND);
+       assertEquals(OrderStatus.REFUNDED, order.getStatus());
+       assertEquals(PaymentStatus.REFUNDED, order.getPaymentStatus());
+   }
+   @Test
+   public void testCashOrderShipsBeforePayment() {
+       Order order = new Order("0000003X80XRH", null);
+       order.setPaymentMethod(PaymentMethod.CASH);
+       order.markAsShipped();
+       assertTrue(order.canApply(Transition.PAY));
+       order.completePayment();
+       assertEquals(PaymentStatus.PAID, order.getPaymentStatus());
+   }
+   @Test
+   public void testCashOrderPaysAfterDelivery() {
+       Order order = new Order("0000003X80XRM", null);
+       order.setPaymentMethod(PaymentMethod.CASH);
+       order.markAsShipped();
+       order.markAsDelivered();
+       assertFalse("未付款不可退款", order.canApply(Transition.REFUND));
+       order.completePayment();
+       assertEquals(PaymentStatus.PAID, order.getPaymentStatus());
+       order.apply(Transition.REFUND);
+       assertEquals(OrderStatus.REFUNDED, order.getStatus());
+   }
+   @Test
+   public void testUnpaidCancelledOrderCannotBeRefunded() {
+       Order order = new Order("0000003X80XRJ", null);
+       order.cancel();
+       assertFalse(order.canApply(Transition.REFUND));
+       assertFalse(order.canApply(Transition.PAY));
+   }
+   @Test(expected = IllegalStateException.class)
+   public void testRejectsIllegalTransition() {
+       new Order("0000003X80XRK", null).markAsDelivered();
+   }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.example.demo.auth.PasswordHasher;
+public class PasswordHasherTest {
+   @Test
+   public void testHashAndMatch() {
+       PasswordHasher hasher = new PasswordHasher(1_000, 2, 1_000);
+       String encoded = hasher.hash("s3cret");
+       assertTrue("應為雜湊格式", encoded.startsWith(PasswordHasher.PREFIX + "1000$"));
+       assertTrue("正確密碼應相符", hasher.matches("s3cret", encoded));
+       assertFalse("錯誤密碼不應相符", hasher.matches("s3cret!", encoded));
+       assertNotEquals("每次雜湊的 salt 應不同", encoded, hasher.hash("s3cret"));
+       assertEquals("應記錄雜湊耗時", 4, hasher.getLatency().getCount());
+   }
+   @Test
+   public void testRehashWhenIterationsChange() {
+       String encoded = new PasswordHasher(1_000, 1, 1_000).hash("s3cret");
+       PasswordHasher stronger = new PasswordHasher(2_000, 1, 1_000);
+       assertTrue("舊雜湊仍以自己的迭代次數驗證", stronger.matches("s3cret", encoded));
+       assertTrue("迭代次數不同應重新雜湊", stronger.needsRehash(encoded));
+       assertFalse(stronger.needsRehash(stronger.hash("s3cret")));
+   }
+   @Test
+   public void testRejectsPlainAndMalformed() {
+       PasswordHasher hasher = new PasswordHasher(1_000, 1, 1_000);
+       assertFalse("明文不應視為雜湊", hasher.isEncoded("s3cret"));
+       assertFalse(hasher.matches("s3cret", "s3cret"));
+       assertFalse(hasher.matches("s3cret", PasswordHasher.PREFIX + "x$$"));
+       assertFalse(hasher.matches("s3cret", null));
+       assertTrue(hasher.needsRehash("s3cret"));
+   }
+   @Test
+   public void testMatchesLegacyPlaintext() {
+       PasswordHasher hasher = new PasswordHasher(1_000, 1, 1_000);
+       assertTrue(hasher.matchesPlain("s3cret", "s3cret"));
+       assertFalse(hasher.matchesPlain("s3cret!", "s3cret"));
+       assertFalse(hasher.matchesPlain("s3cret", null));
+       // 與正常驗證一樣花一次雜湊的時間
+       assertEquals(3, hasher.getLatency().getCount());
+   }
+   @Test
+   public void testSaturatedHashingIsRejected() throws Exception {
+       PasswordHasher hasher = new PasswordHasher(2_000_000, 1, 0);
+       Thread busy = new Thread(() -> hasher.hash("s3cret"));
+       busy.start();
+       // 唯一的名額被佔用期間，其他雜湊應立即被拒絕
+       boolean rejected = false;
+       while (!rejected && busy.isAlive()) {
+           try {
+               Thread.sleep(10);
+               hasher.matchesNothing("other");
+           } catch (IllegalStateException e) {
+               rejected = true;
+           }
+       }
+       busy.join();
+       assertTrue("名額已滿時應拒絕", rejected);
+       assertEquals(1, hasher.getRejected());
+   }
+}
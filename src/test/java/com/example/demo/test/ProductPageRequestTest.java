@@ -0,0 +1,46 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.Test;
+import com.example.demo.dto.InvalidCursorException;
+import com.example.demo.dto.ProductPageRequest;
+import com.example.demo.dto.ProductSort;
+import com.example.demo.model.Product;
+public class ProductPageRequestTest {
+   @Test
+   public void testCursorRoundTrip() {
+       Product product = new Product("測試商品", "book", new BigDecimal("199"));
+       product.setId(42L);
+       product.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+       // 最新排序：游標為 (createdAt, id)
+       String cursor = ProductPageRequest.encodeCursor(ProductSort.NEWEST, product);
+       ProductPageRequest request = new ProductPageRequest(ProductSort.NEWEST, cursor, 10, null, null);
+       assertEquals("游標時間不正確", product.getCreatedAt(), request.getAfterValue());
+       assertEquals("游標 ID 不正確", 42L, request.getAfterId().longValue());
+       // 價格排序：游標為 (price, id)
+       cursor = ProductPageRequest.encodeCursor(ProductSort.PRICE_ASC, product);
+       request = new ProductPageRequest(ProductSort.PRICE_ASC, cursor, 10, null, null);
+       assertEquals("游標價格不正確", new BigDecimal("199"), request.getAfterValue());
+   }
+   @Test
+   public void testFirstPageAndSizeLimit() {
+       ProductPageRequest request = new ProductPageRequest(null, null, 1000, "", null);
+       assertNull("第一頁不應有游標", request.getAfterId());
+       assertNull("空字串類型應視為不篩選", request.getType());
+       assertEquals("每頁筆數應受上限限制", ProductPageRequest.MAX_SIZE, request.getSize());
+   }
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidCursor() {
+       new ProductPageRequest(ProductSort.NEWEST, "not-a-cursor", 10, null, null);
+   }
+   @Test(expected = InvalidCursorException.class)
+   public void testCursorFromOtherSort() {
+       Product product = new Product("測試商品", "book", new BigDecimal("199"));
+       product.setId(42L);
+       product.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+       // 最新排序的游標拿去價格排序：時間無法解析成價格
+       new ProductPageRequest(ProductSort.PRICE_ASC, ProductPageRequest.encodeCursor(ProductSort.NEWEST, product), 10, null, null);
+   }
+}
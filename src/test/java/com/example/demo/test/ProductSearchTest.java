@@ -0,0 +1,74 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.model.Product;
+import com.example.demo.search.ProductInvertedIndex;
+import com.example.demo.search.ProductTokenizer;
+public class ProductSearchTest {
+   private static Product product(long id, String name, String type, String description) {
+       Product product = new Product(name, type, new BigDecimal("100"));
+       product.setId(id);
+       product.setDescription(description);
+       return product;
+   }
+   @Test
+   public void testTokenizer() {
+       // 中文以 bigram 斷詞，英數連續字元為一詞，全形轉半形並轉小寫
+       assertEquals(Arrays.asList("藍牙", "牙耳", "耳機", "pro", "2"), ProductTokenizer.tokenize("藍牙耳機 ＰＲＯ-2"));
+       assertEquals(Arrays.asList("書"), ProductTokenizer.tokenize("書"));
+   }
+   @Test
+   public void testSearchRankingAndUpdates() {
+       ProductInvertedIndex index = new ProductInvertedIndex();
+       index.add(product(1L, "無線藍牙耳機", "3C", "降噪、長續航"));
+       index.add(product(2L, "有線耳機", "3C", "適合搭配藍牙喇叭"));
+       index.add(product(3L, "藍牙喇叭", "3C", null));
+       // 所有詞都要出現；名稱命中的分數高於描述命中
+       List<ProductSearchHit> hits = index.search("藍牙耳機", 10);
+       assertEquals(1, hits.size());
+       assertEquals(1L, hits.get(0).getProductId().longValue());
+       hits = index.search("藍牙", 10);
+       assertEquals(3, hits.size());
+       assertEquals("描述命中應排在最後", 2L, hits.get(2).getProductId().longValue());
+       // 索引中沒有的 bigram（「叭組」）略過，不讓整個查詢落空
+       hits = index.search("藍牙喇叭組", 10);
+       assertEquals(2, hits.size());
+       assertEquals("名稱命中應排在最前", 3L, hits.get(0).getProductId().longValue());
+       // 更新與刪除立即反映在查詢結果
+       index.add(product(2L, "有線耳塞", "3C", null));
+       assertEquals(2, index.search("藍牙", 10).size());
+       index.remove(1L);
+       assertTrue(index.search("耳機", 10).isEmpty());
+       assertEquals(2, index.getDocumentCount());
+   }
+   @Test
+   public void testSuggestByPrefix() {
+       ProductInvertedIndex index = new ProductInvertedIndex();
+       index.add(product(1L, "Keyboard 機械鍵盤", "3C", null));
+       index.add(product(2L, "Keychain 鑰匙圈", "生活", null));
+       index.add(product(3L, "Mouse 滑鼠", "3C", null));
+       assertEquals(2, index.suggest("key", 10).size());
+       assertEquals(Arrays.asList("Keyboard 機械鍵盤"), index.suggest("keyb", 10));
+       // 單一中文字以前綴比對
+       assertEquals(Arrays.asList("Keyboard 機械鍵盤"), index.suggest("機", 10));
+   }
+   @Test
+   public void testPrefixUnionMergesDocuments() {
+       ProductInvertedIndex index = new ProductInvertedIndex();
+       for (long id = 1; id <= 50; id++) {
+           index.add(product(id, "Item tag" + id, "3C", id % 2 == 0 ? "tagged tagline" : null));
+       }
+       index.remove(7L);
+       // 多個展開詞命中同一商品時只回傳一次，分數為各詞加總；已刪除的商品不出現
+       List<String> names = index.suggest("item ta", 100);
+       assertEquals(49, names.size());
+       assertFalse(names.contains("Item tag7"));
+       assertEquals("描述也命中前綴的商品分數較高", 0, Long.parseLong(names.get(0).substring("Item tag".length())) % 2);
+   }
+}
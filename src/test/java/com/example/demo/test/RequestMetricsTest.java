@@ -0,0 +1,65 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.List;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import com.example.demo.auth.PasswordHasher;
+import com.example.demo.controller.MetricsController;
+import com.example.demo.metrics.RequestMetrics;
+import com.example.demo.metrics.RequestMetrics.EndpointStats;
+import com.example.demo.metrics.RequestMetricsInterceptor;
+import com.example.demo.metrics.RequestSample;
+public class RequestMetricsTest {
+   @Test
+   public void testRecordsPerRoute() throws Exception {
+       RequestMetrics metrics = new RequestMetrics();
+       RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(metrics);
+       for (int id = 1; id <= 3; id++) {
+           MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/edit/" + id);
+           request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/edit/{id}");
+           MockHttpServletResponse response = new MockHttpServletResponse();
+           interceptor.preHandle(request, response, null);
+           RequestSample.statementPrepared();
+           RequestSample.statementPrepared();
+           RequestSample.rowsFetched(4);
+           RequestSample.connectionAcquired(3_000);
+           interceptor.afterCompletion(request, response, null, id == 3 ? new IllegalStateException() : null);
+       }
+       MockHttpServletRequest missing = new MockHttpServletRequest("GET", "/nowhere");
+       interceptor.preHandle(missing, new MockHttpServletResponse(), null);
+       interceptor.afterCompletion(missing, new MockHttpServletResponse(), null, null);
+       // 請求結束後的回呼不計入
+       RequestSample.statementPrepared();
+       List<EndpointStats> endpoints = metrics.getEndpoints();
+       assertEquals(2, endpoints.size());
+       EndpointStats edit = endpoints.get(0);
+       assertEquals("/users/edit/{id}", edit.getRoute());
+       assertEquals(3, edit.getRequests());
+       assertEquals(1, edit.getErrors());
+       assertEquals(6, edit.getStatements());
+       assertEquals(12, edit.getRows());
+       assertEquals(9, edit.getConnectionAcquireMicros());
+       assertEquals(RequestMetrics.UNMATCHED_ROUTE, endpoints.get(1).getRoute());
+       assertEquals(0, endpoints.get(1).getStatements());
+       MetricsController controller = new MetricsController();
+       ReflectionTestUtils.setField(controller, "requestMetrics", metrics);
+       ReflectionTestUtils.setField(controller, "passwordHasher", new PasswordHasher(1, 1, 1000));
+       String text = controller.metrics();
+       assertTrue(text.contains("http_request_duration_us_count{method=\"GET\",route=\"/users/edit/{id}\"} 3\n"));
+       assertTrue(text.contains("http_request_sql_statements_total{method=\"GET\",route=\"/users/edit/{id}\"} 6\n"));
+       assertTrue(text.contains("le=\"+Inf\"} 3\n"));
+       // 每個指標只有一組標頭，且出現在所有樣本之前
+       assertTrue(text.startsWith("# HELP http_request_duration_us "));
+       assertTrue(text.contains("# TYPE http_request_duration_us histogram\n"));
+       assertTrue(text.contains("# TYPE http_request_errors_total counter\n"));
+       assertTrue(text.contains("# TYPE password_hash_iterations gauge\n"));
+       assertEquals(text.indexOf("# TYPE http_request_sql_statements_total"), text.lastIndexOf("# TYPE http_request_sql_statements_total"));
+       assertTrue(text.indexOf("# TYPE http_request_sql_statements_total") < text.indexOf("http_request_sql_statements_total{"));
+       assertFalse(text.contains("_p99"));
+   }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.example.demo.metrics.SqlDetector;
+import com.example.demo.metrics.SqlReport;
+import com.example.demo.metrics.SqlShape;
+import com.example.demo.metrics.SqlTimingListener;
+public class SqlDetectorTest {
+   @Test
+   public void testNormalize() {
+       assertEquals("select p.id from products p where p.id=? and p.name=?",
+               SqlShape.normalize("select p.id from products p\n   where p.id=42 and p.name='O''Neil'"));
+       assertEquals("select * from cart_items where cart_id in (?) and product0_=?",
+               SqlShape.normalize("select * from cart_items where cart_id in (?, ?, ?) and product0_=?"));
+       assertEquals(SqlShape.normalize("delete from carts where id in (1,2,3)"),
+               SqlShape.normalize("delete from carts where id in (7)"));
+   }
+   @Test
+   public void testDetectsRepeatedShape() {
+       SqlDetector detector = new SqlDetector(true, 10, 10_000, false);
+       SqlReport report = detector.capture("test", () -> {
+           detector.inspect("select o.id from orders o where o.customer_id=?");
+           for (int i = 0; i < 12; i++) {
+               detector.inspect("select p.name from products p where p.id=" + i);
+           }
+           return null;
+       });
+       assertEquals(13, report.getStatements());
+       assertEquals(1, report.getRepeatedShapes().size());
+       assertEquals(12, report.getRepeatedShapes().get(0).getCount());
+       assertEquals("select p.name from products p where p.id=?", report.getRepeatedShapes().get(0).getShape());
+       assertTrue(report.hasViolations());
+       // 記錄結束後的語句不再計入
+       detector.inspect("select 1");
+       assertNull(detector.end());
+   }
+   @Test
+   public void testDetectsSlowStatement() {
+       SqlDetector detector = new SqlDetector(true, 10, 0, false);
+       SqlTimingListener listener = new SqlTimingListener();
+       SqlReport report = detector.capture("test", () -> {
+           detector.inspect("select count(*) from orders");
+           listener.jdbcExecuteStatementStart();
+           listener.jdbcExecuteStatementEnd();
+           return null;
+       });
+       assertEquals(1, report.getSlowStatements().size());
+       assertEquals("select count(*) from orders", report.getSlowStatements().get(0).getSql());
+   }
+   @Test
+   public void testWithinThresholds() {
+       SqlDetector detector = new SqlDetector(true, 10, 10_000, true);
+       SqlReport report = detector.capture("test", () -> {
+           for (int i = 0; i < 9; i++) {
+               detector.inspect("select p.name from products p where p.id=" + i);
+           }
+           return null;
+       });
+       assertFalse(report.hasViolations());
+   }
+   @Test(expected = IllegalStateException.class)
+   public void testFailOnViolation() {
+       SqlDetector detector = new SqlDetector(true, 3, 10_000, true);
+       detector.capture("test", () -> {
+           for (int i = 0; i < 3; i++) {
+               detector.inspect("select p.name from products p where p.id=" + i);
+           }
+           return null;
+       });
+   }
+}
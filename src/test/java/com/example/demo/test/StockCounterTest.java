@@ -0,0 +1,53 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import com.example.demo.inventory.StockCounter;
+public class StockCounterTest {
+   @Test
+   public void testNoOversellUnderContention() throws Exception {
+       StockCounter counter = new StockCounter(16, 10_000);
+       ExecutorService executor = Executors.newFixedThreadPool(8);
+       try {
+           List<Future<Integer>> results = new ArrayList<>();
+           for (int t = 0; t < 8; t++) {
+               results.add(executor.submit(() -> {
+                   int acquired = 0;
+                   while (counter.tryAcquire(1 + acquired % 3)) {
+                       acquired += 1 + acquired % 3;
+                   }
+                   return acquired;
+               }));
+           }
+           int total = 0;
+           for (Future<Integer> result : results) {
+               total += result.get();
+           }
+           // 同時扣減不可超賣，剩下的數量不足以滿足任何一次扣減
+           assertTrue("不可超賣", total <= 10_000);
+           assertEquals(10_000, total + counter.available());
+           assertTrue("剩餘數量過多", counter.available() < 3);
+       } finally {
+           executor.shutdown();
+       }
+   }
+   @Test
+   public void testAcquireAcrossShards() {
+       StockCounter counter = new StockCounter(4, 10);
+       assertEquals(4, counter.getShards());
+       // 每個分片只有 2~3 個，要從多個分片湊齊
+       assertTrue(counter.tryAcquire(10));
+       assertFalse(counter.tryAcquire(1));
+       counter.release(3);
+       assertFalse("數量不足時不可部分扣減", counter.tryAcquire(4));
+       assertEquals(3, counter.available());
+       assertEquals(3, counter.withdrawUpTo(5));
+       assertEquals(0, counter.available());
+   }
+}
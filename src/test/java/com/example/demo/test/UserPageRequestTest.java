@@ -0,0 +1,44 @@
+package com.example.demo.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.time.LocalDateTime;
+import org.junit.Test;
+import com.example.demo.dto.UserPageRequest;
+import com.example.demo.dto.UserSort;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.model.UserRole;
+public class UserPageRequestTest {
+   @Test
+   public void testCursorRoundTrip() {
+       UserSummary user = new UserSummary(42L, "a|b", "ab@example.com", true, UserRole.USER, LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+       // 最新排序：游標為 (createdAt, id)
+       String cursor = UserPageRequest.encodeCursor(UserSort.NEWEST, user);
+       UserPageRequest request = new UserPageRequest(UserSort.NEWEST, cursor, 10, null, null);
+       assertEquals("游標時間不正確", user.getCreatedAt(), request.getAfterValue());
+       assertEquals("游標 ID 不正確", 42L, request.getAfterId().longValue());
+       // 名稱排序：名稱中含有分隔字元也能還原
+       cursor = UserPageRequest.encodeCursor(UserSort.USERNAME, user);
+       request = new UserPageRequest(UserSort.USERNAME, cursor, 10, null, null);
+       assertEquals("游標名稱不正確", "a|b", request.getAfterValue());
+       assertEquals("游標 ID 不正確", 42L, request.getAfterId().longValue());
+   }
+   @Test
+   public void testPrefixSelectsSort() {
+       UserPageRequest request = new UserPageRequest(UserSort.NEWEST, null, 1000, "  ", " ab@ ");
+       assertNull("空白前綴應視為不篩選", request.getUsernamePrefix());
+       assertEquals("電子郵件前綴應去除空白", "ab@", request.getEmailPrefix());
+       assertEquals("電子郵件篩選應以電子郵件排序", UserSort.EMAIL, request.getSort());
+       assertEquals("每頁筆數應受上限限制", UserPageRequest.MAX_SIZE, request.getSize());
+       request = new UserPageRequest(UserSort.EMAIL, null, null, "adm", "ab@");
+       assertEquals("名稱篩選優先", UserSort.USERNAME, request.getSort());
+   }
+   @Test
+   public void testLikePatternEscapesWildcards() {
+       assertEquals("a!%b!_c!!%", UserPageRequest.toLikePattern("a%b_c!"));
+       assertEquals("user%", UserPageRequest.toLikePattern("user"));
+   }
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidCursor() {
+       new UserPageRequest(UserSort.NEWEST, "not-a-cursor", 10, null, null);
+   }
+}
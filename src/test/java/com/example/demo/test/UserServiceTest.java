@@ -5,15 +5,22 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
+import com.example.demo.config.AppConfig;
 import com.example.demo.config.WebMvcConfig;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
 @RunWith(SpringJUnit4ClassRunner.class)
-@ContextConfiguration(classes = { WebMvcConfig.class }) // 包含 Web MVC 配置
+@ContextHierarchy({
+   @ContextConfiguration(classes = { AppConfig.class }), // 根 context：服務與 DAO
+   @ContextConfiguration(classes = { WebMvcConfig.class }) // 包含 Web MVC 配置
+})
 @WebAppConfiguration // 必須加，告訴 Spring 測試用 WebApplicationContext
+@ActiveProfiles("dev") // 與 web.xml 的預設相同，order.number.nodeId 可以不設定
 public class UserServiceTest {
    @Autowired
    private UserService userService;